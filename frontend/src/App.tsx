@@ -21,16 +21,20 @@ import {
   Upload
 } from "lucide-react";
 import type { FormEvent } from "react";
-import { useCallback, useEffect, useMemo, useState } from "react";
-import { apiRequest } from "./api";
+import { useCallback, useEffect, useMemo, useRef, useState } from "react";
+import { apiRequest, ifMatch, openEventStream, waitForJob } from "./api";
 import type {
   AnalyticsPayload,
   AuditLogEntry,
   BackupItem,
+  DashboardBootstrap,
   DashboardStatus,
   DashboardUpdate,
+  JobInfo,
   MessageState,
-  MessageTone
+  MessageTone,
+  SyncFinishedEvent,
+  UpdateChangeEvent
 } from "./types";
 
 const TOKEN_STORAGE_KEY = "dashboardToken";
@@ -252,6 +256,19 @@ function typeClass(type: string): string {
   return "tag";
 }
 
+// Same order as the server's week listing: added, changed, removed, then by id.
+function typeRank(type: string): number {
+  const t = type.toLowerCase();
+  if (t === "added") return 1;
+  if (t === "changed") return 2;
+  if (t === "removed") return 3;
+  return 99;
+}
+
+function compareUpdates(a: DashboardUpdate, b: DashboardUpdate): number {
+  return typeRank(a.type) - typeRank(b.type) || a.id - b.id;
+}
+
 function download(name: string, content: string, mime: string): void {
   const blob = new Blob([content], { type: mime });
   const url = URL.createObjectURL(blob);
@@ -312,6 +329,7 @@ export function App() {
   const [editType, setEditType] = useState("");
   const [editText, setEditText] = useState("");
   const [editAuthor, setEditAuthor] = useState("Dashboard");
+  const [live, setLive] = useState(false);
 
   const locale = useMemo<Locale>(() => {
     const explicit = langOverride.trim().toLowerCase();
@@ -353,28 +371,107 @@ export function App() {
   const reloadAll = useCallback(async () => {
     setBusyFlag("reload", true);
     try {
-      const [s, c, u, p] = await Promise.all([
-        apiRequest<DashboardStatus>("/api/status", token),
-        apiRequest<Record<string, unknown>>("/api/config", token),
-        apiRequest<DashboardUpdate[]>("/api/updates/current", token),
-        apiRequest<string>("/api/preview/current", token)
-      ]);
-      setStatus(s);
-      setConfigValues(normalizeConfig(c));
-      setUpdates(u);
-      setPreview(p);
-      await Promise.all([loadAudit(), loadAnalytics(), loadBackups()]);
+      const data = await apiRequest<DashboardBootstrap>("/api/dashboard", token);
+      if (data.status) setStatus(data.status);
+      if (data.config) setConfigValues(normalizeConfig(data.config));
+      setUpdates(data.updates ?? []);
+      setPreview(data.preview ?? "");
+      setAuditEntries(data.audit?.entries ?? []);
+      if (data.analytics) setAnalytics(data.analytics);
+      const items = data.backups?.items ?? [];
+      setBackups(items);
+      setSelectedBackup((prev) => prev || (items[0]?.fileName ?? ""));
       setMessage("global", "Dashboard synced.");
     } catch (error) {
       handleError("global", error);
     } finally {
       setBusyFlag("reload", false);
     }
-  }, [handleError, loadAnalytics, loadAudit, loadBackups, setBusyFlag, setMessage, token]);
+  }, [handleError, setBusyFlag, setMessage, token]);
 
   useEffect(() => {
     void reloadAll();
   }, [reloadAll]);
+
+  // The stream handlers read the latest callbacks through a ref so that the connection is only
+  // re-opened when the token changes.
+  const streamContext = useRef({ reloadAll, loadAudit, loadAnalytics, weekStart: "" });
+  streamContext.current = { reloadAll, loadAudit, loadAnalytics, weekStart: status?.weekStart ?? "" };
+  const refreshAfterMutation = useCallback(async () => {
+    if (!live) await reloadAll();
+  }, [live, reloadAll]);
+
+  useEffect(() => {
+    const source = openEventStream(token);
+    const pending = new Map<string, number>();
+    const debounce = (key: string, task: () => Promise<unknown> | void) => {
+      window.clearTimeout(pending.get(key));
+      pending.set(
+        key,
+        window.setTimeout(() => {
+          pending.delete(key);
+          void Promise.resolve(task()).catch(() => undefined);
+        }, 150)
+      );
+    };
+    const refreshPreview = () =>
+      debounce("preview", async () => {
+        setPreview(await apiRequest<string>("/api/preview/current", token));
+      });
+    const onEntry = (message: MessageEvent<string>) => {
+      const event = JSON.parse(message.data) as UpdateChangeEvent;
+      if (event.kind === "replaced") {
+        debounce("reload", () => streamContext.current.reloadAll());
+        return;
+      }
+      debounce("analytics", () => streamContext.current.loadAnalytics());
+      if (event.weekStart !== streamContext.current.weekStart || event.updateId == null) return;
+      const id = event.updateId;
+      setUpdates((prev) => {
+        const rest = prev.filter((entry) => entry.id !== id);
+        if (event.kind === "deleted") return rest;
+        const known = prev.find((entry) => entry.id === id);
+        const patched: DashboardUpdate = {
+          id,
+          weekStart: event.weekStart ?? "",
+          type: event.type ?? known?.type ?? "",
+          content: event.content ?? "",
+          author: event.author ?? "",
+          createdAt: known?.createdAt ?? event.occurredAt,
+          updatedAt: event.occurredAt,
+          version: event.version
+        };
+        return [...rest, patched].sort(compareUpdates);
+      });
+      setStatus((prev) => (prev ? { ...prev, updateCount: prev.updateCount + (event.kind === "created" ? 1 : event.kind === "deleted" ? -1 : 0) } : prev));
+      refreshPreview();
+    };
+
+    source.addEventListener("open", () => setLive(true));
+    source.addEventListener("error", () => setLive(false));
+    for (const kind of ["created", "updated", "deleted", "replaced"]) {
+      source.addEventListener(`entry.${kind}`, onEntry as EventListener);
+    }
+    source.addEventListener("config.changed", ((message: MessageEvent<string>) => {
+      setConfigValues(normalizeConfig(JSON.parse(message.data) as Record<string, unknown>));
+      debounce("status", async () => {
+        const data = await apiRequest<DashboardBootstrap>("/api/dashboard?sections=status,preview", token);
+        if (data.status) setStatus(data.status);
+        if (data.preview != null) setPreview(data.preview);
+      });
+    }) as EventListener);
+    source.addEventListener("sync.finished", ((message: MessageEvent<string>) => {
+      const event = JSON.parse(message.data) as SyncFinishedEvent;
+      setMessage("action", `Sync ${event.weekStart}: ${event.outcome}`, event.outcome === "failed" ? "error" : "info");
+    }) as EventListener);
+    source.addEventListener("audit.appended", () => debounce("audit", () => streamContext.current.loadAudit()));
+
+    return () => {
+      pending.forEach((timeout) => window.clearTimeout(timeout));
+      source.close();
+      setLive(false);
+    };
+  }, [setMessage, token]);
   useEffect(() => {
     if (!toast.visible) return;
     const timeout = window.setTimeout(() => setToast((prev) => ({ ...prev, visible: false })), 2800);
@@ -411,7 +508,7 @@ export function App() {
     setBusyFlag("sync", true);
     try {
       await apiRequest("/api/actions/sync", token, { method: "POST", body: "{}" });
-      await reloadAll();
+      await refreshAfterMutation();
     } catch (error) {
       handleError("action", error);
     } finally {
@@ -435,7 +532,7 @@ export function App() {
     setBusyFlag("config", true);
     try {
       await apiRequest("/api/config", token, { method: "PUT", body: JSON.stringify(configValues) });
-      await reloadAll();
+      await refreshAfterMutation();
       setMessage("config", "Config saved.");
     } catch (error) {
       handleError("config", error);
@@ -452,7 +549,7 @@ export function App() {
         body: JSON.stringify({ type: newType, text: newText, author: newAuthor })
       });
       setNewText("");
-      await reloadAll();
+      await refreshAfterMutation();
     } catch (error) {
       handleError("add", error);
     } finally {
@@ -465,11 +562,13 @@ export function App() {
     if (!Number.isInteger(id) || id <= 0) return;
     setBusyFlag("edit", true);
     try {
+      const known = updates.find((entry) => entry.id === id);
       await apiRequest(`/api/updates/current/${id}`, token, {
         method: "PUT",
+        headers: ifMatch(known?.version),
         body: JSON.stringify({ type: editType, text: editText, author: editAuthor })
       });
-      await reloadAll();
+      await refreshAfterMutation();
     } catch (error) {
       handleError("edit", error);
     } finally {
@@ -499,15 +598,19 @@ export function App() {
       setBusyFlag("exportCsv", false);
     }
   };
+  const showJobProgress = (job: JobInfo) => {
+    setMessage("data", `${job.kind}: ${job.progress.percent}% (${job.progress.done}/${job.progress.total})`);
+  };
   const runImportJson = async () => {
     if (!jsonImportPayload.trim()) return;
     setBusyFlag("importJson", true);
     try {
-      await apiRequest("/api/import/json?replace_data=true&replace_config=false&replace_audit=true", token, {
+      const job = await apiRequest<JobInfo>("/api/import/json?replace_data=true&replace_config=false&replace_audit=true", token, {
         method: "POST",
         body: jsonImportPayload
       });
-      await reloadAll();
+      await waitForJob(job, token, showJobProgress);
+      await refreshAfterMutation();
     } catch (error) {
       handleError("data", error);
     } finally {
@@ -518,8 +621,9 @@ export function App() {
     if (!csvImportPayload.trim()) return;
     setBusyFlag("importCsv", true);
     try {
-      await apiRequest("/api/import/csv", token, { method: "POST", body: csvImportPayload });
-      await reloadAll();
+      const job = await apiRequest<JobInfo>("/api/import/csv", token, { method: "POST", body: csvImportPayload });
+      await waitForJob(job, token, showJobProgress);
+      await refreshAfterMutation();
     } catch (error) {
       handleError("data", error);
     } finally {
@@ -529,7 +633,8 @@ export function App() {
   const createBackup = async () => {
     setBusyFlag("backup", true);
     try {
-      await apiRequest("/api/actions/backup", token, { method: "POST", body: "{}" });
+      const job = await apiRequest<JobInfo>("/api/actions/backup", token, { method: "POST", body: "{}" });
+      await waitForJob(job, token, showJobProgress);
       await loadBackups();
     } catch (error) {
       handleError("data", error);
@@ -541,11 +646,12 @@ export function App() {
     if (!selectedBackup) return;
     setBusyFlag("restore", true);
     try {
-      await apiRequest("/api/actions/restore", token, {
+      const job = await apiRequest<JobInfo>("/api/actions/restore", token, {
         method: "POST",
         body: JSON.stringify({ file: selectedBackup, replaceConfig: false, replaceAudit: true })
       });
-      await reloadAll();
+      await waitForJob(job, token, showJobProgress);
+      await refreshAfterMutation();
     } catch (error) {
       handleError("data", error);
     } finally {
@@ -562,8 +668,9 @@ export function App() {
   const deleteUpdate = async (id: number) => {
     if (!window.confirm(`Delete #${id}?`)) return;
     try {
-      await apiRequest(`/api/updates/current/${id}`, token, { method: "DELETE" });
-      await reloadAll();
+      const known = updates.find((entry) => entry.id === id);
+      await apiRequest(`/api/updates/current/${id}`, token, { method: "DELETE", headers: ifMatch(known?.version) });
+      await refreshAfterMutation();
     } catch (error) {
       handleError("action", error);
     }
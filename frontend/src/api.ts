@@ -1,7 +1,16 @@
+import type { JobInfo } from "./types";
+
 const JSON_HEADERS = {
   "Content-Type": "application/json"
 };
 
+export function ifMatch(version: number | undefined): Record<string, string> {
+  return version == null ? {} : { "If-Match": `"${version}"` };
+}
+
+// Last ETag and body per GET path; the server answers a matching If-None-Match with 304.
+const validatorCache = new Map<string, { etag: string; body: unknown }>();
+
 export async function apiRequest<T>(
   path: string,
   token: string,
@@ -15,15 +24,50 @@ export async function apiRequest<T>(
     headers.set("X-Dashboard-Token", token.trim());
   }
 
-  const response = await fetch(path, { ...options, headers });
+  const method = (options.method ?? "GET").toUpperCase();
+  const cacheKey = `${token.trim()} ${path}`;
+  const cached = method === "GET" ? validatorCache.get(cacheKey) : undefined;
+  if (cached) {
+    headers.set("If-None-Match", cached.etag);
+  }
+
+  const response = await fetch(path, { ...options, headers, cache: "no-store" });
+  if (response.status === 304 && cached) {
+    return cached.body as T;
+  }
   if (!response.ok) {
     const rawText = await response.text();
     throw new Error(`HTTP ${response.status}: ${rawText}`);
   }
 
   const contentType = response.headers.get("Content-Type") ?? "";
-  if (contentType.includes("application/json")) {
-    return (await response.json()) as T;
+  const body = contentType.includes("application/json") ? await response.json() : await response.text();
+  const etag = response.headers.get("ETag");
+  if (method === "GET" && etag) {
+    validatorCache.set(cacheKey, { etag, body });
+  }
+  return body as T;
+}
+
+// EventSource cannot send headers, so the token travels as query parameter. Reconnects resend
+// Last-Event-ID automatically and the server replays the missed entry events.
+export function openEventStream(token: string): EventSource {
+  const safe = token.trim();
+  return new EventSource(safe ? `/api/stream?token=${encodeURIComponent(safe)}` : "/api/stream");
+}
+
+// Bulk actions answer 202 with a job; this polls /api/jobs/{id} until it finished.
+export async function waitForJob(job: JobInfo, token: string, onProgress?: (job: JobInfo) => void): Promise<JobInfo> {
+  let current = job;
+  let delay = 250;
+  while (current.status === "queued" || current.status === "running") {
+    await new Promise((resolve) => window.setTimeout(resolve, delay));
+    delay = Math.min(delay * 2, 2000);
+    current = await apiRequest<JobInfo>(`/api/jobs/${encodeURIComponent(current.id)}`, token);
+    onProgress?.(current);
+  }
+  if (current.status === "failed") {
+    throw new Error(current.errorId ? `${current.error} (${current.errorId})` : current.error ?? "Job failed");
   }
-  return (await response.text()) as T;
+  return current;
 }
@@ -29,6 +29,7 @@ export interface DashboardUpdate {
   author: string;
   createdAt: string;
   updatedAt: string;
+  version: number;
 }
 
 export interface MessageState {
@@ -72,3 +73,48 @@ export interface BackupItem {
   sizeBytes: number;
   lastModifiedAt: string;
 }
+
+export interface UpdateChangeEvent {
+  seq: number;
+  kind: "created" | "updated" | "deleted" | "replaced";
+  updateId: number | null;
+  weekStart: string | null;
+  type: string | null;
+  content: string | null;
+  author: string | null;
+  version: number;
+  occurredAt: string;
+}
+
+export interface SyncFinishedEvent {
+  weekStart: string;
+  outcome: string;
+}
+
+export type DashboardSection = "status" | "config" | "updates" | "preview" | "audit" | "analytics" | "backups";
+
+export interface DashboardBootstrap {
+  status?: DashboardStatus;
+  config?: Record<string, unknown>;
+  updates?: DashboardUpdate[];
+  preview?: string;
+  audit?: { enabled: boolean; entries: AuditLogEntry[] };
+  analytics?: AnalyticsPayload;
+  backups?: { enabled: boolean; items: BackupItem[] };
+}
+
+export interface JobInfo {
+  id: string;
+  kind: string;
+  status: "queued" | "running" | "succeeded" | "failed";
+  actor: string;
+  createdAt: string;
+  startedAt: string | null;
+  finishedAt: string | null;
+  progress: { done: number; total: number; percent: number };
+  elapsedMillis: number;
+  itemsPerSecond: number;
+  result: Record<string, unknown>;
+  error: string | null;
+  errorId: string | null;
+}
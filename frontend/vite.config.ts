@@ -1,22 +1,46 @@
 import { resolve } from "node:path";
+import { brotliCompressSync, constants, gzipSync } from "node:zlib";
 import react from "@vitejs/plugin-react";
-import { defineConfig } from "vite";
+import { defineConfig, type Plugin } from "vite";
+
+// Writes .gz and .br next to every text asset, so the server only has to pick a variant.
+function precompress(): Plugin {
+  return {
+    name: "nebiupdate-precompress",
+    apply: "build",
+    enforce: "post",
+    generateBundle(_options, bundle) {
+      for (const item of Object.values(bundle)) {
+        if (!/\.(js|css|html|svg|json)$/.test(item.fileName)) continue;
+        const source = item.type === "chunk" ? item.code : item.source;
+        const raw = Buffer.from(source);
+        this.emitFile({ type: "asset", fileName: `${item.fileName}.gz`, source: gzipSync(raw, { level: 9 }) });
+        this.emitFile({
+          type: "asset",
+          fileName: `${item.fileName}.br`,
+          source: brotliCompressSync(raw, { params: { [constants.BROTLI_PARAM_QUALITY]: 11 } })
+        });
+      }
+    }
+  };
+}
 
 export default defineConfig({
   base: "/",
-  plugins: [react()],
+  plugins: [react(), precompress()],
   build: {
     outDir: resolve(__dirname, "../src/main/resources/dashboard"),
     emptyOutDir: true,
     rollupOptions: {
       output: {
-        entryFileNames: "assets/dashboard.js",
-        chunkFileNames: "assets/[name].js",
+        // Content-hashed names let the server mark assets as immutable.
+        entryFileNames: "assets/dashboard-[hash].js",
+        chunkFileNames: "assets/[name]-[hash].js",
         assetFileNames: (assetInfo) => {
           if (assetInfo.name?.endsWith(".css")) {
-            return "assets/dashboard.css";
+            return "assets/dashboard-[hash].css";
           }
-          return "assets/[name][extname]";
+          return "assets/[name]-[hash][extname]";
         }
       }
     }
@@ -0,0 +1,86 @@
+package dev.eministar.nebiupdate.bench;
+
+import dev.eministar.nebiupdate.audit.AuditEntry;
+import dev.eministar.nebiupdate.audit.AuditRepository;
+import dev.eministar.nebiupdate.audit.AuditService;
+import dev.eministar.nebiupdate.audit.InMemoryAuditStore;
+import dev.eministar.nebiupdate.config.ConfigService;
+import dev.eministar.nebiupdate.data.Database;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// AuditService.log end to end: detail serialization, append and the trim to audit_max_entries that
+// runs on every call once the log is full.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 5, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+AlwaysPreTouch"})
+@State(Scope.Benchmark)
+public class AuditBenchmark {
+    private static final Map<String, Object> DETAILS = Map.of(
+            "week", "2025-01-06",
+            "type", "changed",
+            "content", "Dashboard Sync Export Backup"
+    );
+
+    @Param({"memory", "sqlite-file"})
+    public String store;
+
+    private Path directory;
+    private Database database;
+    private AuditService auditService;
+
+    @Setup
+    public void setup() {
+        BenchFixtures.quietLogging();
+        AuditRepository auditRepository;
+        if (store.equals("memory")) {
+            auditRepository = new AuditRepository(new InMemoryAuditStore());
+        } else {
+            directory = BenchFixtures.tempDirectory();
+            database = BenchFixtures.openDatabase("sqlite-file", directory);
+            auditRepository = new AuditRepository(database);
+        }
+        ConfigService configService = BenchFixtures.configService();
+        // Start at the cap: filling an empty log makes each trim a little slower than the last, and
+        // the measurement would drift through that ramp instead of the steady state.
+        Instant now = Instant.now();
+        List<AuditEntry> backlog = new ArrayList<>();
+        for (int i = 0; i < configService.get().auditMaxEntries(); i++) {
+            backlog.add(new AuditEntry(0L, now, BenchFixtures.AUTHOR, "bench", "update.edit", "update", "42", "{}"));
+        }
+        auditRepository.appendAll(backlog);
+        auditService = new AuditService(configService, auditRepository);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (database != null) {
+            database.close();
+        }
+        BenchFixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public void log() {
+        auditService.log(BenchFixtures.AUTHOR, "bench", "update.edit", "update", "42", DETAILS);
+    }
+}
@@ -0,0 +1,144 @@
+package dev.eministar.nebiupdate.bench;
+
+import ch.qos.logback.classic.Level;
+import dev.eministar.nebiupdate.config.BotConfig;
+import dev.eministar.nebiupdate.config.ConfigService;
+import dev.eministar.nebiupdate.config.InMemoryConfigStore;
+import dev.eministar.nebiupdate.data.Database;
+import dev.eministar.nebiupdate.data.UpdateDraft;
+import dev.eministar.nebiupdate.data.UpdateEntry;
+import dev.eministar.nebiupdate.data.UpdateType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+// Shared, deterministic test data for the JMH suites. Everything is seeded so that two runs of the
+// same benchmark see identical content and the baseline stays comparable.
+final class BenchFixtures {
+    static final LocalDate FIRST_WEEK = LocalDate.of(2025, 1, 6);
+    static final String AUTHOR = "123456789012345678";
+
+    private static final UpdateType[] TYPES = UpdateType.values();
+    private static final String[] WORDS = {
+            "Dashboard", "Sync", "Discord", "Wochenpost", "Audit", "Export", "Import", "Rollen",
+            "Berechtigung", "Cache", "Zeitplan", "Vorschau", "Fehler", "Embed", "Kanal", "Backup"
+    };
+    private static final AtomicInteger MEMORY_DB_COUNTER = new AtomicInteger();
+
+    private BenchFixtures() {
+    }
+
+    // Hikari and the stores log every pool start at INFO; that would drown the JMH output.
+    static void quietLogging() {
+        Logger root = LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
+        if (root instanceof ch.qos.logback.classic.Logger logback) {
+            logback.setLevel(Level.WARN);
+        }
+    }
+
+    static BotConfig config() {
+        return BotConfig.from(BotConfig.defaultMap());
+    }
+
+    static ConfigService configService() {
+        ConfigService configService = new ConfigService(new InMemoryConfigStore(), values -> {
+        });
+        configService.initialize();
+        return configService;
+    }
+
+    static LocalDate week(int index) {
+        return FIRST_WEEK.plusWeeks(index);
+    }
+
+    static String content(SplittableRandom random) {
+        int words = 4 + random.nextInt(12);
+        StringBuilder builder = new StringBuilder(words * 9);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            builder.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return builder.toString();
+    }
+
+    static List<UpdateEntry> entries(LocalDate weekStart, int count) {
+        SplittableRandom random = new SplittableRandom(count);
+        Instant now = Instant.parse("2025-01-06T12:00:00Z");
+        List<UpdateEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(new UpdateEntry(i + 1, weekStart, TYPES[i % TYPES.length], content(random), AUTHOR, now, now, 1L));
+        }
+        return entries;
+    }
+
+    // Spread over weeks of `perWeek` entries each, like a long-running installation.
+    static List<UpdateDraft> drafts(int count, int perWeek) {
+        SplittableRandom random = new SplittableRandom(count);
+        List<UpdateDraft> drafts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            drafts.add(new UpdateDraft(week(i / perWeek), TYPES[i % TYPES.length], content(random), AUTHOR));
+        }
+        return drafts;
+    }
+
+    static List<UpdateEntry> entriesAcrossWeeks(int count, int perWeek) {
+        Instant now = Instant.parse("2025-01-06T12:00:00Z");
+        List<UpdateDraft> drafts = drafts(count, perWeek);
+        List<UpdateEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < drafts.size(); i++) {
+            UpdateDraft draft = drafts.get(i);
+            entries.add(new UpdateEntry(i + 1, draft.weekStart(), draft.type(), draft.content(), draft.author(), now, now, 1L));
+        }
+        return entries;
+    }
+
+    static Database openDatabase(String backend, Path directory) {
+        Database database = switch (backend) {
+            case "sqlite-file" -> new Database(directory.resolve("bench.db").toString());
+            // Shared cache keeps the in-memory database alive across pooled connections.
+            case "sqlite-memory" -> new Database(
+                    "jdbc:sqlite:file:nebi-bench-" + MEMORY_DB_COUNTER.incrementAndGet() + "?mode=memory&cache=shared",
+                    "",
+                    "",
+                    4
+            );
+            default -> throw new IllegalArgumentException("Unbekanntes Backend: " + backend);
+        };
+        database.initialize();
+        return database;
+    }
+
+    static Path tempDirectory() {
+        try {
+            return Files.createTempDirectory("nebi-bench-");
+        } catch (IOException ex) {
+            throw new IllegalStateException("Temporäres Verzeichnis konnte nicht angelegt werden", ex);
+        }
+    }
+
+    static void deleteRecursively(Path directory) {
+        if (directory == null || !Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("Temporäres Verzeichnis konnte nicht gelöscht werden: " + directory, ex);
+        }
+    }
+}
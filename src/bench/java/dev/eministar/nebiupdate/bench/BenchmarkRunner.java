@@ -0,0 +1,253 @@
+package dev.eministar.nebiupdate.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Entry point of the benchmarks jar: runs the JMH suites, stores the raw JMH JSON under
+// benchmarks/results/ and compares it with the committed benchmarks/baseline.json.
+//
+//   java -jar target/NebiUpdate-benchmarks.jar [--quick] [--save-baseline] [--report-only] [regex]
+public final class BenchmarkRunner {
+    private static final Path BASELINE = Path.of("benchmarks", "baseline.json");
+    private static final Path RESULTS_DIR = Path.of("benchmarks", "results");
+    private static final Path LATEST = RESULTS_DIR.resolve("latest.json");
+    private static final Path REPORT = RESULTS_DIR.resolve("report.md");
+    private static final String PACKAGE_PREFIX = BenchmarkRunner.class.getPackageName() + ".";
+    // Differences below this are treated as noise even when JMH reports a tighter error.
+    private static final double MIN_SIGNIFICANT_CHANGE = 0.05;
+    // Above this relative error a measurement says little; "unverändert" would hide that it is just noise.
+    private static final double MAX_STABLE_ERROR = 0.10;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws IOException, RunnerException {
+        boolean quick = false;
+        boolean saveBaseline = false;
+        boolean reportOnly = false;
+        String include = ".*Benchmark.*";
+        for (String arg : args) {
+            switch (arg) {
+                case "--quick" -> quick = true;
+                case "--save-baseline" -> saveBaseline = true;
+                case "--report-only" -> reportOnly = true;
+                default -> {
+                    if (arg.startsWith("--")) {
+                        System.err.println("Unbekannte Option: " + arg);
+                        System.err.println("Nutzung: [--quick] [--save-baseline] [--report-only] [regex]");
+                        System.exit(2);
+                    }
+                    include = arg;
+                }
+            }
+        }
+
+        Files.createDirectories(RESULTS_DIR);
+        if (!reportOnly) {
+            run(include, quick);
+        }
+        if (!Files.exists(LATEST)) {
+            System.err.println("Keine Ergebnisse unter " + LATEST + " gefunden.");
+            System.exit(1);
+        }
+        if (saveBaseline) {
+            Files.copy(LATEST, BASELINE, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Baseline gespeichert: " + BASELINE);
+            return;
+        }
+        if (!Files.exists(BASELINE)) {
+            System.out.println("Keine Baseline unter " + BASELINE + " - mit --save-baseline anlegen.");
+            return;
+        }
+
+        Comparison comparison = compare(read(BASELINE), read(LATEST));
+        Files.writeString(REPORT, comparison.markdown());
+        System.out.println();
+        System.out.println(comparison.markdown());
+        System.out.println("Bericht geschrieben: " + REPORT);
+    }
+
+    private static void run(String include, boolean quick) throws RunnerException {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(LATEST.toString())
+                .shouldDoGC(true);
+        if (quick) {
+            // Smoke run: enough to catch gross regressions, not to publish numbers.
+            options.forks(1)
+                    .warmupIterations(1)
+                    .warmupTime(TimeValue.seconds(1))
+                    .measurementIterations(2)
+                    .measurementTime(TimeValue.seconds(1))
+                    .param("rows", "10000");
+        }
+        new Runner(options.build()).run();
+    }
+
+    // Keeps JMH's own ordering (numeric params ascending) for the report.
+    private static Map<String, Result> read(Path file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode node : OBJECT_MAPPER.readTree(file.toFile())) {
+            Result result = Result.from(node);
+            results.put(result.key(), result);
+        }
+        return results;
+    }
+
+    static Comparison compare(Map<String, Result> baseline, Map<String, Result> current) {
+        List<Row> rows = new ArrayList<>();
+        for (Result now : current.values()) {
+            Result before = baseline.get(now.key());
+            if (before == null || !before.unit().equals(now.unit())) {
+                rows.add(new Row(now.name(), now.params(), now.mode(), null, now, Double.NaN, "neu"));
+                continue;
+            }
+            double delta = before.score() == 0 ? 0 : (now.score() - before.score()) / before.score();
+            // Throughput: higher is better. Every other JMH mode reports time per operation.
+            double worse = now.higherIsBetter() ? -delta : delta;
+            double noise = before.score() == 0 ? 0 : (errorOf(before) + errorOf(now)) / before.score();
+            double threshold = Math.max(MIN_SIGNIFICANT_CHANGE, noise);
+            String status;
+            if (worse > threshold) {
+                status = "Regression";
+            } else if (worse < -threshold) {
+                status = "Verbesserung";
+            } else if (Math.max(relativeError(before), relativeError(now)) > MAX_STABLE_ERROR) {
+                status = "instabil";
+            } else {
+                status = "unverändert";
+            }
+            rows.add(new Row(now.name(), now.params(), now.mode(), before, now, delta, status));
+        }
+        for (Result before : baseline.values()) {
+            if (!current.containsKey(before.key())) {
+                rows.add(new Row(before.name(), before.params(), before.mode(), before, null, Double.NaN, "nicht gelaufen"));
+            }
+        }
+        return new Comparison(rows);
+    }
+
+    private static double errorOf(Result result) {
+        return Double.isFinite(result.error()) ? result.error() : 0;
+    }
+
+    private static double relativeError(Result result) {
+        return result.score() == 0 ? 0 : errorOf(result) / Math.abs(result.score());
+    }
+
+    record Result(String name, String params, String mode, double score, double error, String unit) {
+        static Result from(JsonNode node) {
+            String benchmark = node.path("benchmark").asText();
+            String name = benchmark.startsWith(PACKAGE_PREFIX) ? benchmark.substring(PACKAGE_PREFIX.length()) : benchmark;
+            Map<String, String> params = new TreeMap<>();
+            JsonNode paramsNode = node.path("params");
+            for (Iterator<Map.Entry<String, JsonNode>> it = paramsNode.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> entry = it.next();
+                params.put(entry.getKey(), entry.getValue().asText());
+            }
+            StringBuilder paramText = new StringBuilder();
+            params.forEach((key, value) -> {
+                if (!paramText.isEmpty()) {
+                    paramText.append(", ");
+                }
+                paramText.append(key).append('=').append(value);
+            });
+            JsonNode metric = node.path("primaryMetric");
+            // JMH writes "NaN" as a string when there are too few iterations for an error estimate.
+            double error = metric.path("scoreError").isNumber() ? metric.path("scoreError").asDouble() : Double.NaN;
+            return new Result(
+                    name,
+                    paramText.toString(),
+                    node.path("mode").asText(),
+                    metric.path("score").asDouble(),
+                    error,
+                    metric.path("scoreUnit").asText()
+            );
+        }
+
+        String key() {
+            return name + "|" + params + "|" + mode;
+        }
+
+        boolean higherIsBetter() {
+            return mode.equals("thrpt");
+        }
+    }
+
+    record Row(String name, String params, String mode, Result baseline, Result current, double delta, String status) {
+    }
+
+    record Comparison(List<Row> rows) {
+        long regressions() {
+            return rows.stream().filter(row -> row.status().equals("Regression")).count();
+        }
+
+        String markdown() {
+            StringBuilder builder = new StringBuilder();
+            builder.append("# Benchmark-Vergleich\n\n");
+            builder.append("Baseline: `").append(BASELINE).append("`, aktueller Lauf: `").append(LATEST).append("`\n\n");
+            builder.append("| Benchmark | Parameter | Modus | Baseline | Aktuell | Änderung | Status |\n");
+            builder.append("|---|---|---|---:|---:|---:|---|\n");
+            for (Row row : rows) {
+                builder.append("| ").append(row.name())
+                        .append(" | ").append(row.params().isEmpty() ? "-" : row.params())
+                        .append(" | ").append(row.mode())
+                        .append(" | ").append(format(row.baseline()))
+                        .append(" | ").append(format(row.current()))
+                        .append(" | ").append(Double.isNaN(row.delta()) ? "-" : String.format(Locale.ROOT, "%+.1f %%", row.delta() * 100))
+                        .append(" | ").append(row.status().equals("Regression") ? "**Regression**" : row.status())
+                        .append(" |\n");
+            }
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (Row row : rows) {
+                counts.merge(row.status(), 1L, Long::sum);
+            }
+            builder.append("\n").append(rows.size()).append(" Messungen: ");
+            List<String> parts = new ArrayList<>();
+            counts.forEach((status, count) -> parts.add(count + " " + status));
+            builder.append(String.join(", ", parts)).append(".\n");
+            if (regressions() > 0) {
+                builder.append("\nAls Regression gilt eine Verschlechterung um mehr als ")
+                        .append(Math.round(MIN_SIGNIFICANT_CHANGE * 100))
+                        .append(" % bzw. mehr als der gemeinsame Messfehler.\n");
+            }
+            if (counts.containsKey("instabil")) {
+                builder.append("\n\"instabil\": keine signifikante Änderung, aber Baseline oder aktueller Lauf haben mehr als ")
+                        .append(Math.round(MAX_STABLE_ERROR * 100))
+                        .append(" % relativen Messfehler - mit mehr Forks/Iterationen wiederholen.\n");
+            }
+            return builder.toString();
+        }
+
+        private static String format(Result result) {
+            if (result == null) {
+                return "-";
+            }
+            String score = String.format(Locale.ROOT, "%.3f", result.score());
+            if (Double.isFinite(result.error())) {
+                score += String.format(Locale.ROOT, " ± %.3f", result.error());
+            }
+            return score + " " + result.unit();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package dev.eministar.nebiupdate.bench;
+
+import dev.eministar.nebiupdate.audit.AuditRepository;
+import dev.eministar.nebiupdate.data.Database;
+import dev.eministar.nebiupdate.data.UpdateRepository;
+import dev.eministar.nebiupdate.transfer.DataPortService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Whole-dataset export and import. The import needs a fresh database per iteration and is measured as a
+// single shot. The export runs against a database seeded once per trial; a single 10k-row shot is too short
+// to time reliably, so it uses timed iterations (at 1M rows that is still one call per iteration).
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 5, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "-XX:+AlwaysPreTouch"})
+public class DataTransferBenchmark {
+    private static final int ENTRIES_PER_WEEK = 50;
+
+    @State(Scope.Benchmark)
+    public static class ExportState {
+        @Param({"10000", "100000", "1000000"})
+        public int rows;
+
+        Path directory;
+        Database database;
+        DataPortService dataPortService;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            BenchFixtures.quietLogging();
+            directory = BenchFixtures.tempDirectory();
+            database = BenchFixtures.openDatabase("sqlite-file", directory);
+            UpdateRepository updateRepository = new UpdateRepository(database);
+            updateRepository.createAll(BenchFixtures.drafts(rows, ENTRIES_PER_WEEK));
+            dataPortService = new DataPortService(BenchFixtures.configService(), updateRepository, new AuditRepository(database));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            database.close();
+            BenchFixtures.deleteRecursively(directory);
+        }
+    }
+
+    // importCsv still inserts row by row; 1M rows would take far longer than the rest of the suite
+    // together, so the import side stops at 100k until the import path batches its writes.
+    @State(Scope.Benchmark)
+    public static class ImportState {
+        @Param({"10000", "100000"})
+        public int rows;
+
+        String csv;
+        Path directory;
+        Database database;
+        DataPortService dataPortService;
+
+        @Setup(Level.Trial)
+        public void prepareCsv() {
+            BenchFixtures.quietLogging();
+            DataPortService formatter = new DataPortService(BenchFixtures.configService(), null, null);
+            csv = formatter.exportCsv(BenchFixtures.entriesAcrossWeeks(rows, ENTRIES_PER_WEEK));
+        }
+
+        @Setup(Level.Iteration)
+        public void openDatabase() {
+            directory = BenchFixtures.tempDirectory();
+            database = BenchFixtures.openDatabase("sqlite-file", directory);
+            dataPortService = new DataPortService(
+                    BenchFixtures.configService(),
+                    new UpdateRepository(database),
+                    new AuditRepository(database)
+            );
+        }
+
+        @TearDown(Level.Iteration)
+        public void closeDatabase() {
+            database.close();
+            BenchFixtures.deleteRecursively(directory);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 5, time = 2)
+    @Measurement(iterations = 10, time = 2)
+    public String exportJson(ExportState state) {
+        return state.dataPortService.exportJson(false);
+    }
+
+    @Benchmark
+    public DataPortService.ImportResult importCsv(ImportState state) {
+        return state.dataPortService.importCsv(state.csv, BenchFixtures.AUTHOR);
+    }
+}
@@ -0,0 +1,59 @@
+package dev.eministar.nebiupdate.bench;
+
+import dev.eministar.nebiupdate.config.BotConfig;
+import dev.eministar.nebiupdate.data.UpdateEntry;
+import dev.eministar.nebiupdate.discord.WeeklyMessageRenderer;
+import dev.eministar.nebiupdate.time.WeekService;
+import dev.eministar.nebiupdate.time.WeekWindow;
+import net.dv8tion.jda.api.components.MessageTopLevelComponent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Rendering cost per week size: an empty week, a typical one, a busy one and one that has to be
+// split over several containers/messages.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 5, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+AlwaysPreTouch"})
+@State(Scope.Benchmark)
+public class RendererBenchmark {
+    @Param({"0", "10", "50", "200"})
+    public int entries;
+
+    private WeeklyMessageRenderer renderer;
+    private WeekWindow week;
+    private List<UpdateEntry> weekEntries;
+    private BotConfig config;
+
+    @Setup
+    public void setup() {
+        BenchFixtures.quietLogging();
+        renderer = new WeeklyMessageRenderer();
+        week = new WeekService().weekFromStart(BenchFixtures.FIRST_WEEK);
+        weekEntries = BenchFixtures.entries(week.start(), entries);
+        config = BenchFixtures.config();
+    }
+
+    @Benchmark
+    public List<MessageTopLevelComponent> renderWeeklyContainers() {
+        return renderer.renderWeeklyContainers(week, weekEntries, config);
+    }
+
+    @Benchmark
+    public String renderUpdateList() {
+        return renderer.renderUpdateList(week, weekEntries, config);
+    }
+}
@@ -0,0 +1,75 @@
+package dev.eministar.nebiupdate.bench;
+
+import dev.eministar.nebiupdate.data.Database;
+import dev.eministar.nebiupdate.data.UpdateEntry;
+import dev.eministar.nebiupdate.data.UpdateRepository;
+import dev.eministar.nebiupdate.data.UpdateType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// UpdateRepository against a file-backed SQLite database (what production runs) and a shared-cache
+// in-memory one, which isolates the JDBC/mapping cost from fsync and page cache effects.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 5, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+AlwaysPreTouch"})
+@State(Scope.Benchmark)
+public class RepositoryBenchmark {
+    private static final int SEEDED_WEEKS = 52;
+
+    @Param({"sqlite-file", "sqlite-memory"})
+    public String backend;
+
+    @Param({"50"})
+    public int entriesPerWeek;
+
+    private Path directory;
+    private Database database;
+    private UpdateRepository repository;
+    private LocalDate readWeek;
+    private LocalDate writeWeek;
+
+    @Setup
+    public void setup() {
+        BenchFixtures.quietLogging();
+        directory = BenchFixtures.tempDirectory();
+        database = BenchFixtures.openDatabase(backend, directory);
+        repository = new UpdateRepository(database);
+        repository.createAll(BenchFixtures.drafts(SEEDED_WEEKS * entriesPerWeek, entriesPerWeek));
+        readWeek = BenchFixtures.week(SEEDED_WEEKS / 2);
+        // Writes go to a week of their own so findByWeek keeps reading a stable row count.
+        writeWeek = BenchFixtures.week(SEEDED_WEEKS + 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+        BenchFixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public List<UpdateEntry> findByWeek() {
+        return repository.findByWeek(readWeek);
+    }
+
+    @Benchmark
+    public UpdateEntry create() {
+        return repository.create(writeWeek, UpdateType.CHANGED, "Benchmark-Eintrag", BenchFixtures.AUTHOR);
+    }
+}
@@ -0,0 +1,660 @@
+package dev.eministar.nebiupdate.bench.discord;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.javalin.Javalin;
+import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Local stand-in for Discord's REST API (/api/v10) and gateway (/gateway), good enough for JDA to
+// log in, register commands, receive slash commands and post/edit the weekly message. Every REST
+// call is recorded; latency and 429 rate limits are simulated per the options.
+//
+// Point the bot at it with discord.api_url: http://127.0.0.1:<port>/api/v10 and
+// discord.gateway_url: ws://127.0.0.1:<port>/gateway (any non-empty discord.token works).
+public final class FakeDiscordServer implements AutoCloseable {
+    public static final String GUILD_ID = "1100000000000000001";
+    public static final String CHANNEL_ID = "1100000000000000002";
+    public static final String BOT_USER_ID = "1100000000000000003";
+    public static final String APPLICATION_ID = BOT_USER_ID;
+    public static final String ADMIN_USER_ID = "1100000000000000004";
+    public static final String BOT_ROLE_ID = "1100000000000000005";
+    // VIEW_CHANNEL, SEND_MESSAGES, EMBED_LINKS, READ_MESSAGE_HISTORY: what the invite link grants.
+    private static final String BOT_ROLE_PERMISSIONS = Long.toString((1L << 10) | (1L << 11) | (1L << 14) | (1L << 16));
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FakeDiscordServer.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String API_PREFIX = "/api/v10/";
+    private static final long DISCORD_EPOCH_MILLIS = 1_420_070_400_000L;
+    // Filler guilds exist only to give JDA something to cache; their IDs and user IDs are derived
+    // from these bases.
+    private static final long FILLER_GUILD_BASE = 1_200_000_000_000_000_000L;
+    private static final long FILLER_USER_BASE = 1_300_000_000_000_000_000L;
+    private static final int FILLER_CHANNELS = 25;
+    private static final int FILLER_ROLES = 20;
+    private static final int FILLER_EMOJIS = 40;
+
+    private final Options options;
+    private final RateLimitSimulator rateLimits;
+    private final FakeGateway gateway;
+    private final List<RecordedCall> calls = new CopyOnWriteArrayList<>();
+    private final List<Consumer<RecordedCall>> callListeners = new CopyOnWriteArrayList<>();
+    private final Map<String, Map<String, Object>> messages = new ConcurrentHashMap<>();
+    private final Map<String, String> commandIds = new ConcurrentHashMap<>();
+    private final AtomicLong snowflakes = new AtomicLong();
+    private Javalin app;
+
+    public FakeDiscordServer(Options options) {
+        this.options = options;
+        this.rateLimits = new RateLimitSimulator(options.rateLimit(), options.rateWindowMillis(), options.random429Rate());
+        this.gateway = new FakeGateway(this);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 18_990;
+        try (FakeDiscordServer server = new FakeDiscordServer(Options.defaults(port))) {
+            server.start();
+            server.addCallListener(call -> System.out.println(call.status() + " " + call.routeKey()));
+            System.out.println("Fake-Discord läuft. In der config.yml des Bots eintragen:");
+            System.out.println("  discord.token: fake");
+            System.out.println("  discord.api_url: " + server.restBaseUrl());
+            System.out.println("  discord.gateway_url: " + server.gatewayUrl());
+            System.out.println("  discord.guild_id: " + GUILD_ID);
+            System.out.println("  discord.channel_id: " + CHANNEL_ID);
+            System.out.println("Beenden mit Enter.");
+            System.in.read();
+        }
+    }
+
+    public void start() {
+        app = Javalin.create(config -> {
+            config.startup.showJavalinBanner = false;
+            for (HandlerType type : List.of(HandlerType.GET, HandlerType.POST, HandlerType.PUT, HandlerType.PATCH, HandlerType.DELETE)) {
+                config.routes.addHttpHandler(type, API_PREFIX + "<path>", this::handle);
+            }
+            config.routes.ws("/gateway", gateway::configure);
+        });
+        app.start("127.0.0.1", options.port());
+        LOGGER.info("Fake Discord listening on {}", restBaseUrl());
+    }
+
+    public int port() {
+        return app.port();
+    }
+
+    public String restBaseUrl() {
+        return "http://127.0.0.1:" + port() + "/api/v10";
+    }
+
+    public String gatewayUrl() {
+        return "ws://127.0.0.1:" + port() + "/gateway";
+    }
+
+    public boolean awaitReady(long timeout, TimeUnit unit) throws InterruptedException {
+        return gateway.awaitReady(timeout, unit);
+    }
+
+    public List<RecordedCall> calls() {
+        return List.copyOf(calls);
+    }
+
+    public void addCallListener(Consumer<RecordedCall> listener) {
+        callListeners.add(listener);
+    }
+
+    public long lastCallNanos() {
+        return calls.isEmpty() ? 0 : calls.getLast().respondedNanos();
+    }
+
+    // Sends "/update <subcommand>" as if the admin user typed it; returns the interaction token the
+    // bot's answer will be posted under, or null when no bot is connected.
+    public String sendSlashCommand(String subcommand, Map<String, Object> options) {
+        String interactionId = nextSnowflake();
+        String token = "fake-interaction-" + interactionId;
+        List<Map<String, Object>> optionList = new ArrayList<>();
+        options.forEach((name, value) -> {
+            Map<String, Object> option = new LinkedHashMap<>();
+            option.put("name", name);
+            option.put("type", value instanceof Number ? 4 : 3);
+            option.put("value", value);
+            optionList.add(option);
+        });
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("id", commandIds.getOrDefault("update", nextSnowflake()));
+        data.put("name", "update");
+        data.put("type", 1);
+        data.put("guild_id", GUILD_ID);
+        data.put("options", List.of(Map.of("name", subcommand, "type", 1, "options", optionList)));
+
+        Map<String, Object> interaction = new LinkedHashMap<>();
+        interaction.put("id", interactionId);
+        interaction.put("application_id", APPLICATION_ID);
+        interaction.put("type", 2);
+        interaction.put("token", token);
+        interaction.put("version", 1);
+        interaction.put("guild_id", GUILD_ID);
+        // JDA resolves the cached guild through this partial object, not through guild_id.
+        interaction.put("guild", Map.of("id", GUILD_ID, "locale", "de", "features", List.of()));
+        interaction.put("channel_id", CHANNEL_ID);
+        interaction.put("channel", channel());
+        interaction.put("member", member(adminUser(), List.of()));
+        interaction.put("app_permissions", "2251799813685247");
+        interaction.put("locale", "de");
+        interaction.put("guild_locale", "de");
+        interaction.put("entitlements", List.of());
+        interaction.put("authorizing_integration_owners", Map.of("0", GUILD_ID));
+        interaction.put("context", 0);
+        interaction.put("data", data);
+        return gateway.dispatch("INTERACTION_CREATE", interaction) > 0 ? token : null;
+    }
+
+    private void handle(Context ctx) throws Exception {
+        long received = System.nanoTime();
+        String method = ctx.method().name();
+        String path = ctx.pathParam("path");
+        String body = ctx.body();
+        String[] segments = path.split("/");
+        String route = routeTemplate(segments);
+
+        long delay = options.latencyMillis();
+        if (options.jitterMillis() > 0) {
+            delay += ThreadLocalRandom.current().nextLong(options.jitterMillis() + 1);
+        }
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+
+        int status;
+        RateLimitSimulator.Decision decision = route.endsWith("/callback")
+                ? RateLimitSimulator.Decision.unlimited()
+                : rateLimits.acquire(method + " " + route + " " + majorParameter(segments));
+        if (decision.limited()) {
+            ctx.header("X-RateLimit-Limit", Integer.toString(decision.limit()));
+            ctx.header("X-RateLimit-Remaining", Integer.toString(decision.remaining()));
+            ctx.header("X-RateLimit-Reset", String.format(Locale.ROOT, "%.3f", decision.resetAtMillis() / 1000.0));
+            ctx.header("X-RateLimit-Reset-After", String.format(Locale.ROOT, "%.3f", decision.resetAfterMillis() / 1000.0));
+            ctx.header("X-RateLimit-Bucket", decision.bucket());
+        }
+        if (!decision.allowed()) {
+            status = 429;
+            double retryAfter = decision.resetAfterMillis() / 1000.0;
+            ctx.header("Retry-After", Long.toString((long) Math.ceil(retryAfter)));
+            ctx.header("X-RateLimit-Scope", "user");
+            ctx.status(status).json(Map.of("message", "You are being rate limited.", "retry_after", retryAfter, "global", false));
+        } else {
+            status = respond(ctx, method, segments, body);
+        }
+
+        RecordedCall call = new RecordedCall(method, route, path, body, status, received, System.nanoTime());
+        calls.add(call);
+        for (Consumer<RecordedCall> listener : callListeners) {
+            listener.accept(call);
+        }
+    }
+
+    private int respond(Context ctx, String method, String[] s, String body) throws Exception {
+        // Command registration sends an array; everything else an object or nothing.
+        Map<String, Object> request = body == null || !body.trim().startsWith("{") ? Map.of() : OBJECT_MAPPER.readValue(body, Map.class);
+        String first = s[0];
+        if (method.equals("GET") && first.equals("users") && s.length == 2) {
+            return ok(ctx, botUser());
+        }
+        if (method.equals("GET") && first.equals("gateway")) {
+            Map<String, Object> gatewayInfo = new LinkedHashMap<>();
+            gatewayInfo.put("url", gatewayUrl());
+            gatewayInfo.put("shards", 1);
+            gatewayInfo.put("session_start_limit", Map.of("total", 1000, "remaining", 1000, "reset_after", 0, "max_concurrency", 1));
+            return ok(ctx, gatewayInfo);
+        }
+        if (method.equals("GET") && (first.equals("applications") || first.equals("oauth2")) && path(s).endsWith("@me")) {
+            return ok(ctx, application());
+        }
+        if (first.equals("applications") && s[s.length - 1].equals("commands")) {
+            return method.equals("PUT") ? ok(ctx, registerCommands(body)) : ok(ctx, List.of());
+        }
+        if (first.equals("channels") && s.length >= 3 && s[2].equals("messages")) {
+            return channelMessage(ctx, method, s, request);
+        }
+        if (first.equals("interactions") && s.length == 4 && s[3].equals("callback")) {
+            if ("true".equals(ctx.queryParam("with_response"))) {
+                Map<String, Object> interaction = new LinkedHashMap<>();
+                interaction.put("id", s[1]);
+                interaction.put("type", 2);
+                Map<String, Object> resource = new LinkedHashMap<>();
+                resource.put("type", request.getOrDefault("type", 5));
+                return ok(ctx, Map.of("interaction", interaction, "resource", resource));
+            }
+            ctx.status(204);
+            return 204;
+        }
+        if (first.equals("webhooks") && s.length >= 3) {
+            // Follow-ups (POST) and edits of the original response (PATCH .../messages/@original).
+            if (method.equals("DELETE")) {
+                ctx.status(204);
+                return 204;
+            }
+            String messageId = s.length >= 5 ? s[4] : nextSnowflake();
+            Map<String, Object> message = message(messageId.equals("@original") ? nextSnowflake() : messageId, CHANNEL_ID, request);
+            message.put("webhook_id", APPLICATION_ID);
+            return ok(ctx, message);
+        }
+        LOGGER.warn("Fake Discord has no answer for {} {}", method, path(s));
+        ctx.status(404).json(Map.of("message", "404: Not Found", "code", 0));
+        return 404;
+    }
+
+    private int channelMessage(Context ctx, String method, String[] s, Map<String, Object> request) {
+        String channelId = s[1];
+        if (s.length == 3) {
+            if (!method.equals("POST")) {
+                return ok(ctx, List.of());
+            }
+            Map<String, Object> message = message(nextSnowflake(), channelId, request);
+            messages.put((String) message.get("id"), message);
+            return ok(ctx, message);
+        }
+        String messageId = s[3];
+        Map<String, Object> stored = messages.get(messageId);
+        if (stored == null) {
+            ctx.status(404).json(Map.of("message", "Unknown Message", "code", 10008));
+            return 404;
+        }
+        switch (method) {
+            case "GET" -> {
+                return ok(ctx, stored);
+            }
+            case "PATCH" -> {
+                Map<String, Object> edited = new LinkedHashMap<>(stored);
+                for (String key : List.of("content", "embeds", "components", "flags")) {
+                    if (request.containsKey(key)) {
+                        edited.put(key, request.get(key));
+                    }
+                }
+                edited.put("edited_timestamp", Instant.now().toString());
+                messages.put(messageId, edited);
+                return ok(ctx, edited);
+            }
+            case "DELETE" -> {
+                messages.remove(messageId);
+                ctx.status(204);
+                return 204;
+            }
+            default -> {
+                ctx.status(405);
+                return 405;
+            }
+        }
+    }
+
+    private List<Map<String, Object>> registerCommands(String body) throws Exception {
+        List<Map<String, Object>> requested = OBJECT_MAPPER.readValue(body, List.class);
+        List<Map<String, Object>> registered = new ArrayList<>(requested.size());
+        for (Map<String, Object> command : requested) {
+            Map<String, Object> copy = new LinkedHashMap<>(command);
+            String name = String.valueOf(command.get("name"));
+            copy.put("id", commandIds.computeIfAbsent(name, key -> nextSnowflake()));
+            copy.put("application_id", APPLICATION_ID);
+            copy.put("guild_id", GUILD_ID);
+            copy.put("version", nextSnowflake());
+            copy.putIfAbsent("type", 1);
+            copy.putIfAbsent("default_member_permissions", null);
+            registered.add(copy);
+        }
+        return registered;
+    }
+
+    private static int ok(Context ctx, Object payload) {
+        ctx.status(200).json(payload);
+        return 200;
+    }
+
+    // channels/123/messages/456 -> channels/{id}/messages/{id}; interaction tokens -> {token}.
+    static String routeTemplate(String[] segments) {
+        StringBuilder route = new StringBuilder();
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            boolean tokenPosition = i == 2 && (segments[0].equals("webhooks") || segments[0].equals("interactions"));
+            if (i > 0) {
+                route.append('/');
+            }
+            if (tokenPosition) {
+                route.append("{token}");
+            } else if (!segment.isEmpty() && segment.chars().allMatch(Character::isDigit)) {
+                route.append("{id}");
+            } else {
+                route.append(segment);
+            }
+        }
+        return route.toString();
+    }
+
+    private static String majorParameter(String[] segments) {
+        if (segments.length >= 2 && (segments[0].equals("channels") || segments[0].equals("guilds"))) {
+            return segments[1];
+        }
+        if (segments.length >= 3 && segments[0].equals("webhooks")) {
+            return segments[1] + "/" + segments[2];
+        }
+        return "";
+    }
+
+    private static String path(String[] segments) {
+        return String.join("/", segments);
+    }
+
+    // Real snowflakes carry their creation time; JDA derives the 15-minute interaction expiry from it.
+    private String nextSnowflake() {
+        long timestamp = System.currentTimeMillis() - DISCORD_EPOCH_MILLIS;
+        return Long.toString((timestamp << 22) | (snowflakes.incrementAndGet() & 0x3FFFFF));
+    }
+
+    Map<String, Object> readyPayload(int shardId, int shardTotal) {
+        Map<String, Object> ready = new LinkedHashMap<>();
+        ready.put("v", 10);
+        ready.put("user", botUser());
+        List<Map<String, Object>> guilds = new ArrayList<>();
+        for (String guildId : guildIds()) {
+            if (onShard(guildId, shardId, shardTotal)) {
+                guilds.add(Map.of("id", guildId, "unavailable", true));
+            }
+        }
+        ready.put("guilds", guilds);
+        ready.put("shard", List.of(shardId, shardTotal));
+        ready.put("session_id", "fake-session-" + nextSnowflake());
+        ready.put("resume_gateway_url", gatewayUrl());
+        ready.put("application", Map.of("id", APPLICATION_ID, "flags", 0));
+        ready.put("private_channels", List.of());
+        ready.put("relationships", List.of());
+        ready.put("presences", List.of());
+        ready.put("user_settings", Map.of());
+        ready.put("geo_ordered_rtc_regions", List.of());
+        ready.put("_trace", List.of("fake-gateway"));
+        return ready;
+    }
+
+    // One GUILD_CREATE per guild. Like Discord, guilds above the client's large_threshold are sent
+    // without their (offline) members.
+    // Only the guilds of the identifying shard, as Discord does.
+    List<Map<String, Object>> guildPayloads(int largeThreshold, int shardId, int shardTotal) {
+        List<Map<String, Object>> guilds = new ArrayList<>();
+        if (onShard(GUILD_ID, shardId, shardTotal)) {
+            guilds.add(guildPayload());
+        }
+        for (int n = 0; n < options.fillerGuilds(); n++) {
+            if (onShard(fillerGuildId(n), shardId, shardTotal)) {
+                guilds.add(fillerGuildPayload(n, largeThreshold));
+            }
+        }
+        return guilds;
+    }
+
+    private List<String> guildIds() {
+        List<String> ids = new ArrayList<>();
+        ids.add(GUILD_ID);
+        for (int n = 0; n < options.fillerGuilds(); n++) {
+            ids.add(fillerGuildId(n));
+        }
+        return ids;
+    }
+
+    static boolean onShard(String guildId, int shardId, int shardTotal) {
+        return (Long.parseLong(guildId) >> 22) % shardTotal == shardId;
+    }
+
+    // One step in the timestamp part per guild, so filler guilds spread over the shards.
+    private static String fillerGuildId(int n) {
+        return Long.toString(FILLER_GUILD_BASE + ((long) n << 22));
+    }
+
+    private Map<String, Object> fillerGuildPayload(int n, int largeThreshold) {
+        String guildId = fillerGuildId(n);
+        long base = Long.parseLong(guildId);
+        int memberCount = options.fillerMembers() + 1;
+        boolean large = memberCount > largeThreshold;
+
+        Map<String, Object> guild = guildPayload();
+        guild.put("id", guildId);
+        guild.put("name", "Füll-Server " + (n + 1));
+        guild.put("owner_id", BOT_USER_ID);
+        guild.put("large", large);
+        guild.put("member_count", memberCount);
+
+        List<Map<String, Object>> roles = new ArrayList<>();
+        roles.add(role(guildId, "@everyone", "0", 0));
+        for (int r = 1; r <= FILLER_ROLES; r++) {
+            roles.add(role(Long.toString(base + r), "Rolle " + r, "0", r));
+        }
+        guild.put("roles", roles);
+
+        List<Map<String, Object>> channels = new ArrayList<>();
+        for (int c = 0; c < FILLER_CHANNELS; c++) {
+            Map<String, Object> channel = channel();
+            channel.put("id", Long.toString(base + 100 + c));
+            channel.put("guild_id", guildId);
+            channel.put("name", "kanal-" + c);
+            channel.put("position", c);
+            channels.add(channel);
+        }
+        guild.put("channels", channels);
+
+        List<Map<String, Object>> emojis = new ArrayList<>();
+        for (int e = 0; e < FILLER_EMOJIS; e++) {
+            Map<String, Object> emoji = new LinkedHashMap<>();
+            emoji.put("id", Long.toString(base + 200 + e));
+            emoji.put("name", "emoji_" + e);
+            emoji.put("roles", List.of());
+            emoji.put("require_colons", true);
+            emoji.put("managed", false);
+            emoji.put("animated", false);
+            emoji.put("available", true);
+            emojis.add(emoji);
+        }
+        guild.put("emojis", emojis);
+
+        List<Map<String, Object>> members = new ArrayList<>();
+        members.add(member(botUser(), List.of()));
+        if (!large) {
+            for (int m = 0; m < options.fillerMembers(); m++) {
+                long userId = FILLER_USER_BASE + (long) n * 1_000_000L + m;
+                members.add(member(user(Long.toString(userId), "mitglied-" + n + "-" + m), List.of()));
+            }
+        }
+        guild.put("members", members);
+        return guild;
+    }
+
+    Map<String, Object> guildPayload() {
+        Map<String, Object> guild = new LinkedHashMap<>();
+        guild.put("id", GUILD_ID);
+        guild.put("name", "NebiUpdate Lasttest");
+        guild.put("icon", null);
+        // The admin user owns the guild, which gives them every permission the command checks.
+        guild.put("owner_id", ADMIN_USER_ID);
+        guild.put("afk_channel_id", null);
+        guild.put("afk_timeout", 300);
+        guild.put("verification_level", 0);
+        guild.put("default_message_notifications", 0);
+        guild.put("explicit_content_filter", 0);
+        guild.put("roles", List.of(role(GUILD_ID, "@everyone", "0", 0), role(BOT_ROLE_ID, "NebiUpdate", BOT_ROLE_PERMISSIONS, 1)));
+        guild.put("emojis", List.of());
+        guild.put("stickers", List.of());
+        guild.put("features", List.of());
+        guild.put("mfa_level", 0);
+        guild.put("system_channel_id", null);
+        guild.put("system_channel_flags", 0);
+        guild.put("rules_channel_id", null);
+        guild.put("public_updates_channel_id", null);
+        guild.put("safety_alerts_channel_id", null);
+        guild.put("max_members", 500_000);
+        guild.put("vanity_url_code", null);
+        guild.put("description", null);
+        guild.put("banner", null);
+        guild.put("premium_tier", 0);
+        guild.put("premium_subscription_count", 0);
+        guild.put("premium_progress_bar_enabled", false);
+        guild.put("preferred_locale", "de");
+        guild.put("nsfw_level", 0);
+        guild.put("joined_at", "2025-01-01T00:00:00.000000+00:00");
+        guild.put("large", false);
+        guild.put("unavailable", false);
+        guild.put("member_count", 2);
+        guild.put("voice_states", List.of());
+        guild.put("members", List.of(member(botUser(), List.of(BOT_ROLE_ID)), member(adminUser(), List.of())));
+        guild.put("channels", List.of(channel()));
+        guild.put("threads", List.of());
+        guild.put("presences", List.of());
+        guild.put("stage_instances", List.of());
+        guild.put("guild_scheduled_events", List.of());
+        guild.put("soundboard_sounds", List.of());
+        return guild;
+    }
+
+    private static Map<String, Object> channel() {
+        Map<String, Object> channel = new LinkedHashMap<>();
+        channel.put("id", CHANNEL_ID);
+        channel.put("type", 0);
+        channel.put("guild_id", GUILD_ID);
+        channel.put("name", "wochen-updates");
+        channel.put("position", 0);
+        channel.put("permission_overwrites", List.of());
+        channel.put("topic", null);
+        channel.put("nsfw", false);
+        channel.put("last_message_id", null);
+        channel.put("rate_limit_per_user", 0);
+        channel.put("parent_id", null);
+        channel.put("flags", 0);
+        return channel;
+    }
+
+    private static Map<String, Object> role(String id, String name, String permissions, int position) {
+        Map<String, Object> role = new LinkedHashMap<>();
+        role.put("id", id);
+        role.put("name", name);
+        role.put("color", 0);
+        Map<String, Object> colors = new LinkedHashMap<>();
+        colors.put("primary_color", 0);
+        colors.put("secondary_color", null);
+        colors.put("tertiary_color", null);
+        role.put("colors", colors);
+        role.put("hoist", false);
+        role.put("position", position);
+        role.put("permissions", permissions);
+        role.put("managed", false);
+        role.put("mentionable", false);
+        role.put("flags", 0);
+        return role;
+    }
+
+    private static Map<String, Object> member(Map<String, Object> user, List<String> roles) {
+        Map<String, Object> member = new LinkedHashMap<>();
+        member.put("user", user);
+        member.put("nick", null);
+        member.put("avatar", null);
+        member.put("roles", roles);
+        member.put("joined_at", "2025-01-01T00:00:00.000000+00:00");
+        member.put("premium_since", null);
+        member.put("deaf", false);
+        member.put("mute", false);
+        member.put("flags", 0);
+        member.put("pending", false);
+        member.put("permissions", "2251799813685247");
+        return member;
+    }
+
+    private static Map<String, Object> botUser() {
+        Map<String, Object> user = user(BOT_USER_ID, "NebiUpdate");
+        user.put("bot", true);
+        user.put("verified", true);
+        user.put("mfa_enabled", false);
+        return user;
+    }
+
+    private static Map<String, Object> adminUser() {
+        return user(ADMIN_USER_ID, "lasttest-admin");
+    }
+
+    private static Map<String, Object> user(String id, String name) {
+        Map<String, Object> user = new LinkedHashMap<>();
+        user.put("id", id);
+        user.put("username", name);
+        user.put("global_name", name);
+        user.put("discriminator", "0");
+        user.put("avatar", null);
+        user.put("flags", 0);
+        user.put("public_flags", 0);
+        return user;
+    }
+
+    private static Map<String, Object> application() {
+        Map<String, Object> application = new LinkedHashMap<>();
+        application.put("id", APPLICATION_ID);
+        application.put("name", "NebiUpdate");
+        application.put("icon", null);
+        application.put("description", "");
+        application.put("bot_public", false);
+        application.put("bot_require_code_grant", false);
+        application.put("flags", 0);
+        application.put("owner", adminUser());
+        application.put("verify_key", "0");
+        return application;
+    }
+
+    private Map<String, Object> message(String id, String channelId, Map<String, Object> request) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("id", id);
+        message.put("channel_id", channelId);
+        message.put("author", botUser());
+        message.put("content", request.getOrDefault("content", ""));
+        message.put("timestamp", Instant.now().toString());
+        message.put("edited_timestamp", null);
+        message.put("tts", false);
+        message.put("mention_everyone", false);
+        message.put("mentions", List.of());
+        message.put("mention_roles", List.of());
+        message.put("attachments", List.of());
+        message.put("embeds", request.getOrDefault("embeds", List.of()));
+        message.put("components", request.getOrDefault("components", List.of()));
+        message.put("pinned", false);
+        message.put("type", 0);
+        message.put("flags", request.getOrDefault("flags", 0));
+        return message;
+    }
+
+    @Override
+    public void close() {
+        if (app != null) {
+            app.stop();
+        }
+    }
+
+    // rateLimit <= 0 disables the bucket simulation; random429Rate rejects that share of otherwise
+    // allowed requests. fillerGuilds adds guilds with fillerMembers members each next to the test guild.
+    public record Options(
+            int port,
+            long latencyMillis,
+            long jitterMillis,
+            int rateLimit,
+            long rateWindowMillis,
+            double random429Rate,
+            int fillerGuilds,
+            int fillerMembers
+    ) {
+        public static Options defaults(int port) {
+            return new Options(port, 40, 20, 5, 5_000, 0.0, 0, 0);
+        }
+    }
+}
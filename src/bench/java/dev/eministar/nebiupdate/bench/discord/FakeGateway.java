@@ -0,0 +1,149 @@
+package dev.eministar.nebiupdate.bench.discord;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.javalin.websocket.WsConfig;
+import io.javalin.websocket.WsContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+// Minimal Discord gateway: HELLO, IDENTIFY -> READY + GUILD_CREATE, heartbeat ACKs, and dispatches
+// pushed by the harness (INTERACTION_CREATE). Sharded clients only get their shard's guilds. Speaks
+// zlib-stream when the client asks for it, as JDA does by default.
+final class FakeGateway {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FakeGateway.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final int HEARTBEAT_INTERVAL_MILLIS = 41_250;
+
+    private final FakeDiscordServer server;
+    private final Map<String, GatewaySession> sessions = new ConcurrentHashMap<>();
+    private final CountDownLatch ready = new CountDownLatch(1);
+
+    FakeGateway(FakeDiscordServer server) {
+        this.server = server;
+    }
+
+    void configure(WsConfig ws) {
+        ws.onConnect(ctx -> {
+            GatewaySession session = new GatewaySession(ctx, "zlib-stream".equals(ctx.queryParam("compress")));
+            sessions.put(ctx.sessionId(), session);
+            session.send(Map.of("op", 10, "d", Map.of("heartbeat_interval", HEARTBEAT_INTERVAL_MILLIS)));
+        });
+        ws.onMessage(ctx -> {
+            GatewaySession session = sessions.get(ctx.sessionId());
+            if (session != null) {
+                session.receive(OBJECT_MAPPER.readTree(ctx.message()));
+            }
+        });
+        ws.onClose(ctx -> sessions.remove(ctx.sessionId()));
+        ws.onError(ctx -> sessions.remove(ctx.sessionId()));
+    }
+
+    boolean awaitReady(long timeout, TimeUnit unit) throws InterruptedException {
+        return ready.await(timeout, unit);
+    }
+
+    // Sends an event to every identified client whose shard owns the event's guild; returns how many
+    // received it.
+    int dispatch(String type, Map<String, Object> data) {
+        int delivered = 0;
+        Object guildId = data.get("guild_id");
+        for (GatewaySession session : sessions.values()) {
+            boolean owns = guildId == null || FakeDiscordServer.onShard(guildId.toString(), session.shardId, session.shardTotal);
+            if (session.identified && owns && session.dispatch(type, data)) {
+                delivered++;
+            }
+        }
+        return delivered;
+    }
+
+    private final class GatewaySession {
+        private final WsContext ctx;
+        private final Deflater deflater;
+        private volatile boolean identified;
+        private volatile int shardId;
+        private volatile int shardTotal = 1;
+        private int sequence;
+
+        private GatewaySession(WsContext ctx, boolean zlibStream) {
+            this.ctx = ctx;
+            this.deflater = zlibStream ? new Deflater() : null;
+        }
+
+        private void receive(JsonNode payload) {
+            int op = payload.path("op").asInt(-1);
+            switch (op) {
+                case 1 -> send(Map.of("op", 11));
+                case 2 -> {
+                    JsonNode shard = payload.path("d").path("shard");
+                    if (shard.isArray() && shard.size() == 2 && shard.get(1).asInt() > 0) {
+                        shardId = shard.get(0).asInt();
+                        shardTotal = shard.get(1).asInt();
+                    }
+                    dispatch("READY", server.readyPayload(shardId, shardTotal));
+                    int largeThreshold = payload.path("d").path("large_threshold").asInt(50);
+                    for (Map<String, Object> guild : server.guildPayloads(largeThreshold, shardId, shardTotal)) {
+                        dispatch("GUILD_CREATE", guild);
+                    }
+                    identified = true;
+                    ready.countDown();
+                }
+                case 6 -> {
+                    dispatch("RESUMED", Map.of());
+                    identified = true;
+                }
+                // Presence updates, member chunk requests and voice state updates need no answer.
+                default -> {
+                }
+            }
+        }
+
+        private synchronized boolean dispatch(String type, Map<String, Object> data) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("op", 0);
+            payload.put("t", type);
+            payload.put("s", ++sequence);
+            payload.put("d", data);
+            return send(payload);
+        }
+
+        private synchronized boolean send(Map<String, Object> payload) {
+            try {
+                byte[] json = OBJECT_MAPPER.writeValueAsBytes(payload);
+                if (deflater == null) {
+                    ctx.send(new String(json, StandardCharsets.UTF_8));
+                } else {
+                    ctx.send(ByteBuffer.wrap(compress(json)));
+                }
+                return true;
+            } catch (Exception ex) {
+                LOGGER.warn("Gateway send failed: {}", ex.getMessage());
+                return false;
+            }
+        }
+
+        // One shared deflate stream per connection; SYNC_FLUSH ends every message with 00 00 FF FF.
+        private byte[] compress(byte[] json) throws IOException {
+            deflater.setInput(json);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 2 + 16);
+            byte[] buffer = new byte[8192];
+            int written;
+            do {
+                written = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                out.write(buffer, 0, written);
+            } while (written == buffer.length);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package dev.eministar.nebiupdate.bench.discord;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Discord-style per-route buckets: `limit` requests per window per route and major parameter
+// (channel, guild, webhook). Exhausted buckets answer 429 until the window resets; on top of
+// that a fraction of otherwise allowed requests can be rejected to exercise JDA's retry path.
+final class RateLimitSimulator {
+    private static final long INJECTED_RETRY_MILLIS = 250;
+
+    private final int limit;
+    private final long windowMillis;
+    private final double randomRejectRate;
+    private final Map<String, Bucket> buckets = new HashMap<>();
+
+    RateLimitSimulator(int limit, long windowMillis, double randomRejectRate) {
+        this.limit = limit;
+        this.windowMillis = windowMillis;
+        this.randomRejectRate = randomRejectRate;
+    }
+
+    synchronized Decision acquire(String bucketKey) {
+        if (limit <= 0) {
+            return Decision.unlimited();
+        }
+        long now = System.currentTimeMillis();
+        Bucket bucket = buckets.computeIfAbsent(bucketKey, key -> new Bucket(now + windowMillis, limit));
+        if (now >= bucket.resetAtMillis) {
+            bucket.resetAtMillis = now + windowMillis;
+            bucket.remaining = limit;
+        }
+        String hash = Integer.toHexString(bucketKey.hashCode());
+        long resetAfter = bucket.resetAtMillis - now;
+        if (bucket.remaining <= 0) {
+            return new Decision(false, limit, 0, bucket.resetAtMillis, resetAfter, hash);
+        }
+        if (randomRejectRate > 0 && ThreadLocalRandom.current().nextDouble() < randomRejectRate) {
+            return new Decision(false, limit, bucket.remaining, now + INJECTED_RETRY_MILLIS, INJECTED_RETRY_MILLIS, hash);
+        }
+        bucket.remaining--;
+        return new Decision(true, limit, bucket.remaining, bucket.resetAtMillis, resetAfter, hash);
+    }
+
+    private static final class Bucket {
+        private long resetAtMillis;
+        private int remaining;
+
+        private Bucket(long resetAtMillis, int remaining) {
+            this.resetAtMillis = resetAtMillis;
+            this.remaining = remaining;
+        }
+    }
+
+    record Decision(boolean allowed, int limit, int remaining, long resetAtMillis, long resetAfterMillis, String bucket) {
+        static Decision unlimited() {
+            return new Decision(true, 0, 0, 0, 0, "");
+        }
+
+        boolean limited() {
+            return limit > 0;
+        }
+    }
+}
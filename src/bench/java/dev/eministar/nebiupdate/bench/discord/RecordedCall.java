@@ -0,0 +1,21 @@
+package dev.eministar.nebiupdate.bench.discord;
+
+// One REST request as the fake Discord saw it. route is the path with ids and tokens replaced by
+// placeholders (channels/{id}/messages/{id}); times are System.nanoTime() values.
+public record RecordedCall(
+        String method,
+        String route,
+        String path,
+        String requestBody,
+        int status,
+        long receivedNanos,
+        long respondedNanos
+) {
+    public boolean isRateLimited() {
+        return status == 429;
+    }
+
+    public String routeKey() {
+        return method + " " + route;
+    }
+}
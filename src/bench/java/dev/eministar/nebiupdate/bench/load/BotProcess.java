@@ -0,0 +1,86 @@
+package dev.eministar.nebiupdate.bench.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The bot under test, started from the same classpath as the harness in its own JVM and working
+// directory, so config.yml, data/ and logs/ stay out of the repository. Stopping it sends SIGTERM,
+// which runs the regular shutdown hook.
+final class BotProcess implements AutoCloseable {
+    private final Path workDir;
+    private final Process process;
+
+    private BotProcess(Path workDir, Process process) {
+        this.workDir = workDir;
+        this.process = process;
+    }
+
+    static BotProcess start(Path workDir, String configYaml) throws IOException {
+        return start(workDir, configYaml, List.of());
+    }
+
+    static BotProcess start(Path workDir, String configYaml, List<String> jvmArgs) throws IOException {
+        Files.writeString(workDir.resolve("config.yml"), configYaml);
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(jvmArgs);
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"), "dev.eministar.nebiupdate.Main"));
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.directory(workDir.toFile());
+        builder.redirectErrorStream(true);
+        builder.redirectOutput(workDir.resolve("bot.log").toFile());
+        // stdin stays an open pipe: the console loop would otherwise see EOF right away.
+        return new BotProcess(workDir, builder.start());
+    }
+
+    // The dashboard answers before Discord is connected; /ready turns 200 once every startup phase,
+    // including all shards, is done.
+    void awaitReady(int port, Duration timeout) throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/ready"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Bot-Prozess beendet (Exit " + process.exitValue() + "), siehe " + log());
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException ignored) {
+                // Dashboard not listening yet.
+            }
+            Thread.sleep(250);
+        }
+        throw new IllegalStateException("Bot nicht innerhalb von " + timeout.toSeconds() + " s bereit, siehe " + log());
+    }
+
+    long pid() {
+        return process.pid();
+    }
+
+    Path log() {
+        return workDir.resolve("bot.log");
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(20, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            process.waitFor(5, TimeUnit.SECONDS);
+        }
+    }
+}
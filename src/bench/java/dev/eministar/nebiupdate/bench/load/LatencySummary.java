@@ -0,0 +1,39 @@
+package dev.eministar.nebiupdate.bench.load;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+
+// Nearest-rank percentiles over nanosecond samples, reported in milliseconds.
+record LatencySummary(int count, double p50, double p95, double p99, double max) {
+    static LatencySummary of(Collection<Long> nanos) {
+        long[] sorted = nanos.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        if (sorted.length == 0) {
+            return new LatencySummary(0, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+        }
+        return new LatencySummary(
+                sorted.length,
+                millis(percentile(sorted, 50)),
+                millis(percentile(sorted, 95)),
+                millis(percentile(sorted, 99)),
+                millis(sorted[sorted.length - 1])
+        );
+    }
+
+    private static long percentile(long[] sorted, int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    String markdownRow(String label) {
+        if (count == 0) {
+            return "| " + label + " | 0 | - | - | - | - |";
+        }
+        return String.format(Locale.ROOT, "| %s | %d | %.1f | %.1f | %.1f | %.1f |", label, count, p50, p95, p99, max);
+    }
+}
@@ -0,0 +1,451 @@
+package dev.eministar.nebiupdate.bench.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.eministar.nebiupdate.bench.discord.FakeDiscordServer;
+import dev.eministar.nebiupdate.bench.discord.RecordedCall;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// End-to-end load test: starts the fake Discord, starts the bot against it in a separate JVM,
+// then fires bursts of "/update edit" interactions and dashboard edits. Every mutation carries a
+// unique marker, so the harness can tell when the weekly message first shows it (sync lag).
+//
+//   java -cp target/NebiUpdate-benchmarks.jar dev.eministar.nebiupdate.bench.load.LoadHarness \
+//       [--interactions=200] [--mutations=200] [--burst=20] [--pause-ms=500] [--latency-ms=40]
+//       [--jitter-ms=20] [--rate-limit=5] [--rate-window-ms=5000] [--random-429=0] [--shards=0] [--keep]
+public final class LoadHarness {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String DASHBOARD_TOKEN = "lasttest";
+    private static final Path REPORT = Path.of("benchmarks", "results", "load-report.md");
+    private static final Duration PHASE_TIMEOUT = Duration.ofSeconds(120);
+
+    private final Settings settings;
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final Map<String, Long> pendingTokens = new ConcurrentHashMap<>();
+    private final Map<String, Long> answeredTokens = new ConcurrentHashMap<>();
+    private final Map<String, Long> pendingMarkers = new ConcurrentHashMap<>();
+    private final Map<String, Long> visibleMarkers = new ConcurrentHashMap<>();
+    private FakeDiscordServer discord;
+    private int dashboardPort;
+
+    private LoadHarness(Settings settings) {
+        this.settings = settings;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.parse(args);
+        String report = new LoadHarness(settings).run();
+        Files.createDirectories(REPORT.getParent());
+        Files.writeString(REPORT, report);
+        System.out.println();
+        System.out.println(report);
+        System.out.println("Bericht geschrieben: " + REPORT);
+        // JDA-free, but Javalin and the HTTP client keep non-daemon threads around.
+        System.exit(0);
+    }
+
+    private String run() throws Exception {
+        Path workDir = Files.createTempDirectory("nebi-load-");
+        discord = new FakeDiscordServer(settings.discord());
+        discord.start();
+        dashboardPort = freePort();
+        BotProcess bot = BotProcess.start(workDir, configYaml());
+        try {
+            bot.awaitReady(dashboardPort, Duration.ofSeconds(90));
+            if (!discord.awaitReady(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Bot hat sich nicht am Fake-Gateway angemeldet, siehe " + bot.log());
+            }
+            discord.addCallListener(this::onCall);
+
+            List<Long> ids = seed(settings.pool() * 2);
+            awaitSettled(List.of(), List.of());
+            Phase slash = runSlashPhase(ids.subList(0, settings.pool()));
+            Phase dashboard = runDashboardPhase(ids.subList(settings.pool(), ids.size()));
+            return report(slash, dashboard);
+        } catch (Exception ex) {
+            System.err.println("Lasttest abgebrochen, Bot-Log: " + bot.log());
+            settings.keepWorkDir(true);
+            throw ex;
+        } finally {
+            bot.close();
+            discord.close();
+            if (settings.keep()) {
+                System.out.println("Arbeitsverzeichnis: " + workDir);
+            } else {
+                deleteRecursively(workDir);
+            }
+        }
+    }
+
+    private void onCall(RecordedCall call) {
+        if (call.status() >= 300) {
+            return;
+        }
+        if (call.method().equals("POST") && call.route().equals("webhooks/{id}/{token}")) {
+            String token = call.path().split("/")[2];
+            if (pendingTokens.containsKey(token)) {
+                answeredTokens.putIfAbsent(token, call.respondedNanos());
+            }
+            return;
+        }
+        boolean weeklyWrite = call.route().startsWith("channels/{id}/messages")
+                && (call.method().equals("POST") || call.method().equals("PATCH"));
+        if (weeklyWrite && call.requestBody() != null) {
+            for (String marker : pendingMarkers.keySet()) {
+                if (!visibleMarkers.containsKey(marker) && call.requestBody().contains(marker)) {
+                    visibleMarkers.putIfAbsent(marker, call.respondedNanos());
+                }
+            }
+        }
+    }
+
+    private List<Long> seed(int count) throws Exception {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            HttpResponse<String> response = dashboard("POST", "/api/updates/current",
+                    Map.of("type", "changed", "text", "Lasttest Eintrag " + (i + 1)));
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Anlegen fehlgeschlagen: HTTP " + response.statusCode() + " " + response.body());
+            }
+            ids.add(OBJECT_MAPPER.readTree(response.body()).path("id").asLong());
+        }
+        return ids;
+    }
+
+    private Phase runSlashPhase(List<Long> ids) throws Exception {
+        Phase phase = new Phase("Slash-Commands (/update edit)", settings.interactions());
+        double syncsBefore = scrapeSyncs();
+        long startNanos = System.nanoTime();
+        List<String> markers = new ArrayList<>();
+        for (int n = 0; n < settings.interactions(); n++) {
+            String marker = "LT-i-" + n;
+            Map<String, Object> options = new LinkedHashMap<>();
+            options.put("id", ids.get(n % ids.size()));
+            options.put("text", "Lasttest " + marker);
+            long sent = System.nanoTime();
+            pendingMarkers.put(marker, sent);
+            String token = discord.sendSlashCommand("edit", options);
+            if (token == null) {
+                throw new IllegalStateException("Kein Bot am Fake-Gateway verbunden");
+            }
+            pendingTokens.put(token, sent);
+            phase.tokens.add(token);
+            markers.add(marker);
+            pauseAfterBurst(n);
+        }
+        awaitSettled(markers, phase.tokens);
+        phase.finish(startNanos, scrapeSyncs() - syncsBefore, markers);
+        for (String token : phase.tokens) {
+            Long answered = answeredTokens.get(token);
+            if (answered != null) {
+                phase.responses.add(answered - pendingTokens.get(token));
+            }
+        }
+        return phase;
+    }
+
+    private Phase runDashboardPhase(List<Long> ids) throws Exception {
+        Phase phase = new Phase("Dashboard (PUT /api/updates/current/{id})", settings.mutations());
+        double syncsBefore = scrapeSyncs();
+        long startNanos = System.nanoTime();
+        List<String> markers = new ArrayList<>();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Long>> burst = new ArrayList<>();
+            for (int n = 0; n < settings.mutations(); n++) {
+                String marker = "LT-d-" + n;
+                long id = ids.get(n % ids.size());
+                markers.add(marker);
+                pendingMarkers.put(marker, System.nanoTime());
+                burst.add(clients.submit(() -> {
+                    long sent = System.nanoTime();
+                    HttpResponse<String> response = dashboard("PUT", "/api/updates/current/" + id, Map.of("text", "Lasttest " + marker));
+                    return response.statusCode() == 200 ? System.nanoTime() - sent : -1L;
+                }));
+                if ((n + 1) % settings.burst() == 0 || n + 1 == settings.mutations()) {
+                    for (Future<Long> result : burst) {
+                        long latency = result.get();
+                        if (latency >= 0) {
+                            phase.responses.add(latency);
+                        }
+                    }
+                    burst.clear();
+                    pauseAfterBurst(n);
+                }
+            }
+        }
+        awaitSettled(markers, List.of());
+        phase.finish(startNanos, scrapeSyncs() - syncsBefore, markers);
+        return phase;
+    }
+
+    private void pauseAfterBurst(int index) throws InterruptedException {
+        if ((index + 1) % settings.burst() == 0) {
+            Thread.sleep(settings.pauseMillis());
+        }
+    }
+
+    // Done when every marker made it into the weekly message and every interaction was answered, or
+    // when Discord has been quiet for longer than a rate limit window (later edits overwrote the
+    // remaining markers, or the bot dropped an interaction).
+    private void awaitSettled(List<String> markers, List<String> tokens) throws InterruptedException {
+        long quietNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(2_000, settings.discord().rateWindowMillis() + 1_000));
+        long deadline = System.nanoTime() + PHASE_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            boolean allVisible = markers.stream().allMatch(visibleMarkers::containsKey);
+            boolean allAnswered = tokens.stream().allMatch(answeredTokens::containsKey);
+            if (allVisible && allAnswered) {
+                Thread.sleep(500);
+                return;
+            }
+            if (System.nanoTime() - discord.lastCallNanos() > quietNanos) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    private double scrapeSyncs() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + dashboardPort + "/metrics"))
+                .header("X-Dashboard-Token", DASHBOARD_TOKEN)
+                .build();
+        String body = http.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        double total = 0;
+        for (String line : body.split("\n")) {
+            if (line.startsWith("nebi_discord_syncs_total{")) {
+                total += Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1));
+            }
+        }
+        return total;
+    }
+
+    private HttpResponse<String> dashboard(String method, String path, Map<String, Object> body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + dashboardPort + path))
+                .header("X-Dashboard-Token", DASHBOARD_TOKEN)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(OBJECT_MAPPER.writeValueAsBytes(body)))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    // All interactions come from the one admin user of the fake guild, so the per-user command
+    // limits are off; otherwise the harness would mostly measure the throttle reply.
+    private String configYaml() {
+        return """
+                app:
+                  storage: sqlite
+                  db_path: data/nebiupdate.db
+                discord:
+                  token: "lasttest"
+                  guild_id: "%s"
+                  channel_id: "%s"
+                  api_url: "%s"
+                  gateway_url: "%s"
+                  command_rate_limit: false
+                  shards: %d
+                dashboard:
+                  host: 127.0.0.1
+                  port: %d
+                  token: "%s"
+                backup:
+                  enabled: false
+                """.formatted(
+                FakeDiscordServer.GUILD_ID,
+                FakeDiscordServer.CHANNEL_ID,
+                discord.restBaseUrl(),
+                discord.gatewayUrl(),
+                settings.shards,
+                dashboardPort,
+                DASHBOARD_TOKEN
+        );
+    }
+
+    private String report(Phase slash, Phase dashboard) {
+        StringBuilder builder = new StringBuilder();
+        FakeDiscordServer.Options options = settings.discord();
+        builder.append("# Lasttest-Bericht\n\n");
+        builder.append("Lauf: ").append(Instant.now()).append("  \n");
+        builder.append(String.format(Locale.ROOT,
+                "Fake-Discord: %d ms Latenz (+0–%d ms Jitter), Rate-Limit %s, zufällige 429: %.1f %%  \n",
+                options.latencyMillis(),
+                options.jitterMillis(),
+                options.rateLimit() <= 0 ? "aus" : options.rateLimit() + " pro " + options.rateWindowMillis() + " ms und Route",
+                options.random429Rate() * 100));
+        builder.append("Last: Bursts von ").append(settings.burst()).append(", ")
+                .append(settings.pauseMillis()).append(" ms Pause, ")
+                .append(settings.pool()).append(" Einträge je Quelle im Wechsel\n\n");
+
+        builder.append("## Latenzen (ms)\n\n");
+        builder.append("| Messung | n | p50 | p95 | p99 | max |\n|---|---:|---:|---:|---:|---:|\n");
+        builder.append(LatencySummary.of(slash.responses).markdownRow("Slash: Interaction → Antwort")).append('\n');
+        builder.append(LatencySummary.of(slash.syncLags).markdownRow("Slash: Interaction → Wochenpost")).append('\n');
+        builder.append(LatencySummary.of(dashboard.responses).markdownRow("Dashboard: HTTP-Antwort")).append('\n');
+        builder.append(LatencySummary.of(dashboard.syncLags).markdownRow("Dashboard: Request → Wochenpost")).append('\n');
+
+        builder.append("\n## Mutationen\n\n");
+        builder.append("| Phase | Mutationen | beantwortet | im Wochenpost sichtbar | überholt | Syncs | REST-Aufrufe | REST je Mutation | 429 |\n");
+        builder.append("|---|---:|---:|---:|---:|---:|---:|---:|---:|\n");
+        for (Phase phase : List.of(slash, dashboard)) {
+            builder.append(String.format(Locale.ROOT, "| %s | %d | %d | %d | %d | %.0f | %d | %.2f | %d |\n",
+                    phase.name,
+                    phase.mutations,
+                    phase.responses.size(),
+                    phase.syncLags.size(),
+                    phase.mutations - phase.syncLags.size(),
+                    phase.syncs,
+                    phase.calls.size(),
+                    phase.mutations == 0 ? 0.0 : (double) phase.calls.size() / phase.mutations,
+                    phase.calls.stream().filter(RecordedCall::isRateLimited).count()));
+        }
+        builder.append("\n\"Überholt\": eine spätere Änderung desselben Eintrags kam vor dem nächsten Sync, der Marker erschien nie.\n");
+
+        builder.append("\n## REST-Aufrufe nach Route\n\n");
+        builder.append("| Route | Slash | Dashboard | davon 429 |\n|---|---:|---:|---:|\n");
+        Map<String, long[]> routes = new TreeMap<>();
+        for (int i = 0; i < 2; i++) {
+            for (RecordedCall call : (i == 0 ? slash : dashboard).calls) {
+                long[] counts = routes.computeIfAbsent(call.routeKey(), key -> new long[3]);
+                counts[i]++;
+                if (call.isRateLimited()) {
+                    counts[2]++;
+                }
+            }
+        }
+        routes.forEach((route, counts) -> builder.append("| `").append(route).append("` | ")
+                .append(counts[0]).append(" | ").append(counts[1]).append(" | ").append(counts[2]).append(" |\n"));
+        return builder.toString();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private final class Phase {
+        private final String name;
+        private final int mutations;
+        private final List<String> tokens = new ArrayList<>();
+        private final List<Long> responses = new ArrayList<>();
+        private final List<Long> syncLags = new ArrayList<>();
+        private List<RecordedCall> calls = List.of();
+        private double syncs;
+
+        private Phase(String name, int mutations) {
+            this.name = name;
+            this.mutations = mutations;
+        }
+
+        private void finish(long startNanos, double syncs, List<String> markers) {
+            this.syncs = syncs;
+            this.calls = discord.calls().stream().filter(call -> call.receivedNanos() >= startNanos).toList();
+            for (String marker : markers) {
+                Long visible = visibleMarkers.get(marker);
+                if (visible != null) {
+                    syncLags.add(visible - pendingMarkers.get(marker));
+                }
+            }
+        }
+    }
+
+    private static final class Settings {
+        private int interactions = 200;
+        private int mutations = 200;
+        private int burst = 20;
+        private long pauseMillis = 500;
+        private int pool = 20;
+        private long latencyMillis = 40;
+        private long jitterMillis = 20;
+        private int rateLimit = 5;
+        private long rateWindowMillis = 5_000;
+        private double random429Rate;
+        private int shards;
+        private boolean keep;
+
+        static Settings parse(String[] args) {
+            Settings settings = new Settings();
+            for (String arg : args) {
+                String[] parts = arg.split("=", 2);
+                String value = parts.length > 1 ? parts[1] : "";
+                switch (parts[0]) {
+                    case "--interactions" -> settings.interactions = Integer.parseInt(value);
+                    case "--mutations" -> settings.mutations = Integer.parseInt(value);
+                    case "--burst" -> settings.burst = Math.max(1, Integer.parseInt(value));
+                    case "--pause-ms" -> settings.pauseMillis = Long.parseLong(value);
+                    case "--pool" -> settings.pool = Math.max(1, Integer.parseInt(value));
+                    case "--latency-ms" -> settings.latencyMillis = Long.parseLong(value);
+                    case "--jitter-ms" -> settings.jitterMillis = Long.parseLong(value);
+                    case "--rate-limit" -> settings.rateLimit = Integer.parseInt(value);
+                    case "--rate-window-ms" -> settings.rateWindowMillis = Long.parseLong(value);
+                    case "--random-429" -> settings.random429Rate = Double.parseDouble(value);
+                    case "--shards" -> settings.shards = Math.max(-1, Integer.parseInt(value));
+                    case "--keep" -> settings.keep = true;
+                    default -> throw new IllegalArgumentException("Unbekannte Option: " + arg);
+                }
+            }
+            return settings;
+        }
+
+        FakeDiscordServer.Options discord() {
+            return new FakeDiscordServer.Options(0, latencyMillis, jitterMillis, rateLimit, rateWindowMillis, random429Rate, 0, 0);
+        }
+
+        int interactions() {
+            return interactions;
+        }
+
+        int mutations() {
+            return mutations;
+        }
+
+        int burst() {
+            return burst;
+        }
+
+        long pauseMillis() {
+            return pauseMillis;
+        }
+
+        int pool() {
+            return pool;
+        }
+
+        boolean keep() {
+            return keep;
+        }
+
+        void keepWorkDir(boolean keep) {
+            this.keep = keep;
+        }
+    }
+}
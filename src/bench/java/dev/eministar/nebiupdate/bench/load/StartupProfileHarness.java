@@ -0,0 +1,277 @@
+package dev.eministar.nebiupdate.bench.load;
+
+import dev.eministar.nebiupdate.bench.discord.FakeDiscordServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+
+// Starts the bot once per gateway profile and run against a fake Discord with filler guilds, then
+// reads gateway ready time, total startup time, heap after a full GC (via jcmd), RSS and JDA's
+// cache sizes from /metrics. Filler guilds stand in for a bot that was invited to more servers
+// than the one it posts to.
+//
+//   java -cp target/NebiUpdate-benchmarks.jar dev.eministar.nebiupdate.bench.load.StartupProfileHarness \
+//       [--guilds=50] [--members=200] [--runs=3] [--xmx=128m] [--profiles=full,lean] [--shards=0]
+public final class StartupProfileHarness {
+    private static final String DASHBOARD_TOKEN = "startprofil";
+    private static final Path REPORT = Path.of("benchmarks", "results", "startup-report.md");
+    private static final double MB = 1024.0 * 1024.0;
+
+    private final Settings settings;
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private StartupProfileHarness(Settings settings) {
+        this.settings = settings;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.parse(args);
+        String report = new StartupProfileHarness(settings).run();
+        Files.createDirectories(REPORT.getParent());
+        Files.writeString(REPORT, report);
+        System.out.println();
+        System.out.println(report);
+        System.out.println("Bericht geschrieben: " + REPORT);
+        System.exit(0);
+    }
+
+    private String run() throws Exception {
+        Map<String, List<Sample>> samples = new HashMap<>();
+        for (String profile : settings.profiles) {
+            for (int run = 1; run <= settings.runs; run++) {
+                Sample sample = measure(profile);
+                System.out.printf(Locale.ROOT, "%s Lauf %d: %s%n", profile, run, sample);
+                samples.computeIfAbsent(profile, ignored -> new ArrayList<>()).add(sample);
+            }
+        }
+        return report(samples);
+    }
+
+    private Sample measure(String profile) throws Exception {
+        Path workDir = Files.createTempDirectory("nebi-startup-");
+        FakeDiscordServer.Options options = new FakeDiscordServer.Options(0, 0, 0, 0, 5_000, 0.0, settings.guilds, settings.members);
+        try (FakeDiscordServer discord = new FakeDiscordServer(options)) {
+            discord.start();
+            int port = freePort();
+            BotProcess bot = BotProcess.start(workDir, configYaml(discord, port, profile), List.of("-Xmx" + settings.xmx));
+            try {
+                bot.awaitReady(port, Duration.ofSeconds(120));
+                // Let startup-time allocations settle before collecting.
+                Thread.sleep(1_000);
+                runFullGc(bot.pid());
+                Map<String, Double> metrics = scrape(port);
+                return new Sample(
+                        metrics.getOrDefault("nebi_discord_gateway_ready_seconds{profile=\"" + profile + "\"}", Double.NaN) * 1000,
+                        metrics.getOrDefault("nebi_startup_seconds", Double.NaN) * 1000,
+                        metrics.getOrDefault("nebi_jvm_memory_bytes{area=\"heap\",state=\"used\"}", Double.NaN) / MB,
+                        residentSetMegabytes(bot.pid()),
+                        metrics.getOrDefault("nebi_discord_cached_entities{kind=\"guild\"}", Double.NaN),
+                        metrics.getOrDefault("nebi_discord_cached_entities{kind=\"text_channel\"}", Double.NaN),
+                        metrics.getOrDefault("nebi_discord_cached_entities{kind=\"user\"}", Double.NaN),
+                        metrics.getOrDefault("nebi_discord_cached_entities{kind=\"emoji\"}", Double.NaN)
+                );
+            } finally {
+                bot.close();
+                if (!settings.keep) {
+                    deleteRecursively(workDir);
+                }
+            }
+        }
+    }
+
+    private String configYaml(FakeDiscordServer discord, int port, String profile) {
+        return """
+                app:
+                  storage: memory
+                discord:
+                  token: "startprofil"
+                  guild_id: "%s"
+                  channel_id: "%s"
+                  api_url: "%s"
+                  gateway_url: "%s"
+                  gateway_profile: %s
+                  shards: %d
+                dashboard:
+                  host: 127.0.0.1
+                  port: %d
+                  token: "%s"
+                backup:
+                  enabled: false
+                """.formatted(
+                FakeDiscordServer.GUILD_ID,
+                FakeDiscordServer.CHANNEL_ID,
+                discord.restBaseUrl(),
+                discord.gatewayUrl(),
+                profile,
+                settings.shards,
+                port,
+                DASHBOARD_TOKEN
+        );
+    }
+
+    private static void runFullGc(long pid) throws IOException, InterruptedException {
+        String jcmd = Path.of(System.getProperty("java.home"), "bin", "jcmd").toString();
+        Process process = new ProcessBuilder(jcmd, Long.toString(pid), "GC.run")
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+
+    // Linux only; elsewhere the column stays empty.
+    private static double residentSetMegabytes(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) / 1024.0;
+                }
+            }
+        } catch (IOException | NumberFormatException ignored) {
+            // Fall through.
+        }
+        return Double.NaN;
+    }
+
+    private Map<String, Double> scrape(int port) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/metrics"))
+                .header("Authorization", "Bearer " + DASHBOARD_TOKEN)
+                .timeout(Duration.ofSeconds(10))
+                .build();
+        String body = http.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        Map<String, Double> values = new HashMap<>();
+        for (String line : body.split("\n")) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            int split = line.lastIndexOf(' ');
+            try {
+                values.put(line.substring(0, split), Double.parseDouble(line.substring(split + 1)));
+            } catch (NumberFormatException ignored) {
+                // Not a sample line.
+            }
+        }
+        return values;
+    }
+
+    private String report(Map<String, List<Sample>> samples) {
+        StringBuilder builder = new StringBuilder();
+        builder.append("# Start- und Speicherprofil\n\n");
+        builder.append("Lauf: ").append(Instant.now()).append("  \n");
+        builder.append(String.format(Locale.ROOT,
+                "Fake-Discord: Test-Server plus %d Füll-Server mit je %d Mitgliedern, 25 Kanälen, 20 Rollen, 40 Emojis  \n",
+                settings.guilds,
+                settings.members));
+        builder.append("JVM: -Xmx").append(settings.xmx).append(", ").append(settings.runs).append(" Läufe je Profil, Median");
+        if (settings.shards != 0) {
+            builder.append(", discord.shards: ").append(settings.shards);
+        }
+        builder.append("\n\n");
+        builder.append("| Profil | Gateway bereit ms | Start gesamt ms | Heap nach GC MB | RSS MB | Guilds | Textkanäle | User | Emojis |\n");
+        builder.append("|---|---:|---:|---:|---:|---:|---:|---:|---:|\n");
+        for (String profile : settings.profiles) {
+            List<Sample> runs = samples.getOrDefault(profile, List.of());
+            builder.append(String.format(Locale.ROOT,
+                    "| %s | %.0f | %.0f | %.1f | %.1f | %.0f | %.0f | %.0f | %.0f |%n",
+                    profile,
+                    median(runs, Sample::gatewayReadyMillis),
+                    median(runs, Sample::startupMillis),
+                    median(runs, Sample::heapMegabytes),
+                    median(runs, Sample::rssMegabytes),
+                    median(runs, Sample::guilds),
+                    median(runs, Sample::textChannels),
+                    median(runs, Sample::users),
+                    median(runs, Sample::emojis)));
+        }
+        builder.append("\n\"Heap nach GC\" ist der belegte Heap direkt nach `jcmd GC.run`, also was dauerhaft gehalten wird.\n");
+        return builder.toString();
+    }
+
+    private static double median(List<Sample> runs, ToDoubleFunction<Sample> metric) {
+        double[] values = runs.stream().mapToDouble(metric).sorted().toArray();
+        if (values.length == 0) {
+            return Double.NaN;
+        }
+        int middle = values.length / 2;
+        return values.length % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private record Sample(
+            double gatewayReadyMillis,
+            double startupMillis,
+            double heapMegabytes,
+            double rssMegabytes,
+            double guilds,
+            double textChannels,
+            double users,
+            double emojis
+    ) {
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "Gateway %.0f ms, Start %.0f ms, Heap %.1f MB, RSS %.1f MB, %.0f Guilds, %.0f User",
+                    gatewayReadyMillis, startupMillis, heapMegabytes, rssMegabytes, guilds, users);
+        }
+    }
+
+    private static final class Settings {
+        private int guilds = 50;
+        private int members = 200;
+        private int runs = 3;
+        private String xmx = "128m";
+        private List<String> profiles = List.of("full", "lean");
+        private int shards;
+        private boolean keep;
+
+        static Settings parse(String[] args) {
+            Settings settings = new Settings();
+            for (String arg : args) {
+                String[] parts = arg.split("=", 2);
+                String value = parts.length > 1 ? parts[1] : "";
+                switch (parts[0]) {
+                    case "--guilds" -> settings.guilds = Math.max(0, Integer.parseInt(value));
+                    case "--members" -> settings.members = Math.max(0, Integer.parseInt(value));
+                    case "--runs" -> settings.runs = Math.max(1, Integer.parseInt(value));
+                    case "--xmx" -> settings.xmx = value;
+                    case "--profiles" -> settings.profiles = List.of(value.split(","));
+                    case "--shards" -> settings.shards = Math.max(-1, Integer.parseInt(value));
+                    case "--keep" -> settings.keep = true;
+                    default -> throw new IllegalArgumentException("Unbekannte Option: " + arg);
+                }
+            }
+            return settings;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package dev.eministar.nebiupdate.storage;
+
+import dev.eministar.nebiupdate.audit.AuditEntry;
+import dev.eministar.nebiupdate.audit.JdbcAuditStore;
+import dev.eministar.nebiupdate.config.JdbcConfigStore;
+import dev.eministar.nebiupdate.data.Database;
+import dev.eministar.nebiupdate.data.JdbcUpdateStore;
+import dev.eministar.nebiupdate.data.SqlDialect;
+import dev.eministar.nebiupdate.data.UpdateEntry;
+import dev.eministar.nebiupdate.data.UpdateEvent;
+import dev.eministar.nebiupdate.data.UpdateEventType;
+import dev.eministar.nebiupdate.data.UpdateStore;
+import dev.eministar.nebiupdate.data.UpdateType;
+import dev.eministar.nebiupdate.data.WeeklyMessageRecord;
+import dev.eministar.nebiupdate.data.WriteOutcome;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs the JDBC stores against a real PostgreSQL 16 (mvn -Ppostgres test). The server binaries come
+// from Maven via embedded-postgres, so no Docker is needed.
+class PostgresStorageTest {
+    private static final LocalDate WEEK = LocalDate.of(2026, 10, 19);
+    private static final LocalDate PREVIOUS_WEEK = WEEK.minusWeeks(1);
+
+    private static EmbeddedPostgres postgres;
+    private static Database database;
+    private static JdbcUpdateStore updates;
+    private static JdbcAuditStore audit;
+    private static JdbcConfigStore config;
+
+    @BeforeAll
+    static void openDatabase() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        database = new Database(postgres.getJdbcUrl("postgres", "postgres"), "postgres", null, 4);
+        database.initialize();
+        updates = new JdbcUpdateStore(database);
+        audit = new JdbcAuditStore(database);
+        config = new JdbcConfigStore(database);
+    }
+
+    @AfterAll
+    static void closeDatabase() throws IOException {
+        if (database != null) {
+            database.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @BeforeEach
+    void truncate() throws Exception {
+        try (Connection connection = database.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("""
+                    TRUNCATE updates, weekly_messages, audit_log, update_events, event_cursors, app_config
+                    RESTART IDENTITY
+                    """);
+        }
+    }
+
+    @Test
+    void usesPostgresDialect() {
+        assertEquals(SqlDialect.POSTGRES, database.dialect());
+    }
+
+    @Test
+    void updateCrud() {
+        UpdateEntry removed = updates.create(WEEK, UpdateType.REMOVED, "Alte Rolle", "Dashboard");
+        UpdateEntry added = updates.create(WEEK, UpdateType.ADDED, "Neuer Channel", "Dashboard");
+        updates.create(PREVIOUS_WEEK, UpdateType.CHANGED, "Vorwoche", "Dashboard");
+
+        assertEquals(1L, added.version());
+        // Week order is added, changed, removed and then id, not insertion order.
+        assertEquals(List.of(added.id(), removed.id()), updates.findByWeek(WEEK).stream().map(UpdateEntry::id).toList());
+        assertEquals(2, updates.countByWeek(WEEK));
+        assertEquals(3, updates.findAll().size());
+        assertTrue(updates.findByIdInWeek(added.id(), PREVIOUS_WEEK).isEmpty());
+
+        WriteOutcome edited = updates.updateInWeek(added.id(), WEEK, UpdateType.CHANGED, "Channel umbenannt", "Mod", UpdateStore.ANY_VERSION);
+        assertEquals(WriteOutcome.APPLIED, edited);
+        UpdateEntry stored = updates.findByIdInWeek(added.id(), WEEK).orElseThrow();
+        assertEquals(UpdateType.CHANGED, stored.type());
+        assertEquals("Channel umbenannt", stored.content());
+        assertEquals("Mod", stored.author());
+        assertEquals(2L, stored.version());
+
+        assertEquals(WriteOutcome.APPLIED, updates.deleteInWeek(removed.id(), WEEK, UpdateStore.ANY_VERSION));
+        assertEquals(WriteOutcome.NOT_FOUND, updates.deleteInWeek(removed.id(), WEEK, UpdateStore.ANY_VERSION));
+        assertEquals(WriteOutcome.NOT_FOUND, updates.updateInWeek(removed.id(), WEEK, UpdateType.ADDED, "x", "Mod", UpdateStore.ANY_VERSION));
+        assertEquals(1, updates.countByWeek(WEEK));
+
+        updates.upsertWeeklyMessage(WEEK, "200", "300");
+        updates.upsertWeeklyMessage(WEEK, "200", "301");
+        assertEquals("301", updates.findWeeklyMessageId(WEEK).orElseThrow());
+        assertEquals(1, updates.findAllWeeklyMessages().size());
+    }
+
+    @Test
+    void ifMatchConflicts() {
+        UpdateEntry entry = updates.create(WEEK, UpdateType.ADDED, "Erste Fassung", "Dashboard");
+
+        assertEquals(WriteOutcome.APPLIED, updates.updateInWeek(entry.id(), WEEK, UpdateType.ADDED, "Zweite Fassung", "A", 1L));
+        // A second writer that still holds version 1 must not overwrite the first one.
+        assertEquals(WriteOutcome.VERSION_CONFLICT, updates.updateInWeek(entry.id(), WEEK, UpdateType.ADDED, "Verloren", "B", 1L));
+        assertEquals(WriteOutcome.VERSION_CONFLICT, updates.deleteInWeek(entry.id(), WEEK, 1L));
+
+        UpdateEntry stored = updates.findByIdInWeek(entry.id(), WEEK).orElseThrow();
+        assertEquals("Zweite Fassung", stored.content());
+        assertEquals(2L, stored.version());
+
+        assertEquals(WriteOutcome.APPLIED, updates.deleteInWeek(entry.id(), WEEK, 2L));
+        assertTrue(updates.findByIdInWeek(entry.id(), WEEK).isEmpty());
+    }
+
+    @Test
+    void changeLog() {
+        long before = updates.latestEventSeq();
+        UpdateEntry entry = updates.create(WEEK, UpdateType.ADDED, "Eintrag", "Dashboard");
+        updates.updateInWeek(entry.id(), WEEK, UpdateType.CHANGED, "Geändert", "Dashboard", UpdateStore.ANY_VERSION);
+        updates.deleteInWeek(entry.id(), WEEK, UpdateStore.ANY_VERSION);
+
+        List<UpdateEvent> events = updates.findEventsAfter(before, 10);
+        assertEquals(
+                List.of(UpdateEventType.CREATED, UpdateEventType.UPDATED, UpdateEventType.DELETED),
+                events.stream().map(UpdateEvent::kind).toList()
+        );
+        assertTrue(events.stream().allMatch(event -> event.updateId() == entry.id()));
+        assertEquals(List.of(1L, 2L, 2L), events.stream().map(UpdateEvent::version).toList());
+        assertTrue(events.get(0).seq() < events.get(1).seq() && events.get(1).seq() < events.get(2).seq());
+        assertEquals(events.get(2).seq(), updates.latestEventSeq());
+        assertEquals("Geändert", events.get(2).content());
+        assertEquals(List.of(events.get(2)), updates.findEventsAfter(events.get(1).seq(), 10));
+
+        assertEquals(0L, updates.findConsumerCursor("it"));
+        updates.saveConsumerCursor("it", events.get(1).seq());
+        updates.saveConsumerCursor("it", events.get(2).seq());
+        assertEquals(events.get(2).seq(), updates.findConsumerCursor("it"));
+    }
+
+    @Test
+    void restoreKeepsExplicitIds() {
+        updates.create(WEEK, UpdateType.ADDED, "Vor dem Restore", "Dashboard");
+        Instant at = Instant.parse("2026-10-12T09:00:00Z");
+        List<UpdateEntry> backup = List.of(
+                new UpdateEntry(100L, PREVIOUS_WEEK, UpdateType.ADDED, "Aus Backup", "Dashboard", at, at, 3L),
+                new UpdateEntry(205L, WEEK, UpdateType.REMOVED, "Auch aus Backup", "Dashboard", at, at.plusSeconds(60), 1L)
+        );
+        List<WeeklyMessageRecord> messages = List.of(new WeeklyMessageRecord(PREVIOUS_WEEK, "200", "400", at));
+        long before = updates.latestEventSeq();
+
+        updates.replaceAll(backup, messages);
+
+        assertEquals(List.of(100L, 205L), updates.findAll().stream().map(UpdateEntry::id).sorted().toList());
+        UpdateEntry restored = updates.findByIdInWeek(100L, PREVIOUS_WEEK).orElseThrow();
+        assertEquals(3L, restored.version());
+        assertEquals(at, restored.createdAt().truncatedTo(ChronoUnit.SECONDS));
+        assertEquals("400", updates.findWeeklyMessageId(PREVIOUS_WEEK).orElseThrow());
+        assertEquals(
+                List.of(UpdateEventType.REPLACED),
+                updates.findEventsAfter(before, 10).stream().map(UpdateEvent::kind).toList()
+        );
+
+        // The identity sequence follows the restored ids, so the next insert does not collide with 205.
+        UpdateEntry next = updates.create(WEEK, UpdateType.ADDED, "Nach dem Restore", "Dashboard");
+        assertTrue(next.id() > 205L, "next id " + next.id());
+        assertTrue(updates.highestAssignedId() >= next.id());
+
+        // The batch path used by memory-first checkpoints upserts by explicit id as well.
+        UpdateEntry upserted = new UpdateEntry(300L, WEEK, UpdateType.CHANGED, "Checkpoint", "Dashboard", at, at, 2L);
+        updates.applyBatch(List.of(upserted), List.of(100L), List.of(), List.of());
+        assertEquals(List.of(205L, next.id(), 300L), updates.findAll().stream().map(UpdateEntry::id).sorted().toList());
+        assertTrue(updates.create(WEEK, UpdateType.ADDED, "Danach", "Dashboard").id() > 300L);
+    }
+
+    @Test
+    void auditCrud() {
+        audit.append("Dashboard", "dashboard", "update.create", "update", "1", "{}");
+        audit.append("Dashboard", "dashboard", "update.edit", "update", "1", "{}");
+        audit.append("system", "discord", "weekly.message.created", "weekly_message", WEEK.toString(), "{}");
+
+        List<AuditEntry> recent = audit.findRecent(2);
+        assertEquals(List.of("weekly.message.created", "update.edit"), recent.stream().map(AuditEntry::action).toList());
+
+        Instant at = Instant.parse("2026-10-01T12:00:00Z");
+        audit.appendAll(List.of(
+                new AuditEntry(0L, at, "Import", "import", "update.create", "update", "7", "{}"),
+                new AuditEntry(0L, at.plusSeconds(1), "Import", "import", "update.delete", "update", "7", "{}")
+        ));
+        List<AuditEntry> all = audit.findAll();
+        assertEquals(5, all.size());
+        assertEquals(at, all.get(3).createdAt().truncatedTo(ChronoUnit.SECONDS));
+
+        audit.trimToMaxEntries(2);
+        assertEquals(List.of("update.create", "update.delete"), audit.findAll().stream().map(AuditEntry::action).toList());
+
+        audit.replaceAll(List.of(new AuditEntry(0L, at, "Restore", "backup", "backup.restore", "backup", "f.json", "{}")));
+        assertEquals(List.of("backup.restore"), audit.findAll().stream().map(AuditEntry::action).toList());
+
+        audit.deleteAll();
+        assertTrue(audit.findAll().isEmpty());
+    }
+
+    @Test
+    void configCrud() {
+        assertTrue(config.loadAll().isEmpty());
+
+        config.upsertAll(Map.of("timezone", "Europe/Berlin", "schedule_day", "MONDAY"));
+        config.upsertAll(Map.of("schedule_day", "FRIDAY"));
+
+        Map<String, String> loaded = config.loadAll();
+        assertEquals("Europe/Berlin", loaded.get("timezone"));
+        assertEquals("FRIDAY", loaded.get("schedule_day"));
+        assertEquals(2, loaded.size());
+    }
+}
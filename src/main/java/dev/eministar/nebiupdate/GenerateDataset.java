@@ -0,0 +1,66 @@
+package dev.eministar.nebiupdate;
+
+import dev.eministar.nebiupdate.audit.AuditRepository;
+import dev.eministar.nebiupdate.config.ConfigService;
+import dev.eministar.nebiupdate.config.StartupSettings;
+import dev.eministar.nebiupdate.config.YamlConfigManager;
+import dev.eministar.nebiupdate.data.UpdateRepository;
+import dev.eministar.nebiupdate.jobs.JobProgress;
+import dev.eministar.nebiupdate.runtime.SingleInstanceLock;
+import dev.eministar.nebiupdate.storage.StorageBackend;
+import dev.eministar.nebiupdate.storage.StorageType;
+import dev.eministar.nebiupdate.time.WeekService;
+import dev.eministar.nebiupdate.transfer.DatasetGenerator;
+
+import java.nio.file.Path;
+import java.util.List;
+
+// Offline entry point for the dataset generator, using the storage configured in config.yml:
+//   java -cp target/NebiUpdate-1.0.0.jar dev.eministar.nebiupdate.GenerateDataset --weeks=520 --per-week=40
+// Takes the instance lock, so it refuses to run next to a live bot on the same data directory.
+public final class GenerateDataset {
+
+    private GenerateDataset() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        DatasetGenerator.Spec spec;
+        try {
+            spec = DatasetGenerator.Spec.parse(List.of(args));
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.err.println("Nutzung: GenerateDataset [--weeks=260] [--per-week=25] [--min-length=20] [--max-length=400] [--authors=12] [--seed=42]");
+            System.exit(2);
+            return;
+        }
+
+        try (SingleInstanceLock ignored = SingleInstanceLock.acquire(Path.of("data", "nebiupdate.lock"))) {
+            YamlConfigManager yamlConfigManager = new YamlConfigManager(Path.of("config.yml"));
+            StartupSettings startupSettings = yamlConfigManager.loadSettings();
+            if (StorageType.parse(startupSettings.storage()) == StorageType.MEMORY) {
+                System.err.println("app.storage ist 'memory': generierte Daten würden sofort verworfen.");
+                System.exit(2);
+                return;
+            }
+            try (StorageBackend storage = StorageBackend.open(startupSettings)) {
+                ConfigService configService = new ConfigService(storage.configStore(), yamlConfigManager::saveBotConfig);
+                configService.initialize(startupSettings.botConfig());
+                DatasetGenerator generator = new DatasetGenerator(
+                        configService,
+                        new UpdateRepository(storage.updateStore()),
+                        new AuditRepository(storage.auditStore()),
+                        new WeekService()
+                );
+                DatasetGenerator.Result result = generator.generate(spec, JobProgress.NONE);
+                System.out.printf(
+                        "%d Wochen, %d Updates, %d Wochen-Nachrichten, %d Audit-Einträge in %d ms%n",
+                        result.weeks(),
+                        result.updates(),
+                        result.weeklyMessages(),
+                        result.auditEntries(),
+                        result.durationMillis()
+                );
+            }
+        }
+    }
+}
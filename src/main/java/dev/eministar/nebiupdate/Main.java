@@ -7,19 +7,34 @@ import dev.eministar.nebiupdate.config.YamlConfigManager;
 import dev.eministar.nebiupdate.console.ConsoleCommandLoop;
 import dev.eministar.nebiupdate.audit.AuditRepository;
 import dev.eministar.nebiupdate.audit.AuditService;
-import dev.eministar.nebiupdate.data.Database;
+import dev.eministar.nebiupdate.data.ChangeFeed;
 import dev.eministar.nebiupdate.data.UpdateRepository;
+import dev.eministar.nebiupdate.discord.CommandRateLimiter;
+import dev.eministar.nebiupdate.discord.DiscordEndpoints;
 import dev.eministar.nebiupdate.discord.DiscordGateway;
+import dev.eministar.nebiupdate.discord.GatewayProfile;
+import dev.eministar.nebiupdate.runtime.JvmMetrics;
 import dev.eministar.nebiupdate.runtime.SingleInstanceLock;
+import dev.eministar.nebiupdate.runtime.StartupGraph;
+import dev.eministar.nebiupdate.runtime.TaskExecutor;
 import dev.eministar.nebiupdate.discord.WeeklyMessageRenderer;
+import dev.eministar.nebiupdate.jfr.FlightRecorderControl;
+import dev.eministar.nebiupdate.jobs.JobService;
+import dev.eministar.nebiupdate.metrics.Metrics;
 import dev.eministar.nebiupdate.scheduler.WeeklyScheduler;
+import dev.eministar.nebiupdate.storage.StorageBackend;
 import dev.eministar.nebiupdate.time.WeekService;
+import dev.eministar.nebiupdate.tracing.OtlpExporter;
 import dev.eministar.nebiupdate.transfer.DataPortService;
+import dev.eministar.nebiupdate.transfer.DatasetGenerator;
+import dev.eministar.nebiupdate.transfer.IngestService;
 import dev.eministar.nebiupdate.web.DashboardServer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CountDownLatch;
 
 public final class Main {
@@ -42,23 +57,43 @@ public final class Main {
             throw new IllegalStateException("Discord-Token fehlt. Bitte trage discord.token in config.yml ein.");
         }
 
-        String dbPath = startupSettings.dbPath();
         String dashboardToken = startupSettings.dashboardToken();
 
-        Database database = new Database(dbPath);
-        database.initialize();
+        GatewayProfile gatewayProfile = GatewayProfile.parse(startupSettings.discordGatewayProfile());
+        JvmMetrics.register();
+        StartupGraph startup = new StartupGraph();
+        long storageStarted = System.nanoTime();
+        StorageBackend storage = StorageBackend.open(startupSettings);
+        startup.completed("storage", storageStarted, System.nanoTime());
 
-        ConfigService configService = new ConfigService(database, yamlConfigManager::saveBotConfig);
+        ConfigService configService = new ConfigService(storage.configStore(), yamlConfigManager::saveBotConfig);
         BotConfig config = configService.initialize(startupSettings.botConfig());
-        UpdateRepository updateRepository = new UpdateRepository(database);
-        AuditRepository auditRepository = new AuditRepository(database);
+        UpdateRepository updateRepository = new UpdateRepository(storage.updateStore());
+        ChangeFeed changeFeed = new ChangeFeed(updateRepository);
+        AuditRepository auditRepository = new AuditRepository(storage.auditStore());
         AuditService auditService = new AuditService(configService, auditRepository);
         DataPortService dataPortService = new DataPortService(configService, updateRepository, auditRepository);
         WeekService weekService = new WeekService();
         WeeklyMessageRenderer renderer = new WeeklyMessageRenderer();
+        TaskExecutor tasks = new TaskExecutor();
 
-        DiscordGateway discordGateway = new DiscordGateway(token, configService, updateRepository, weekService, renderer, auditService);
-        WeeklyScheduler scheduler = new WeeklyScheduler(configService, updateRepository, weekService, discordGateway);
+        DiscordGateway discordGateway = new DiscordGateway(
+                token,
+                configService,
+                updateRepository,
+                weekService,
+                renderer,
+                auditService,
+                new DiscordEndpoints(startupSettings.discordApiUrl(), startupSettings.discordGatewayUrl()),
+                tasks,
+                new CommandRateLimiter(startupSettings.commandRateLimit()),
+                gatewayProfile,
+                startupSettings.discordShards()
+        );
+        WeeklyScheduler scheduler = new WeeklyScheduler(configService, updateRepository, weekService, discordGateway, tasks);
+        JobService jobService = new JobService(tasks);
+        FlightRecorderControl flightRecorder = new FlightRecorderControl(Path.of("data", "jfr"));
+        OtlpExporter otlpExporter = new OtlpExporter(startupSettings.otlpEndpoint());
         DashboardServer dashboardServer = new DashboardServer(
                 configService,
                 updateRepository,
@@ -67,27 +102,71 @@ public final class Main {
                 discordGateway,
                 dashboardToken,
                 auditService,
-                dataPortService
+                dataPortService,
+                changeFeed,
+                jobService,
+                new IngestService(configService, updateRepository, weekService),
+                storage.sqlDiagnostics(),
+                flightRecorder,
+                tasks,
+                startup
+        );
+        ConsoleCommandLoop consoleLoop = new ConsoleCommandLoop(
+                configService,
+                updateRepository,
+                weekService,
+                discordGateway,
+                auditService,
+                storage.sqlDiagnostics(),
+                flightRecorder,
+                tasks,
+                new DatasetGenerator(configService, updateRepository, auditRepository, weekService)
         );
-        ConsoleCommandLoop consoleLoop = new ConsoleCommandLoop(configService, updateRepository, weekService, discordGateway, auditService);
 
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             LOGGER.info("Shutdown signal received");
             closeQuietly(consoleLoop);
             closeQuietly(scheduler);
             closeQuietly(dashboardServer);
+            closeQuietly(tasks);
+            closeQuietly(flightRecorder);
+            closeQuietly(otlpExporter);
             closeQuietly(discordGateway);
-            closeQuietly(database);
+            closeQuietly(storage);
             closeQuietly(instanceLock);
         }, "shutdown-hook"));
 
-        discordGateway.start();
-        scheduler.start();
-        dashboardServer.start();
-        consoleLoop.start();
-        discordGateway.requestSyncCurrentWeek(false);
+        // Everything below only needs the storage opened above; Discord is the slow part and no
+        // longer holds up the dashboard, which reports progress on /ready. Without the dashboard or
+        // the Discord login the process exits non-zero so that a supervisor restarts it.
+        startup.phase("otlp", List.of(), otlpExporter::start);
+        startup.essential("dashboard", List.of(), dashboardServer::start);
+        startup.phase("console", List.of(), consoleLoop::start);
+        startup.phase("scheduler", List.of(), scheduler::start);
+        startup.essential("discord", List.of(), discordGateway::start);
+        startup.phase("slash-commands", List.of("discord"), discordGateway::registerSlashCommands);
+        startup.phase("initial-sync", List.of("discord"), () -> discordGateway.requestSyncCurrentWeek(false));
+        try {
+            startup.start().join();
+        } catch (CompletionException ex) {
+            LOGGER.error("NebiUpdate could not start: {}", ex.getCause().getMessage());
+            System.exit(1);
+        }
 
-        LOGGER.info("NebiUpdate is running | Dashboard: http://{}:{}/", config.dashboardHost(), config.dashboardPort());
+        long startupMillis = JvmMetrics.uptimeMillis();
+        Metrics.gauge("nebi_startup_seconds", "JVM start until the bot was running")
+                .register(() -> startupMillis / 1000.0);
+        List<String> failed = startup.failedPhases();
+        if (failed.isEmpty()) {
+            LOGGER.info(
+                    "NebiUpdate is running after {} ms | Dashboard: http://{}:{}/",
+                    startupMillis,
+                    config.dashboardHost(),
+                    config.dashboardPort()
+            );
+        } else {
+            LOGGER.warn("NebiUpdate started after {} ms without: {}", startupMillis, String.join(", ", failed));
+        }
         new CountDownLatch(1).await();
     }
 
@@ -2,13 +2,23 @@ package dev.eministar.nebiupdate.audit;
 
 import dev.eministar.nebiupdate.config.BotConfig;
 import dev.eministar.nebiupdate.config.ConfigService;
+import dev.eministar.nebiupdate.jfr.AuditFlushEvent;
+import dev.eministar.nebiupdate.tracing.Span;
+import dev.eministar.nebiupdate.tracing.Tracing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 public final class AuditService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuditService.class);
+
     private final ConfigService configService;
     private final AuditRepository auditRepository;
+    private final List<Consumer<String>> appendListeners = new CopyOnWriteArrayList<>();
 
     public AuditService(ConfigService configService, AuditRepository auditRepository) {
         this.configService = configService;
@@ -21,8 +31,27 @@ public final class AuditService {
             return;
         }
         String detailText = stringify(details);
-        auditRepository.append(actor, source, action, entityType, entityId, detailText);
-        auditRepository.trimToMaxEntries(config.auditMaxEntries());
+        AuditFlushEvent recording = new AuditFlushEvent();
+        recording.begin();
+        try (Span span = Tracing.start("audit.log")) {
+            span.attribute("audit.action", action);
+            auditRepository.append(actor, source, action, entityType, entityId, detailText);
+            auditRepository.trimToMaxEntries(config.auditMaxEntries());
+        } finally {
+            recording.finish(action, source, config.auditMaxEntries());
+        }
+        for (Consumer<String> listener : appendListeners) {
+            try {
+                listener.accept(action);
+            } catch (Exception ex) {
+                LOGGER.warn("Audit append listener failed", ex);
+            }
+        }
+    }
+
+    // Listeners receive the action key of every entry that was actually written.
+    public void addAppendListener(Consumer<String> listener) {
+        appendListeners.add(listener);
     }
 
     public List<AuditEntry> recent(int limit) {
@@ -0,0 +1,20 @@
+package dev.eministar.nebiupdate.audit;
+
+import java.util.List;
+
+public interface AuditStore {
+    void append(String actor, String source, String action, String entityType, String entityId, String details);
+
+    // Inserts all entries with their own timestamps in one batch; ids are assigned by the store.
+    void appendAll(List<AuditEntry> entries);
+
+    void trimToMaxEntries(int maxEntries);
+
+    List<AuditEntry> findRecent(int limit);
+
+    List<AuditEntry> findAll();
+
+    void replaceAll(List<AuditEntry> entries);
+
+    void deleteAll();
+}
@@ -0,0 +1,102 @@
+package dev.eministar.nebiupdate.audit;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+public final class InMemoryAuditStore implements AuditStore {
+    private final NavigableMap<Long, AuditEntry> entries = new TreeMap<>();
+    private long idSequence;
+
+    @Override
+    public synchronized void append(String actor, String source, String action, String entityType, String entityId, String details) {
+        long id = ++idSequence;
+        entries.put(id, new AuditEntry(
+                id,
+                Instant.now(),
+                normalize(actor),
+                normalize(source),
+                normalize(action),
+                normalize(entityType),
+                normalize(entityId),
+                normalize(details)
+        ));
+    }
+
+    @Override
+    public synchronized void appendAll(List<AuditEntry> appended) {
+        for (AuditEntry entry : appended) {
+            long id = ++idSequence;
+            entries.put(id, new AuditEntry(
+                    id,
+                    entry.createdAt(),
+                    normalize(entry.actor()),
+                    normalize(entry.source()),
+                    normalize(entry.action()),
+                    normalize(entry.entityType()),
+                    normalize(entry.entityId()),
+                    normalize(entry.details())
+            ));
+        }
+    }
+
+    @Override
+    public synchronized void trimToMaxEntries(int maxEntries) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        while (entries.size() > maxEntries) {
+            entries.pollFirstEntry();
+        }
+    }
+
+    @Override
+    public synchronized List<AuditEntry> findRecent(int limit) {
+        int safeLimit = Math.max(1, Math.min(limit, 1000));
+        List<AuditEntry> recent = new ArrayList<>(safeLimit);
+        for (AuditEntry entry : entries.descendingMap().values()) {
+            if (recent.size() >= safeLimit) {
+                break;
+            }
+            recent.add(entry);
+        }
+        return recent;
+    }
+
+    @Override
+    public synchronized List<AuditEntry> findAll() {
+        return new ArrayList<>(entries.values());
+    }
+
+    @Override
+    public synchronized void replaceAll(List<AuditEntry> restored) {
+        entries.clear();
+        for (AuditEntry entry : restored) {
+            entries.put(entry.id(), new AuditEntry(
+                    entry.id(),
+                    entry.createdAt(),
+                    normalize(entry.actor()),
+                    normalize(entry.source()),
+                    normalize(entry.action()),
+                    normalize(entry.entityType()),
+                    normalize(entry.entityId()),
+                    normalize(entry.details())
+            ));
+            idSequence = Math.max(idSequence, entry.id());
+        }
+    }
+
+    @Override
+    public synchronized void deleteAll() {
+        entries.clear();
+    }
+
+    private String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return "-";
+        }
+        return value.trim();
+    }
+}
@@ -4,20 +4,19 @@ import dev.eministar.nebiupdate.data.Database;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 
 public final class ConfigService {
     private static final Logger LOGGER = LoggerFactory.getLogger(ConfigService.class);
 
-    private final Database database;
+    private final ConfigStore store;
     private final Consumer<Map<String, String>> onConfigPersist;
+    private final List<Consumer<BotConfig>> changeListeners = new CopyOnWriteArrayList<>();
     private volatile BotConfig cachedConfig;
 
     public ConfigService(Database database) {
@@ -25,7 +24,11 @@ public final class ConfigService {
     }
 
     public ConfigService(Database database, Consumer<Map<String, String>> onConfigPersist) {
-        this.database = database;
+        this(new JdbcConfigStore(database), onConfigPersist);
+    }
+
+    public ConfigService(ConfigStore store, Consumer<Map<String, String>> onConfigPersist) {
+        this.store = store;
         this.onConfigPersist = onConfigPersist;
     }
 
@@ -38,9 +41,7 @@ public final class ConfigService {
         if (bootstrapValues != null) {
             merged.putAll(bootstrapValues);
         }
-        for (Map.Entry<String, String> entry : merged.entrySet()) {
-            upsert(entry.getKey(), entry.getValue());
-        }
+        store.upsertAll(merged);
 
         cachedConfig = BotConfig.from(loadRawInternal());
         persistExternal(cachedConfig.toMap());
@@ -82,44 +83,43 @@ public final class ConfigService {
         }
 
         BotConfig validated = BotConfig.from(raw);
-        for (Map.Entry<String, String> entry : validated.toMap().entrySet()) {
-            upsert(entry.getKey(), entry.getValue());
-        }
+        store.upsertAll(validated.toMap());
         cachedConfig = validated;
         persistExternal(cachedConfig.toMap());
         LOGGER.info("Configuration updated via API/console");
+        notifyChanged(validated);
         return validated;
     }
 
+    // Bookkeeping stored next to the config rows, e.g. the slash command fingerprint. These keys are
+    // not part of BotConfig, so they are neither editable nor exported.
+    public String internalValue(String key) {
+        return store.loadAll().get(key);
+    }
+
+    public synchronized void putInternalValue(String key, String value) {
+        store.upsertAll(Map.of(key, value));
+    }
+
+    public void addChangeListener(Consumer<BotConfig> listener) {
+        changeListeners.add(listener);
+    }
+
     public synchronized Map<String, String> getRawMap() {
         return new LinkedHashMap<>(get().toMap());
     }
 
     private Map<String, String> loadRawInternal() {
-        Map<String, String> map = new LinkedHashMap<>();
-        String sql = "SELECT key, value FROM app_config";
-        try (Connection connection = database.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql);
-             ResultSet resultSet = statement.executeQuery()) {
-            while (resultSet.next()) {
-                map.put(resultSet.getString("key"), resultSet.getString("value"));
-            }
-        } catch (SQLException ex) {
-            throw new IllegalStateException("Failed to load configuration", ex);
-        }
-        return map;
+        return store.loadAll();
     }
 
-    private void upsert(String key, String value) {
-        String sql = "INSERT INTO app_config(key, value) VALUES(?, ?) " +
-                "ON CONFLICT(key) DO UPDATE SET value = excluded.value";
-        try (Connection connection = database.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, key);
-            statement.setString(2, value);
-            statement.executeUpdate();
-        } catch (SQLException ex) {
-            throw new IllegalStateException("Failed to persist config key: " + key, ex);
+    private void notifyChanged(BotConfig config) {
+        for (Consumer<BotConfig> listener : changeListeners) {
+            try {
+                listener.accept(config);
+            } catch (Exception ex) {
+                LOGGER.warn("Config change listener failed", ex);
+            }
         }
     }
 
@@ -0,0 +1,9 @@
+package dev.eministar.nebiupdate.config;
+
+import java.util.Map;
+
+public interface ConfigStore {
+    Map<String, String> loadAll();
+
+    void upsertAll(Map<String, String> values);
+}
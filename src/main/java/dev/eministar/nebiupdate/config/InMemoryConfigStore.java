@@ -0,0 +1,19 @@
+package dev.eministar.nebiupdate.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class InMemoryConfigStore implements ConfigStore {
+    private final Map<String, String> values = new ConcurrentHashMap<>();
+
+    @Override
+    public Map<String, String> loadAll() {
+        return new LinkedHashMap<>(values);
+    }
+
+    @Override
+    public void upsertAll(Map<String, String> updates) {
+        values.putAll(updates);
+    }
+}
@@ -0,0 +1,60 @@
+package dev.eministar.nebiupdate.config;
+
+import dev.eministar.nebiupdate.data.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class JdbcConfigStore implements ConfigStore {
+    private final Database database;
+
+    public JdbcConfigStore(Database database) {
+        this.database = database;
+    }
+
+    @Override
+    public Map<String, String> loadAll() {
+        Map<String, String> map = new LinkedHashMap<>();
+        String sql = "SELECT key, value FROM app_config";
+        try (Connection connection = database.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                map.put(resultSet.getString("key"), resultSet.getString("value"));
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to load configuration", ex);
+        }
+        return map;
+    }
+
+    @Override
+    public void upsertAll(Map<String, String> values) {
+        String sql = "INSERT INTO app_config(key, value) VALUES(?, ?) " +
+                "ON CONFLICT(key) DO UPDATE SET value = excluded.value";
+        try (Connection connection = database.getConnection()) {
+            boolean previousAutoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (Map.Entry<String, String> entry : values.entrySet()) {
+                    statement.setString(1, entry.getKey());
+                    statement.setString(2, entry.getValue());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                connection.commit();
+            } catch (SQLException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(previousAutoCommit);
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to persist configuration", ex);
+        }
+    }
+}
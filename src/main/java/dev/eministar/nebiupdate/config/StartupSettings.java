@@ -5,7 +5,21 @@ import java.util.Map;
 
 public record StartupSettings(
         String discordToken,
+        String discordApiUrl,
+        String discordGatewayUrl,
+        String discordGatewayProfile,
+        int discordShards,
+        boolean commandRateLimit,
         String dbPath,
+        String storage,
+        String postgresUrl,
+        String postgresUser,
+        String postgresPassword,
+        boolean memoryFirst,
+        String journalPath,
+        boolean sqlDiagnostics,
+        long slowQueryMillis,
+        String otlpEndpoint,
         String dashboardToken,
         Map<String, String> botConfig
 ) {
@@ -28,9 +28,33 @@ public final class YamlConfigManager {
         if (dbPath.isBlank()) {
             dbPath = "data/nebiupdate.db";
         }
+        String storage = readString(root, "app", "storage");
+        if (storage.isBlank()) {
+            storage = "sqlite";
+        }
+        String journalPath = readString(root, "app", "journal_path");
+        if (journalPath.isBlank()) {
+            journalPath = "data/nebiupdate.journal";
+        }
+        long slowQueryMillis = parseInt(readString(root, "app", "slow_query_ms"), 100);
+        String commandRateLimit = readString(root, "discord", "command_rate_limit");
         return new StartupSettings(
                 readString(root, "discord", "token"),
+                readString(root, "discord", "api_url"),
+                readString(root, "discord", "gateway_url"),
+                readString(root, "discord", "gateway_profile"),
+                parseShards(readString(root, "discord", "shards")),
+                commandRateLimit.isBlank() || isTrue(commandRateLimit),
                 dbPath,
+                storage,
+                readString(root, "app", "postgres_url"),
+                readString(root, "app", "postgres_user"),
+                readString(root, "app", "postgres_password"),
+                isTrue(readString(root, "app", "memory_first")),
+                journalPath,
+                isTrue(readString(root, "app", "sql_diagnostics")),
+                Math.max(0, slowQueryMillis),
+                readString(root, "app", "otlp_endpoint"),
                 readString(root, "dashboard", "token"),
                 botConfig
         );
@@ -107,6 +131,14 @@ public final class YamlConfigManager {
         }
     }
 
+    // 0 = a single JDA without ShardManager, -1 ("auto") = the shard count Discord recommends.
+    private int parseShards(String raw) {
+        if (raw.trim().equalsIgnoreCase("auto")) {
+            return -1;
+        }
+        return Math.max(-1, parseInt(raw.trim(), 0));
+    }
+
     private int parseInt(String raw, int fallback) {
         try {
             return Integer.parseInt(raw);
@@ -120,7 +152,10 @@ public final class YamlConfigManager {
     }
 
     private boolean bool(Map<String, String> values, String key) {
-        String raw = values.getOrDefault(key, "");
+        return isTrue(values.getOrDefault(key, ""));
+    }
+
+    private boolean isTrue(String raw) {
         return raw.equalsIgnoreCase("true")
                 || raw.equals("1")
                 || raw.equalsIgnoreCase("yes")
@@ -278,12 +313,26 @@ public final class YamlConfigManager {
         return """
                 # NebiUpdate configuration
                 app:
+                  storage: sqlite
                   db_path: data/nebiupdate.db
+                  postgres_url: ""
+                  postgres_user: ""
+                  postgres_password: ""
+                  memory_first: false
+                  journal_path: data/nebiupdate.journal
+                  sql_diagnostics: false
+                  slow_query_ms: 100
+                  otlp_endpoint: ""
 
                 discord:
                   token: ""
                   guild_id: ""
                   channel_id: ""
+                  api_url: ""
+                  gateway_url: ""
+                  gateway_profile: lean
+                  shards: 0
+                  command_rate_limit: true
 
                 dashboard:
                   host: 0.0.0.0
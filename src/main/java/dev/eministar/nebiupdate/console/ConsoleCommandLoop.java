@@ -3,14 +3,26 @@ package dev.eministar.nebiupdate.console;
 import dev.eministar.nebiupdate.config.BotConfig;
 import dev.eministar.nebiupdate.config.ConfigService;
 import dev.eministar.nebiupdate.audit.AuditService;
+import dev.eministar.nebiupdate.data.SqlDiagnostics;
 import dev.eministar.nebiupdate.data.UpdateRepository;
 import dev.eministar.nebiupdate.discord.DiscordGateway;
+import dev.eministar.nebiupdate.jfr.FlightRecorderControl;
+import dev.eministar.nebiupdate.jobs.JobProgress;
 import dev.eministar.nebiupdate.logging.ErrorLogger;
+import dev.eministar.nebiupdate.runtime.JvmMetrics;
+import dev.eministar.nebiupdate.runtime.TaskExecutor;
 import dev.eministar.nebiupdate.time.WeekService;
+import dev.eministar.nebiupdate.transfer.DatasetGenerator;
 import dev.eministar.nebiupdate.time.WeekWindow;
+import dev.eministar.nebiupdate.tracing.OtlpExporter;
+import dev.eministar.nebiupdate.tracing.Span;
+import dev.eministar.nebiupdate.tracing.SpanData;
+import dev.eministar.nebiupdate.tracing.Tracing;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -38,6 +50,10 @@ public final class ConsoleCommandLoop implements AutoCloseable {
     private final WeekService weekService;
     private final DiscordGateway discordGateway;
     private final AuditService auditService;
+    private final SqlDiagnostics sqlDiagnostics;
+    private final FlightRecorderControl flightRecorder;
+    private final TaskExecutor tasks;
+    private final DatasetGenerator datasetGenerator;
     private final Map<String, CommandSpec> commandIndex = new LinkedHashMap<>();
     private final List<CommandSpec> commandList = new ArrayList<>();
     private final boolean ansiEnabled;
@@ -50,13 +66,21 @@ public final class ConsoleCommandLoop implements AutoCloseable {
             UpdateRepository updateRepository,
             WeekService weekService,
             DiscordGateway discordGateway,
-            AuditService auditService
+            AuditService auditService,
+            SqlDiagnostics sqlDiagnostics,
+            FlightRecorderControl flightRecorder,
+            TaskExecutor tasks,
+            DatasetGenerator datasetGenerator
     ) {
         this.configService = configService;
         this.updateRepository = updateRepository;
         this.weekService = weekService;
         this.discordGateway = discordGateway;
         this.auditService = auditService;
+        this.sqlDiagnostics = sqlDiagnostics;
+        this.flightRecorder = flightRecorder;
+        this.tasks = tasks;
+        this.datasetGenerator = datasetGenerator;
         this.ansiEnabled = resolveAnsiEnabled();
         registerCommands();
     }
@@ -97,17 +121,19 @@ public final class ConsoleCommandLoop implements AutoCloseable {
             return;
         }
 
-        try {
-            commandSpec.handler().execute(input);
-        } catch (CommandUsageException ex) {
-            printError(ex.getMessage());
-            String usage = commandSpec.usage().isBlank()
-                    ? commandSpec.name()
-                    : commandSpec.name() + " " + commandSpec.usage();
-            printInfo("Nutzung: " + usage);
-        } catch (Exception ex) {
-            String errorId = ErrorLogger.capture(LOGGER, "CONSOLE_CMD", ex, "Console command failed: {}", input.command());
-            printError("Befehl fehlgeschlagen. Fehler-ID: " + errorId);
+        try (Span ignored = Tracing.start("console " + commandSpec.name())) {
+            try {
+                commandSpec.handler().execute(input);
+            } catch (CommandUsageException ex) {
+                printError(ex.getMessage());
+                String usage = commandSpec.usage().isBlank()
+                        ? commandSpec.name()
+                        : commandSpec.name() + " " + commandSpec.usage();
+                printInfo("Nutzung: " + usage);
+            } catch (Exception ex) {
+                String errorId = ErrorLogger.capture(LOGGER, "CONSOLE_CMD", ex, "Console command failed: {}", input.command());
+                printError("Befehl fehlgeschlagen. Fehler-ID: " + errorId);
+            }
         }
     }
 
@@ -141,7 +167,8 @@ public final class ConsoleCommandLoop implements AutoCloseable {
         System.out.println("Channel       : " + emptyAs(config.channelId(), "(nicht gesetzt)"));
         System.out.println("Zeitplan      : " + config.scheduleDay() + " " + config.scheduleTime() + " (" + config.timezone() + ")");
         System.out.println("Nächster Slot : " + scheduleAt);
-        System.out.println("Discord       : " + (discordGateway.isConnected() ? "verbunden" : "offline"));
+        System.out.println("Discord       : " + (discordGateway.isConnected() ? "verbunden" : "offline") + " (Profil " + discordGateway.profile().key() + ", " + discordGateway.shardsTotal() + " Shard(s))");
+        System.out.println("Heap          : " + JvmMetrics.heapUsedBytes() / (1024 * 1024) + " / " + JvmMetrics.heapMaxBytes() / (1024 * 1024) + " MB");
     }
 
     private void printConfig() {
@@ -152,6 +179,195 @@ public final class ConsoleCommandLoop implements AutoCloseable {
         }
     }
 
+    private void printSqlStats(List<String> args) {
+        if (!sqlDiagnostics.isEnabled()) {
+            printInfo("SQL-Diagnose ist aus. Aktivieren mit app.sql_diagnostics: true in config.yml (Neustart nötig).");
+            return;
+        }
+        if (!args.isEmpty() && args.get(0).equalsIgnoreCase("reset")) {
+            sqlDiagnostics.reset();
+            printSuccess("SQL-Statistik zurückgesetzt.");
+            return;
+        }
+        int limit = 10;
+        if (!args.isEmpty()) {
+            try {
+                limit = Math.max(1, Integer.parseInt(args.get(args.size() - 1)));
+            } catch (NumberFormatException ex) {
+                throw new CommandUsageException("Anzahl muss eine Zahl sein.");
+            }
+        }
+
+        printSection("Langsamste Statements (Ø)");
+        printSqlTable(sqlDiagnostics.slowest(limit));
+        printSection("Häufigste Statements");
+        printSqlTable(sqlDiagnostics.mostFrequent(limit));
+        printInfo("Schwelle für Slow-Log: " + sqlDiagnostics.slowThresholdMillis() + " ms | Pläne: /api/diagnostics/sql");
+    }
+
+    private void handleFlightRecorder(List<String> args) {
+        String action = args.isEmpty() ? "status" : args.get(0).toLowerCase(Locale.ROOT);
+        try {
+            switch (action) {
+                case "start" -> {
+                    flightRecorder.start();
+                    printSuccess("JFR-Aufzeichnung gestartet (rollierend, max. 30 min).");
+                }
+                case "dump" -> printSuccess("JFR-Dump geschrieben: " + flightRecorder.dump());
+                case "stop" -> {
+                    flightRecorder.stop();
+                    printSuccess("JFR-Aufzeichnung gestoppt.");
+                }
+                case "status" -> {
+                    Map<String, Object> status = flightRecorder.status();
+                    printSection("Java Flight Recorder");
+                    for (Map.Entry<String, Object> entry : status.entrySet()) {
+                        System.out.printf("%-16s = %s%n", entry.getKey(), entry.getValue());
+                    }
+                }
+                default -> throw new CommandUsageException("Unbekannte Aktion: " + action);
+            }
+        } catch (IllegalStateException ex) {
+            printError(ex.getMessage());
+        }
+    }
+
+    private void printTasks() {
+        printSection("Task-Klassen");
+        System.out.printf("%-18s %-12s %8s %8s %8s %10s %7s %8s%n", "Klasse", "Lane", "Laufend", "Wartend", "Limit", "Erledigt", "Fehler", "Abgelehnt");
+        for (Map<String, Object> row : tasks.snapshot()) {
+            System.out.printf(
+                    "%-18s %-12s %8s %8s %8s %10s %7s %8s%n",
+                    row.get("name"),
+                    row.get("lane"),
+                    row.get("running"),
+                    row.get("queued"),
+                    row.get("maxConcurrency"),
+                    row.get("completed"),
+                    row.get("failed"),
+                    row.get("rejected")
+            );
+        }
+        printInfo("Gleichzeitig insgesamt höchstens " + tasks.maxRunning() + " Tasks (virtuelle Threads).");
+    }
+
+    private void handleTrace(List<String> args) {
+        if (args.isEmpty()) {
+            printSection("Letzte Traces");
+            List<Map<String, Object>> traces = Tracing.recentTraces(15);
+            if (traces.isEmpty()) {
+                System.out.println("(noch keine Spans)");
+                return;
+            }
+            System.out.printf("%-32s %10s %6s  %s%n", "Trace-ID", "Dauer ms", "Spans", "Root");
+            for (Map<String, Object> trace : traces) {
+                System.out.printf(
+                        Locale.ROOT,
+                        "%-32s %10.2f %6d  %s%s%n",
+                        trace.get("traceId"),
+                        (Double) trace.get("durationMs"),
+                        (Integer) trace.get("spans"),
+                        trace.get("root"),
+                        Boolean.TRUE.equals(trace.get("error")) ? "  [Fehler " + trace.get("errorIds") + "]" : ""
+                );
+            }
+            return;
+        }
+        if (args.get(0).equalsIgnoreCase("export")) {
+            Path target = args.size() > 1
+                    ? Path.of(args.get(1))
+                    : Path.of("data", "traces", "traces-" + System.currentTimeMillis() + ".json");
+            try {
+                Path written = OtlpExporter.writeFile(target, Tracing.recentSpans(Integer.MAX_VALUE));
+                printSuccess("OTLP/JSON geschrieben: " + written);
+            } catch (IOException ex) {
+                printError("Export fehlgeschlagen: " + ex.getMessage());
+            }
+            return;
+        }
+        // Accepts a trace ID or an error ID from the log.
+        String id = args.get(0);
+        String traceId = id.matches("[0-9a-f]{32}") ? id : Tracing.traceIdForError(id);
+        List<SpanData> spans = traceId == null ? List.of() : Tracing.trace(traceId);
+        if (spans.isEmpty()) {
+            printInfo("Kein Trace im Puffer für " + id);
+            return;
+        }
+        printSection("Trace " + traceId);
+        printSpanTree(spans, null, 0);
+    }
+
+    private void handleGenerate(List<String> args) {
+        DatasetGenerator.Spec spec;
+        try {
+            spec = DatasetGenerator.Spec.parse(args);
+        } catch (IllegalArgumentException ex) {
+            throw new CommandUsageException(ex.getMessage());
+        }
+        printInfo("Erzeuge " + spec.weeks() + " Wochen mit Ø " + spec.entriesPerWeek() + " Einträgen...");
+        DatasetGenerator.Result result = datasetGenerator.generate(spec, JobProgress.NONE);
+        auditService.log(
+                "console",
+                "console",
+                "dataset.generate",
+                "dataset",
+                "history",
+                Map.of("weeks", result.weeks(), "updates", result.updates(), "seed", spec.seed())
+        );
+        printSuccess(String.format(
+                Locale.ROOT,
+                "%d Updates, %d Wochen-Nachrichten, %d Audit-Einträge in %d ms erzeugt.",
+                result.updates(),
+                result.weeklyMessages(),
+                result.auditEntries(),
+                result.durationMillis()
+        ));
+    }
+
+    private void printSpanTree(List<SpanData> spans, String parentSpanId, int depth) {
+        for (SpanData span : spans) {
+            boolean isChild = parentSpanId == null
+                    ? spans.stream().noneMatch(other -> other.spanId().equals(span.parentSpanId()))
+                    : parentSpanId.equals(span.parentSpanId());
+            if (!isChild) {
+                continue;
+            }
+            System.out.printf(
+                    Locale.ROOT,
+                    "%s%-40s %9.2f ms  %s%s%n",
+                    "  ".repeat(depth),
+                    span.name(),
+                    span.durationMillis(),
+                    span.thread(),
+                    span.error() ? "  FEHLER" + (span.errorId() == null ? "" : " " + span.errorId()) : ""
+            );
+            printSpanTree(spans, span.spanId(), depth + 1);
+        }
+    }
+
+    private void printSqlTable(List<SqlDiagnostics.QueryStats> rows) {
+        if (rows.isEmpty()) {
+            System.out.println("(noch keine Statements)");
+            return;
+        }
+        System.out.printf("%8s %9s %9s %6s  %s%n", "Anzahl", "Ø ms", "Max ms", "Slow", "SQL");
+        for (SqlDiagnostics.QueryStats row : rows) {
+            System.out.printf(
+                    Locale.ROOT,
+                    "%8d %9.2f %9.2f %6d  %s%n",
+                    row.count(),
+                    row.meanMillis(),
+                    row.maxMillis(),
+                    row.slowCount(),
+                    abbreviate(row.sql(), 90)
+            );
+        }
+    }
+
+    private String abbreviate(String text, int maxChars) {
+        return text.length() <= maxChars ? text : text.substring(0, maxChars - 3) + "...";
+    }
+
     private void printHelp(String commandName) {
         if (commandName == null || commandName.isBlank()) {
             printSection("Verfügbare Befehle");
@@ -237,14 +453,53 @@ public final class ConsoleCommandLoop implements AutoCloseable {
         register(new CommandSpec(
                 "commands",
                 List.of("slash"),
-                "",
-                "Slash-Commands neu registrieren",
+                "[force]",
+                "Slash-Commands neu registrieren (nur bei Änderungen, force erzwingt)",
                 input -> {
-                    discordGateway.registerSlashCommands();
+                    boolean force = input.args().stream().anyMatch(arg -> arg.equalsIgnoreCase("force"));
+                    if (!discordGateway.registerSlashCommands(force)) {
+                        printInfo("Slash-Commands unverändert, nichts registriert.");
+                        return;
+                    }
                     auditService.log("console", "console", "commands.reregister", "discord", "slash_commands", Map.of());
                     printSuccess("Slash-Commands neu registriert.");
                 }
         ));
+        register(new CommandSpec(
+                "sql",
+                List.of("db"),
+                "[top [anzahl] | reset]",
+                "Langsamste und häufigste SQL-Statements",
+                input -> printSqlStats(input.args().stream().filter(arg -> !arg.equalsIgnoreCase("top")).toList())
+        ));
+        register(new CommandSpec(
+                "jfr",
+                List.of("recording"),
+                "[start | dump | stop | status]",
+                "Java-Flight-Recorder-Aufzeichnung steuern",
+                input -> handleFlightRecorder(input.args())
+        ));
+        register(new CommandSpec(
+                "tasks",
+                List.of("threads"),
+                "",
+                "Laufende und wartende Tasks je Klasse",
+                input -> printTasks()
+        ));
+        register(new CommandSpec(
+                "trace",
+                List.of("traces"),
+                "[<trace-id> | <fehler-id> | export [datei]]",
+                "Letzte Traces, Span-Baum oder OTLP/JSON-Export",
+                input -> handleTrace(input.args())
+        ));
+        register(new CommandSpec(
+                "generate",
+                List.of("gen"),
+                "[weeks=260] [per-week=25] [min-length=20] [max-length=400] [authors=12] [seed=42]",
+                "Synthetische Historie für Lasttests erzeugen",
+                input -> handleGenerate(input.args())
+        ));
         register(new CommandSpec(
                 "exit",
                 List.of("quit", "stop"),
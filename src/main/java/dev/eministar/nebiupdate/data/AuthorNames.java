@@ -0,0 +1,30 @@
+package dev.eministar.nebiupdate.data;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+final class AuthorNames {
+    private static final Pattern USER_ID_PATTERN = Pattern.compile("^\\d{15,25}$");
+    private static final Pattern USER_MENTION_PATTERN = Pattern.compile("^<@!?(\\d{15,25})>$");
+
+    private AuthorNames() {
+    }
+
+    static String normalize(String author) {
+        if (author == null || author.isBlank()) {
+            return "Unbekannt";
+        }
+        String value = author.trim();
+
+        Matcher mentionMatcher = USER_MENTION_PATTERN.matcher(value);
+        if (mentionMatcher.matches()) {
+            return mentionMatcher.group(1);
+        }
+
+        if (USER_ID_PATTERN.matcher(value).matches()) {
+            return value;
+        }
+
+        return value;
+    }
+}
@@ -0,0 +1,49 @@
+package dev.eministar.nebiupdate.data;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+// Cursor-tracking view on the update change log. A consumer polls the events after its cursor,
+// processes them and acknowledges the last sequence number it handled.
+public final class ChangeFeed {
+    private static final Pattern CONSUMER_NAME = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final UpdateRepository updateRepository;
+
+    public ChangeFeed(UpdateRepository updateRepository) {
+        this.updateRepository = updateRepository;
+    }
+
+    public List<UpdateEvent> since(long afterSeq, int limit) {
+        return updateRepository.findEventsAfter(Math.max(0L, afterSeq), limit);
+    }
+
+    public long latestSeq() {
+        return updateRepository.latestEventSeq();
+    }
+
+    public long cursor(String consumer) {
+        return updateRepository.findConsumerCursor(requireConsumer(consumer));
+    }
+
+    public List<UpdateEvent> poll(String consumer, int limit) {
+        return since(cursor(consumer), limit);
+    }
+
+    // Any sequence number up to the latest one is accepted, so a consumer can also rewind to rebuild its state.
+    public void acknowledge(String consumer, long seq) {
+        String name = requireConsumer(consumer);
+        long latest = latestSeq();
+        if (seq < 0 || seq > latest) {
+            throw new IllegalArgumentException("Sequenznummer " + seq + " liegt außerhalb von 0.." + latest);
+        }
+        updateRepository.saveConsumerCursor(name, seq);
+    }
+
+    private String requireConsumer(String consumer) {
+        if (consumer == null || !CONSUMER_NAME.matcher(consumer).matches()) {
+            throw new IllegalArgumentException("Ungültiger Consumer-Name (erlaubt: A-Z, a-z, 0-9, . _ -, max. 64 Zeichen)");
+        }
+        return consumer;
+    }
+}
@@ -15,6 +15,8 @@ public final class Database implements AutoCloseable {
     private static final Logger LOGGER = LoggerFactory.getLogger(Database.class);
 
     private final HikariDataSource dataSource;
+    private final SqlDialect dialect;
+    private volatile SqlDiagnostics diagnostics = SqlDiagnostics.disabled();
 
     public Database(String dbPath) {
         String resolvedPath = resolveDbPath(dbPath);
@@ -24,6 +26,28 @@ public final class Database implements AutoCloseable {
         config.setMinimumIdle(1);
         config.setConnectionTimeout(10_000);
         config.setPoolName("nebi-sqlite");
+        // Write transactions take the write lock up front instead of failing on a read-to-write upgrade.
+        config.addDataSourceProperty("transaction_mode", "IMMEDIATE");
+        config.setMetricsTrackerFactory(new PoolMetrics());
+        dataSource = new HikariDataSource(config);
+        dialect = SqlDialect.SQLITE;
+    }
+
+    public Database(String jdbcUrl, String username, String password, int maxPoolSize) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(jdbcUrl);
+        if (username != null && !username.isBlank()) {
+            config.setUsername(username);
+        }
+        if (password != null && !password.isBlank()) {
+            config.setPassword(password);
+        }
+        config.setMaximumPoolSize(Math.max(1, maxPoolSize));
+        config.setMinimumIdle(1);
+        config.setConnectionTimeout(10_000);
+        dialect = SqlDialect.fromJdbcUrl(jdbcUrl);
+        config.setPoolName(dialect == SqlDialect.POSTGRES ? "nebi-postgres" : "nebi-jdbc");
+        config.setMetricsTrackerFactory(new PoolMetrics());
         dataSource = new HikariDataSource(config);
     }
 
@@ -40,7 +64,15 @@ public final class Database implements AutoCloseable {
         }
     }
 
+    public SqlDialect dialect() {
+        return dialect;
+    }
+
     public void initialize() {
+        if (dialect == SqlDialect.POSTGRES) {
+            initializePostgres();
+            return;
+        }
         try (Connection connection = getConnection();
              Statement statement = connection.createStatement()) {
             statement.executeUpdate("""
@@ -57,10 +89,12 @@ public final class Database implements AutoCloseable {
                         content TEXT NOT NULL,
                         author TEXT NOT NULL DEFAULT 'Unbekannt',
                         created_at TEXT NOT NULL,
-                        updated_at TEXT NOT NULL
+                        updated_at TEXT NOT NULL,
+                        version INTEGER NOT NULL DEFAULT 1
                     )
                     """);
             ensureColumn(statement, "updates", "author", "TEXT NOT NULL DEFAULT 'Unbekannt'");
+            ensureColumn(statement, "updates", "version", "INTEGER NOT NULL DEFAULT 1");
             statement.executeUpdate("CREATE INDEX IF NOT EXISTS idx_updates_week_start ON updates(week_start)");
             statement.executeUpdate("""
                     CREATE TABLE IF NOT EXISTS weekly_messages(
@@ -83,12 +117,102 @@ public final class Database implements AutoCloseable {
                     )
                     """);
             statement.executeUpdate("CREATE INDEX IF NOT EXISTS idx_audit_created_at ON audit_log(created_at)");
+            statement.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS update_events(
+                        seq INTEGER PRIMARY KEY AUTOINCREMENT,
+                        kind TEXT NOT NULL,
+                        update_id INTEGER NOT NULL,
+                        week_start TEXT,
+                        type TEXT,
+                        content TEXT,
+                        author TEXT,
+                        version INTEGER NOT NULL,
+                        occurred_at TEXT NOT NULL
+                    )
+                    """);
+            statement.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS event_cursors(
+                        consumer TEXT PRIMARY KEY,
+                        seq INTEGER NOT NULL,
+                        updated_at TEXT NOT NULL
+                    )
+                    """);
         } catch (SQLException ex) {
             throw new IllegalStateException("Failed to initialize database schema", ex);
         }
         LOGGER.info("Database schema initialized");
     }
 
+    private void initializePostgres() {
+        try (Connection connection = getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS app_config(
+                        key TEXT PRIMARY KEY,
+                        value TEXT NOT NULL
+                    )
+                    """);
+            statement.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS updates(
+                        id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                        week_start TEXT NOT NULL,
+                        type TEXT NOT NULL CHECK(type IN ('added','changed','removed')),
+                        content TEXT NOT NULL,
+                        author TEXT NOT NULL DEFAULT 'Unbekannt',
+                        created_at TEXT NOT NULL,
+                        updated_at TEXT NOT NULL,
+                        version BIGINT NOT NULL DEFAULT 1
+                    )
+                    """);
+            statement.executeUpdate("ALTER TABLE updates ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 1");
+            statement.executeUpdate("CREATE INDEX IF NOT EXISTS idx_updates_week_start_id ON updates(week_start, id)");
+            statement.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS weekly_messages(
+                        week_start TEXT PRIMARY KEY,
+                        channel_id TEXT NOT NULL,
+                        message_id TEXT NOT NULL,
+                        created_at TEXT NOT NULL
+                    )
+                    """);
+            statement.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS audit_log(
+                        id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                        created_at TEXT NOT NULL,
+                        actor TEXT NOT NULL,
+                        source TEXT NOT NULL,
+                        action TEXT NOT NULL,
+                        entity_type TEXT NOT NULL,
+                        entity_id TEXT NOT NULL,
+                        details TEXT NOT NULL
+                    )
+                    """);
+            statement.executeUpdate("CREATE INDEX IF NOT EXISTS idx_audit_created_at ON audit_log(created_at)");
+            statement.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS update_events(
+                        seq BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                        kind TEXT NOT NULL,
+                        update_id BIGINT NOT NULL,
+                        week_start TEXT,
+                        type TEXT,
+                        content TEXT,
+                        author TEXT,
+                        version BIGINT NOT NULL,
+                        occurred_at TEXT NOT NULL
+                    )
+                    """);
+            statement.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS event_cursors(
+                        consumer TEXT PRIMARY KEY,
+                        seq BIGINT NOT NULL,
+                        updated_at TEXT NOT NULL
+                    )
+                    """);
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to initialize PostgreSQL schema", ex);
+        }
+        LOGGER.info("Database schema initialized (PostgreSQL)");
+    }
+
     private void ensureColumn(Statement statement, String table, String column, String definition) throws SQLException {
         try {
             statement.executeUpdate("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
@@ -101,8 +225,14 @@ public final class Database implements AutoCloseable {
         }
     }
 
+    // From now on getConnection() hands out connections that report to the given diagnostics.
+    public void instrument(SqlDiagnostics diagnostics) {
+        diagnostics.useDialect(dialect);
+        this.diagnostics = diagnostics;
+    }
+
     public Connection getConnection() throws SQLException {
-        return dataSource.getConnection();
+        return diagnostics.wrap(dataSource.getConnection());
     }
 
     @Override
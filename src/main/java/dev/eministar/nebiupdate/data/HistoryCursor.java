@@ -0,0 +1,37 @@
+package dev.eministar.nebiupdate.data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+public record HistoryCursor(LocalDate weekStart, long id) {
+
+    public String encode() {
+        String raw = weekStart + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static HistoryCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("Cursor is empty");
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            LocalDate weekStart = LocalDate.parse(raw.substring(0, separator));
+            long id = Long.parseLong(raw.substring(separator + 1));
+            return new HistoryCursor(weekStart, id);
+        } catch (IllegalArgumentException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, ex);
+        }
+    }
+
+    public static HistoryCursor of(UpdateEntry entry) {
+        return new HistoryCursor(entry.weekStart(), entry.id());
+    }
+}
@@ -0,0 +1,430 @@
+package dev.eministar.nebiupdate.data;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class InMemoryUpdateStore implements UpdateStore {
+    // Without a database behind it the change log is the only copy, so it keeps a bounded tail.
+    private static final int MAX_RETAINED_EVENTS = 50_000;
+    private static final Comparator<UpdateEntry> WEEK_ORDER = Comparator
+            .comparing((UpdateEntry entry) -> entry.type().ordinal())
+            .thenComparingLong(UpdateEntry::id);
+    private static final Comparator<UpdateEntry> CHRONOLOGICAL_ORDER = Comparator
+            .comparing(UpdateEntry::weekStart)
+            .thenComparingLong(UpdateEntry::id);
+
+    // Reads are lock-free. A bulk load builds fresh indexes and swaps them in as a whole, so a reader
+    // sees either the old or the new data set, never a half-filled one.
+    private volatile Indexes indexes = Indexes.empty();
+    private final AtomicLong idSequence = new AtomicLong();
+    private final ConcurrentSkipListMap<Long, UpdateEvent> events = new ConcurrentSkipListMap<>();
+    private final AtomicLong eventSequence = new AtomicLong();
+    private final Map<String, Long> consumerCursors = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+
+    @Override
+    public UpdateEntry create(LocalDate weekStart, UpdateType type, String content, String author) {
+        Instant now = Instant.now();
+        synchronized (writeLock) {
+            UpdateEntry entry = new UpdateEntry(
+                    nextId(),
+                    weekStart,
+                    type,
+                    content,
+                    AuthorNames.normalize(author),
+                    now,
+                    now,
+                    1L
+            );
+            index(entry);
+            recordEvent(UpdateEventType.CREATED, entry, now);
+            return entry;
+        }
+    }
+
+    @Override
+    public List<UpdateEntry> createAll(List<UpdateDraft> drafts) {
+        Instant now = Instant.now();
+        synchronized (writeLock) {
+            List<UpdateEntry> created = new ArrayList<>(drafts.size());
+            for (UpdateDraft draft : drafts) {
+                UpdateEntry entry = new UpdateEntry(
+                        nextId(),
+                        draft.weekStart(),
+                        draft.type(),
+                        draft.content(),
+                        AuthorNames.normalize(draft.author()),
+                        now,
+                        now,
+                        1L
+                );
+                index(entry);
+                recordEvent(UpdateEventType.CREATED, entry, now);
+                created.add(entry);
+            }
+            return created;
+        }
+    }
+
+    @Override
+    public List<UpdateEntry> findByWeek(LocalDate weekStart) {
+        return indexes.byWeek().getOrDefault(weekStart, List.of());
+    }
+
+    @Override
+    public Optional<UpdateEntry> findByIdInWeek(long id, LocalDate weekStart) {
+        return Optional.ofNullable(indexes.byId().get(id))
+                .filter(entry -> entry.weekStart().equals(weekStart));
+    }
+
+    @Override
+    public WriteOutcome updateInWeek(long id, LocalDate weekStart, UpdateType type, String content, String author, long expectedVersion) {
+        synchronized (writeLock) {
+            Optional<UpdateEntry> existing = findByIdInWeek(id, weekStart);
+            WriteOutcome outcome = checkVersion(existing, expectedVersion);
+            if (outcome == WriteOutcome.APPLIED) {
+                UpdateEntry updated = nextRevision(existing.get(), type, content, author);
+                index(updated);
+                recordEvent(UpdateEventType.UPDATED, updated, updated.updatedAt());
+            }
+            return outcome;
+        }
+    }
+
+    @Override
+    public WriteOutcome deleteInWeek(long id, LocalDate weekStart, long expectedVersion) {
+        synchronized (writeLock) {
+            Optional<UpdateEntry> existing = findByIdInWeek(id, weekStart);
+            WriteOutcome outcome = checkVersion(existing, expectedVersion);
+            if (outcome == WriteOutcome.APPLIED) {
+                unindex(existing.get());
+                recordEvent(UpdateEventType.DELETED, existing.get(), Instant.now());
+            }
+            return outcome;
+        }
+    }
+
+    @Override
+    public Optional<String> findWeeklyMessageId(LocalDate weekStart) {
+        return Optional.ofNullable(indexes.weeklyMessages().get(weekStart)).map(WeeklyMessageRecord::messageId);
+    }
+
+    @Override
+    public void upsertWeeklyMessage(LocalDate weekStart, String channelId, String messageId) {
+        putWeeklyMessage(prepareWeeklyMessage(weekStart, channelId, messageId));
+    }
+
+    @Override
+    public int countByWeek(LocalDate weekStart) {
+        return findByWeek(weekStart).size();
+    }
+
+    @Override
+    public List<UpdateEntry> findAll() {
+        List<UpdateEntry> all = new ArrayList<>(indexes.byId().values());
+        all.sort(CHRONOLOGICAL_ORDER);
+        return all;
+    }
+
+    @Override
+    public List<UpdateEntry> findByWeekRange(LocalDate fromWeek, LocalDate toWeek) {
+        List<UpdateEntry> range = new ArrayList<>();
+        for (List<UpdateEntry> week : indexes.byWeek().subMap(fromWeek, true, toWeek, true).values()) {
+            range.addAll(week);
+        }
+        range.sort(CHRONOLOGICAL_ORDER);
+        return range;
+    }
+
+    @Override
+    public UpdatePage findHistoryPage(LocalDate fromWeek, LocalDate toWeek, HistoryCursor before, int limit) {
+        int safeLimit = Math.max(1, Math.min(limit, 500));
+        NavigableMap<LocalDate, List<UpdateEntry>> weeks = indexes.byWeek();
+        if (fromWeek != null) {
+            weeks = weeks.tailMap(fromWeek, true);
+        }
+        if (toWeek != null) {
+            weeks = weeks.headMap(toWeek, true);
+        }
+        if (before != null) {
+            weeks = weeks.headMap(before.weekStart(), true);
+        }
+
+        List<UpdateEntry> collected = new ArrayList<>();
+        for (List<UpdateEntry> week : weeks.descendingMap().values()) {
+            List<UpdateEntry> newestFirst = new ArrayList<>(week);
+            newestFirst.sort(Comparator.comparingLong(UpdateEntry::id).reversed());
+            for (UpdateEntry entry : newestFirst) {
+                if (before != null && entry.weekStart().equals(before.weekStart()) && entry.id() >= before.id()) {
+                    continue;
+                }
+                collected.add(entry);
+                if (collected.size() > safeLimit) {
+                    List<UpdateEntry> page = collected.subList(0, safeLimit);
+                    return new UpdatePage(page, HistoryCursor.of(page.getLast()));
+                }
+            }
+        }
+        return new UpdatePage(collected, null);
+    }
+
+    @Override
+    public List<WeeklyMessageRecord> findAllWeeklyMessages() {
+        List<WeeklyMessageRecord> records = new ArrayList<>(indexes.weeklyMessages().values());
+        records.sort(Comparator.comparing(WeeklyMessageRecord::weekStart));
+        return records;
+    }
+
+    @Override
+    public List<WeeklyTypeStats> findWeeklyTypeStats(int limitWeeks) {
+        int safeLimit = Math.max(1, Math.min(limitWeeks, 260));
+        List<WeeklyTypeStats> stats = new ArrayList<>();
+        for (Map.Entry<LocalDate, List<UpdateEntry>> week : indexes.byWeek().descendingMap().entrySet()) {
+            if (stats.size() >= safeLimit) {
+                break;
+            }
+            int added = 0;
+            int changed = 0;
+            int removed = 0;
+            for (UpdateEntry entry : week.getValue()) {
+                switch (entry.type()) {
+                    case ADDED -> added++;
+                    case CHANGED -> changed++;
+                    case REMOVED -> removed++;
+                }
+            }
+            stats.add(new WeeklyTypeStats(week.getKey(), added, changed, removed));
+        }
+        return stats.reversed();
+    }
+
+    @Override
+    public void replaceAll(List<UpdateEntry> updates, List<WeeklyMessageRecord> weeklyMessages) {
+        synchronized (writeLock) {
+            List<UpdateEntry> normalized = updates.stream()
+                    .map(entry -> new UpdateEntry(
+                            entry.id(),
+                            entry.weekStart(),
+                            entry.type(),
+                            entry.content(),
+                            AuthorNames.normalize(entry.author()),
+                            entry.createdAt(),
+                            entry.updatedAt(),
+                            entry.version()
+                    ))
+                    .toList();
+            load(normalized, weeklyMessages, Math.max(idSequence.get(), maxId(normalized)));
+            retainEvent(UpdateEvent.replaced(eventSequence.incrementAndGet(), Instant.now()));
+        }
+    }
+
+    @Override
+    public void applyBatch(
+            List<UpdateEntry> upserts,
+            Collection<Long> deletedIds,
+            List<WeeklyMessageRecord> weeklyMessages,
+            List<UpdateEvent> events
+    ) {
+        synchronized (writeLock) {
+            for (UpdateEntry entry : upserts) {
+                index(entry);
+                idSequence.accumulateAndGet(entry.id(), Math::max);
+            }
+            for (Long id : deletedIds) {
+                UpdateEntry existing = indexes.byId().get(id);
+                if (existing != null) {
+                    unindex(existing);
+                }
+            }
+            for (WeeklyMessageRecord record : weeklyMessages) {
+                putWeeklyMessage(record);
+            }
+            for (UpdateEvent event : events) {
+                retainEvent(event);
+                eventSequence.accumulateAndGet(event.seq(), Math::max);
+            }
+        }
+    }
+
+    @Override
+    public List<UpdateEvent> findEventsAfter(long afterSeq, int limit) {
+        int safeLimit = Math.max(1, Math.min(limit, 1000));
+        return events.tailMap(afterSeq, false).values().stream().limit(safeLimit).toList();
+    }
+
+    @Override
+    public long latestEventSeq() {
+        return eventSequence.get();
+    }
+
+    @Override
+    public long findConsumerCursor(String consumer) {
+        return consumerCursors.getOrDefault(consumer, 0L);
+    }
+
+    @Override
+    public void saveConsumerCursor(String consumer, long seq) {
+        consumerCursors.put(consumer, seq);
+    }
+
+    @Override
+    public long highestAssignedId() {
+        return idSequence.get();
+    }
+
+    // Building blocks for stores that layer durability on top of this model and need to journal
+    // a write before it becomes visible.
+
+    long nextId() {
+        return idSequence.incrementAndGet();
+    }
+
+    WriteOutcome checkVersion(Optional<UpdateEntry> existing, long expectedVersion) {
+        if (existing.isEmpty()) {
+            return WriteOutcome.NOT_FOUND;
+        }
+        if (expectedVersion != ANY_VERSION && existing.get().version() != expectedVersion) {
+            return WriteOutcome.VERSION_CONFLICT;
+        }
+        return WriteOutcome.APPLIED;
+    }
+
+    UpdateEntry nextRevision(UpdateEntry existing, UpdateType type, String content, String author) {
+        return new UpdateEntry(
+                existing.id(),
+                existing.weekStart(),
+                type,
+                content,
+                AuthorNames.normalize(author),
+                existing.createdAt(),
+                Instant.now(),
+                existing.version() + 1
+        );
+    }
+
+    WeeklyMessageRecord prepareWeeklyMessage(LocalDate weekStart, String channelId, String messageId) {
+        WeeklyMessageRecord existing = indexes.weeklyMessages().get(weekStart);
+        Instant createdAt = existing == null ? Instant.now() : existing.createdAt();
+        return new WeeklyMessageRecord(weekStart, channelId, messageId, createdAt);
+    }
+
+    Optional<UpdateEntry> findById(long id) {
+        return Optional.ofNullable(indexes.byId().get(id));
+    }
+
+    Optional<WeeklyMessageRecord> findWeeklyMessage(LocalDate weekStart) {
+        return Optional.ofNullable(indexes.weeklyMessages().get(weekStart));
+    }
+
+    // Callers serialize writers; the swap is what makes the replacement atomic for readers.
+    void load(List<UpdateEntry> updates, List<WeeklyMessageRecord> records, long highestAssignedId) {
+        Map<Long, UpdateEntry> byId = new ConcurrentHashMap<>(Math.max(16, updates.size() * 4 / 3 + 1));
+        Map<LocalDate, List<UpdateEntry>> grouped = new HashMap<>();
+        for (UpdateEntry entry : updates) {
+            UpdateEntry previous = byId.put(entry.id(), entry);
+            if (previous != null) {
+                grouped.get(previous.weekStart()).remove(previous);
+            }
+            grouped.computeIfAbsent(entry.weekStart(), ignored -> new ArrayList<>()).add(entry);
+        }
+        ConcurrentSkipListMap<LocalDate, List<UpdateEntry>> byWeek = new ConcurrentSkipListMap<>();
+        grouped.forEach((weekStart, entries) -> {
+            if (!entries.isEmpty()) {
+                entries.sort(WEEK_ORDER);
+                byWeek.put(weekStart, List.copyOf(entries));
+            }
+        });
+        Map<LocalDate, WeeklyMessageRecord> messages = new ConcurrentHashMap<>();
+        for (WeeklyMessageRecord record : records) {
+            messages.put(record.weekStart(), record);
+        }
+        idSequence.set(highestAssignedId);
+        indexes = new Indexes(byId, byWeek, messages);
+    }
+
+    void index(UpdateEntry entry) {
+        Indexes current = indexes;
+        UpdateEntry previous = current.byId().put(entry.id(), entry);
+        if (previous != null && !previous.weekStart().equals(entry.weekStart())) {
+            removeFromWeek(current, previous);
+        }
+        current.byWeek().compute(entry.weekStart(), (weekStart, week) -> {
+            List<UpdateEntry> next = new ArrayList<>(week == null ? 1 : week.size() + 1);
+            if (week != null) {
+                for (UpdateEntry existing : week) {
+                    if (existing.id() != entry.id()) {
+                        next.add(existing);
+                    }
+                }
+            }
+            // The week is already in order, so the new entry only needs its slot.
+            int slot = Collections.binarySearch(next, entry, WEEK_ORDER);
+            next.add(slot < 0 ? -slot - 1 : slot, entry);
+            return List.copyOf(next);
+        });
+    }
+
+    void unindex(UpdateEntry entry) {
+        Indexes current = indexes;
+        current.byId().remove(entry.id());
+        removeFromWeek(current, entry);
+    }
+
+    void putWeeklyMessage(WeeklyMessageRecord record) {
+        indexes.weeklyMessages().put(record.weekStart(), record);
+    }
+
+    int size() {
+        return indexes.byId().size();
+    }
+
+    private void recordEvent(UpdateEventType kind, UpdateEntry entry, Instant occurredAt) {
+        retainEvent(UpdateEvent.of(eventSequence.incrementAndGet(), kind, entry, occurredAt));
+    }
+
+    private void retainEvent(UpdateEvent event) {
+        events.put(event.seq(), event);
+        while (events.size() > MAX_RETAINED_EVENTS) {
+            events.pollFirstEntry();
+        }
+    }
+
+    private static void removeFromWeek(Indexes current, UpdateEntry entry) {
+        current.byWeek().computeIfPresent(entry.weekStart(), (weekStart, week) -> {
+            List<UpdateEntry> next = week.stream()
+                    .filter(existing -> existing.id() != entry.id())
+                    .toList();
+            return next.isEmpty() ? null : next;
+        });
+    }
+
+    private long maxId(List<UpdateEntry> updates) {
+        long max = 0L;
+        for (UpdateEntry entry : updates) {
+            max = Math.max(max, entry.id());
+        }
+        return max;
+    }
+
+    private record Indexes(
+            Map<Long, UpdateEntry> byId,
+            ConcurrentSkipListMap<LocalDate, List<UpdateEntry>> byWeek,
+            Map<LocalDate, WeeklyMessageRecord> weeklyMessages
+    ) {
+        static Indexes empty() {
+            return new Indexes(new ConcurrentHashMap<>(), new ConcurrentSkipListMap<>(), new ConcurrentHashMap<>());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package dev.eministar.nebiupdate.data;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Set;
+
+// Dynamic proxies around a pooled connection and the statements it creates. Only the execute*
+// calls are timed; everything else is passed straight through. The SQL text is taken from
+// prepareStatement / prepareCall, or from the execute(String) argument for plain statements.
+// executeQuery is timed until the driver returns the ResultSet, not until the rows are read.
+final class InstrumentedConnection implements InvocationHandler {
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch"
+    );
+
+    private final Connection connection;
+    private final SqlDiagnostics diagnostics;
+    private Connection proxy;
+
+    private InstrumentedConnection(Connection connection, SqlDiagnostics diagnostics) {
+        this.connection = connection;
+        this.diagnostics = diagnostics;
+    }
+
+    static Connection wrap(Connection connection, SqlDiagnostics diagnostics) {
+        InstrumentedConnection handler = new InstrumentedConnection(connection, diagnostics);
+        handler.proxy = (Connection) Proxy.newProxyInstance(
+                InstrumentedConnection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                handler
+        );
+        return handler.proxy;
+    }
+
+    @Override
+    public Object invoke(Object ignored, Method method, Object[] args) throws Throwable {
+        Object result = passThrough(connection, method, args);
+        String name = method.getName();
+        if (result instanceof CallableStatement statement && name.equals("prepareCall")) {
+            return wrapStatement(statement, CallableStatement.class, (String) args[0]);
+        }
+        if (result instanceof PreparedStatement statement && name.equals("prepareStatement")) {
+            return wrapStatement(statement, PreparedStatement.class, (String) args[0]);
+        }
+        if (result instanceof Statement statement && name.equals("createStatement")) {
+            return wrapStatement(statement, Statement.class, null);
+        }
+        return result;
+    }
+
+    private Object wrapStatement(Statement statement, Class<? extends Statement> type, String sql) {
+        return Proxy.newProxyInstance(
+                InstrumentedConnection.class.getClassLoader(),
+                new Class<?>[]{type},
+                new StatementHandler(statement, sql)
+        );
+    }
+
+    private static Object passThrough(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final String preparedSql;
+        private String batchSql;
+
+        private StatementHandler(Statement statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object ignored, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("getConnection")) {
+                return proxy;
+            }
+            if (name.equals("addBatch") && args != null && args.length == 1 && args[0] instanceof String sql && batchSql == null) {
+                batchSql = sql;
+            }
+            if (!EXECUTE_METHODS.contains(name)) {
+                return passThrough(statement, method, args);
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+            if (sql == null) {
+                sql = batchSql;
+            }
+            if (name.endsWith("Batch")) {
+                batchSql = null;
+            }
+            long start = System.nanoTime();
+            boolean failed = false;
+            try {
+                return passThrough(statement, method, args);
+            } catch (Throwable ex) {
+                failed = true;
+                throw ex;
+            } finally {
+                diagnostics.record(sql, System.nanoTime() - start, failed, connection);
+            }
+        }
+    }
+}
@@ -0,0 +1,756 @@
+package dev.eministar.nebiupdate.data;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public final class JdbcUpdateStore implements UpdateStore {
+    // ISO dates stored as TEXT only compare correctly inside the four-digit year range.
+    private static final LocalDate HISTORY_LOWER_BOUND = LocalDate.of(1, 1, 1);
+    private static final LocalDate HISTORY_UPPER_BOUND = LocalDate.of(9999, 12, 31);
+
+    private final Database database;
+
+    public JdbcUpdateStore(Database database) {
+        this.database = database;
+    }
+
+    @Override
+    public UpdateEntry create(LocalDate weekStart, UpdateType type, String content, String author) {
+        String sql = """
+                INSERT INTO updates(week_start, type, content, author, created_at, updated_at)
+                VALUES(?, ?, ?, ?, ?, ?)
+                """;
+        Instant now = Instant.now();
+        return inTransaction("Failed to create update", connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql, new String[]{"id"})) {
+                statement.setString(1, weekStart.toString());
+                statement.setString(2, type.key());
+                statement.setString(3, content);
+                statement.setString(4, AuthorNames.normalize(author));
+                statement.setString(5, now.toString());
+                statement.setString(6, now.toString());
+                statement.executeUpdate();
+
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    if (!keys.next()) {
+                        throw new IllegalStateException("Failed to obtain generated update id");
+                    }
+                    UpdateEntry created = new UpdateEntry(
+                            keys.getLong(1),
+                            weekStart,
+                            type,
+                            content,
+                            AuthorNames.normalize(author),
+                            now,
+                            now,
+                            1L
+                    );
+                    appendEvent(connection, UpdateEventType.CREATED, created, now);
+                    return created;
+                }
+            }
+        });
+    }
+
+    @Override
+    public List<UpdateEntry> createAll(List<UpdateDraft> drafts) {
+        String sql = """
+                INSERT INTO updates(week_start, type, content, author, created_at, updated_at)
+                VALUES(?, ?, ?, ?, ?, ?)
+                """;
+        Instant now = Instant.now();
+        return inTransaction("Failed to create updates", connection -> {
+            List<UpdateEntry> created = new ArrayList<>(drafts.size());
+            try (PreparedStatement statement = connection.prepareStatement(sql, new String[]{"id"})) {
+                for (UpdateDraft draft : drafts) {
+                    String author = AuthorNames.normalize(draft.author());
+                    statement.setString(1, draft.weekStart().toString());
+                    statement.setString(2, draft.type().key());
+                    statement.setString(3, draft.content());
+                    statement.setString(4, author);
+                    statement.setString(5, now.toString());
+                    statement.setString(6, now.toString());
+                    statement.executeUpdate();
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        if (!keys.next()) {
+                            throw new IllegalStateException("Failed to obtain generated update id");
+                        }
+                        created.add(new UpdateEntry(keys.getLong(1), draft.weekStart(), draft.type(), draft.content(), author, now, now, 1L));
+                    }
+                }
+            }
+            for (UpdateEntry entry : created) {
+                appendEvent(connection, UpdateEventType.CREATED, entry, now);
+            }
+            return created;
+        });
+    }
+
+    @Override
+    public List<UpdateEntry> findByWeek(LocalDate weekStart) {
+        String sql = """
+                SELECT *
+                FROM updates
+                WHERE week_start = ?
+                ORDER BY
+                    CASE type
+                        WHEN 'added' THEN 1
+                        WHEN 'changed' THEN 2
+                        WHEN 'removed' THEN 3
+                        ELSE 99
+                    END ASC,
+                    id ASC
+                """;
+        List<UpdateEntry> updates = new ArrayList<>();
+        try (Connection connection = database.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, weekStart.toString());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    updates.add(mapUpdate(resultSet));
+                }
+            }
+            return updates;
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to fetch updates for week " + weekStart, ex);
+        }
+    }
+
+    @Override
+    public Optional<UpdateEntry> findByIdInWeek(long id, LocalDate weekStart) {
+        try (Connection connection = database.getConnection()) {
+            return findByIdInWeek(connection, id, weekStart);
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to fetch update by id", ex);
+        }
+    }
+
+    private Optional<UpdateEntry> findByIdInWeek(Connection connection, long id, LocalDate weekStart) throws SQLException {
+        String sql = "SELECT * FROM updates WHERE id = ? AND week_start = ?";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, id);
+            statement.setString(2, weekStart.toString());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return Optional.of(mapUpdate(resultSet));
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public WriteOutcome updateInWeek(long id, LocalDate weekStart, UpdateType type, String content, String author, long expectedVersion) {
+        String sql = """
+                UPDATE updates
+                SET type = ?, content = ?, author = ?, updated_at = ?, version = version + 1
+                WHERE id = ? AND week_start = ?
+                """ + versionCondition(expectedVersion);
+        Instant now = Instant.now();
+        return inTransaction("Failed to update entry " + id, connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setString(1, type.key());
+                statement.setString(2, content);
+                statement.setString(3, AuthorNames.normalize(author));
+                statement.setString(4, now.toString());
+                statement.setLong(5, id);
+                statement.setString(6, weekStart.toString());
+                if (expectedVersion != ANY_VERSION) {
+                    statement.setLong(7, expectedVersion);
+                }
+                if (statement.executeUpdate() == 0) {
+                    return missOutcome(connection, id, weekStart, expectedVersion);
+                }
+            }
+            UpdateEntry updated = findByIdInWeek(connection, id, weekStart)
+                    .orElseThrow(() -> new IllegalStateException("Updated entry vanished inside its transaction"));
+            appendEvent(connection, UpdateEventType.UPDATED, updated, now);
+            return WriteOutcome.APPLIED;
+        });
+    }
+
+    @Override
+    public WriteOutcome deleteInWeek(long id, LocalDate weekStart, long expectedVersion) {
+        String sql = "DELETE FROM updates WHERE id = ? AND week_start = ?" + versionCondition(expectedVersion);
+        return inTransaction("Failed to delete entry " + id, connection -> {
+            Optional<UpdateEntry> existing = findByIdInWeek(connection, id, weekStart);
+            if (existing.isEmpty()) {
+                return WriteOutcome.NOT_FOUND;
+            }
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setLong(1, id);
+                statement.setString(2, weekStart.toString());
+                if (expectedVersion != ANY_VERSION) {
+                    statement.setLong(3, expectedVersion);
+                }
+                if (statement.executeUpdate() == 0) {
+                    return missOutcome(connection, id, weekStart, expectedVersion);
+                }
+            }
+            appendEvent(connection, UpdateEventType.DELETED, existing.get(), Instant.now());
+            return WriteOutcome.APPLIED;
+        });
+    }
+
+    private String versionCondition(long expectedVersion) {
+        return expectedVersion == ANY_VERSION ? "" : " AND version = ?";
+    }
+
+    // A conditional write that touched no row either lost the race or targeted a row that is gone.
+    private WriteOutcome missOutcome(Connection connection, long id, LocalDate weekStart, long expectedVersion) throws SQLException {
+        if (expectedVersion == ANY_VERSION) {
+            return WriteOutcome.NOT_FOUND;
+        }
+        try (PreparedStatement statement = connection.prepareStatement("SELECT 1 FROM updates WHERE id = ? AND week_start = ?")) {
+            statement.setLong(1, id);
+            statement.setString(2, weekStart.toString());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? WriteOutcome.VERSION_CONFLICT : WriteOutcome.NOT_FOUND;
+            }
+        }
+    }
+
+    @Override
+    public Optional<String> findWeeklyMessageId(LocalDate weekStart) {
+        String sql = "SELECT message_id FROM weekly_messages WHERE week_start = ?";
+        try (Connection connection = database.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, weekStart.toString());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return Optional.of(resultSet.getString("message_id"));
+                }
+            }
+            return Optional.empty();
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to read weekly message id", ex);
+        }
+    }
+
+    @Override
+    public void upsertWeeklyMessage(LocalDate weekStart, String channelId, String messageId) {
+        String sql = """
+                INSERT INTO weekly_messages(week_start, channel_id, message_id, created_at)
+                VALUES(?, ?, ?, ?)
+                ON CONFLICT(week_start)
+                DO UPDATE SET channel_id = excluded.channel_id, message_id = excluded.message_id
+                """;
+        try (Connection connection = database.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, weekStart.toString());
+            statement.setString(2, channelId);
+            statement.setString(3, messageId);
+            statement.setString(4, Instant.now().toString());
+            statement.executeUpdate();
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to upsert weekly message", ex);
+        }
+    }
+
+    @Override
+    public int countByWeek(LocalDate weekStart) {
+        String sql = "SELECT COUNT(1) FROM updates WHERE week_start = ?";
+        try (Connection connection = database.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, weekStart.toString());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return resultSet.getInt(1);
+                }
+            }
+            return 0;
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to count updates", ex);
+        }
+    }
+
+    @Override
+    public List<UpdateEntry> findAll() {
+        String sql = """
+                SELECT *
+                FROM updates
+                ORDER BY week_start ASC, id ASC
+                """;
+        List<UpdateEntry> updates = new ArrayList<>();
+        try (Connection connection = database.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                updates.add(mapUpdate(resultSet));
+            }
+            return updates;
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to fetch all updates", ex);
+        }
+    }
+
+    @Override
+    public List<UpdateEntry> findByWeekRange(LocalDate fromWeek, LocalDate toWeek) {
+        String sql = """
+                SELECT *
+                FROM updates
+                WHERE week_start >= ? AND week_start <= ?
+                ORDER BY week_start ASC, id ASC
+                """;
+        List<UpdateEntry> updates = new ArrayList<>();
+        try (Connection connection = database.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, fromWeek.toString());
+            statement.setString(2, toWeek.toString());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    updates.add(mapUpdate(resultSet));
+                }
+            }
+            return updates;
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to fetch updates between " + fromWeek + " and " + toWeek, ex);
+        }
+    }
+
+    // Newest first. The (week_start, id) keyset is served by idx_updates_week_start_id on PostgreSQL and by
+    // idx_updates_week_start on SQLite, which implicitly carries the rowid alias id as its trailing column.
+    @Override
+    public UpdatePage findHistoryPage(LocalDate fromWeek, LocalDate toWeek, HistoryCursor before, int limit) {
+        int safeLimit = Math.max(1, Math.min(limit, 500));
+        String sql = """
+                SELECT *
+                FROM updates
+                WHERE week_start >= ? AND week_start <= ?
+                  AND (week_start, id) < (?, ?)
+                ORDER BY week_start DESC, id DESC
+                LIMIT ?
+                """;
+        LocalDate lower = fromWeek == null ? HISTORY_LOWER_BOUND : fromWeek;
+        LocalDate upper = toWeek == null ? HISTORY_UPPER_BOUND : toWeek;
+        List<UpdateEntry> updates = new ArrayList<>();
+        try (Connection connection = database.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, lower.toString());
+            statement.setString(2, upper.toString());
+            statement.setString(3, before == null ? upper.toString() : before.weekStart().toString());
+            statement.setLong(4, before == null ? Long.MAX_VALUE : before.id());
+            statement.setInt(5, safeLimit + 1);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    updates.add(mapUpdate(resultSet));
+                }
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to fetch update history page", ex);
+        }
+
+        if (updates.size() <= safeLimit) {
+            return new UpdatePage(updates, null);
+        }
+        List<UpdateEntry> page = updates.subList(0, safeLimit);
+        return new UpdatePage(page, HistoryCursor.of(page.getLast()));
+    }
+
+    @Override
+    public List<WeeklyMessageRecord> findAllWeeklyMessages() {
+        String sql = """
+                SELECT week_start, channel_id, message_id, created_at
+                FROM weekly_messages
+                ORDER BY week_start ASC
+                """;
+        List<WeeklyMessageRecord> records = new ArrayList<>();
+        try (Connection connection = database.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                records.add(mapWeeklyMessage(resultSet));
+            }
+            return records;
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to fetch weekly message records", ex);
+        }
+    }
+
+    @Override
+    public List<WeeklyTypeStats> findWeeklyTypeStats(int limitWeeks) {
+        int safeLimit = Math.max(1, Math.min(limitWeeks, 260));
+        String sql = """
+                SELECT
+                    week_start,
+                    SUM(CASE WHEN type = 'added' THEN 1 ELSE 0 END) AS added_count,
+                    SUM(CASE WHEN type = 'changed' THEN 1 ELSE 0 END) AS changed_count,
+                    SUM(CASE WHEN type = 'removed' THEN 1 ELSE 0 END) AS removed_count
+                FROM updates
+                GROUP BY week_start
+                ORDER BY week_start DESC
+                LIMIT ?
+                """;
+        List<WeeklyTypeStats> stats = new ArrayList<>();
+        try (Connection connection = database.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, safeLimit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    LocalDate weekStart = LocalDate.parse(resultSet.getString("week_start"));
+                    int added = resultSet.getInt("added_count");
+                    int changed = resultSet.getInt("changed_count");
+                    int removed = resultSet.getInt("removed_count");
+                    stats.add(new WeeklyTypeStats(weekStart, added, changed, removed));
+                }
+            }
+            return stats.reversed();
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to fetch weekly type stats", ex);
+        }
+    }
+
+    @Override
+    public void replaceAll(List<UpdateEntry> updates, List<WeeklyMessageRecord> weeklyMessages) {
+        String deleteUpdatesSql = "DELETE FROM updates";
+        String deleteWeeklyMessagesSql = "DELETE FROM weekly_messages";
+        String insertUpdateSql = """
+                INSERT INTO updates(id, week_start, type, content, author, created_at, updated_at, version)
+                VALUES(?, ?, ?, ?, ?, ?, ?, ?)
+                """;
+        String insertWeeklyMessageSql = """
+                INSERT INTO weekly_messages(week_start, channel_id, message_id, created_at)
+                VALUES(?, ?, ?, ?)
+                """;
+
+        try (Connection connection = database.getConnection()) {
+            boolean previousAutoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement deleteUpdates = connection.prepareStatement(deleteUpdatesSql);
+                 PreparedStatement deleteWeeklyMessages = connection.prepareStatement(deleteWeeklyMessagesSql);
+                 PreparedStatement insertUpdate = connection.prepareStatement(insertUpdateSql);
+                 PreparedStatement insertWeeklyMessage = connection.prepareStatement(insertWeeklyMessageSql)) {
+                deleteUpdates.executeUpdate();
+                deleteWeeklyMessages.executeUpdate();
+
+                for (UpdateEntry entry : updates) {
+                    insertUpdate.setLong(1, entry.id());
+                    insertUpdate.setString(2, entry.weekStart().toString());
+                    insertUpdate.setString(3, entry.type().key());
+                    insertUpdate.setString(4, entry.content());
+                    insertUpdate.setString(5, AuthorNames.normalize(entry.author()));
+                    insertUpdate.setString(6, entry.createdAt().toString());
+                    insertUpdate.setString(7, entry.updatedAt().toString());
+                    insertUpdate.setLong(8, entry.version());
+                    insertUpdate.addBatch();
+                }
+                insertUpdate.executeBatch();
+
+                for (WeeklyMessageRecord record : weeklyMessages) {
+                    insertWeeklyMessage.setString(1, record.weekStart().toString());
+                    insertWeeklyMessage.setString(2, record.channelId());
+                    insertWeeklyMessage.setString(3, record.messageId());
+                    insertWeeklyMessage.setString(4, record.createdAt().toString());
+                    insertWeeklyMessage.addBatch();
+                }
+                insertWeeklyMessage.executeBatch();
+                syncIdSequence(connection);
+                appendEvent(connection, UpdateEventType.REPLACED, null, Instant.now());
+
+                connection.commit();
+            } catch (Exception ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(previousAutoCommit);
+            }
+        } catch (Exception ex) {
+            throw new IllegalStateException("Failed to replace update data", ex);
+        }
+    }
+
+    @Override
+    public void applyBatch(
+            List<UpdateEntry> upserts,
+            Collection<Long> deletedIds,
+            List<WeeklyMessageRecord> weeklyMessages,
+            List<UpdateEvent> events
+    ) {
+        String upsertUpdateSql = """
+                INSERT INTO updates(id, week_start, type, content, author, created_at, updated_at, version)
+                VALUES(?, ?, ?, ?, ?, ?, ?, ?)
+                ON CONFLICT(id)
+                DO UPDATE SET week_start = excluded.week_start, type = excluded.type, content = excluded.content,
+                              author = excluded.author, updated_at = excluded.updated_at, version = excluded.version
+                """;
+        String deleteUpdateSql = "DELETE FROM updates WHERE id = ?";
+        String upsertWeeklyMessageSql = """
+                INSERT INTO weekly_messages(week_start, channel_id, message_id, created_at)
+                VALUES(?, ?, ?, ?)
+                ON CONFLICT(week_start)
+                DO UPDATE SET channel_id = excluded.channel_id, message_id = excluded.message_id
+                """;
+
+        try (Connection connection = database.getConnection()) {
+            boolean previousAutoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement upsertUpdate = connection.prepareStatement(upsertUpdateSql);
+                 PreparedStatement deleteUpdate = connection.prepareStatement(deleteUpdateSql);
+                 PreparedStatement upsertWeeklyMessage = connection.prepareStatement(upsertWeeklyMessageSql)) {
+                for (UpdateEntry entry : upserts) {
+                    upsertUpdate.setLong(1, entry.id());
+                    upsertUpdate.setString(2, entry.weekStart().toString());
+                    upsertUpdate.setString(3, entry.type().key());
+                    upsertUpdate.setString(4, entry.content());
+                    upsertUpdate.setString(5, AuthorNames.normalize(entry.author()));
+                    upsertUpdate.setString(6, entry.createdAt().toString());
+                    upsertUpdate.setString(7, entry.updatedAt().toString());
+                    upsertUpdate.setLong(8, entry.version());
+                    upsertUpdate.addBatch();
+                }
+                upsertUpdate.executeBatch();
+
+                for (Long id : deletedIds) {
+                    deleteUpdate.setLong(1, id);
+                    deleteUpdate.addBatch();
+                }
+                deleteUpdate.executeBatch();
+
+                for (WeeklyMessageRecord record : weeklyMessages) {
+                    upsertWeeklyMessage.setString(1, record.weekStart().toString());
+                    upsertWeeklyMessage.setString(2, record.channelId());
+                    upsertWeeklyMessage.setString(3, record.messageId());
+                    upsertWeeklyMessage.setString(4, record.createdAt().toString());
+                    upsertWeeklyMessage.addBatch();
+                }
+                upsertWeeklyMessage.executeBatch();
+                insertEvents(connection, events);
+                syncIdSequence(connection);
+
+                connection.commit();
+            } catch (Exception ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(previousAutoCommit);
+            }
+        } catch (Exception ex) {
+            throw new IllegalStateException("Failed to apply update batch", ex);
+        }
+    }
+
+    @Override
+    public List<UpdateEvent> findEventsAfter(long afterSeq, int limit) {
+        int safeLimit = Math.max(1, Math.min(limit, 1000));
+        String sql = """
+                SELECT seq, kind, update_id, week_start, type, content, author, version, occurred_at
+                FROM update_events
+                WHERE seq > ?
+                ORDER BY seq ASC
+                LIMIT ?
+                """;
+        List<UpdateEvent> events = new ArrayList<>();
+        try (Connection connection = database.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, afterSeq);
+            statement.setInt(2, safeLimit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    events.add(mapEvent(resultSet));
+                }
+            }
+            return events;
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to read change events", ex);
+        }
+    }
+
+    @Override
+    public long latestEventSeq() {
+        try (Connection connection = database.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT COALESCE(MAX(seq), 0) FROM update_events");
+             ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? resultSet.getLong(1) : 0L;
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to read latest change event", ex);
+        }
+    }
+
+    @Override
+    public long findConsumerCursor(String consumer) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT seq FROM event_cursors WHERE consumer = ?")) {
+            statement.setString(1, consumer);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong(1) : 0L;
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to read cursor of consumer " + consumer, ex);
+        }
+    }
+
+    @Override
+    public void saveConsumerCursor(String consumer, long seq) {
+        String sql = """
+                INSERT INTO event_cursors(consumer, seq, updated_at)
+                VALUES(?, ?, ?)
+                ON CONFLICT(consumer)
+                DO UPDATE SET seq = excluded.seq, updated_at = excluded.updated_at
+                """;
+        try (Connection connection = database.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, consumer);
+            statement.setLong(2, seq);
+            statement.setString(3, Instant.now().toString());
+            statement.executeUpdate();
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to save cursor of consumer " + consumer, ex);
+        }
+    }
+
+    @Override
+    public long highestAssignedId() {
+        try (Connection connection = database.getConnection();
+             PreparedStatement statement = connection.prepareStatement(database.dialect().highestIdSql("updates"));
+             ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? resultSet.getLong(1) : 0L;
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to read highest update id", ex);
+        }
+    }
+
+    private <T> T inTransaction(String failureMessage, TransactionWork<T> work) {
+        try (Connection connection = database.getConnection()) {
+            boolean previousAutoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                T result = work.run(connection);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(previousAutoCommit);
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException(failureMessage, ex);
+        }
+    }
+
+    // Appends a change event inside the caller's transaction. Writers are serialized on the change log
+    // so that sequence numbers become visible in commit order.
+    private void appendEvent(Connection connection, UpdateEventType kind, UpdateEntry entry, Instant occurredAt) throws SQLException {
+        String lockSql = database.dialect().changeLogLockSql();
+        if (lockSql != null) {
+            try (PreparedStatement lock = connection.prepareStatement(lockSql)) {
+                lock.execute();
+            }
+        }
+        String sql = """
+                INSERT INTO update_events(kind, update_id, week_start, type, content, author, version, occurred_at)
+                VALUES(?, ?, ?, ?, ?, ?, ?, ?)
+                """;
+        UpdateEvent event = entry == null ? UpdateEvent.replaced(0L, occurredAt) : UpdateEvent.of(0L, kind, entry, occurredAt);
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            bindEvent(statement, 1, event);
+            statement.executeUpdate();
+        }
+    }
+
+    // Events replayed from the memory-first journal may already have been checkpointed once.
+    private void insertEvents(Connection connection, List<UpdateEvent> events) throws SQLException {
+        if (events.isEmpty()) {
+            return;
+        }
+        String sql = """
+                INSERT INTO update_events(seq, kind, update_id, week_start, type, content, author, version, occurred_at)
+                VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?)
+                ON CONFLICT(seq) DO NOTHING
+                """;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (UpdateEvent event : events) {
+                statement.setLong(1, event.seq());
+                bindEvent(statement, 2, event);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        String syncSql = database.dialect().syncSequenceSql("update_events", "seq");
+        if (syncSql != null) {
+            try (PreparedStatement statement = connection.prepareStatement(syncSql)) {
+                statement.execute();
+            }
+        }
+    }
+
+    private void bindEvent(PreparedStatement statement, int offset, UpdateEvent event) throws SQLException {
+        statement.setString(offset, event.kind().key());
+        statement.setLong(offset + 1, event.updateId());
+        statement.setString(offset + 2, event.weekStart() == null ? null : event.weekStart().toString());
+        statement.setString(offset + 3, event.type() == null ? null : event.type().key());
+        statement.setString(offset + 4, event.content());
+        statement.setString(offset + 5, event.author());
+        statement.setLong(offset + 6, event.version());
+        statement.setString(offset + 7, event.occurredAt().toString());
+    }
+
+    private UpdateEvent mapEvent(ResultSet resultSet) throws SQLException {
+        String weekStart = resultSet.getString("week_start");
+        String type = resultSet.getString("type");
+        return new UpdateEvent(
+                resultSet.getLong("seq"),
+                UpdateEventType.fromKey(resultSet.getString("kind"))
+                        .orElseThrow(() -> new IllegalStateException("Unsupported change event kind in DB")),
+                resultSet.getLong("update_id"),
+                weekStart == null ? null : LocalDate.parse(weekStart),
+                type == null ? null : UpdateType.fromKey(type).orElse(null),
+                resultSet.getString("content"),
+                resultSet.getString("author"),
+                resultSet.getLong("version"),
+                parseInstant(resultSet.getString("occurred_at"))
+        );
+    }
+
+    private void syncIdSequence(Connection connection) throws SQLException {
+        String sql = database.dialect().syncIdSequenceSql("updates");
+        if (sql == null) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.execute();
+        }
+    }
+
+    private UpdateEntry mapUpdate(ResultSet resultSet) throws SQLException {
+        long id = resultSet.getLong("id");
+        LocalDate weekStart = LocalDate.parse(resultSet.getString("week_start"));
+        UpdateType type = UpdateType.fromKey(resultSet.getString("type"))
+                .orElseThrow(() -> new IllegalStateException("Unsupported update type in DB"));
+        String content = resultSet.getString("content");
+        String author = resultSet.getString("author");
+        Instant createdAt = parseInstant(resultSet.getString("created_at"));
+        Instant updatedAt = parseInstant(resultSet.getString("updated_at"));
+        long version = resultSet.getLong("version");
+        return new UpdateEntry(id, weekStart, type, content, AuthorNames.normalize(author), createdAt, updatedAt, version);
+    }
+
+    private WeeklyMessageRecord mapWeeklyMessage(ResultSet resultSet) throws SQLException {
+        LocalDate weekStart = LocalDate.parse(resultSet.getString("week_start"));
+        String channelId = resultSet.getString("channel_id");
+        String messageId = resultSet.getString("message_id");
+        Instant createdAt = parseInstant(resultSet.getString("created_at"));
+        return new WeeklyMessageRecord(weekStart, channelId, messageId, createdAt);
+    }
+
+    private Instant parseInstant(String raw) {
+        try {
+            return Instant.parse(raw);
+        } catch (Exception ignored) {
+            return Instant.now();
+        }
+    }
+
+    @FunctionalInterface
+    private interface TransactionWork<T> {
+        T run(Connection connection) throws SQLException;
+    }
+}
@@ -0,0 +1,503 @@
+package dev.eministar.nebiupdate.data;
+
+import dev.eministar.nebiupdate.logging.ErrorLogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Reads are served from memory; writes are acknowledged after the in-memory apply plus a journal append,
+// and reach the durable store through periodic batched checkpoints.
+public final class MemoryFirstUpdateStore implements UpdateStore, AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MemoryFirstUpdateStore.class);
+    private static final long CHECKPOINT_INTERVAL_MS = 2_000;
+    private static final int CHECKPOINT_EARLY_THRESHOLD = 256;
+
+    private final UpdateStore durable;
+    private final UpdateJournal journal;
+    private final InMemoryUpdateStore memory = new InMemoryUpdateStore();
+    // ReentrantLock rather than monitors: both are held across journal fsyncs and JDBC calls, which would pin
+    // the virtual threads the dashboard handlers run on (Java 21).
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+    private final Set<Long> dirtyUpdateIds = new HashSet<>();
+    private final Set<LocalDate> dirtyWeeklyMessages = new HashSet<>();
+    // Change events that are journaled but not yet checkpointed; they leave only after the durable commit.
+    private final ConcurrentSkipListMap<Long, UpdateEvent> pendingEvents = new ConcurrentSkipListMap<>();
+    private final AtomicLong eventSequence = new AtomicLong();
+    // At most one early checkpoint waits in the executor; every write above the threshold would queue one otherwise.
+    private final AtomicBoolean checkpointScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService checkpointer;
+
+    private MemoryFirstUpdateStore(UpdateStore durable, UpdateJournal journal) {
+        this.durable = durable;
+        this.journal = journal;
+        this.checkpointer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "update-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static MemoryFirstUpdateStore open(UpdateStore durable, Path journalPath) {
+        UpdateJournal journal = new UpdateJournal(journalPath);
+        replayJournal(durable, journal);
+        MemoryFirstUpdateStore store = new MemoryFirstUpdateStore(durable, journal);
+        store.loadFromDurable();
+        store.checkpointer.scheduleWithFixedDelay(
+                store::checkpoint,
+                CHECKPOINT_INTERVAL_MS,
+                CHECKPOINT_INTERVAL_MS,
+                TimeUnit.MILLISECONDS
+        );
+        LOGGER.info("Memory-first update store ready ({} updates, journal {})", store.memory.size(), journalPath);
+        return store;
+    }
+
+    private static void replayJournal(UpdateStore durable, UpdateJournal journal) {
+        List<UpdateJournal.Record> pending = journal.readPending();
+        if (pending.isEmpty()) {
+            journal.reset();
+            return;
+        }
+
+        Map<Long, UpdateEntry> upserts = new LinkedHashMap<>();
+        Set<Long> deletes = new LinkedHashSet<>();
+        Map<LocalDate, WeeklyMessageRecord> messages = new LinkedHashMap<>();
+        List<UpdateEvent> events = new ArrayList<>();
+        for (UpdateJournal.Record record : pending) {
+            UpdateEvent event = record.toEvent();
+            if (event != null) {
+                events.add(event);
+            }
+            switch (record.op()) {
+                case UpdateJournal.OP_UPSERT -> {
+                    upserts.put(record.id(), record.toUpdateEntry());
+                    deletes.remove(record.id());
+                }
+                case UpdateJournal.OP_DELETE -> {
+                    upserts.remove(record.id());
+                    deletes.add(record.id());
+                }
+                case UpdateJournal.OP_WEEKLY_MESSAGE -> {
+                    WeeklyMessageRecord message = record.toWeeklyMessage();
+                    messages.put(message.weekStart(), message);
+                }
+                case UpdateJournal.OP_EVENT -> {
+                    // Already collected above.
+                }
+                default -> throw new IllegalStateException("Unknown journal operation: " + record.op());
+            }
+        }
+
+        durable.applyBatch(List.copyOf(upserts.values()), deletes, List.copyOf(messages.values()), events);
+        journal.reset();
+        LOGGER.info("Replayed {} journal records into the durable update store", pending.size());
+    }
+
+    private void loadFromDurable() {
+        memory.load(durable.findAll(), durable.findAllWeeklyMessages(), durable.highestAssignedId());
+        pendingEvents.clear();
+        eventSequence.set(durable.latestEventSeq());
+    }
+
+    @Override
+    public UpdateEntry create(LocalDate weekStart, UpdateType type, String content, String author) {
+        Instant now = Instant.now();
+        writeLock.lock();
+        try {
+            UpdateEntry entry = new UpdateEntry(
+                    memory.nextId(),
+                    weekStart,
+                    type,
+                    content,
+                    AuthorNames.normalize(author),
+                    now,
+                    now,
+                    1L
+            );
+            UpdateEvent event = nextEvent(UpdateEventType.CREATED, entry, now);
+            journal.append(UpdateJournal.Record.upsert(entry, event));
+            memory.index(entry);
+            pendingEvents.put(event.seq(), event);
+            markDirty(entry.id());
+            return entry;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // The whole batch goes into the journal as one framed write, so a crash replays all of it or nothing.
+    @Override
+    public List<UpdateEntry> createAll(List<UpdateDraft> drafts) {
+        Instant now = Instant.now();
+        writeLock.lock();
+        try {
+            List<UpdateEntry> created = new ArrayList<>(drafts.size());
+            List<UpdateEvent> events = new ArrayList<>(drafts.size());
+            List<UpdateJournal.Record> records = new ArrayList<>(drafts.size());
+            for (UpdateDraft draft : drafts) {
+                UpdateEntry entry = new UpdateEntry(
+                        memory.nextId(),
+                        draft.weekStart(),
+                        draft.type(),
+                        draft.content(),
+                        AuthorNames.normalize(draft.author()),
+                        now,
+                        now,
+                        1L
+                );
+                UpdateEvent event = nextEvent(UpdateEventType.CREATED, entry, now);
+                created.add(entry);
+                events.add(event);
+                records.add(UpdateJournal.Record.upsert(entry, event));
+            }
+            journal.appendBatch(records);
+            for (int i = 0; i < created.size(); i++) {
+                memory.index(created.get(i));
+                pendingEvents.put(events.get(i).seq(), events.get(i));
+                markDirty(created.get(i).id());
+            }
+            return created;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<UpdateEntry> findByWeek(LocalDate weekStart) {
+        return memory.findByWeek(weekStart);
+    }
+
+    @Override
+    public Optional<UpdateEntry> findByIdInWeek(long id, LocalDate weekStart) {
+        return memory.findByIdInWeek(id, weekStart);
+    }
+
+    @Override
+    public WriteOutcome updateInWeek(long id, LocalDate weekStart, UpdateType type, String content, String author, long expectedVersion) {
+        writeLock.lock();
+        try {
+            Optional<UpdateEntry> existing = memory.findByIdInWeek(id, weekStart);
+            WriteOutcome outcome = memory.checkVersion(existing, expectedVersion);
+            if (outcome != WriteOutcome.APPLIED) {
+                return outcome;
+            }
+            UpdateEntry updated = memory.nextRevision(existing.get(), type, content, author);
+            UpdateEvent event = nextEvent(UpdateEventType.UPDATED, updated, updated.updatedAt());
+            journal.append(UpdateJournal.Record.upsert(updated, event));
+            memory.index(updated);
+            pendingEvents.put(event.seq(), event);
+            markDirty(id);
+            return outcome;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public WriteOutcome deleteInWeek(long id, LocalDate weekStart, long expectedVersion) {
+        writeLock.lock();
+        try {
+            Optional<UpdateEntry> existing = memory.findByIdInWeek(id, weekStart);
+            WriteOutcome outcome = memory.checkVersion(existing, expectedVersion);
+            if (outcome != WriteOutcome.APPLIED) {
+                return outcome;
+            }
+            UpdateEvent event = nextEvent(UpdateEventType.DELETED, existing.get(), Instant.now());
+            journal.append(UpdateJournal.Record.delete(existing.get(), event));
+            memory.unindex(existing.get());
+            pendingEvents.put(event.seq(), event);
+            markDirty(id);
+            return outcome;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<String> findWeeklyMessageId(LocalDate weekStart) {
+        return memory.findWeeklyMessageId(weekStart);
+    }
+
+    @Override
+    public void upsertWeeklyMessage(LocalDate weekStart, String channelId, String messageId) {
+        writeLock.lock();
+        try {
+            WeeklyMessageRecord record = memory.prepareWeeklyMessage(weekStart, channelId, messageId);
+            journal.append(UpdateJournal.Record.weeklyMessage(record));
+            memory.putWeeklyMessage(record);
+            dirtyWeeklyMessages.add(weekStart);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public int countByWeek(LocalDate weekStart) {
+        return memory.countByWeek(weekStart);
+    }
+
+    @Override
+    public List<UpdateEntry> findAll() {
+        return memory.findAll();
+    }
+
+    @Override
+    public List<UpdateEntry> findByWeekRange(LocalDate fromWeek, LocalDate toWeek) {
+        return memory.findByWeekRange(fromWeek, toWeek);
+    }
+
+    @Override
+    public UpdatePage findHistoryPage(LocalDate fromWeek, LocalDate toWeek, HistoryCursor before, int limit) {
+        return memory.findHistoryPage(fromWeek, toWeek, before, limit);
+    }
+
+    @Override
+    public List<WeeklyMessageRecord> findAllWeeklyMessages() {
+        return memory.findAllWeeklyMessages();
+    }
+
+    @Override
+    public List<WeeklyTypeStats> findWeeklyTypeStats(int limitWeeks) {
+        return memory.findWeeklyTypeStats(limitWeeks);
+    }
+
+    // Bulk replacement goes straight to the durable store; the journal only has to cover what came after it.
+    // Pending writes are flushed first, and the write lock is held from that flush until the reload: a write
+    // in between would take an in-memory event seq that the durable REPLACED event then reuses.
+    @Override
+    public void replaceAll(List<UpdateEntry> updates, List<WeeklyMessageRecord> weeklyMessages) {
+        checkpointLock.lock();
+        try {
+            writeLock.lock();
+            try {
+                PendingCheckpoint pending = takeCheckpoint();
+                if (pending != null) {
+                    try {
+                        flush(pending);
+                    } catch (RuntimeException ex) {
+                        restoreDirty(pending);
+                        throw ex;
+                    }
+                }
+                durable.replaceAll(updates, weeklyMessages);
+                journal.reset();
+                dirtyUpdateIds.clear();
+                dirtyWeeklyMessages.clear();
+                loadFromDurable();
+            } finally {
+                writeLock.unlock();
+            }
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    @Override
+    public void applyBatch(
+            List<UpdateEntry> upserts,
+            Collection<Long> deletedIds,
+            List<WeeklyMessageRecord> weeklyMessages,
+            List<UpdateEvent> events
+    ) {
+        writeLock.lock();
+        try {
+            List<Long> deleted = new ArrayList<>();
+            List<UpdateJournal.Record> records = new ArrayList<>(
+                    upserts.size() + deletedIds.size() + weeklyMessages.size() + events.size()
+            );
+            for (UpdateEntry entry : upserts) {
+                records.add(UpdateJournal.Record.upsert(entry));
+            }
+            for (Long id : deletedIds) {
+                Optional<UpdateEntry> existing = memory.findById(id);
+                if (existing.isEmpty()) {
+                    continue;
+                }
+                records.add(UpdateJournal.Record.delete(existing.get(), null));
+                deleted.add(id);
+            }
+            for (WeeklyMessageRecord record : weeklyMessages) {
+                records.add(UpdateJournal.Record.weeklyMessage(record));
+            }
+            for (UpdateEvent event : events) {
+                records.add(UpdateJournal.Record.event(event));
+            }
+            // One framed write and one fsync for the whole batch, like createAll.
+            journal.appendBatch(records);
+
+            upserts.forEach(entry -> dirtyUpdateIds.add(entry.id()));
+            dirtyUpdateIds.addAll(deleted);
+            weeklyMessages.forEach(record -> dirtyWeeklyMessages.add(record.weekStart()));
+            for (UpdateEvent event : events) {
+                pendingEvents.put(event.seq(), event);
+                eventSequence.accumulateAndGet(event.seq(), Math::max);
+            }
+            memory.applyBatch(upserts, deleted, weeklyMessages, List.of());
+            markDirty(null);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Pending events are snapshotted before the durable read: an event that leaves the pending map
+    // has been committed by then, so it shows up in one of the two sources.
+    @Override
+    public List<UpdateEvent> findEventsAfter(long afterSeq, int limit) {
+        int safeLimit = Math.max(1, Math.min(limit, 1000));
+        List<UpdateEvent> pending = List.copyOf(pendingEvents.tailMap(afterSeq, false).values());
+        TreeMap<Long, UpdateEvent> merged = new TreeMap<>();
+        for (UpdateEvent event : durable.findEventsAfter(afterSeq, safeLimit)) {
+            merged.put(event.seq(), event);
+        }
+        for (UpdateEvent event : pending) {
+            merged.put(event.seq(), event);
+        }
+        return merged.values().stream().limit(safeLimit).toList();
+    }
+
+    @Override
+    public long latestEventSeq() {
+        return eventSequence.get();
+    }
+
+    @Override
+    public long findConsumerCursor(String consumer) {
+        return durable.findConsumerCursor(consumer);
+    }
+
+    @Override
+    public void saveConsumerCursor(String consumer, long seq) {
+        durable.saveConsumerCursor(consumer, seq);
+    }
+
+    @Override
+    public long highestAssignedId() {
+        return memory.highestAssignedId();
+    }
+
+    public void checkpoint() {
+        checkpointLock.lock();
+        try {
+            checkpointScheduled.set(false);
+            PendingCheckpoint pending;
+            writeLock.lock();
+            try {
+                pending = takeCheckpoint();
+            } finally {
+                writeLock.unlock();
+            }
+            if (pending == null) {
+                return;
+            }
+
+            try {
+                flush(pending);
+            } catch (Exception ex) {
+                ErrorLogger.capture(LOGGER, "CHECKPOINT", "Checkpoint to durable update store failed, will retry", ex);
+                writeLock.lock();
+                try {
+                    restoreDirty(pending);
+                } finally {
+                    writeLock.unlock();
+                }
+            }
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    // Caller holds writeLock. Returns null when there is nothing to checkpoint.
+    private PendingCheckpoint takeCheckpoint() {
+        if (dirtyUpdateIds.isEmpty() && dirtyWeeklyMessages.isEmpty() && pendingEvents.isEmpty()) {
+            return null;
+        }
+        List<UpdateEntry> upserts = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        List<WeeklyMessageRecord> messages = new ArrayList<>();
+        List<UpdateEvent> events = List.copyOf(pendingEvents.values());
+        for (Long id : dirtyUpdateIds) {
+            memory.findById(id).ifPresentOrElse(upserts::add, () -> deletes.add(id));
+        }
+        for (LocalDate weekStart : dirtyWeeklyMessages) {
+            memory.findWeeklyMessage(weekStart).ifPresent(messages::add);
+        }
+        dirtyUpdateIds.clear();
+        dirtyWeeklyMessages.clear();
+        journal.rotate();
+        return new PendingCheckpoint(upserts, deletes, messages, events);
+    }
+
+    private void flush(PendingCheckpoint pending) {
+        durable.applyBatch(pending.upserts(), pending.deletes(), pending.messages(), pending.events());
+        pending.events().forEach(event -> pendingEvents.remove(event.seq()));
+        journal.discardCheckpoint();
+        LOGGER.debug(
+                "Checkpointed {} upserts, {} deletes, {} weekly messages, {} events",
+                pending.upserts().size(),
+                pending.deletes().size(),
+                pending.messages().size(),
+                pending.events().size()
+        );
+    }
+
+    // Caller holds writeLock. The rotated journal segment still covers these rows until the next checkpoint.
+    private void restoreDirty(PendingCheckpoint pending) {
+        pending.upserts().forEach(entry -> dirtyUpdateIds.add(entry.id()));
+        dirtyUpdateIds.addAll(pending.deletes());
+        pending.messages().forEach(record -> dirtyWeeklyMessages.add(record.weekStart()));
+    }
+
+    private UpdateEvent nextEvent(UpdateEventType kind, UpdateEntry entry, Instant occurredAt) {
+        return UpdateEvent.of(eventSequence.incrementAndGet(), kind, entry, occurredAt);
+    }
+
+    private void markDirty(Long id) {
+        if (id != null) {
+            dirtyUpdateIds.add(id);
+        }
+        if (dirtyUpdateIds.size() + dirtyWeeklyMessages.size() >= CHECKPOINT_EARLY_THRESHOLD
+                && !checkpointer.isShutdown()
+                && checkpointScheduled.compareAndSet(false, true)) {
+            checkpointer.execute(this::checkpoint);
+        }
+    }
+
+    @Override
+    public void close() {
+        checkpointer.shutdownNow();
+        try {
+            checkpoint();
+        } finally {
+            journal.close();
+        }
+    }
+
+    private record PendingCheckpoint(
+            List<UpdateEntry> upserts,
+            List<Long> deletes,
+            List<WeeklyMessageRecord> messages,
+            List<UpdateEvent> events
+    ) {
+    }
+}
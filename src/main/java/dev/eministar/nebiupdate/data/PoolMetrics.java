@@ -0,0 +1,48 @@
+package dev.eministar.nebiupdate.data;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import dev.eministar.nebiupdate.metrics.Counter;
+import dev.eministar.nebiupdate.metrics.Gauge;
+import dev.eministar.nebiupdate.metrics.Histogram;
+import dev.eministar.nebiupdate.metrics.Metrics;
+
+// Hooks HikariCP into the metric registry. Hikari calls the tracker on every checkout, so it only
+// touches pre-resolved children; pool stats are read at scrape time (Hikari caches them for a second).
+final class PoolMetrics implements MetricsTrackerFactory {
+    private static final Gauge CONNECTIONS = Metrics.gauge("nebi_db_pool_connections", "Connections in the pool by state", "pool", "state");
+    private static final Gauge PENDING = Metrics.gauge("nebi_db_pool_pending_threads", "Threads waiting for a connection", "pool");
+    private static final Histogram ACQUIRE = Metrics.histogram("nebi_db_pool_acquire_seconds", "Time to check out a connection", "pool");
+    private static final Histogram USAGE = Metrics.histogram("nebi_db_pool_usage_seconds", "Time a connection was held before being returned", "pool");
+    private static final Counter TIMEOUTS = Metrics.counter("nebi_db_pool_timeouts_total", "Connection checkouts that timed out", "pool");
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats stats) {
+        CONNECTIONS.register(stats::getActiveConnections, poolName, "active");
+        CONNECTIONS.register(stats::getIdleConnections, poolName, "idle");
+        CONNECTIONS.register(stats::getTotalConnections, poolName, "total");
+        CONNECTIONS.register(stats::getMaxConnections, poolName, "max");
+        PENDING.register(stats::getPendingThreads, poolName);
+
+        Histogram.Child acquire = ACQUIRE.labels(poolName);
+        Histogram.Child usage = USAGE.labels(poolName);
+        Counter.Child timeouts = TIMEOUTS.labels(poolName);
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquire.observeNanos(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usage.observeNanos(elapsedBorrowedMillis * 1_000_000L);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.inc();
+            }
+        };
+    }
+}
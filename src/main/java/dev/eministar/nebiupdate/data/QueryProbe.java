@@ -0,0 +1,88 @@
+package dev.eministar.nebiupdate.data;
+
+import dev.eministar.nebiupdate.jfr.RepositoryCallEvent;
+import dev.eministar.nebiupdate.metrics.Histogram;
+import dev.eministar.nebiupdate.metrics.Metrics;
+import dev.eministar.nebiupdate.tracing.Span;
+import dev.eministar.nebiupdate.tracing.Tracing;
+
+import java.util.Collection;
+import java.util.Optional;
+
+// One repository method: feeds nebi_repository_query_seconds, emits a RepositoryCallEvent and,
+// inside a trace, records a "db" span. Calls outside any trace (background pollers) get no span of
+// their own. Typical use: Call call = PROBE.begin(); try { ... } finally { PROBE.end(call, result); }
+public final class QueryProbe {
+    private static final Histogram QUERIES = Metrics.histogram(
+            "nebi_repository_query_seconds",
+            "Duration of repository calls, including the storage backend",
+            "repository",
+            "query"
+    );
+
+    private final String repository;
+    private final String query;
+    private final Histogram.Child histogram;
+    private final String spanName;
+
+    private QueryProbe(String repository, String query) {
+        this.repository = repository;
+        this.query = query;
+        this.histogram = QUERIES.labels(repository, query);
+        this.spanName = "db " + repository + "." + query;
+    }
+
+    public static QueryProbe of(String repository, String query) {
+        return new QueryProbe(repository, query);
+    }
+
+    public Call begin() {
+        Span span = Tracing.current() == null ? null : Tracing.start(spanName);
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        event.start();
+        return new Call(event, span);
+    }
+
+    public void end(Call call) {
+        end(call, null);
+    }
+
+    // result is null when the call failed or returns nothing countable; rows are then -1.
+    public void end(Call call, Object result) {
+        int rows = rows(result);
+        histogram.observeSince(call.event.startNanos());
+        call.event.finish(repository, query, rows);
+        if (call.span != null) {
+            call.span.attribute("db.rows", rows).end();
+        }
+    }
+
+    private static int rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof UpdatePage page) {
+            return page.entries().size();
+        }
+        if (result instanceof WriteOutcome outcome) {
+            return outcome == WriteOutcome.APPLIED ? 1 : 0;
+        }
+        if (result instanceof UpdateEntry) {
+            return 1;
+        }
+        return -1;
+    }
+
+    public static final class Call {
+        private final RepositoryCallEvent event;
+        private final Span span;
+
+        private Call(RepositoryCallEvent event, Span span) {
+            this.event = event;
+            this.span = span;
+        }
+    }
+}
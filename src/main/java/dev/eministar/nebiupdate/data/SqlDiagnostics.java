@@ -0,0 +1,305 @@
+package dev.eministar.nebiupdate.data;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+// Per-statement timing for the JDBC layer. When enabled, Database hands out proxied connections
+// that report every execute call here; calls are aggregated by normalized SQL (literals and IN
+// lists collapsed). Statements slower than the threshold are logged with their query plan, which
+// is captured once per normalized statement on the connection that ran it.
+public final class SqlDiagnostics {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SqlDiagnostics.class);
+    private static final int MAX_DISTINCT = 500;
+    private static final int MAX_RECENT_SLOW = 50;
+    private static final int MAX_NORMALIZED_CACHE = 2_000;
+    private static final String OVERFLOW_KEY = "(weitere Statements)";
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w$])-?\\d+(?:\\.\\d+)?(?![\\w$])");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern EXPLAINABLE = Pattern.compile("(?is)^\\s*(SELECT|INSERT|UPDATE|DELETE|WITH)\\b.*");
+
+    private final boolean enabled;
+    private final long slowThresholdNanos;
+    private final Map<String, QueryStats> stats = new ConcurrentHashMap<>();
+    private final Map<String, String> normalizedCache = new ConcurrentHashMap<>();
+    private final ArrayDeque<SlowQuery> recentSlow = new ArrayDeque<>();
+    private volatile SqlDialect dialect = SqlDialect.SQLITE;
+    private volatile Instant since = Instant.now();
+
+    private SqlDiagnostics(boolean enabled, long slowThresholdMillis) {
+        this.enabled = enabled;
+        this.slowThresholdNanos = Math.max(0, slowThresholdMillis) * 1_000_000L;
+    }
+
+    public static SqlDiagnostics enabled(long slowThresholdMillis) {
+        return new SqlDiagnostics(true, slowThresholdMillis);
+    }
+
+    public static SqlDiagnostics disabled() {
+        return new SqlDiagnostics(false, 0);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long slowThresholdMillis() {
+        return slowThresholdNanos / 1_000_000L;
+    }
+
+    void useDialect(SqlDialect dialect) {
+        this.dialect = dialect;
+    }
+
+    Connection wrap(Connection connection) {
+        return enabled ? InstrumentedConnection.wrap(connection, this) : connection;
+    }
+
+    void record(String sql, long nanos, boolean failed, Connection rawConnection) {
+        if (sql == null) {
+            sql = "(unbekannt)";
+        }
+        String normalized = normalize(sql);
+        QueryStats entry = stats.get(normalized);
+        if (entry == null) {
+            String key = stats.size() >= MAX_DISTINCT ? OVERFLOW_KEY : normalized;
+            entry = stats.computeIfAbsent(key, QueryStats::new);
+        }
+        entry.count.increment();
+        entry.totalNanos.add(nanos);
+        entry.maxNanos.accumulate(nanos);
+        if (failed) {
+            entry.errors.increment();
+        }
+        if (nanos < slowThresholdNanos || slowThresholdNanos == 0) {
+            return;
+        }
+        entry.slowCount.increment();
+        // Captured once; "" marks statements without a plan (DDL, failed EXPLAIN) so it isn't retried.
+        if (entry.plan == null && !failed && entry.sql.equals(normalized)) {
+            entry.plan = explain(rawConnection, sql);
+        }
+        long millis = nanos / 1_000_000L;
+        synchronized (recentSlow) {
+            if (recentSlow.size() >= MAX_RECENT_SLOW) {
+                recentSlow.removeFirst();
+            }
+            recentSlow.addLast(new SlowQuery(Instant.now(), millis, normalized, failed));
+        }
+        LOGGER.warn("Slow SQL ({} ms, threshold {} ms): {}\nPlan:\n{}", millis, slowThresholdMillis(), normalized,
+                entry.plan() == null ? "(nicht verfügbar)" : entry.plan());
+    }
+
+    public void reset() {
+        stats.clear();
+        synchronized (recentSlow) {
+            recentSlow.clear();
+        }
+        since = Instant.now();
+    }
+
+    public List<QueryStats> slowest(int limit) {
+        return top(Comparator.comparingDouble(QueryStats::meanMillis).reversed(), limit);
+    }
+
+    public List<QueryStats> mostFrequent(int limit) {
+        return top(Comparator.comparingLong(QueryStats::count).reversed(), limit);
+    }
+
+    public List<SlowQuery> recentSlow() {
+        synchronized (recentSlow) {
+            return List.copyOf(recentSlow);
+        }
+    }
+
+    public Map<String, Object> snapshot(int limit) {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", enabled);
+        snapshot.put("slowThresholdMs", slowThresholdMillis());
+        snapshot.put("since", since.toString());
+        snapshot.put("distinctStatements", stats.size());
+        snapshot.put("slowest", slowest(limit).stream().map(QueryStats::toMap).toList());
+        snapshot.put("mostFrequent", mostFrequent(limit).stream().map(QueryStats::toMap).toList());
+        snapshot.put("recentSlow", recentSlow().stream().map(SlowQuery::toMap).toList());
+        return snapshot;
+    }
+
+    private List<QueryStats> top(Comparator<QueryStats> order, int limit) {
+        return stats.values().stream()
+                .filter(entry -> entry.count() > 0)
+                .sorted(order)
+                .limit(Math.max(0, limit))
+                .toList();
+    }
+
+    String normalize(String sql) {
+        String cached = normalizedCache.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        normalized = IN_LIST.matcher(normalized).replaceAll("IN (?...)");
+        if (normalizedCache.size() < MAX_NORMALIZED_CACHE) {
+            normalizedCache.put(sql, normalized);
+        }
+        return normalized;
+    }
+
+    // EXPLAIN never executes the statement. SQLite needs every parameter bound (NULL is enough for the
+    // plan); PostgreSQL (16+) plans the statement generically with $n placeholders instead. A failed
+    // EXPLAIN would abort an open PostgreSQL transaction, so there it only runs in autocommit mode.
+    private String explain(Connection connection, String sql) {
+        if (!EXPLAINABLE.matcher(sql).matches()) {
+            return "";
+        }
+        try {
+            if (dialect == SqlDialect.POSTGRES) {
+                if (!connection.getAutoCommit()) {
+                    return null;
+                }
+                try (Statement statement = connection.createStatement();
+                     ResultSet resultSet = statement.executeQuery("EXPLAIN (GENERIC_PLAN) " + numberPlaceholders(sql))) {
+                    return readPlan(resultSet);
+                }
+            }
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return readPlan(resultSet);
+                }
+            }
+        } catch (SQLException ex) {
+            LOGGER.debug("EXPLAIN failed for {}", sql, ex);
+            return "";
+        }
+    }
+
+    private String readPlan(ResultSet resultSet) throws SQLException {
+        ResultSetMetaData meta = resultSet.getMetaData();
+        // SQLite: id, parent, notused, detail. PostgreSQL: a single "QUERY PLAN" column.
+        int detailColumn = meta.getColumnCount();
+        List<String> lines = new ArrayList<>();
+        while (resultSet.next()) {
+            lines.add(resultSet.getString(detailColumn));
+        }
+        return String.join("\n", lines);
+    }
+
+    private String numberPlaceholders(String sql) {
+        StringBuilder out = new StringBuilder(sql.length() + 8);
+        int index = 0;
+        boolean inString = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                inString = !inString;
+            }
+            if (c == '?' && !inString) {
+                out.append('$').append(++index);
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    public static final class QueryStats {
+        private final String sql;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder slowCount = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private volatile String plan;
+
+        private QueryStats(String sql) {
+            this.sql = sql;
+        }
+
+        public String sql() {
+            return sql;
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public double totalMillis() {
+            return totalNanos.sum() / 1_000_000.0;
+        }
+
+        public double meanMillis() {
+            long calls = count();
+            return calls == 0 ? 0 : totalMillis() / calls;
+        }
+
+        public double maxMillis() {
+            return maxNanos.get() / 1_000_000.0;
+        }
+
+        public long slowCount() {
+            return slowCount.sum();
+        }
+
+        public long errors() {
+            return errors.sum();
+        }
+
+        public String plan() {
+            String current = plan;
+            return current == null || current.isEmpty() ? null : current;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("sql", sql);
+            map.put("count", count());
+            map.put("totalMs", round(totalMillis()));
+            map.put("meanMs", round(meanMillis()));
+            map.put("maxMs", round(maxMillis()));
+            map.put("slowCount", slowCount());
+            map.put("errors", errors());
+            map.put("plan", plan());
+            return map;
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 1000.0) / 1000.0;
+        }
+    }
+
+    public record SlowQuery(Instant at, long millis, String sql, boolean failed) {
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("at", at.toString());
+            map.put("ms", millis);
+            map.put("sql", sql);
+            map.put("failed", failed);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package dev.eministar.nebiupdate.data;
+
+public enum SqlDialect {
+    SQLITE,
+    POSTGRES;
+
+    public static SqlDialect fromJdbcUrl(String jdbcUrl) {
+        if (jdbcUrl != null && jdbcUrl.startsWith("jdbc:postgresql:")) {
+            return POSTGRES;
+        }
+        return SQLITE;
+    }
+
+    // Highest id ever handed out for an auto-generated id column, including ids of deleted rows.
+    public String highestIdSql(String table) {
+        return switch (this) {
+            case SQLITE -> """
+                    SELECT MAX(
+                        COALESCE((SELECT seq FROM sqlite_sequence WHERE name = '%1$s'), 0),
+                        COALESCE((SELECT MAX(id) FROM %1$s), 0)
+                    )
+                    """.formatted(table);
+            case POSTGRES -> """
+                    SELECT GREATEST(
+                        COALESCE((SELECT MAX(id) FROM %1$s), 0),
+                        (SELECT CASE WHEN is_called THEN last_value ELSE 0 END FROM %1$s_id_seq)
+                    )
+                    """.formatted(table);
+        };
+    }
+
+    // Statement that moves the id generator past explicitly inserted ids, or null if the dialect does that itself.
+    public String syncIdSequenceSql(String table) {
+        return syncSequenceSql(table, "id");
+    }
+
+    public String syncSequenceSql(String table, String column) {
+        return switch (this) {
+            case SQLITE -> null;
+            case POSTGRES -> """
+                    SELECT setval('%1$s_%2$s_seq', GREATEST(
+                        COALESCE((SELECT MAX(%2$s) FROM %1$s), 0),
+                        (SELECT last_value FROM %1$s_%2$s_seq),
+                        1
+                    ))
+                    """.formatted(table, column);
+        };
+    }
+
+    // Transaction-scoped lock taken before appending to the change log, or null where writers are serialized anyway.
+    public String changeLogLockSql() {
+        return switch (this) {
+            case SQLITE -> null;
+            case POSTGRES -> "SELECT pg_advisory_xact_lock(hashtext('update_events'))";
+        };
+    }
+}
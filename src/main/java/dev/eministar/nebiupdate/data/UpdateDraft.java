@@ -0,0 +1,12 @@
+package dev.eministar.nebiupdate.data;
+
+import java.time.LocalDate;
+
+// Values for a new entry before the store assigned id, timestamps and version.
+public record UpdateDraft(
+        LocalDate weekStart,
+        UpdateType type,
+        String content,
+        String author
+) {
+}
@@ -10,6 +10,7 @@ public record UpdateEntry(
         String content,
         String author,
         Instant createdAt,
-        Instant updatedAt
+        Instant updatedAt,
+        long version
 ) {
 }
@@ -0,0 +1,36 @@
+package dev.eministar.nebiupdate.data;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+// One row of the change log. For DELETED the entry fields hold the last state before deletion;
+// for REPLACED they are empty.
+public record UpdateEvent(
+        long seq,
+        UpdateEventType kind,
+        long updateId,
+        LocalDate weekStart,
+        UpdateType type,
+        String content,
+        String author,
+        long version,
+        Instant occurredAt
+) {
+    public static UpdateEvent of(long seq, UpdateEventType kind, UpdateEntry entry, Instant occurredAt) {
+        return new UpdateEvent(
+                seq,
+                kind,
+                entry.id(),
+                entry.weekStart(),
+                entry.type(),
+                entry.content(),
+                entry.author(),
+                entry.version(),
+                occurredAt
+        );
+    }
+
+    public static UpdateEvent replaced(long seq, Instant occurredAt) {
+        return new UpdateEvent(seq, UpdateEventType.REPLACED, 0L, null, null, null, null, 0L, occurredAt);
+    }
+}
@@ -0,0 +1,28 @@
+package dev.eministar.nebiupdate.data;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+public enum UpdateEventType {
+    CREATED("created"),
+    UPDATED("updated"),
+    DELETED("deleted"),
+    // Bulk import/restore; consumers should drop derived state and re-read everything.
+    REPLACED("replaced");
+
+    private final String key;
+
+    UpdateEventType(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static Optional<UpdateEventType> fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(type -> type.key.equalsIgnoreCase(key))
+                .findFirst();
+    }
+}
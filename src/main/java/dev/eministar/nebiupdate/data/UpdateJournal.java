@@ -0,0 +1,367 @@
+package dev.eministar.nebiupdate.data;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+public final class UpdateJournal implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(UpdateJournal.class);
+
+    static final String OP_UPSERT = "upsert";
+    static final String OP_DELETE = "delete";
+    static final String OP_WEEKLY_MESSAGE = "weekly_message";
+    static final String OP_EVENT = "event";
+    // Frame header: the next `id` records belong to one batch and are only replayed if all of them made it to disk.
+    static final String OP_BATCH = "batch";
+
+    private final Path journalPath;
+    private final Path checkpointPath;
+    private final ObjectMapper objectMapper;
+    private final ReentrantLock lock = new ReentrantLock();
+    private FileChannel channel;
+
+    public UpdateJournal(Path journalPath) {
+        this.journalPath = journalPath.toAbsolutePath();
+        this.checkpointPath = Path.of(this.journalPath + ".checkpoint");
+        this.objectMapper = new ObjectMapper();
+        try {
+            Path parent = this.journalPath.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to create journal directory for " + this.journalPath, ex);
+        }
+        openChannel();
+    }
+
+    public void append(Record record) {
+        lock.lock();
+        try {
+            byte[] line = (objectMapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to append to update journal " + journalPath, ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void appendBatch(List<Record> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            StringBuilder lines = new StringBuilder();
+            lines.append(objectMapper.writeValueAsString(Record.batch(records.size()))).append('\n');
+            for (Record record : records) {
+                lines.append(objectMapper.writeValueAsString(record)).append('\n');
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to append to update journal " + journalPath, ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Moves everything journaled so far into the checkpoint segment and starts a fresh journal.
+    // A segment left over from a failed checkpoint is extended instead of replaced.
+    public void rotate() {
+        lock.lock();
+        try {
+            closeChannel();
+            try {
+                if (Files.exists(journalPath) && Files.size(journalPath) > 0) {
+                    if (Files.exists(checkpointPath)) {
+                        Files.write(checkpointPath, Files.readAllBytes(journalPath), StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+                        Files.delete(journalPath);
+                    } else {
+                        Files.move(journalPath, checkpointPath, StandardCopyOption.ATOMIC_MOVE);
+                    }
+                }
+            } catch (IOException ex) {
+                throw new IllegalStateException("Failed to rotate update journal " + journalPath, ex);
+            } finally {
+                openChannel();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<Record> readPending() {
+        lock.lock();
+        try {
+            List<Record> records = new ArrayList<>();
+            readSegment(checkpointPath, records);
+            readSegment(journalPath, records);
+            return records;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void discardCheckpoint() {
+        lock.lock();
+        try {
+            Files.deleteIfExists(checkpointPath);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to delete journal checkpoint " + checkpointPath, ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void reset() {
+        lock.lock();
+        try {
+            closeChannel();
+            try {
+                Files.deleteIfExists(checkpointPath);
+                Files.deleteIfExists(journalPath);
+            } catch (IOException ex) {
+                throw new IllegalStateException("Failed to reset update journal " + journalPath, ex);
+            } finally {
+                openChannel();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void readSegment(Path segment, List<Record> target) {
+        if (!Files.exists(segment)) {
+            return;
+        }
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(segment, StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to read update journal " + segment, ex);
+        }
+        List<Record> batch = null;
+        long batchSize = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            Record record;
+            try {
+                record = objectMapper.readValue(line, Record.class);
+            } catch (Exception ex) {
+                if (i == lines.size() - 1) {
+                    // A crash during append can leave a torn last line; it was never acknowledged.
+                    LOGGER.warn("Ignoring incomplete trailing record in {}", segment);
+                    continue;
+                }
+                throw new IllegalStateException("Corrupt update journal " + segment + " at line " + (i + 1), ex);
+            }
+            if (OP_BATCH.equals(record.op())) {
+                batch = new ArrayList<>();
+                batchSize = record.id();
+                continue;
+            }
+            if (batch == null) {
+                target.add(record);
+                continue;
+            }
+            batch.add(record);
+            if (batch.size() == batchSize) {
+                target.addAll(batch);
+                batch = null;
+            }
+        }
+        if (batch != null) {
+            LOGGER.warn("Ignoring incomplete trailing batch ({} of {} records) in {}", batch.size(), batchSize, segment);
+        }
+    }
+
+    private void openChannel() {
+        try {
+            channel = FileChannel.open(
+                    journalPath,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND
+            );
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to open update journal " + journalPath, ex);
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ex) {
+            LOGGER.warn("Failed to close update journal {}", journalPath, ex);
+        }
+        channel = null;
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closeChannel();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Write records can carry the change event they produced, so a write and its event are journaled atomically.
+    public record Record(
+            String op,
+            long id,
+            String weekStart,
+            String type,
+            String content,
+            String author,
+            String createdAt,
+            String updatedAt,
+            String channelId,
+            String messageId,
+            Long version,
+            Long eventSeq,
+            String eventKind,
+            String eventAt
+    ) {
+        static Record upsert(UpdateEntry entry) {
+            return upsert(entry, null);
+        }
+
+        static Record upsert(UpdateEntry entry, UpdateEvent event) {
+            return entryRecord(OP_UPSERT, entry, event);
+        }
+
+        static Record delete(UpdateEntry entry, UpdateEvent event) {
+            return entryRecord(OP_DELETE, entry, event);
+        }
+
+        static Record batch(int size) {
+            return new Record(OP_BATCH, size, null, null, null, null, null, null, null, null, null, null, null, null);
+        }
+
+        static Record weeklyMessage(WeeklyMessageRecord record) {
+            return new Record(
+                    OP_WEEKLY_MESSAGE,
+                    0L,
+                    record.weekStart().toString(),
+                    null,
+                    null,
+                    null,
+                    record.createdAt().toString(),
+                    null,
+                    record.channelId(),
+                    record.messageId(),
+                    null,
+                    null,
+                    null,
+                    null
+            );
+        }
+
+        static Record event(UpdateEvent event) {
+            return new Record(
+                    OP_EVENT,
+                    event.updateId(),
+                    event.weekStart() == null ? null : event.weekStart().toString(),
+                    event.type() == null ? null : event.type().key(),
+                    event.content(),
+                    event.author(),
+                    null,
+                    null,
+                    null,
+                    null,
+                    event.version(),
+                    event.seq(),
+                    event.kind().key(),
+                    event.occurredAt().toString()
+            );
+        }
+
+        private static Record entryRecord(String op, UpdateEntry entry, UpdateEvent event) {
+            return new Record(
+                    op,
+                    entry.id(),
+                    entry.weekStart().toString(),
+                    entry.type().key(),
+                    entry.content(),
+                    entry.author(),
+                    entry.createdAt().toString(),
+                    entry.updatedAt().toString(),
+                    null,
+                    null,
+                    entry.version(),
+                    event == null ? null : event.seq(),
+                    event == null ? null : event.kind().key(),
+                    event == null ? null : event.occurredAt().toString()
+            );
+        }
+
+        UpdateEntry toUpdateEntry() {
+            UpdateType parsedType = UpdateType.fromKey(type)
+                    .orElseThrow(() -> new IllegalStateException("Unsupported update type in journal: " + type));
+            return new UpdateEntry(
+                    id,
+                    LocalDate.parse(weekStart),
+                    parsedType,
+                    content,
+                    author,
+                    Instant.parse(createdAt),
+                    Instant.parse(updatedAt),
+                    version == null ? 1L : version
+            );
+        }
+
+        WeeklyMessageRecord toWeeklyMessage() {
+            return new WeeklyMessageRecord(LocalDate.parse(weekStart), channelId, messageId, Instant.parse(createdAt));
+        }
+
+        UpdateEvent toEvent() {
+            if (eventSeq == null) {
+                return null;
+            }
+            UpdateEventType kind = UpdateEventType.fromKey(eventKind)
+                    .orElseThrow(() -> new IllegalStateException("Unsupported change event kind in journal: " + eventKind));
+            return new UpdateEvent(
+                    eventSeq,
+                    kind,
+                    id,
+                    weekStart == null ? null : LocalDate.parse(weekStart),
+                    type == null ? null : UpdateType.fromKey(type).orElse(null),
+                    content,
+                    author,
+                    version == null ? 0L : version,
+                    Instant.parse(eventAt)
+            );
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package dev.eministar.nebiupdate.data;
+
+import java.util.List;
+
+public record UpdatePage(
+        List<UpdateEntry> entries,
+        HistoryCursor nextCursor
+) {
+    public UpdatePage {
+        entries = entries == null ? List.of() : List.copyOf(entries);
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
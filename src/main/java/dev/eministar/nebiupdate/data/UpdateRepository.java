@@ -1,353 +1,302 @@
 package dev.eministar.nebiupdate.data;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.Statement;
-import java.time.Instant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public final class UpdateRepository {
-    private static final Pattern USER_ID_PATTERN = Pattern.compile("^\\d{15,25}$");
-    private static final Pattern USER_MENTION_PATTERN = Pattern.compile("^<@!?(\\d{15,25})>$");
+    private static final Logger LOGGER = LoggerFactory.getLogger(UpdateRepository.class);
+    private static final QueryProbe CREATE = QueryProbe.of("update", "create");
+    private static final QueryProbe CREATE_ALL = QueryProbe.of("update", "createAll");
+    private static final QueryProbe FIND_BY_WEEK = QueryProbe.of("update", "findByWeek");
+    private static final QueryProbe FIND_BY_ID_IN_WEEK = QueryProbe.of("update", "findByIdInWeek");
+    private static final QueryProbe UPDATE_IN_WEEK = QueryProbe.of("update", "updateInWeek");
+    private static final QueryProbe DELETE_IN_WEEK = QueryProbe.of("update", "deleteInWeek");
+    private static final QueryProbe FIND_WEEKLY_MESSAGE_ID = QueryProbe.of("update", "findWeeklyMessageId");
+    private static final QueryProbe UPSERT_WEEKLY_MESSAGE = QueryProbe.of("update", "upsertWeeklyMessage");
+    private static final QueryProbe COUNT_BY_WEEK = QueryProbe.of("update", "countByWeek");
+    private static final QueryProbe FIND_ALL = QueryProbe.of("update", "findAll");
+    private static final QueryProbe FIND_BY_WEEK_RANGE = QueryProbe.of("update", "findByWeekRange");
+    private static final QueryProbe FIND_HISTORY_PAGE = QueryProbe.of("update", "findHistoryPage");
+    private static final QueryProbe FIND_ALL_WEEKLY_MESSAGES = QueryProbe.of("update", "findAllWeeklyMessages");
+    private static final QueryProbe FIND_WEEKLY_TYPE_STATS = QueryProbe.of("update", "findWeeklyTypeStats");
+    private static final QueryProbe REPLACE_ALL = QueryProbe.of("update", "replaceAll");
+    private static final QueryProbe INSERT_BATCH = QueryProbe.of("update", "insertBatch");
+    private static final QueryProbe HIGHEST_ASSIGNED_ID = QueryProbe.of("update", "highestAssignedId");
+    private static final QueryProbe FIND_EVENTS_AFTER = QueryProbe.of("update", "findEventsAfter");
+    private static final QueryProbe LATEST_EVENT_SEQ = QueryProbe.of("update", "latestEventSeq");
+    private static final QueryProbe FIND_CONSUMER_CURSOR = QueryProbe.of("update", "findConsumerCursor");
+    private static final QueryProbe SAVE_CONSUMER_CURSOR = QueryProbe.of("update", "saveConsumerCursor");
 
-    private final Database database;
+    private final UpdateStore store;
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
 
     public UpdateRepository(Database database) {
-        this.database = database;
+        this(new JdbcUpdateStore(database));
+    }
+
+    public UpdateRepository(UpdateStore store) {
+        this.store = store;
     }
 
     public UpdateEntry create(LocalDate weekStart, UpdateType type, String content, String author) {
-        String sql = """
-                INSERT INTO updates(week_start, type, content, author, created_at, updated_at)
-                VALUES(?, ?, ?, ?, ?, ?)
-                """;
-        Instant now = Instant.now();
-        try (Connection connection = database.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            statement.setString(1, weekStart.toString());
-            statement.setString(2, type.key());
-            statement.setString(3, content);
-            statement.setString(4, normalizeAuthor(author));
-            statement.setString(5, now.toString());
-            statement.setString(6, now.toString());
-            statement.executeUpdate();
-
-            try (ResultSet keys = statement.getGeneratedKeys()) {
-                if (keys.next()) {
-                    long id = keys.getLong(1);
-                    return new UpdateEntry(id, weekStart, type, content, normalizeAuthor(author), now, now);
-                }
-            }
-            throw new IllegalStateException("Failed to obtain generated update id");
-        } catch (SQLException ex) {
-            throw new IllegalStateException("Failed to create update", ex);
+        QueryProbe.Call call = CREATE.begin();
+        UpdateEntry created = null;
+        try {
+            created = store.create(weekStart, type, content, author);
+        } finally {
+            CREATE.end(call, created);
+        }
+        notifyChanged();
+        return created;
+    }
+
+    public List<UpdateEntry> createAll(List<UpdateDraft> drafts) {
+        if (drafts.isEmpty()) {
+            return List.of();
         }
+        QueryProbe.Call call = CREATE_ALL.begin();
+        List<UpdateEntry> created = null;
+        try {
+            created = store.createAll(drafts);
+        } finally {
+            CREATE_ALL.end(call, created);
+        }
+        notifyChanged();
+        return created;
     }
 
     public List<UpdateEntry> findByWeek(LocalDate weekStart) {
-        String sql = """
-                SELECT *
-                FROM updates
-                WHERE week_start = ?
-                ORDER BY
-                    CASE type
-                        WHEN 'added' THEN 1
-                        WHEN 'changed' THEN 2
-                        WHEN 'removed' THEN 3
-                        ELSE 99
-                    END ASC,
-                    id ASC
-                """;
-        List<UpdateEntry> updates = new ArrayList<>();
-        try (Connection connection = database.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, weekStart.toString());
-            try (ResultSet resultSet = statement.executeQuery()) {
-                while (resultSet.next()) {
-                    updates.add(mapUpdate(resultSet));
-                }
-            }
-            return updates;
-        } catch (SQLException ex) {
-            throw new IllegalStateException("Failed to fetch updates for week " + weekStart, ex);
+        QueryProbe.Call call = FIND_BY_WEEK.begin();
+        List<UpdateEntry> result = null;
+        try {
+            result = store.findByWeek(weekStart);
+            return result;
+        } finally {
+            FIND_BY_WEEK.end(call, result);
         }
     }
 
     public Optional<UpdateEntry> findByIdInWeek(long id, LocalDate weekStart) {
-        String sql = "SELECT * FROM updates WHERE id = ? AND week_start = ?";
-        try (Connection connection = database.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setLong(1, id);
-            statement.setString(2, weekStart.toString());
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    return Optional.of(mapUpdate(resultSet));
-                }
-            }
-            return Optional.empty();
-        } catch (SQLException ex) {
-            throw new IllegalStateException("Failed to fetch update by id", ex);
+        QueryProbe.Call call = FIND_BY_ID_IN_WEEK.begin();
+        Optional<UpdateEntry> result = null;
+        try {
+            result = store.findByIdInWeek(id, weekStart);
+            return result;
+        } finally {
+            FIND_BY_ID_IN_WEEK.end(call, result);
         }
     }
 
     public boolean updateInWeek(long id, LocalDate weekStart, UpdateType type, String content, String author) {
-        String sql = """
-                UPDATE updates
-                SET type = ?, content = ?, author = ?, updated_at = ?
-                WHERE id = ? AND week_start = ?
-                """;
-        try (Connection connection = database.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, type.key());
-            statement.setString(2, content);
-            statement.setString(3, normalizeAuthor(author));
-            statement.setString(4, Instant.now().toString());
-            statement.setLong(5, id);
-            statement.setString(6, weekStart.toString());
-            return statement.executeUpdate() > 0;
-        } catch (SQLException ex) {
-            throw new IllegalStateException("Failed to update entry " + id, ex);
+        return updateInWeek(id, weekStart, type, content, author, UpdateStore.ANY_VERSION) == WriteOutcome.APPLIED;
+    }
+
+    public WriteOutcome updateInWeek(long id, LocalDate weekStart, UpdateType type, String content, String author, long expectedVersion) {
+        QueryProbe.Call call = UPDATE_IN_WEEK.begin();
+        WriteOutcome outcome = null;
+        try {
+            outcome = store.updateInWeek(id, weekStart, type, content, author, expectedVersion);
+        } finally {
+            UPDATE_IN_WEEK.end(call, outcome);
         }
+        return notifyIfApplied(outcome);
     }
 
     public boolean deleteInWeek(long id, LocalDate weekStart) {
-        String sql = "DELETE FROM updates WHERE id = ? AND week_start = ?";
-        try (Connection connection = database.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setLong(1, id);
-            statement.setString(2, weekStart.toString());
-            return statement.executeUpdate() > 0;
-        } catch (SQLException ex) {
-            throw new IllegalStateException("Failed to delete entry " + id, ex);
+        return deleteInWeek(id, weekStart, UpdateStore.ANY_VERSION) == WriteOutcome.APPLIED;
+    }
+
+    public WriteOutcome deleteInWeek(long id, LocalDate weekStart, long expectedVersion) {
+        QueryProbe.Call call = DELETE_IN_WEEK.begin();
+        WriteOutcome outcome = null;
+        try {
+            outcome = store.deleteInWeek(id, weekStart, expectedVersion);
+        } finally {
+            DELETE_IN_WEEK.end(call, outcome);
         }
+        return notifyIfApplied(outcome);
     }
 
     public Optional<String> findWeeklyMessageId(LocalDate weekStart) {
-        String sql = "SELECT message_id FROM weekly_messages WHERE week_start = ?";
-        try (Connection connection = database.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, weekStart.toString());
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    return Optional.of(resultSet.getString("message_id"));
-                }
-            }
-            return Optional.empty();
-        } catch (SQLException ex) {
-            throw new IllegalStateException("Failed to read weekly message id", ex);
+        QueryProbe.Call call = FIND_WEEKLY_MESSAGE_ID.begin();
+        Optional<String> result = null;
+        try {
+            result = store.findWeeklyMessageId(weekStart);
+            return result;
+        } finally {
+            FIND_WEEKLY_MESSAGE_ID.end(call, result);
         }
     }
 
     public void upsertWeeklyMessage(LocalDate weekStart, String channelId, String messageId) {
-        String sql = """
-                INSERT INTO weekly_messages(week_start, channel_id, message_id, created_at)
-                VALUES(?, ?, ?, ?)
-                ON CONFLICT(week_start)
-                DO UPDATE SET channel_id = excluded.channel_id, message_id = excluded.message_id
-                """;
-        try (Connection connection = database.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, weekStart.toString());
-            statement.setString(2, channelId);
-            statement.setString(3, messageId);
-            statement.setString(4, Instant.now().toString());
-            statement.executeUpdate();
-        } catch (SQLException ex) {
-            throw new IllegalStateException("Failed to upsert weekly message", ex);
+        QueryProbe.Call call = UPSERT_WEEKLY_MESSAGE.begin();
+        try {
+            store.upsertWeeklyMessage(weekStart, channelId, messageId);
+        } finally {
+            UPSERT_WEEKLY_MESSAGE.end(call);
         }
     }
 
     public int countByWeek(LocalDate weekStart) {
-        String sql = "SELECT COUNT(1) FROM updates WHERE week_start = ?";
-        try (Connection connection = database.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, weekStart.toString());
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    return resultSet.getInt(1);
-                }
-            }
-            return 0;
-        } catch (SQLException ex) {
-            throw new IllegalStateException("Failed to count updates", ex);
+        QueryProbe.Call call = COUNT_BY_WEEK.begin();
+        try {
+            return store.countByWeek(weekStart);
+        } finally {
+            COUNT_BY_WEEK.end(call);
         }
     }
 
     public List<UpdateEntry> findAll() {
-        String sql = """
-                SELECT *
-                FROM updates
-                ORDER BY week_start ASC, id ASC
-                """;
-        List<UpdateEntry> updates = new ArrayList<>();
-        try (Connection connection = database.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql);
-             ResultSet resultSet = statement.executeQuery()) {
-            while (resultSet.next()) {
-                updates.add(mapUpdate(resultSet));
-            }
-            return updates;
-        } catch (SQLException ex) {
-            throw new IllegalStateException("Failed to fetch all updates", ex);
+        QueryProbe.Call call = FIND_ALL.begin();
+        List<UpdateEntry> result = null;
+        try {
+            result = store.findAll();
+            return result;
+        } finally {
+            FIND_ALL.end(call, result);
+        }
+    }
+
+    public List<UpdateEntry> findByWeekRange(LocalDate fromWeek, LocalDate toWeek) {
+        QueryProbe.Call call = FIND_BY_WEEK_RANGE.begin();
+        List<UpdateEntry> result = null;
+        try {
+            result = store.findByWeekRange(fromWeek, toWeek);
+            return result;
+        } finally {
+            FIND_BY_WEEK_RANGE.end(call, result);
+        }
+    }
+
+    public UpdatePage findHistoryPage(LocalDate fromWeek, LocalDate toWeek, HistoryCursor before, int limit) {
+        QueryProbe.Call call = FIND_HISTORY_PAGE.begin();
+        UpdatePage result = null;
+        try {
+            result = store.findHistoryPage(fromWeek, toWeek, before, limit);
+            return result;
+        } finally {
+            FIND_HISTORY_PAGE.end(call, result);
         }
     }
 
     public List<WeeklyMessageRecord> findAllWeeklyMessages() {
-        String sql = """
-                SELECT week_start, channel_id, message_id, created_at
-                FROM weekly_messages
-                ORDER BY week_start ASC
-                """;
-        List<WeeklyMessageRecord> records = new ArrayList<>();
-        try (Connection connection = database.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql);
-             ResultSet resultSet = statement.executeQuery()) {
-            while (resultSet.next()) {
-                records.add(mapWeeklyMessage(resultSet));
-            }
-            return records;
-        } catch (SQLException ex) {
-            throw new IllegalStateException("Failed to fetch weekly message records", ex);
+        QueryProbe.Call call = FIND_ALL_WEEKLY_MESSAGES.begin();
+        List<WeeklyMessageRecord> result = null;
+        try {
+            result = store.findAllWeeklyMessages();
+            return result;
+        } finally {
+            FIND_ALL_WEEKLY_MESSAGES.end(call, result);
         }
     }
 
     public List<WeeklyTypeStats> findWeeklyTypeStats(int limitWeeks) {
-        int safeLimit = Math.max(1, Math.min(limitWeeks, 260));
-        String sql = """
-                SELECT
-                    week_start,
-                    SUM(CASE WHEN type = 'added' THEN 1 ELSE 0 END) AS added_count,
-                    SUM(CASE WHEN type = 'changed' THEN 1 ELSE 0 END) AS changed_count,
-                    SUM(CASE WHEN type = 'removed' THEN 1 ELSE 0 END) AS removed_count
-                FROM updates
-                GROUP BY week_start
-                ORDER BY week_start DESC
-                LIMIT ?
-                """;
-        List<WeeklyTypeStats> stats = new ArrayList<>();
-        try (Connection connection = database.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, safeLimit);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                while (resultSet.next()) {
-                    LocalDate weekStart = LocalDate.parse(resultSet.getString("week_start"));
-                    int added = resultSet.getInt("added_count");
-                    int changed = resultSet.getInt("changed_count");
-                    int removed = resultSet.getInt("removed_count");
-                    stats.add(new WeeklyTypeStats(weekStart, added, changed, removed));
-                }
-            }
-            return stats.reversed();
-        } catch (SQLException ex) {
-            throw new IllegalStateException("Failed to fetch weekly type stats", ex);
+        QueryProbe.Call call = FIND_WEEKLY_TYPE_STATS.begin();
+        List<WeeklyTypeStats> result = null;
+        try {
+            result = store.findWeeklyTypeStats(limitWeeks);
+            return result;
+        } finally {
+            FIND_WEEKLY_TYPE_STATS.end(call, result);
         }
     }
 
     public void replaceAll(List<UpdateEntry> updates, List<WeeklyMessageRecord> weeklyMessages) {
-        String deleteUpdatesSql = "DELETE FROM updates";
-        String deleteWeeklyMessagesSql = "DELETE FROM weekly_messages";
-        String insertUpdateSql = """
-                INSERT INTO updates(id, week_start, type, content, author, created_at, updated_at)
-                VALUES(?, ?, ?, ?, ?, ?, ?)
-                """;
-        String insertWeeklyMessageSql = """
-                INSERT INTO weekly_messages(week_start, channel_id, message_id, created_at)
-                VALUES(?, ?, ?, ?)
-                """;
-
-        try (Connection connection = database.getConnection()) {
-            boolean previousAutoCommit = connection.getAutoCommit();
-            connection.setAutoCommit(false);
-            try (PreparedStatement deleteUpdates = connection.prepareStatement(deleteUpdatesSql);
-                 PreparedStatement deleteWeeklyMessages = connection.prepareStatement(deleteWeeklyMessagesSql);
-                 PreparedStatement insertUpdate = connection.prepareStatement(insertUpdateSql);
-                 PreparedStatement insertWeeklyMessage = connection.prepareStatement(insertWeeklyMessageSql)) {
-                deleteUpdates.executeUpdate();
-                deleteWeeklyMessages.executeUpdate();
-
-                for (UpdateEntry entry : updates) {
-                    insertUpdate.setLong(1, entry.id());
-                    insertUpdate.setString(2, entry.weekStart().toString());
-                    insertUpdate.setString(3, entry.type().key());
-                    insertUpdate.setString(4, entry.content());
-                    insertUpdate.setString(5, normalizeAuthor(entry.author()));
-                    insertUpdate.setString(6, entry.createdAt().toString());
-                    insertUpdate.setString(7, entry.updatedAt().toString());
-                    insertUpdate.addBatch();
-                }
-                insertUpdate.executeBatch();
-
-                for (WeeklyMessageRecord record : weeklyMessages) {
-                    insertWeeklyMessage.setString(1, record.weekStart().toString());
-                    insertWeeklyMessage.setString(2, record.channelId());
-                    insertWeeklyMessage.setString(3, record.messageId());
-                    insertWeeklyMessage.setString(4, record.createdAt().toString());
-                    insertWeeklyMessage.addBatch();
-                }
-                insertWeeklyMessage.executeBatch();
-
-                connection.commit();
-            } catch (Exception ex) {
-                connection.rollback();
-                throw ex;
-            } finally {
-                connection.setAutoCommit(previousAutoCommit);
-            }
-        } catch (Exception ex) {
-            throw new IllegalStateException("Failed to replace update data", ex);
+        QueryProbe.Call call = REPLACE_ALL.begin();
+        try {
+            store.replaceAll(updates, weeklyMessages);
+        } finally {
+            REPLACE_ALL.end(call);
+        }
+        notifyChanged();
+    }
+
+    // Bulk load of complete rows (ids chosen by the caller) without change events, for generated
+    // fixtures. Existing rows with the same id or week are overwritten.
+    public void insertBatch(List<UpdateEntry> updates, List<WeeklyMessageRecord> weeklyMessages) {
+        if (updates.isEmpty() && weeklyMessages.isEmpty()) {
+            return;
+        }
+        QueryProbe.Call call = INSERT_BATCH.begin();
+        try {
+            store.applyBatch(updates, List.of(), weeklyMessages, List.of());
+        } finally {
+            INSERT_BATCH.end(call);
         }
+        notifyChanged();
     }
 
-    private UpdateEntry mapUpdate(ResultSet resultSet) throws SQLException {
-        long id = resultSet.getLong("id");
-        LocalDate weekStart = LocalDate.parse(resultSet.getString("week_start"));
-        UpdateType type = UpdateType.fromKey(resultSet.getString("type"))
-                .orElseThrow(() -> new IllegalStateException("Unsupported update type in DB"));
-        String content = resultSet.getString("content");
-        String author = resultSet.getString("author");
-        Instant createdAt = parseInstant(resultSet.getString("created_at"));
-        Instant updatedAt = parseInstant(resultSet.getString("updated_at"));
-        return new UpdateEntry(id, weekStart, type, content, normalizeAuthor(author), createdAt, updatedAt);
+    public long highestAssignedId() {
+        QueryProbe.Call call = HIGHEST_ASSIGNED_ID.begin();
+        try {
+            return store.highestAssignedId();
+        } finally {
+            HIGHEST_ASSIGNED_ID.end(call);
+        }
     }
 
-    private WeeklyMessageRecord mapWeeklyMessage(ResultSet resultSet) throws SQLException {
-        LocalDate weekStart = LocalDate.parse(resultSet.getString("week_start"));
-        String channelId = resultSet.getString("channel_id");
-        String messageId = resultSet.getString("message_id");
-        Instant createdAt = parseInstant(resultSet.getString("created_at"));
-        return new WeeklyMessageRecord(weekStart, channelId, messageId, createdAt);
+    public List<UpdateEvent> findEventsAfter(long afterSeq, int limit) {
+        QueryProbe.Call call = FIND_EVENTS_AFTER.begin();
+        List<UpdateEvent> result = null;
+        try {
+            result = store.findEventsAfter(afterSeq, limit);
+            return result;
+        } finally {
+            FIND_EVENTS_AFTER.end(call, result);
+        }
     }
 
-    private Instant parseInstant(String raw) {
+    public long latestEventSeq() {
+        QueryProbe.Call call = LATEST_EVENT_SEQ.begin();
         try {
-            return Instant.parse(raw);
-        } catch (Exception ignored) {
-            return Instant.now();
+            return store.latestEventSeq();
+        } finally {
+            LATEST_EVENT_SEQ.end(call);
         }
     }
 
-    private String normalizeAuthor(String author) {
-        if (author == null || author.isBlank()) {
-            return "Unbekannt";
+    public long findConsumerCursor(String consumer) {
+        QueryProbe.Call call = FIND_CONSUMER_CURSOR.begin();
+        try {
+            return store.findConsumerCursor(consumer);
+        } finally {
+            FIND_CONSUMER_CURSOR.end(call);
         }
-        String value = author.trim();
+    }
 
-        Matcher mentionMatcher = USER_MENTION_PATTERN.matcher(value);
-        if (mentionMatcher.matches()) {
-            return mentionMatcher.group(1);
+    public void saveConsumerCursor(String consumer, long seq) {
+        QueryProbe.Call call = SAVE_CONSUMER_CURSOR.begin();
+        try {
+            store.saveConsumerCursor(consumer, seq);
+        } finally {
+            SAVE_CONSUMER_CURSOR.end(call);
         }
+    }
+
+    // Listeners only get a signal; what changed is read from the change log (findEventsAfter).
+    public void addChangeListener(Runnable listener) {
+        changeListeners.add(listener);
+    }
 
-        if (USER_ID_PATTERN.matcher(value).matches()) {
-            return value;
+    private WriteOutcome notifyIfApplied(WriteOutcome outcome) {
+        if (outcome == WriteOutcome.APPLIED) {
+            notifyChanged();
         }
+        return outcome;
+    }
 
-        return value;
+    private void notifyChanged() {
+        for (Runnable listener : changeListeners) {
+            try {
+                listener.run();
+            } catch (Exception ex) {
+                LOGGER.warn("Update change listener failed", ex);
+            }
+        }
     }
 }
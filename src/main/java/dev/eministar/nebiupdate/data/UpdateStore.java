@@ -0,0 +1,65 @@
+package dev.eministar.nebiupdate.data;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface UpdateStore {
+    // Expected version that skips the compare-and-set check.
+    long ANY_VERSION = -1L;
+
+    UpdateEntry create(LocalDate weekStart, UpdateType type, String content, String author);
+
+    // Creates all drafts atomically (one CREATED event each); entries come back in draft order.
+    List<UpdateEntry> createAll(List<UpdateDraft> drafts);
+
+    List<UpdateEntry> findByWeek(LocalDate weekStart);
+
+    Optional<UpdateEntry> findByIdInWeek(long id, LocalDate weekStart);
+
+    // Applies only while the stored row still has expectedVersion (or always for ANY_VERSION) and bumps its version.
+    WriteOutcome updateInWeek(long id, LocalDate weekStart, UpdateType type, String content, String author, long expectedVersion);
+
+    WriteOutcome deleteInWeek(long id, LocalDate weekStart, long expectedVersion);
+
+    Optional<String> findWeeklyMessageId(LocalDate weekStart);
+
+    void upsertWeeklyMessage(LocalDate weekStart, String channelId, String messageId);
+
+    int countByWeek(LocalDate weekStart);
+
+    List<UpdateEntry> findAll();
+
+    List<UpdateEntry> findByWeekRange(LocalDate fromWeek, LocalDate toWeek);
+
+    UpdatePage findHistoryPage(LocalDate fromWeek, LocalDate toWeek, HistoryCursor before, int limit);
+
+    List<WeeklyMessageRecord> findAllWeeklyMessages();
+
+    List<WeeklyTypeStats> findWeeklyTypeStats(int limitWeeks);
+
+    // Also records a single REPLACED change event.
+    void replaceAll(List<UpdateEntry> updates, List<WeeklyMessageRecord> weeklyMessages);
+
+    // Upserts entries by id, deletes ids, upserts weekly messages and appends the given change events
+    // (keeping their sequence numbers) in one transaction. Does not generate events of its own.
+    void applyBatch(
+            List<UpdateEntry> upserts,
+            Collection<Long> deletedIds,
+            List<WeeklyMessageRecord> weeklyMessages,
+            List<UpdateEvent> events
+    );
+
+    List<UpdateEvent> findEventsAfter(long afterSeq, int limit);
+
+    long latestEventSeq();
+
+    // Last acknowledged sequence number of a change-log consumer, 0 if it never acknowledged anything.
+    long findConsumerCursor(String consumer);
+
+    void saveConsumerCursor(String consumer, long seq);
+
+    // Highest id ever handed out, including ids of deleted rows.
+    long highestAssignedId();
+}
@@ -0,0 +1,7 @@
+package dev.eministar.nebiupdate.data;
+
+public enum WriteOutcome {
+    APPLIED,
+    NOT_FOUND,
+    VERSION_CONFLICT
+}
@@ -0,0 +1,100 @@
+package dev.eministar.nebiupdate.discord;
+
+import dev.eministar.nebiupdate.metrics.Counter;
+import dev.eministar.nebiupdate.metrics.Metrics;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Token bucket per guild, user and /update subcommand. Each bucket holds up to `burst` tokens and
+// gets one back every `refill`; a command costs one token. Buckets that have been full again for a
+// while are dropped, so the map only holds users who were active recently.
+public final class CommandRateLimiter {
+    private static final Counter THROTTLED = Metrics.counter(
+            "nebi_slash_command_throttled_total",
+            "/update subcommands refused because the user's token bucket was empty",
+            "subcommand"
+    );
+    private static final Map<String, Limit> LIMITS = Map.of(
+            "add", new Limit(5, Duration.ofSeconds(3)),
+            "edit", new Limit(5, Duration.ofSeconds(3)),
+            "remove", new Limit(5, Duration.ofSeconds(3)),
+            "list", new Limit(1, Duration.ofSeconds(2)),
+            // Both end in Discord REST calls for the whole week; the sync itself is coalesced anyway.
+            "sync", new Limit(2, Duration.ofSeconds(30)),
+            "test", new Limit(1, Duration.ofSeconds(60))
+    );
+    private static final Limit FALLBACK = new Limit(5, Duration.ofSeconds(3));
+    private static final int SWEEP_INTERVAL = 256;
+
+    private final boolean enabled;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger sweepCounter = new AtomicInteger();
+
+    public CommandRateLimiter(boolean enabled) {
+        this.enabled = enabled;
+        Metrics.gauge("nebi_slash_command_buckets", "Token buckets of recently active users").register(buckets::size);
+    }
+
+    // Returns Duration.ZERO when the command may run, otherwise how long until the next token.
+    public Duration tryAcquire(String subcommand, String guildId, String userId) {
+        if (!enabled) {
+            return Duration.ZERO;
+        }
+        long now = System.nanoTime();
+        if (sweepCounter.incrementAndGet() % SWEEP_INTERVAL == 0) {
+            sweep(now);
+        }
+        Limit limit = LIMITS.getOrDefault(subcommand, FALLBACK);
+        Bucket bucket = buckets.computeIfAbsent(
+                subcommand + ':' + guildId + ':' + userId,
+                ignored -> new Bucket(limit, now)
+        );
+        long waitNanos = bucket.take(now);
+        if (waitNanos > 0) {
+            THROTTLED.labels(subcommand).inc();
+            return Duration.ofNanos(waitNanos);
+        }
+        return Duration.ZERO;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private void sweep(long now) {
+        buckets.values().removeIf(bucket -> bucket.isIdle(now));
+    }
+
+    private record Limit(int burst, Duration refill) {
+    }
+
+    // Tokens are kept in nanoseconds of refill time, which avoids fractional counts.
+    private static final class Bucket {
+        private final long refillNanos;
+        private final long capacityNanos;
+        private long emptyAt;
+
+        private Bucket(Limit limit, long now) {
+            this.refillNanos = limit.refill().toNanos();
+            this.capacityNanos = refillNanos * limit.burst();
+            this.emptyAt = now - capacityNanos;
+        }
+
+        private synchronized long take(long now) {
+            long start = Math.max(emptyAt, now - capacityNanos);
+            long next = start + refillNanos;
+            if (next > now) {
+                return next - now;
+            }
+            emptyAt = next;
+            return 0;
+        }
+
+        private synchronized boolean isIdle(long now) {
+            return now - emptyAt >= capacityNanos * 2;
+        }
+    }
+}
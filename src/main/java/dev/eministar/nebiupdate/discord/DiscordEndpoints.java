@@ -0,0 +1,14 @@
+package dev.eministar.nebiupdate.discord;
+
+// Where JDA talks to. Empty values mean Discord itself; the overrides exist for local stand-ins
+// such as the fake Discord server of the load harness (discord.api_url / discord.gateway_url).
+public record DiscordEndpoints(String restBaseUrl, String gatewayUrl) {
+    public DiscordEndpoints {
+        restBaseUrl = restBaseUrl == null ? "" : restBaseUrl.trim();
+        gatewayUrl = gatewayUrl == null ? "" : gatewayUrl.trim();
+        // JDA appends route paths directly to the base URL.
+        if (!restBaseUrl.isEmpty() && !restBaseUrl.endsWith("/")) {
+            restBaseUrl = restBaseUrl + "/";
+        }
+    }
+}
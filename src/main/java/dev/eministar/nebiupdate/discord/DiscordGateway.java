@@ -6,15 +6,28 @@ import dev.eministar.nebiupdate.audit.AuditService;
 import dev.eministar.nebiupdate.data.UpdateEntry;
 import dev.eministar.nebiupdate.data.UpdateRepository;
 import dev.eministar.nebiupdate.logging.ErrorLogger;
+import dev.eministar.nebiupdate.jfr.SyncWeekEvent;
+import dev.eministar.nebiupdate.metrics.Counter;
+import dev.eministar.nebiupdate.metrics.Gauge;
+import dev.eministar.nebiupdate.metrics.Histogram;
+import dev.eministar.nebiupdate.metrics.Metrics;
+import dev.eministar.nebiupdate.runtime.JvmMetrics;
+import dev.eministar.nebiupdate.runtime.TaskClass;
+import dev.eministar.nebiupdate.runtime.TaskExecutor;
 import dev.eministar.nebiupdate.time.WeekService;
 import dev.eministar.nebiupdate.time.WeekWindow;
+import dev.eministar.nebiupdate.tracing.Span;
+import dev.eministar.nebiupdate.tracing.SpanKind;
+import dev.eministar.nebiupdate.tracing.Tracing;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.api.events.session.ReadyEvent;
 import net.dv8tion.jda.api.exceptions.ErrorResponseException;
+import net.dv8tion.jda.api.hooks.EventListener;
 import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
@@ -22,17 +35,62 @@ import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import net.dv8tion.jda.api.interactions.commands.build.OptionData;
 import net.dv8tion.jda.api.interactions.commands.build.SubcommandData;
 import net.dv8tion.jda.api.requests.ErrorResponse;
+import net.dv8tion.jda.api.requests.RestAction;
+import net.dv8tion.jda.api.requests.RestConfig;
+import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
+import net.dv8tion.jda.api.sharding.ShardManager;
+import net.dv8tion.jda.api.utils.MiscUtil;
+import net.dv8tion.jda.api.utils.SessionControllerAdapter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.ToLongFunction;
 
 public final class DiscordGateway implements AutoCloseable {
     private static final Logger LOGGER = LoggerFactory.getLogger(DiscordGateway.class);
+    private static final Histogram REST = Metrics.histogram(
+            "nebi_discord_rest_seconds",
+            "Duration of blocking Discord REST calls",
+            "operation"
+    );
+    private static final Counter REST_ERRORS = Metrics.counter(
+            "nebi_discord_rest_errors_total",
+            "Discord REST calls that failed",
+            "operation"
+    );
+    private static final Histogram.Child SYNC_DURATION = Metrics.histogram(
+            "nebi_discord_sync_seconds",
+            "Duration of weekly message syncs, including rendering and REST calls"
+    ).labels();
+    private static final Counter SYNCS = Metrics.counter(
+            "nebi_discord_syncs_total",
+            "Weekly message syncs by outcome",
+            "outcome"
+    );
+    private static final Counter COMMAND_REGISTRATIONS = Metrics.counter(
+            "nebi_slash_command_registrations_total",
+            "Slash command registrations, pushed to Discord or skipped as unchanged",
+            "outcome"
+    );
+    private static final String KEY_COMMAND_FINGERPRINT = "internal.slash_command_fingerprint";
 
     private final String token;
     private final ConfigService configService;
@@ -40,10 +98,20 @@ public final class DiscordGateway implements AutoCloseable {
     private final WeekService weekService;
     private final WeeklyMessageRenderer renderer;
     private final AuditService auditService;
-    private final ExecutorService worker;
-    private final ExecutorService commandWorker;
+    private final DiscordEndpoints endpoints;
+    private final TaskExecutor tasks;
+    private final CommandRateLimiter rateLimiter;
+    private final GatewayProfile profile;
+    private final int shardCount;
+    private final List<BiConsumer<LocalDate, String>> syncListeners = new CopyOnWriteArrayList<>();
+    private final ConcurrentMap<LocalDate, Boolean> pendingSyncs = new ConcurrentHashMap<>();
+    // Serializes message syncs, which block on REST calls while holding it.
+    private final ReentrantLock syncLock = new ReentrantLock();
 
-    private JDA jda;
+    // Volatile so isConnected() and connectionStatus() do not wait for a sync holding syncLock.
+    // Only one of the two is set: a single JDA, or a ShardManager when discord.shards is not 0.
+    private volatile JDA jda;
+    private volatile ShardManager shardManager;
 
     public DiscordGateway(
             String token,
@@ -51,7 +119,12 @@ public final class DiscordGateway implements AutoCloseable {
             UpdateRepository updateRepository,
             WeekService weekService,
             WeeklyMessageRenderer renderer,
-            AuditService auditService
+            AuditService auditService,
+            DiscordEndpoints endpoints,
+            TaskExecutor tasks,
+            CommandRateLimiter rateLimiter,
+            GatewayProfile profile,
+            int shardCount
     ) {
         this.token = token;
         this.configService = configService;
@@ -59,44 +132,235 @@ public final class DiscordGateway implements AutoCloseable {
         this.weekService = weekService;
         this.renderer = renderer;
         this.auditService = auditService;
-        this.worker = Executors.newSingleThreadExecutor(r -> {
-            Thread thread = new Thread(r, "discord-sync-worker");
-            thread.setDaemon(true);
-            return thread;
-        });
-        this.commandWorker = Executors.newFixedThreadPool(2, r -> {
-            Thread thread = new Thread(r, "discord-command-worker");
-            thread.setDaemon(true);
-            return thread;
-        });
+        this.endpoints = endpoints;
+        this.tasks = tasks;
+        this.rateLimiter = rateLimiter;
+        this.profile = profile;
+        this.shardCount = shardCount;
+        Metrics.gauge("nebi_discord_pending_syncs", "Weeks with a queued, not yet started sync")
+                .register(pendingSyncs::size);
     }
 
     public void start() throws InterruptedException {
-        jda = JDABuilder.createDefault(token)
-                .addEventListeners(new UpdateCommandListener(this, configService, weekService, updateRepository, renderer, commandWorker, auditService))
-                .build();
-        jda.awaitReady();
-        registerSlashCommands();
-        LOGGER.info("Discord bot connected as {}", jda.getSelfUser().getAsTag());
+        long started = System.nanoTime();
+        UpdateCommandListener listener = new UpdateCommandListener(this, configService, weekService, updateRepository, renderer, tasks, rateLimiter, auditService);
+        if (shardCount == 0) {
+            JDABuilder builder = profile.builder(token).addEventListeners(listener);
+            applyEndpoints(builder);
+            jda = builder.build();
+            jda.awaitReady();
+        } else {
+            startShards(listener);
+        }
+        double readySeconds = (System.nanoTime() - started) / 1_000_000_000.0;
+        registerCacheGauges(readySeconds);
+        List<JDA> connected = shards();
+        LOGGER.info("Discord bot connected as {}", connected.get(0).getSelfUser().getAsTag());
+        LOGGER.info(
+                "Gateway profile {} ready in {} ms on {} shard(s): {} guilds, {} text channels, {} users, {} emojis cached; heap {} / {} MB",
+                profile.key(),
+                Math.round(readySeconds * 1000),
+                connected.size(),
+                cachedEntities(shard -> shard.getGuildCache().size()),
+                cachedEntities(shard -> shard.getTextChannelCache().size()),
+                cachedEntities(shard -> shard.getUserCache().size()),
+                cachedEntities(shard -> shard.getEmojiCache().size()),
+                JvmMetrics.heapUsedBytes() / (1024 * 1024),
+                JvmMetrics.heapMaxBytes() / (1024 * 1024)
+        );
     }
 
-    public void registerSlashCommands() {
-        if (jda == null) {
-            return;
+    // JDA logs the shards in one after another, so READY arrives per shard; start() returns once
+    // every shard has it. Shards are not awaited individually because the manager builds them lazily.
+    private void startShards(UpdateCommandListener listener) throws InterruptedException {
+        Semaphore readyShards = new Semaphore(0);
+        EventListener readyCounter = event -> {
+            if (event instanceof ReadyEvent) {
+                readyShards.release();
+            }
+        };
+        DefaultShardManagerBuilder builder = profile.shardManagerBuilder(token)
+                .setShardsTotal(shardCount)
+                .addEventListeners(listener, readyCounter);
+        applyEndpoints(builder);
+        ShardManager manager = builder.build();
+        shardManager = manager;
+        int total = manager.getShardsTotal();
+        LOGGER.info("Starting {} Discord shards", total);
+        while (!readyShards.tryAcquire(total, 1, TimeUnit.SECONDS)) {
+            boolean failed = manager.getStatuses().values().stream()
+                    .anyMatch(status -> status == JDA.Status.FAILED_TO_LOGIN || status == JDA.Status.SHUTDOWN);
+            if (failed) {
+                throw new IllegalStateException("Discord shard failed to log in: " + manager.getStatuses().values());
+            }
         }
-        CommandData command = buildUpdateCommand();
+    }
+
+    public GatewayProfile profile() {
+        return profile;
+    }
+
+    private void registerCacheGauges(double readySeconds) {
+        Metrics.gauge("nebi_discord_gateway_ready_seconds", "Time from JDA build to the READY of all guilds", "profile")
+                .register(() -> readySeconds, profile.key());
+        Gauge cached = Metrics.gauge("nebi_discord_cached_entities", "Entities held in JDA's cache", "kind");
+        cached.register(() -> cachedEntities(shard -> shard.getGuildCache().size()), "guild");
+        cached.register(() -> cachedEntities(shard -> shard.getTextChannelCache().size()), "text_channel");
+        cached.register(() -> cachedEntities(shard -> shard.getRoleCache().size()), "role");
+        cached.register(() -> cachedEntities(shard -> shard.getUserCache().size()), "user");
+        cached.register(() -> cachedEntities(shard -> shard.getEmojiCache().size()), "emoji");
+        Gauge ping = Metrics.gauge("nebi_discord_gateway_ping_seconds", "Heartbeat round trip per shard", "shard");
+        for (JDA shard : shards()) {
+            int shardId = shard.getShardInfo().getShardId();
+            ping.register(() -> {
+                // JDA reports -1 until the first heartbeat was acknowledged.
+                JDA current = shardById(shardId);
+                long pingMillis = current == null ? -1 : current.getGatewayPing();
+                return pingMillis < 0 ? Double.NaN : pingMillis / 1000.0;
+            }, Integer.toString(shardId));
+        }
+    }
+
+    // Summed over the shards; a user seen in guilds on two shards is cached, and counted, twice.
+    private long cachedEntities(ToLongFunction<JDA> size) {
+        return shards().stream().mapToLong(size).sum();
+    }
+
+    // The single JDA, or every shard the manager has built so far.
+    private List<JDA> shards() {
+        ShardManager manager = shardManager;
+        if (manager != null) {
+            return manager.getShards();
+        }
+        JDA single = jda;
+        return single == null ? List.of() : List.of(single);
+    }
+
+    private JDA shardById(int shardId) {
+        ShardManager manager = shardManager;
+        return manager == null ? jda : manager.getShardById(shardId);
+    }
+
+    // Discord delivers a guild on shard (guild_id >> 22) % shard_count, so that shard's cache and
+    // REST queue serve it. Without a guild any shard works.
+    private JDA shardFor(String guildId) {
+        ShardManager manager = shardManager;
+        if (manager == null) {
+            return jda;
+        }
+        if (!guildId.isBlank()) {
+            try {
+                JDA shard = manager.getShardById(MiscUtil.getShardForGuild(guildId, manager.getShardsTotal()));
+                if (shard != null) {
+                    return shard;
+                }
+            } catch (NumberFormatException ignored) {
+                // Not a snowflake; fall through to any shard.
+            }
+        }
+        List<JDA> all = manager.getShards();
+        return all.isEmpty() ? null : all.get(0);
+    }
+
+    // Looks on the configured guild's shard first; channel_id may belong to another guild, so the
+    // sharded case falls back to searching every shard.
+    private TextChannel textChannel(BotConfig config) {
+        JDA shard = shardFor(config.guildId());
+        TextChannel channel = shard == null ? null : shard.getTextChannelById(config.channelId());
+        ShardManager manager = shardManager;
+        if (channel == null && manager != null) {
+            channel = manager.getTextChannelById(config.channelId());
+        }
+        return channel;
+    }
+
+    private boolean isStarted() {
+        return jda != null || shardManager != null;
+    }
+
+    private void applyEndpoints(JDABuilder builder) {
+        if (!endpoints.restBaseUrl().isEmpty()) {
+            builder.setRestConfig(restConfig());
+        }
+        if (!endpoints.gatewayUrl().isEmpty()) {
+            builder.setSessionController(sessionController());
+        }
+    }
+
+    private void applyEndpoints(DefaultShardManagerBuilder builder) {
+        if (!endpoints.restBaseUrl().isEmpty()) {
+            builder.setRestConfig(restConfig());
+        }
+        if (!endpoints.gatewayUrl().isEmpty()) {
+            builder.setSessionController(sessionController());
+        }
+    }
+
+    private RestConfig restConfig() {
+        LOGGER.warn("Using Discord REST API at {}", endpoints.restBaseUrl());
+        return new RestConfig().setBaseUrl(endpoints.restBaseUrl());
+    }
+
+    private SessionControllerAdapter sessionController() {
+        String gatewayUrl = endpoints.gatewayUrl();
+        LOGGER.warn("Using Discord gateway at {}", gatewayUrl);
+        return new SessionControllerAdapter() {
+            @Override
+            public String getGateway() {
+                return gatewayUrl;
+            }
+        };
+    }
+
+    public boolean registerSlashCommands() {
+        return registerSlashCommands(false);
+    }
+
+    // Pushes /update only when the command definition or its scope (guild or global) differs from
+    // the last successful registration; the fingerprint survives restarts in app_config.
+    // Returns whether Discord was called.
+    public boolean registerSlashCommands(boolean force) {
         BotConfig config = configService.get();
+        JDA current = shardFor(config.guildId());
+        if (current == null) {
+            return false;
+        }
+        CommandData command = buildUpdateCommand();
+        Guild guild = null;
         if (!config.guildId().isBlank()) {
-            Guild guild = jda.getGuildById(config.guildId());
-            if (guild != null) {
-                guild.updateCommands().addCommands(command).complete();
-                LOGGER.info("Registered /update command in guild {}", guild.getName());
-                return;
+            guild = current.getGuildById(config.guildId());
+            if (guild == null) {
+                LOGGER.warn("Configured guild_id {} not found. Falling back to global command registration.", config.guildId());
             }
-            LOGGER.warn("Configured guild_id {} not found. Falling back to global command registration.", config.guildId());
         }
-        jda.updateCommands().addCommands(command).complete();
-        LOGGER.info("Registered /update command globally");
+        String scope = guild == null ? "global" : "guild:" + guild.getId();
+        String fingerprint = commandFingerprint(current.getSelfUser().getApplicationId(), scope, command);
+        if (!force && fingerprint.equals(configService.internalValue(KEY_COMMAND_FINGERPRINT))) {
+            COMMAND_REGISTRATIONS.labels("unchanged").inc();
+            LOGGER.debug("Slash commands unchanged ({}), skipping registration", scope);
+            return false;
+        }
+        if (guild != null) {
+            rest("register_commands", guild.updateCommands().addCommands(command));
+            LOGGER.info("Registered /update command in guild {}", guild.getName());
+        } else {
+            rest("register_commands", current.updateCommands().addCommands(command));
+            LOGGER.info("Registered /update command globally");
+        }
+        configService.putInternalValue(KEY_COMMAND_FINGERPRINT, fingerprint);
+        COMMAND_REGISTRATIONS.labels("pushed").inc();
+        return true;
+    }
+
+    // The application id is part of it, so switching to another bot token registers again.
+    private static String commandFingerprint(String applicationId, String scope, CommandData command) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String source = applicationId + '\n' + scope + '\n' + command.toData().toString();
+            return HexFormat.of().formatHex(digest.digest(source.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
     }
 
     private CommandData buildUpdateCommand() {
@@ -133,75 +397,143 @@ public final class DiscordGateway implements AutoCloseable {
     }
 
     public void requestSyncCurrentWeek(boolean forceCreate) {
-        worker.submit(() -> syncCurrentWeek(forceCreate));
+        requestSyncWeek(weekService.currentWeek(configService.get()).start(), forceCreate);
     }
 
+    // Requests for a week that is still queued are merged into that request: the sync reads the
+    // entries when it runs, so one pass covers every write made before it started.
+    // The queued sync runs in the trace of the request that scheduled it; merged requests only
+    // record a "sync.request" span marked as coalesced.
     public void requestSyncWeek(LocalDate weekStart, boolean forceCreate) {
-        worker.submit(() -> syncWeek(weekStart, forceCreate));
+        AtomicBoolean scheduled = new AtomicBoolean();
+        try (Span span = Tracing.start("sync.request")) {
+            pendingSyncs.compute(weekStart, (week, pendingForce) -> {
+                if (pendingForce == null) {
+                    scheduled.set(true);
+                    return forceCreate;
+                }
+                return pendingForce || forceCreate;
+            });
+            span.attribute("sync.week", weekStart.toString()).attribute("sync.coalesced", !scheduled.get());
+            if (scheduled.get()) {
+                tasks.execute(TaskClass.SYNC, Tracing.wrap(() -> {
+                    Boolean force = pendingSyncs.remove(weekStart);
+                    syncWeek(weekStart, Boolean.TRUE.equals(force));
+                }));
+            }
+        }
+    }
+
+    public int pendingSyncCount() {
+        return pendingSyncs.size();
     }
 
     public void requestSendTestCurrentWeek() {
-        worker.submit(this::sendTestCurrentWeek);
+        tasks.execute(TaskClass.SYNC, Tracing.wrap((Runnable) this::sendTestCurrentWeek));
     }
 
-    public synchronized void sendTestCurrentWeek() {
-        if (jda == null) {
-            return;
-        }
-        BotConfig config = configService.get();
-        WeekWindow week = weekService.currentWeek(config);
-        if (config.channelId().isBlank()) {
-            LOGGER.warn("channel_id is empty. Skip test send.");
-            return;
+    public void sendTestCurrentWeek() {
+        syncLock.lock();
+        try {
+            if (!isStarted()) {
+                return;
+            }
+            BotConfig config = configService.get();
+            WeekWindow week = weekService.currentWeek(config);
+            if (config.channelId().isBlank()) {
+                LOGGER.warn("channel_id is empty. Skip test send.");
+                return;
+            }
+
+            TextChannel channel = textChannel(config);
+            if (channel == null) {
+                LOGGER.warn("Configured channel_id {} not found.", config.channelId());
+                return;
+            }
+
+            List<UpdateEntry> entries = updateRepository.findByWeek(week.start());
+            List<net.dv8tion.jda.api.components.MessageTopLevelComponent> components = renderer.renderTestContainers(week, entries, config);
+            try {
+                Message message = rest("send_message", channel.sendMessageComponents(components)
+                        .useComponentsV2()
+                        .setSuppressEmbeds(true));
+                LOGGER.info("Sent test weekly message {} for {}", message.getId(), week.start());
+                auditService.log(
+                        "system",
+                        "discord",
+                        "weekly.test.sent",
+                        "weekly_message",
+                        week.start().toString(),
+                        java.util.Map.of("messageId", message.getId())
+                );
+            } catch (Exception ex) {
+                ErrorLogger.capture(LOGGER, "DISCORD_TEST", ex, "Failed to send test weekly message for {}", week.start());
+            }
+        } finally {
+            syncLock.unlock();
         }
+    }
 
-        TextChannel channel = jda.getTextChannelById(config.channelId());
-        if (channel == null) {
-            LOGGER.warn("Configured channel_id {} not found.", config.channelId());
-            return;
+    public void syncCurrentWeek(boolean forceCreate) {
+        syncLock.lock();
+        try {
+            BotConfig config = configService.get();
+            syncWeek(weekService.currentWeek(config).start(), forceCreate);
+        } finally {
+            syncLock.unlock();
         }
+    }
 
-        List<UpdateEntry> entries = updateRepository.findByWeek(week.start());
-        List<net.dv8tion.jda.api.components.MessageTopLevelComponent> components = renderer.renderTestContainers(week, entries, config);
+    public void syncWeek(LocalDate weekStart, boolean forceCreate) {
+        syncLock.lock();
         try {
-            Message message = channel.sendMessageComponents(components)
-                    .useComponentsV2()
-                    .setSuppressEmbeds(true)
-                    .complete();
-            LOGGER.info("Sent test weekly message {} for {}", message.getId(), week.start());
-            auditService.log(
-                    "system",
-                    "discord",
-                    "weekly.test.sent",
-                    "weekly_message",
-                    week.start().toString(),
-                    java.util.Map.of("messageId", message.getId())
-            );
-        } catch (Exception ex) {
-            ErrorLogger.capture(LOGGER, "DISCORD_TEST", ex, "Failed to send test weekly message for {}", week.start());
+            long start = System.nanoTime();
+            SyncWeekEvent event = new SyncWeekEvent();
+            event.begin();
+            String outcome;
+            try (Span span = Tracing.start("sync.week")) {
+                span.attribute("sync.week", weekStart.toString()).attribute("sync.force_create", forceCreate);
+                outcome = syncWeekInternal(weekStart, forceCreate, event);
+                span.attribute("sync.outcome", outcome);
+                if (outcome.equals("failed")) {
+                    span.markError(null);
+                }
+            }
+            SYNC_DURATION.observeSince(start);
+            SYNCS.labels(outcome).inc();
+            event.finish(weekStart.toString(), forceCreate, outcome);
+            for (BiConsumer<LocalDate, String> listener : syncListeners) {
+                try {
+                    listener.accept(weekStart, outcome);
+                } catch (Exception ex) {
+                    LOGGER.warn("Sync listener failed", ex);
+                }
+            }
+        } finally {
+            syncLock.unlock();
         }
     }
 
-    public synchronized void syncCurrentWeek(boolean forceCreate) {
-        BotConfig config = configService.get();
-        syncWeek(weekService.currentWeek(config).start(), forceCreate);
+    // Listeners receive the week and one of: updated, created, pending, skipped, failed.
+    public void addSyncListener(BiConsumer<LocalDate, String> listener) {
+        syncListeners.add(listener);
     }
 
-    public synchronized void syncWeek(LocalDate weekStart, boolean forceCreate) {
-        if (jda == null) {
-            return;
+    private String syncWeekInternal(LocalDate weekStart, boolean forceCreate, SyncWeekEvent event) {
+        if (!isStarted()) {
+            return "skipped";
         }
         BotConfig config = configService.get();
         WeekWindow week = weekService.weekFromStart(weekStart);
         if (config.channelId().isBlank()) {
             LOGGER.warn("channel_id is empty. Skip weekly sync.");
-            return;
+            return "skipped";
         }
 
-        TextChannel channel = jda.getTextChannelById(config.channelId());
+        TextChannel channel = textChannel(config);
         if (channel == null) {
             LOGGER.warn("Configured channel_id {} not found.", config.channelId());
-            return;
+            return "skipped";
         }
 
         List<UpdateEntry> entries = updateRepository.findByWeek(week.start());
@@ -211,13 +543,12 @@ public final class DiscordGateway implements AutoCloseable {
         if (existingMessageId.isPresent()) {
             String messageId = existingMessageId.get();
             try {
-                Message existing = channel.retrieveMessageById(messageId).complete();
-                existing.editMessage("")
+                Message existing = rest("retrieve_message", channel.retrieveMessageById(messageId), event);
+                rest("edit_message", existing.editMessage("")
                         .setEmbeds(List.of())
                         .setComponents(components)
                         .useComponentsV2()
-                        .setSuppressEmbeds(true)
-                        .complete();
+                        .setSuppressEmbeds(true), event);
                 LOGGER.info("Updated weekly message {} for {}", messageId, week.start());
                 auditService.log(
                         "system",
@@ -227,30 +558,29 @@ public final class DiscordGateway implements AutoCloseable {
                         week.start().toString(),
                         java.util.Map.of("messageId", messageId, "entryCount", entries.size())
                 );
-                return;
+                return "updated";
             } catch (ErrorResponseException ex) {
                 if (ex.getErrorResponse() != ErrorResponse.UNKNOWN_MESSAGE) {
                     ErrorLogger.capture(LOGGER, "DISCORD_SYNC", ex, "Failed to edit weekly message {}", messageId);
-                    return;
+                    return "failed";
                 }
                 LOGGER.warn("Stored weekly message {} no longer exists, creating a new one", messageId);
             } catch (Exception ex) {
                 ErrorLogger.capture(LOGGER, "DISCORD_SYNC", ex, "Failed to edit weekly message {}", messageId);
-                return;
+                return "failed";
             }
         }
 
         boolean shouldCreate = forceCreate || weekService.isScheduleReached(week, config);
         if (!shouldCreate) {
             LOGGER.info("Weekly message for {} not created yet (schedule not reached)", week.start());
-            return;
+            return "pending";
         }
 
         try {
-            Message created = channel.sendMessageComponents(components)
+            Message created = rest("send_message", channel.sendMessageComponents(components)
                     .useComponentsV2()
-                    .setSuppressEmbeds(true)
-                    .complete();
+                    .setSuppressEmbeds(true), event);
             updateRepository.upsertWeeklyMessage(week.start(), channel.getId(), created.getId());
             LOGGER.info("Created weekly message {} for {}", created.getId(), week.start());
             auditService.log(
@@ -261,19 +591,87 @@ public final class DiscordGateway implements AutoCloseable {
                     week.start().toString(),
                     java.util.Map.of("messageId", created.getId(), "entryCount", entries.size())
             );
+            return "created";
         } catch (Exception ex) {
             ErrorLogger.capture(LOGGER, "DISCORD_SYNC", ex, "Failed to create weekly message for {}", week.start());
+            return "failed";
         }
     }
 
-    public synchronized boolean isConnected() {
-        return jda != null && jda.getStatus() != JDA.Status.SHUTDOWN;
+    private static <T> T rest(String operation, RestAction<T> action, SyncWeekEvent event) {
+        event.restCall();
+        return rest(operation, action);
+    }
+
+    private static <T> T rest(String operation, RestAction<T> action) {
+        long start = System.nanoTime();
+        try (Span span = Tracing.start("discord.rest " + operation, SpanKind.CLIENT)) {
+            try {
+                return action.complete();
+            } catch (RuntimeException ex) {
+                span.markError(null);
+                throw ex;
+            }
+        } catch (RuntimeException ex) {
+            REST_ERRORS.labels(operation).inc();
+            throw ex;
+        } finally {
+            REST.labels(operation).observeSince(start);
+        }
+    }
+
+    // With sharding every shard has to be up, since each one serves a part of the guilds.
+    public boolean isConnected() {
+        List<JDA> all = shards();
+        ShardManager manager = shardManager;
+        if (all.isEmpty() || (manager != null && all.size() < manager.getShardsTotal())) {
+            return false;
+        }
+        return all.stream().allMatch(shard -> shard.getStatus() == JDA.Status.CONNECTED);
+    }
+
+    // JDA's connection state, e.g. CONNECTING_TO_WEBSOCKET or CONNECTED; NOT_STARTED before start().
+    // Sharded and not fully up, it reads "3/4 CONNECTED".
+    public String connectionStatus() {
+        ShardManager manager = shardManager;
+        if (manager != null) {
+            long connected = manager.getShards().stream().filter(shard -> shard.getStatus() == JDA.Status.CONNECTED).count();
+            int total = manager.getShardsTotal();
+            return connected == total ? JDA.Status.CONNECTED.name() : connected + "/" + total + " CONNECTED";
+        }
+        JDA current = jda;
+        return current == null ? "NOT_STARTED" : current.getStatus().name();
+    }
+
+    public int shardsTotal() {
+        ShardManager manager = shardManager;
+        return manager == null ? 1 : manager.getShardsTotal();
+    }
+
+    // One row per shard with status, heartbeat latency and guild count; shards the manager has not
+    // built yet show up as QUEUED.
+    public List<Map<String, Object>> shardStatus() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        int total = shardsTotal();
+        for (int shardId = 0; shardId < total; shardId++) {
+            JDA shard = shardById(shardId);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", shardId);
+            row.put("status", shard == null ? (isStarted() ? "QUEUED" : "NOT_STARTED") : shard.getStatus().name());
+            long pingMillis = shard == null ? -1 : shard.getGatewayPing();
+            row.put("gatewayPingMs", pingMillis < 0 ? null : pingMillis);
+            row.put("guilds", shard == null ? 0 : shard.getGuildCache().size());
+            rows.add(row);
+        }
+        return rows;
     }
 
     @Override
     public void close() {
-        worker.shutdownNow();
-        commandWorker.shutdownNow();
+        ShardManager manager = shardManager;
+        if (manager != null) {
+            manager.shutdown();
+        }
         if (jda != null) {
             jda.shutdown();
         }
@@ -0,0 +1,65 @@
+package dev.eministar.nebiupdate.discord;
+
+import net.dv8tion.jda.api.JDABuilder;
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
+import net.dv8tion.jda.api.utils.ChunkingFilter;
+import net.dv8tion.jda.api.utils.MemberCachePolicy;
+
+import java.util.EnumSet;
+import java.util.Locale;
+
+// How much of Discord the bot subscribes to and keeps in memory (discord.gateway_profile).
+public enum GatewayProfile {
+    // What the bot actually uses: guilds with their roles and channels (JDA always subscribes to
+    // those) for the channel lookup and the admin check on slash commands, which arrive without any
+    // intent. No message, voice, emoji, sticker or presence events, no caches for them, no member
+    // cache and no member chunking; guilds above 50 members are sent without their offline members.
+    LEAN {
+        @Override
+        JDABuilder builder(String token) {
+            return JDABuilder.createLight(token, EnumSet.noneOf(GatewayIntent.class))
+                    .setMemberCachePolicy(MemberCachePolicy.NONE)
+                    .setChunkingFilter(ChunkingFilter.NONE)
+                    .setLargeThreshold(50);
+        }
+
+        @Override
+        DefaultShardManagerBuilder shardManagerBuilder(String token) {
+            return DefaultShardManagerBuilder.createLight(token, EnumSet.noneOf(GatewayIntent.class))
+                    .setMemberCachePolicy(MemberCachePolicy.NONE)
+                    .setChunkingFilter(ChunkingFilter.NONE)
+                    .setLargeThreshold(50);
+        }
+    },
+    // JDA's defaults, as the bot used before the profiles existed.
+    FULL {
+        @Override
+        JDABuilder builder(String token) {
+            return JDABuilder.createDefault(token);
+        }
+
+        @Override
+        DefaultShardManagerBuilder shardManagerBuilder(String token) {
+            return DefaultShardManagerBuilder.createDefault(token);
+        }
+    };
+
+    abstract JDABuilder builder(String token);
+
+    // Same settings for every shard when discord.shards is set.
+    abstract DefaultShardManagerBuilder shardManagerBuilder(String token);
+
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static GatewayProfile parse(String raw) {
+        String normalized = raw == null ? "" : raw.trim().toLowerCase(Locale.ROOT);
+        return switch (normalized) {
+            case "", "lean" -> LEAN;
+            case "full", "default" -> FULL;
+            default -> throw new IllegalArgumentException("Unbekanntes discord.gateway_profile: " + raw + " (erlaubt: lean, full)");
+        };
+    }
+}
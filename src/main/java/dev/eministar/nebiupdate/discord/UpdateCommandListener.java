@@ -6,10 +6,21 @@ import dev.eministar.nebiupdate.audit.AuditService;
 import dev.eministar.nebiupdate.data.UpdateEntry;
 import dev.eministar.nebiupdate.data.UpdateRepository;
 import dev.eministar.nebiupdate.data.UpdateType;
+import dev.eministar.nebiupdate.data.WriteOutcome;
+import dev.eministar.nebiupdate.jfr.SlashCommandEvent;
 import dev.eministar.nebiupdate.logging.ErrorLogger;
+import dev.eministar.nebiupdate.metrics.Counter;
+import dev.eministar.nebiupdate.metrics.Histogram;
+import dev.eministar.nebiupdate.metrics.Metrics;
+import dev.eministar.nebiupdate.runtime.TaskClass;
+import dev.eministar.nebiupdate.runtime.TaskExecutor;
 import dev.eministar.nebiupdate.time.WeekService;
 import dev.eministar.nebiupdate.time.WeekWindow;
+import dev.eministar.nebiupdate.tracing.Span;
+import dev.eministar.nebiupdate.tracing.SpanKind;
+import dev.eministar.nebiupdate.tracing.Tracing;
 import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
@@ -18,21 +29,35 @@ import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 
 public final class UpdateCommandListener extends ListenerAdapter {
     private static final Logger LOGGER = LoggerFactory.getLogger(UpdateCommandListener.class);
     private static final int MAX_CONTENT_LENGTH = 900;
+    // Measured from receiving the interaction until the reply is handed to JDA, so the deferred
+    // acknowledgement and the wait for a command worker are included.
+    private static final Histogram COMMAND_TIME = Metrics.histogram(
+            "nebi_slash_command_seconds",
+            "Handling time of /update subcommands",
+            "subcommand",
+            "outcome"
+    );
+    private static final Counter REJECTED = Metrics.counter(
+            "nebi_slash_command_rejected_total",
+            "/update subcommands dropped because the command worker was saturated",
+            "subcommand"
+    );
 
     private final DiscordGateway discordGateway;
     private final ConfigService configService;
     private final WeekService weekService;
     private final UpdateRepository updateRepository;
     private final WeeklyMessageRenderer renderer;
-    private final ExecutorService commandWorker;
+    private final TaskExecutor tasks;
+    private final CommandRateLimiter rateLimiter;
     private final AuditService auditService;
 
     public UpdateCommandListener(
@@ -41,7 +66,8 @@ public final class UpdateCommandListener extends ListenerAdapter {
             WeekService weekService,
             UpdateRepository updateRepository,
             WeeklyMessageRenderer renderer,
-            ExecutorService commandWorker,
+            TaskExecutor tasks,
+            CommandRateLimiter rateLimiter,
             AuditService auditService
     ) {
         this.discordGateway = discordGateway;
@@ -49,7 +75,8 @@ public final class UpdateCommandListener extends ListenerAdapter {
         this.weekService = weekService;
         this.updateRepository = updateRepository;
         this.renderer = renderer;
-        this.commandWorker = commandWorker;
+        this.tasks = tasks;
+        this.rateLimiter = rateLimiter;
         this.auditService = auditService;
     }
 
@@ -169,8 +196,11 @@ public final class UpdateCommandListener extends ListenerAdapter {
             targetText = sanitized;
         }
 
-        boolean updated = updateRepository.updateInWeek(id, week.start(), targetType, targetText, authorFromEvent(event));
-        if (!updated) {
+        WriteOutcome outcome = updateRepository.updateInWeek(id, week.start(), targetType, targetText, authorFromEvent(event), existing.version());
+        if (outcome == WriteOutcome.VERSION_CONFLICT) {
+            return "Eintrag `" + id + "` wurde gerade von jemand anderem geändert. Bitte erneut versuchen.";
+        }
+        if (outcome != WriteOutcome.APPLIED) {
             return "Eintrag konnte nicht aktualisiert werden.";
         }
 
@@ -263,18 +293,40 @@ public final class UpdateCommandListener extends ListenerAdapter {
         return member != null && member.hasPermission(Permission.ADMINISTRATOR);
     }
 
+    // Trace of one command: "slash /update <sub>" spans receipt to response; deferReply and the
+    // worker execution are children, so queueing time shows up as the gap between them.
     private void handleDeferred(SlashCommandInteractionEvent event, CommandAction action) {
+        if (isThrottled(event)) {
+            return;
+        }
+        SlashCommandEvent recording = new SlashCommandEvent();
+        recording.begin();
         String subcommand = event.getSubcommandName();
+        Span root = Tracing.startDetached("slash /update " + subcommand, SpanKind.SERVER, null);
+        Invocation invocation = new Invocation(subcommand, event.getUser().getId(), fairnessKey(event), System.nanoTime(), recording, root);
+        root.attribute("discord.user_id", invocation.userId());
+        Span defer = Tracing.startDetached("discord.defer_reply", SpanKind.CLIENT, root);
         event.deferReply(true).queue(
-                hook -> runDeferredAction(hook, subcommand, action),
-                failure -> LOGGER.warn("Konnte /update {} nicht rechtzeitig bestätigen", subcommand, failure)
+                hook -> {
+                    defer.end();
+                    runDeferredAction(hook, action, invocation);
+                },
+                failure -> {
+                    defer.markError(null);
+                    defer.end();
+                    invocation.finish("defer_failed");
+                    LOGGER.warn("Konnte /update {} nicht rechtzeitig bestätigen", subcommand, failure);
+                }
         );
     }
 
-    private void runDeferredAction(InteractionHook hook, String subcommand, CommandAction action) {
+    private void runDeferredAction(InteractionHook hook, CommandAction action, Invocation invocation) {
+        String subcommand = invocation.subcommand();
         try {
-            commandWorker.submit(() -> sendDeferredResponse(hook, subcommand, action));
+            tasks.execute(TaskClass.COMMAND, invocation.fairnessKey(), () -> sendDeferredResponse(hook, action, invocation));
         } catch (RejectedExecutionException ex) {
+            REJECTED.labels(subcommand).inc();
+            invocation.finish("rejected");
             LOGGER.warn("Command-Worker ist ausgelastet, /update {} wird verworfen", subcommand, ex);
             hook.sendMessage("❌ Der Bot ist gerade ausgelastet. Bitte versuche es erneut.")
                     .queue(
@@ -284,21 +336,81 @@ public final class UpdateCommandListener extends ListenerAdapter {
         }
     }
 
-    private void sendDeferredResponse(InteractionHook hook, String subcommand, CommandAction action) {
+    // Answered right away without deferring, so a throttled user never takes a worker slot.
+    private boolean isThrottled(SlashCommandInteractionEvent event) {
+        String subcommand = event.getSubcommandName();
+        Guild guild = event.getGuild();
+        Duration wait = rateLimiter.tryAcquire(subcommand, guild == null ? "dm" : guild.getId(), event.getUser().getId());
+        if (wait.isZero()) {
+            return false;
+        }
+        long seconds = Math.max(1, (wait.toMillis() + 999) / 1000);
+        event.reply("⏳ Nicht so schnell! `/update " + subcommand + "` geht in " + seconds + " s wieder.")
+                .setEphemeral(true)
+                .queue(
+                        null,
+                        failure -> LOGGER.warn("Konnte Drossel-Hinweis für /update {} nicht senden", subcommand, failure)
+                );
+        return true;
+    }
+
+    // Commands of one user in one guild share a queue; the command worker takes the queues in turn.
+    private static String fairnessKey(SlashCommandInteractionEvent event) {
+        Guild guild = event.getGuild();
+        return (guild == null ? "dm" : guild.getId()) + ':' + event.getUser().getId();
+    }
+
+    private void sendDeferredResponse(InteractionHook hook, CommandAction action, Invocation invocation) {
+        String subcommand = invocation.subcommand();
         String response;
-        try {
-            response = action.execute();
-        } catch (Exception ex) {
-            String errorId = ErrorLogger.capture(LOGGER, "UPDATE_CMD", ex, "Fehler bei /update {}", subcommand);
-            response = "❌ Interner Fehler beim Verarbeiten des Befehls. Fehler-ID: `" + errorId + "`";
+        String outcome = "ok";
+        try (Span span = Tracing.startChild("command " + subcommand, SpanKind.INTERNAL, invocation.span())) {
+            try {
+                response = action.execute();
+            } catch (Exception ex) {
+                String errorId = ErrorLogger.capture(LOGGER, "UPDATE_CMD", ex, "Fehler bei /update {}", subcommand);
+                invocation.span().markError(errorId);
+                response = "❌ Interner Fehler beim Verarbeiten des Befehls. Fehler-ID: `" + errorId + "`";
+                outcome = "error";
+            }
+            span.attribute("command.outcome", outcome);
         }
+        COMMAND_TIME.labels(subcommand, outcome).observeSince(invocation.receivedAt());
 
+        Span reply = Tracing.startDetached("discord.send_response", SpanKind.CLIENT, invocation.span());
+        String finalOutcome = outcome;
         hook.sendMessage(truncate(response, 1800)).queue(
-                null,
-                failure -> LOGGER.warn("Konnte Antwort für /update {} nicht senden", subcommand, failure)
+                sent -> {
+                    reply.end();
+                    invocation.finish(finalOutcome);
+                },
+                failure -> {
+                    reply.markError(null);
+                    reply.end();
+                    invocation.finish(finalOutcome);
+                    LOGGER.warn("Konnte Antwort für /update {} nicht senden", subcommand, failure);
+                }
         );
     }
 
+    private record Invocation(
+            String subcommand,
+            String userId,
+            String fairnessKey,
+            long receivedAt,
+            SlashCommandEvent recording,
+            Span span
+    ) {
+        void finish(String outcome) {
+            recording.finish(subcommand, userId, outcome);
+            span.attribute("command.outcome", outcome);
+            if (!outcome.equals("ok")) {
+                span.markError(null);
+            }
+            span.end();
+        }
+    }
+
     @FunctionalInterface
     private interface CommandAction {
         String execute();
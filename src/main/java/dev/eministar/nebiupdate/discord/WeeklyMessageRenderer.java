@@ -4,13 +4,20 @@ import dev.eministar.nebiupdate.config.BotConfig;
 import dev.eministar.nebiupdate.data.UpdateEntry;
 import dev.eministar.nebiupdate.data.UpdateType;
 import dev.eministar.nebiupdate.i18n.I18n;
+import dev.eministar.nebiupdate.jfr.RenderEvent;
+import dev.eministar.nebiupdate.metrics.Histogram;
+import dev.eministar.nebiupdate.metrics.Metrics;
 import dev.eministar.nebiupdate.time.WeekWindow;
+import dev.eministar.nebiupdate.tracing.Span;
+import dev.eministar.nebiupdate.tracing.Tracing;
 import net.dv8tion.jda.api.components.MessageTopLevelComponent;
 import net.dv8tion.jda.api.components.container.Container;
 import net.dv8tion.jda.api.components.separator.Separator;
 import net.dv8tion.jda.api.components.textdisplay.TextDisplay;
+import net.dv8tion.jda.api.utils.data.SerializableData;
 
 import java.awt.Color;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
@@ -22,16 +29,97 @@ public final class WeeklyMessageRenderer {
     private static final Pattern CUSTOM_EMOJI_PATTERN = Pattern.compile("^<a?:[\\w-]+:\\d+>$");
     private static final Pattern USER_ID_PATTERN = Pattern.compile("^\\d{15,25}$");
     private static final Pattern USER_MENTION_PATTERN = Pattern.compile("^<@!?(\\d{15,25})>$");
+    private static final Histogram RENDER = Metrics.histogram(
+            "nebi_render_seconds",
+            "Duration of weekly message rendering",
+            "kind"
+    );
+    private static final Histogram.Child WEEKLY_CONTAINERS = RENDER.labels("weekly_containers");
+    private static final Histogram.Child TEST_CONTAINERS = RENDER.labels("test_containers");
+    private static final Histogram.Child WEEKLY_MESSAGE = RENDER.labels("weekly_message");
+    private static final Histogram.Child UPDATE_LIST = RENDER.labels("update_list");
 
     public List<MessageTopLevelComponent> renderWeeklyContainers(WeekWindow week, List<UpdateEntry> entries, BotConfig config) {
-        return buildContainerMessage(week, entries, config, false);
+        long start = System.nanoTime();
+        RenderEvent recording = new RenderEvent();
+        recording.begin();
+        List<MessageTopLevelComponent> rendered = null;
+        try (Span span = Tracing.start("render weekly_containers")) {
+            span.attribute("render.entries", entries.size());
+            rendered = buildContainerMessage(week, entries, config, false);
+            return rendered;
+        } finally {
+            WEEKLY_CONTAINERS.observeSince(start);
+            finishRecording(recording, "weekly_containers", entries, rendered);
+        }
     }
 
     public List<MessageTopLevelComponent> renderTestContainers(WeekWindow week, List<UpdateEntry> entries, BotConfig config) {
-        return buildContainerMessage(week, entries, config, true);
+        long start = System.nanoTime();
+        RenderEvent recording = new RenderEvent();
+        recording.begin();
+        List<MessageTopLevelComponent> rendered = null;
+        try (Span span = Tracing.start("render test_containers")) {
+            span.attribute("render.entries", entries.size());
+            rendered = buildContainerMessage(week, entries, config, true);
+            return rendered;
+        } finally {
+            TEST_CONTAINERS.observeSince(start);
+            finishRecording(recording, "test_containers", entries, rendered);
+        }
     }
 
     public String renderWeeklyMessage(WeekWindow week, List<UpdateEntry> entries, BotConfig config) {
+        long start = System.nanoTime();
+        RenderEvent recording = new RenderEvent();
+        recording.begin();
+        String rendered = null;
+        try (Span span = Tracing.start("render weekly_message")) {
+            span.attribute("render.entries", entries.size());
+            rendered = buildWeeklyMessage(week, entries, config);
+            return rendered;
+        } finally {
+            WEEKLY_MESSAGE.observeSince(start);
+            finishRecording(recording, "weekly_message", entries, rendered);
+        }
+    }
+
+    public String renderUpdateList(WeekWindow week, List<UpdateEntry> entries, BotConfig config) {
+        long start = System.nanoTime();
+        RenderEvent recording = new RenderEvent();
+        recording.begin();
+        String rendered = null;
+        try (Span span = Tracing.start("render update_list")) {
+            span.attribute("render.entries", entries.size());
+            rendered = buildUpdateList(week, entries, config);
+            return rendered;
+        } finally {
+            UPDATE_LIST.observeSince(start);
+            finishRecording(recording, "update_list", entries, rendered);
+        }
+    }
+
+    private static void finishRecording(RenderEvent recording, String kind, List<UpdateEntry> entries, Object rendered) {
+        recording.finish(kind, entries.size(), () -> renderedBytes(rendered));
+    }
+
+    // Size as sent to Discord: UTF-8 text, or the serialized JSON of the components.
+    private static int renderedBytes(Object rendered) {
+        if (rendered instanceof String text) {
+            return text.getBytes(StandardCharsets.UTF_8).length;
+        }
+        int bytes = 0;
+        if (rendered instanceof List<?> components) {
+            for (Object component : components) {
+                if (component instanceof SerializableData data) {
+                    bytes += data.toData().toJson().length;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private String buildWeeklyMessage(WeekWindow week, List<UpdateEntry> entries, BotConfig config) {
         String addedEmoji = resolveEmoji(config.addedEmoji(), config.addedEmojiId(), config.addedEmojiAnimated(), "added");
         String changedEmoji = resolveEmoji(config.changedEmoji(), config.changedEmojiId(), config.changedEmojiAnimated(), "changed");
         String removedEmoji = resolveEmoji(config.removedEmoji(), config.removedEmojiId(), config.removedEmojiAnimated(), "removed");
@@ -71,7 +159,7 @@ public final class WeeklyMessageRenderer {
         return truncate(builder.toString(), TEXT_LIMIT);
     }
 
-    public String renderUpdateList(WeekWindow week, List<UpdateEntry> entries, BotConfig config) {
+    private String buildUpdateList(WeekWindow week, List<UpdateEntry> entries, BotConfig config) {
         String currentWeekLabel = I18n.text(config, "renderer.current_week", "Aktuelle Woche");
         String addedLabel = I18n.text(config, "renderer.added", "Neu");
         String changedLabel = I18n.text(config, "renderer.changed", "Geaendert");
@@ -0,0 +1,36 @@
+package dev.eministar.nebiupdate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("nebiupdate.AuditFlush")
+@Label("Audit Flush")
+@Description("Writing one audit entry and trimming the log to its maximum size")
+@Category({"NebiUpdate", "Database"})
+@Threshold("0 ms")
+@StackTrace(false)
+public final class AuditFlushEvent extends Event {
+    @Label("Action")
+    String action;
+
+    @Label("Source")
+    String source;
+
+    @Label("Max Entries")
+    int maxEntries;
+
+    public void finish(String action, String source, int maxEntries) {
+        end();
+        if (shouldCommit()) {
+            this.action = action;
+            this.source = source;
+            this.maxEntries = maxEntries;
+            commit();
+        }
+    }
+}
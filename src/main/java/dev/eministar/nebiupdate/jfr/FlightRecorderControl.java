@@ -0,0 +1,155 @@
+package dev.eministar.nebiupdate.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Starts, dumps and stops one in-process flight recording (JDK "default" settings plus the
+// nebiupdate.* events). The recording keeps a rolling window on disk, so a dump taken right after
+// a hiccup contains the minutes before it.
+public final class FlightRecorderControl implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlightRecorderControl.class);
+    private static final Duration MAX_AGE = Duration.ofMinutes(30);
+    private static final long MAX_SIZE_BYTES = 100L * 1024 * 1024;
+    private static final int MAX_DUMPS = 10;
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final Pattern DUMP_NAME = Pattern.compile("nebiupdate-\\d{8}-\\d{6}(-\\d+)?\\.jfr");
+
+    private final Path dumpDirectory;
+    private Recording recording;
+
+    public FlightRecorderControl(Path dumpDirectory) {
+        this.dumpDirectory = dumpDirectory.toAbsolutePath();
+    }
+
+    public synchronized boolean isRecording() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    public synchronized void start() {
+        if (!FlightRecorder.isAvailable()) {
+            throw new IllegalStateException("Java Flight Recorder ist in dieser JVM nicht verfügbar");
+        }
+        if (isRecording()) {
+            throw new IllegalStateException("Aufzeichnung läuft bereits");
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration("default");
+        } catch (IOException | ParseException ex) {
+            throw new IllegalStateException("JFR-Konfiguration 'default' konnte nicht geladen werden", ex);
+        }
+        Recording created = new Recording(configuration);
+        created.setName("nebiupdate");
+        created.setToDisk(true);
+        created.setMaxAge(MAX_AGE);
+        created.setMaxSize(MAX_SIZE_BYTES);
+        created.start();
+        recording = created;
+        LOGGER.info("Flight recording started (max age {} min, max size {} MB)", MAX_AGE.toMinutes(), MAX_SIZE_BYTES / 1024 / 1024);
+    }
+
+    public synchronized Path dump() {
+        if (!isRecording()) {
+            throw new IllegalStateException("Keine laufende Aufzeichnung");
+        }
+        try {
+            Files.createDirectories(dumpDirectory);
+            Path target = uniqueTarget();
+            recording.dump(target);
+            LOGGER.info("Flight recording dumped to {}", target);
+            pruneDumps();
+            return target;
+        } catch (IOException ex) {
+            throw new IllegalStateException("JFR-Dump fehlgeschlagen: " + ex.getMessage(), ex);
+        }
+    }
+
+    public synchronized void stop() {
+        if (recording == null) {
+            return;
+        }
+        recording.close();
+        recording = null;
+        LOGGER.info("Flight recording stopped");
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("available", FlightRecorder.isAvailable());
+        status.put("recording", isRecording());
+        if (recording != null) {
+            status.put("startedAt", recording.getStartTime() == null ? null : recording.getStartTime().toString());
+            status.put("maxAgeMinutes", MAX_AGE.toMinutes());
+            status.put("maxSizeBytes", MAX_SIZE_BYTES);
+        }
+        status.put("dumps", listDumps().stream().map(path -> path.getFileName().toString()).toList());
+        return status;
+    }
+
+    public List<Path> listDumps() {
+        if (!Files.isDirectory(dumpDirectory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dumpDirectory)) {
+            return files.filter(path -> DUMP_NAME.matcher(path.getFileName().toString()).matches())
+                    .sorted(Comparator.comparing(Path::getFileName).reversed())
+                    .toList();
+        } catch (IOException ex) {
+            LOGGER.warn("Failed to list JFR dumps in {}", dumpDirectory, ex);
+            return List.of();
+        }
+    }
+
+    public Optional<Path> findDump(String fileName) {
+        if (fileName == null || !DUMP_NAME.matcher(fileName).matches()) {
+            return Optional.empty();
+        }
+        Path path = dumpDirectory.resolve(fileName);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    private Path uniqueTarget() {
+        String stamp = FILE_TIME.format(LocalDateTime.now());
+        Path target = dumpDirectory.resolve("nebiupdate-" + stamp + ".jfr");
+        for (int i = 2; Files.exists(target); i++) {
+            target = dumpDirectory.resolve("nebiupdate-" + stamp + "-" + i + ".jfr");
+        }
+        return target;
+    }
+
+    private void pruneDumps() {
+        List<Path> dumps = new ArrayList<>(listDumps());
+        for (int i = MAX_DUMPS; i < dumps.size(); i++) {
+            try {
+                Files.deleteIfExists(dumps.get(i));
+            } catch (IOException ex) {
+                LOGGER.warn("Failed to delete old JFR dump {}", dumps.get(i), ex);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+}
@@ -0,0 +1,41 @@
+package dev.eministar.nebiupdate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+import java.util.function.IntSupplier;
+
+@Name("nebiupdate.Render")
+@Label("Render")
+@Description("Rendering of a weekly message or update list")
+@Category({"NebiUpdate", "Rendering"})
+@Threshold("1 ms")
+@StackTrace(false)
+public final class RenderEvent extends Event {
+    @Label("Kind")
+    String kind;
+
+    @Label("Entry Count")
+    int entryCount;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    // The size is only computed when the event is actually recorded.
+    public void finish(String kind, int entryCount, IntSupplier bytes) {
+        end();
+        if (shouldCommit()) {
+            this.kind = kind;
+            this.entryCount = entryCount;
+            this.bytes = bytes.getAsInt();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package dev.eministar.nebiupdate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("nebiupdate.RepositoryCall")
+@Label("Repository Call")
+@Description("A call into UpdateRepository or AuditRepository, including the storage backend")
+@Category({"NebiUpdate", "Database"})
+@Threshold("5 ms")
+@StackTrace(false)
+public final class RepositoryCallEvent extends Event {
+    @Label("Repository")
+    String repository;
+
+    @Label("Query")
+    @Description("Repository method; identifies the SQL statement(s) it runs")
+    String query;
+
+    @Label("Rows")
+    @Description("Rows returned or written, -1 if unknown")
+    int rows;
+
+    // Start of the call for the metrics histogram; transient fields are not recorded.
+    transient long startNanos;
+
+    public long startNanos() {
+        return startNanos;
+    }
+
+    public void start() {
+        startNanos = System.nanoTime();
+        begin();
+    }
+
+    public void finish(String repository, String query, int rows) {
+        end();
+        if (shouldCommit()) {
+            this.repository = repository;
+            this.query = query;
+            this.rows = rows;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package dev.eministar.nebiupdate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+// Spans from receiving the interaction to handing the reply to JDA, across the command worker hop.
+@Name("nebiupdate.SlashCommand")
+@Label("Slash Command")
+@Description("Handling of an /update subcommand")
+@Category({"NebiUpdate", "Discord"})
+@Threshold("0 ms")
+@StackTrace(false)
+public final class SlashCommandEvent extends Event {
+    @Label("Subcommand")
+    String subcommand;
+
+    @Label("User")
+    String userId;
+
+    @Label("Outcome")
+    String outcome;
+
+    public void finish(String subcommand, String userId, String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.subcommand = subcommand;
+            this.userId = userId;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package dev.eministar.nebiupdate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("nebiupdate.SyncWeek")
+@Label("Sync Week")
+@Description("Sync of one weekly Discord message")
+@Category({"NebiUpdate", "Discord"})
+@Threshold("0 ms")
+@StackTrace(false)
+public final class SyncWeekEvent extends Event {
+    @Label("Week Start")
+    String weekStart;
+
+    @Label("Force Create")
+    boolean forceCreate;
+
+    @Label("REST Calls")
+    int restCalls;
+
+    @Label("Outcome")
+    String outcome;
+
+    public void restCall() {
+        restCalls++;
+    }
+
+    public void finish(String weekStart, boolean forceCreate, String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.weekStart = weekStart;
+            this.forceCreate = forceCreate;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package dev.eministar.nebiupdate.jobs;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class Job implements JobProgress {
+    private final String id;
+    private final String kind;
+    private final String actor;
+    private final Instant createdAt;
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong done = new AtomicLong();
+
+    private volatile JobStatus status = JobStatus.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile Map<String, Object> result = Map.of();
+    private volatile String error;
+    private volatile String errorId;
+
+    Job(String id, String kind, String actor, Instant createdAt) {
+        this.id = id;
+        this.kind = kind;
+        this.actor = actor;
+        this.createdAt = createdAt;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public String kind() {
+        return kind;
+    }
+
+    public String actor() {
+        return actor;
+    }
+
+    public JobStatus status() {
+        return status;
+    }
+
+    public Instant createdAt() {
+        return createdAt;
+    }
+
+    public Instant finishedAt() {
+        return finishedAt;
+    }
+
+    @Override
+    public void total(long items) {
+        total.set(Math.max(0, items));
+    }
+
+    @Override
+    public void advance(long items) {
+        done.addAndGet(items);
+    }
+
+    void markRunning(Instant now) {
+        startedAt = now;
+        status = JobStatus.RUNNING;
+    }
+
+    void markSucceeded(Map<String, Object> value, Instant now) {
+        result = value == null ? Map.of() : value;
+        finishedAt = now;
+        if (total.get() == 0) {
+            total.set(done.get());
+        }
+        status = JobStatus.SUCCEEDED;
+    }
+
+    void markFailed(String message, String id, Instant now) {
+        error = message;
+        errorId = id;
+        finishedAt = now;
+        status = JobStatus.FAILED;
+    }
+
+    public Map<String, Object> toMap(Instant now) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", id);
+        map.put("kind", kind);
+        map.put("status", status.key());
+        map.put("actor", actor);
+        map.put("createdAt", createdAt.toString());
+        map.put("startedAt", startedAt == null ? null : startedAt.toString());
+        map.put("finishedAt", finishedAt == null ? null : finishedAt.toString());
+
+        long doneItems = done.get();
+        long totalItems = total.get();
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("done", doneItems);
+        progress.put("total", totalItems);
+        progress.put("percent", totalItems > 0 ? Math.min(100, doneItems * 100 / totalItems) : (status == JobStatus.SUCCEEDED ? 100 : 0));
+        map.put("progress", progress);
+
+        long elapsedMillis = startedAt == null ? 0 : Duration.between(startedAt, finishedAt == null ? now : finishedAt).toMillis();
+        map.put("elapsedMillis", elapsedMillis);
+        map.put("itemsPerSecond", elapsedMillis > 0 ? Math.round(doneItems * 10_000.0 / elapsedMillis) / 10.0 : 0.0);
+        map.put("result", result);
+        map.put("error", error);
+        map.put("errorId", errorId);
+        return map;
+    }
+}
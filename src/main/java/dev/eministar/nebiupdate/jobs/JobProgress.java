@@ -0,0 +1,18 @@
+package dev.eministar.nebiupdate.jobs;
+
+// Progress sink handed to long-running work. Totals may be unknown (0) until the work has parsed its input.
+public interface JobProgress {
+    JobProgress NONE = new JobProgress() {
+        @Override
+        public void total(long items) {
+        }
+
+        @Override
+        public void advance(long items) {
+        }
+    };
+
+    void total(long items);
+
+    void advance(long items);
+}
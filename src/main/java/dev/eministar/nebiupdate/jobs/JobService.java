@@ -0,0 +1,126 @@
+package dev.eministar.nebiupdate.jobs;
+
+import dev.eministar.nebiupdate.logging.ErrorLogger;
+import dev.eministar.nebiupdate.runtime.TaskClass;
+import dev.eministar.nebiupdate.runtime.TaskExecutor;
+import dev.eministar.nebiupdate.tracing.Span;
+import dev.eministar.nebiupdate.tracing.Tracing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+// Runs bulk work (backup, restore, import) in the JOB task class instead of on the HTTP threads.
+// A full queue rejects new jobs rather than piling them up; finished jobs stay queryable until
+// MAX_RETAINED newer ones push them out.
+public final class JobService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JobService.class);
+    private static final int MAX_RETAINED = 200;
+
+    private final Clock clock;
+    private final TaskExecutor tasks;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final List<Consumer<Job>> finishListeners = new CopyOnWriteArrayList<>();
+
+    public JobService(TaskExecutor tasks) {
+        this(tasks, Clock.systemUTC());
+    }
+
+    public JobService(TaskExecutor tasks, Clock clock) {
+        this.tasks = tasks;
+        this.clock = clock;
+    }
+
+    // Throws RejectedExecutionException when the queue is full.
+    public Job submit(String kind, String actor, JobWork work) {
+        Job job = new Job(UUID.randomUUID().toString(), kind, actor, clock.instant());
+        jobs.put(job.id(), job);
+        try {
+            tasks.execute(TaskClass.JOB, Tracing.wrap(() -> run(job, work)));
+        } catch (RejectedExecutionException ex) {
+            jobs.remove(job.id());
+            throw ex;
+        }
+        evictFinished();
+        return job;
+    }
+
+    public Optional<Job> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public List<Job> recent(int limit) {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing(Job::createdAt).reversed())
+                .limit(Math.max(0, limit))
+                .toList();
+    }
+
+    public int queueDepth() {
+        return tasks.queued(TaskClass.JOB);
+    }
+
+    public int activeCount() {
+        return tasks.running(TaskClass.JOB);
+    }
+
+    public Instant now() {
+        return clock.instant();
+    }
+
+    public void addFinishListener(Consumer<Job> listener) {
+        finishListeners.add(listener);
+    }
+
+    private void run(Job job, JobWork work) {
+        job.markRunning(clock.instant());
+        try (Span span = Tracing.start("job " + job.kind())) {
+            span.attribute("job.id", job.id());
+            try {
+                Map<String, Object> result = work.run(job);
+                job.markSucceeded(result, clock.instant());
+            } catch (IllegalArgumentException ex) {
+                span.markError(null);
+                job.markFailed(ex.getMessage(), null, clock.instant());
+            } catch (Exception ex) {
+                String errorId = ErrorLogger.capture(LOGGER, "JOB", ex, "Job {} ({}) failed", job.id(), job.kind());
+                job.markFailed("Job fehlgeschlagen", errorId, clock.instant());
+            }
+        }
+        for (Consumer<Job> listener : finishListeners) {
+            try {
+                listener.accept(job);
+            } catch (Exception ex) {
+                LOGGER.warn("Job finish listener failed", ex);
+            }
+        }
+    }
+
+    private void evictFinished() {
+        int excess = jobs.size() - MAX_RETAINED;
+        if (excess <= 0) {
+            return;
+        }
+        List<Job> finished = new ArrayList<>();
+        for (Job job : jobs.values()) {
+            if (job.status().finished()) {
+                finished.add(job);
+            }
+        }
+        finished.sort(Comparator.comparing(Job::createdAt));
+        for (int i = 0; i < Math.min(excess, finished.size()); i++) {
+            jobs.remove(finished.get(i).id());
+        }
+    }
+}
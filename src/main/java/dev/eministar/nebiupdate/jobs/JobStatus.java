@@ -0,0 +1,22 @@
+package dev.eministar.nebiupdate.jobs;
+
+public enum JobStatus {
+    QUEUED("queued"),
+    RUNNING("running"),
+    SUCCEEDED("succeeded"),
+    FAILED("failed");
+
+    private final String key;
+
+    JobStatus(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public boolean finished() {
+        return this == SUCCEEDED || this == FAILED;
+    }
+}
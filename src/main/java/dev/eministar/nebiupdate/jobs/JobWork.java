@@ -0,0 +1,8 @@
+package dev.eministar.nebiupdate.jobs;
+
+import java.util.Map;
+
+@FunctionalInterface
+public interface JobWork {
+    Map<String, Object> run(JobProgress progress) throws Exception;
+}
@@ -1,5 +1,7 @@
 package dev.eministar.nebiupdate.logging;
 
+import dev.eministar.nebiupdate.tracing.Span;
+import dev.eministar.nebiupdate.tracing.Tracing;
 import org.slf4j.Logger;
 import org.slf4j.helpers.MessageFormatter;
 
@@ -18,11 +20,17 @@ public final class ErrorLogger {
         String errorId = nextErrorId();
         String normalizedTag = normalizeTag(tag);
         String safeSummary = summary == null || summary.isBlank() ? "Unbekannter Fehler" : summary;
+        // The current span carries the error ID, so the trace can be found from the ID and vice versa.
+        Span span = Tracing.current();
+        if (span != null) {
+            span.markError(errorId);
+        }
+        String traceSuffix = span == null ? "" : " | Trace-ID=" + span.traceId();
 
         // Short and clean signal in console/app log.
-        logger.warn("[{}] {} | Fehler-ID={}", normalizedTag, safeSummary, errorId);
+        logger.warn("[{}] {} | Fehler-ID={}{}", normalizedTag, safeSummary, errorId, traceSuffix);
         // Full stacktrace is written to file appenders (console is filtered).
-        logger.error("[{}] [Fehler-ID={}] {}", normalizedTag, errorId, safeSummary, throwable);
+        logger.error("[{}] [Fehler-ID={}]{} {}", normalizedTag, errorId, traceSuffix, safeSummary, throwable);
         return errorId;
     }
 
@@ -0,0 +1,40 @@
+package dev.eministar.nebiupdate.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public final class Counter extends MetricFamily<Counter.Child> {
+    Counter(String name, String help, String[] labelNames) {
+        super(name, help, labelNames);
+    }
+
+    @Override
+    Child newChild() {
+        return new Child();
+    }
+
+    @Override
+    String type() {
+        return "counter";
+    }
+
+    @Override
+    void writeChild(StringBuilder out, String labels, Child child) {
+        appendSample(out, name(), labels, child.value());
+    }
+
+    public static final class Child {
+        private final LongAdder value = new LongAdder();
+
+        public void inc() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public long value() {
+            return value.sum();
+        }
+    }
+}
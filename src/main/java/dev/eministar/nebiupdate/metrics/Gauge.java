@@ -0,0 +1,43 @@
+package dev.eministar.nebiupdate.metrics;
+
+import java.util.function.DoubleSupplier;
+
+// Gauges are read at scrape time, so the measured code does not do any work for them.
+public final class Gauge extends MetricFamily<Gauge.Child> {
+    Gauge(String name, String help, String[] labelNames) {
+        super(name, help, labelNames);
+    }
+
+    public void register(DoubleSupplier supplier, String... labelValues) {
+        labels(labelValues).supplier = supplier;
+    }
+
+    @Override
+    Child newChild() {
+        return new Child();
+    }
+
+    @Override
+    String type() {
+        return "gauge";
+    }
+
+    @Override
+    void writeChild(StringBuilder out, String labels, Child child) {
+        DoubleSupplier supplier = child.supplier;
+        if (supplier == null) {
+            return;
+        }
+        double value;
+        try {
+            value = supplier.getAsDouble();
+        } catch (RuntimeException ex) {
+            return;
+        }
+        appendSample(out, name(), labels, value);
+    }
+
+    public static final class Child {
+        private volatile DoubleSupplier supplier;
+    }
+}
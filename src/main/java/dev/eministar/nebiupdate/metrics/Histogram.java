@@ -0,0 +1,74 @@
+package dev.eministar.nebiupdate.metrics;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency histogram with fixed buckets. Recording is a bucket scan plus two LongAdder increments:
+// no allocation and no locking, so it can stay on in production.
+public final class Histogram extends MetricFamily<Histogram.Child> {
+    private static final double[] LATENCY_BUCKETS_SECONDS = {
+            0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+    };
+    private static final long[] LATENCY_BUCKETS_NANOS = new long[LATENCY_BUCKETS_SECONDS.length];
+    private static final String[] LE_LABELS = new String[LATENCY_BUCKETS_SECONDS.length];
+
+    static {
+        for (int i = 0; i < LATENCY_BUCKETS_SECONDS.length; i++) {
+            LATENCY_BUCKETS_NANOS[i] = (long) (LATENCY_BUCKETS_SECONDS[i] * 1_000_000_000L);
+            LE_LABELS[i] = BigDecimal.valueOf(LATENCY_BUCKETS_SECONDS[i]).toPlainString();
+        }
+    }
+
+    Histogram(String name, String help, String[] labelNames) {
+        super(name, help, labelNames);
+    }
+
+    @Override
+    Child newChild() {
+        return new Child();
+    }
+
+    @Override
+    String type() {
+        return "histogram";
+    }
+
+    @Override
+    void writeChild(StringBuilder out, String labels, Child child) {
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        long cumulative = 0;
+        for (int i = 0; i < LE_LABELS.length; i++) {
+            cumulative += child.buckets[i].sum();
+            appendSample(out, name() + "_bucket", prefix + "le=\"" + LE_LABELS[i] + "\"", cumulative);
+        }
+        cumulative += child.buckets[LE_LABELS.length].sum();
+        appendSample(out, name() + "_bucket", prefix + "le=\"+Inf\"", cumulative);
+        appendSample(out, name() + "_sum", labels, child.sumNanos.sum() / 1_000_000_000.0);
+        appendSample(out, name() + "_count", labels, cumulative);
+    }
+
+    public static final class Child {
+        private final LongAdder[] buckets = new LongAdder[LATENCY_BUCKETS_NANOS.length + 1];
+        private final LongAdder sumNanos = new LongAdder();
+
+        Child() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        public void observeNanos(long nanos) {
+            int bucket = 0;
+            while (bucket < LATENCY_BUCKETS_NANOS.length && nanos > LATENCY_BUCKETS_NANOS[bucket]) {
+                bucket++;
+            }
+            buckets[bucket].increment();
+            sumNanos.add(Math.max(0, nanos));
+        }
+
+        // Typical use: long start = System.nanoTime(); try { ... } finally { child.observeSince(start); }
+        public void observeSince(long startNanos) {
+            observeNanos(System.nanoTime() - startNanos);
+        }
+    }
+}
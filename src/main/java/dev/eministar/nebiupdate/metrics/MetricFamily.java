@@ -0,0 +1,87 @@
+package dev.eministar.nebiupdate.metrics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// One metric name with a fixed set of label names. Children (one per label combination) are created
+// on first use and live forever, so hot paths should resolve them once and keep the reference.
+public abstract sealed class MetricFamily<C> permits Counter, Gauge, Histogram {
+    private final String name;
+    private final String help;
+    private final String[] labelNames;
+    private final Map<List<String>, C> children = new ConcurrentHashMap<>();
+
+    MetricFamily(String name, String help, String[] labelNames) {
+        this.name = name;
+        this.help = help;
+        this.labelNames = labelNames.clone();
+    }
+
+    public C labels(String... values) {
+        if (values.length != labelNames.length) {
+            throw new IllegalArgumentException(name + " expects labels " + Arrays.toString(labelNames));
+        }
+        return children.computeIfAbsent(List.of(values), key -> newChild());
+    }
+
+    abstract C newChild();
+
+    abstract String type();
+
+    abstract void writeChild(StringBuilder out, String labels, C child);
+
+    final String name() {
+        return name;
+    }
+
+    final void write(StringBuilder out) {
+        if (children.isEmpty()) {
+            return;
+        }
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type()).append('\n');
+        children.forEach((values, child) -> writeChild(out, labelString(values), child));
+    }
+
+    // Rendered without braces so histograms can append "le".
+    private String labelString(List<String> values) {
+        StringBuilder labels = new StringBuilder();
+        for (int i = 0; i < labelNames.length; i++) {
+            if (i > 0) {
+                labels.append(',');
+            }
+            labels.append(labelNames[i]).append("=\"");
+            escape(labels, values.get(i));
+            labels.append('"');
+        }
+        return labels.toString();
+    }
+
+    static void appendSample(StringBuilder out, String name, String labels, double value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ');
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            out.append((long) value);
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+    }
+
+    private static void escape(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '"' -> out.append("\\\"");
+                case '\n' -> out.append("\\n");
+                default -> out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package dev.eministar.nebiupdate.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+// Process-wide metric registry, scraped at /metrics in the Prometheus text format (0.0.4).
+// Families are looked up by name, so several classes can share one family with different labels.
+public final class Metrics {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final Map<String, MetricFamily<?>> FAMILIES = new ConcurrentSkipListMap<>();
+
+    private Metrics() {
+    }
+
+    public static Counter counter(String name, String help, String... labelNames) {
+        return family(name, Counter.class, key -> new Counter(key, help, labelNames));
+    }
+
+    public static Gauge gauge(String name, String help, String... labelNames) {
+        return family(name, Gauge.class, key -> new Gauge(key, help, labelNames));
+    }
+
+    public static Histogram histogram(String name, String help, String... labelNames) {
+        return family(name, Histogram.class, key -> new Histogram(key, help, labelNames));
+    }
+
+    public static String scrape() {
+        StringBuilder out = new StringBuilder(16_384);
+        for (MetricFamily<?> family : FAMILIES.values()) {
+            family.write(out);
+        }
+        return out.toString();
+    }
+
+    private static <F extends MetricFamily<?>> F family(String name, Class<F> type, Function<String, F> factory) {
+        MetricFamily<?> family = FAMILIES.computeIfAbsent(name, factory);
+        if (!type.isInstance(family)) {
+            throw new IllegalStateException("Metric " + name + " is already registered as " + family.type());
+        }
+        return type.cast(family);
+    }
+}
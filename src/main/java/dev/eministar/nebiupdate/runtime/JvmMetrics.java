@@ -0,0 +1,36 @@
+package dev.eministar.nebiupdate.runtime;
+
+import dev.eministar.nebiupdate.metrics.Gauge;
+import dev.eministar.nebiupdate.metrics.Metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+// Heap and non-heap usage, so memory limits can be sized from /metrics instead of guessed.
+public final class JvmMetrics {
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    private JvmMetrics() {
+    }
+
+    public static void register() {
+        Gauge heap = Metrics.gauge("nebi_jvm_memory_bytes", "JVM memory by area and state", "area", "state");
+        heap.register(() -> MEMORY.getHeapMemoryUsage().getUsed(), "heap", "used");
+        heap.register(() -> MEMORY.getHeapMemoryUsage().getCommitted(), "heap", "committed");
+        heap.register(() -> MEMORY.getHeapMemoryUsage().getMax(), "heap", "max");
+        heap.register(() -> MEMORY.getNonHeapMemoryUsage().getUsed(), "nonheap", "used");
+        heap.register(() -> MEMORY.getNonHeapMemoryUsage().getCommitted(), "nonheap", "committed");
+    }
+
+    public static long heapUsedBytes() {
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+
+    public static long heapMaxBytes() {
+        return MEMORY.getHeapMemoryUsage().getMax();
+    }
+
+    public static long uptimeMillis() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+}
@@ -0,0 +1,210 @@
+package dev.eministar.nebiupdate.runtime;
+
+import dev.eministar.nebiupdate.logging.ErrorLogger;
+import dev.eministar.nebiupdate.metrics.Gauge;
+import dev.eministar.nebiupdate.metrics.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Startup as a small dependency graph: every phase starts on its own virtual thread as soon as the
+// phases it depends on have finished, so the dashboard does not wait for Discord. A failed optional
+// phase is logged and skips its dependents; the others keep going and /ready reports what is missing.
+// A failed essential phase fails the whole startup right away.
+public final class StartupGraph {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StartupGraph.class);
+    private static final Gauge PHASE_SECONDS = Metrics.gauge(
+            "nebi_startup_phase_seconds",
+            "Duration of each startup phase",
+            "phase"
+    );
+
+    public enum State {
+        PENDING,
+        RUNNING,
+        DONE,
+        FAILED,
+        SKIPPED
+    }
+
+    @FunctionalInterface
+    public interface PhaseAction {
+        void run() throws Exception;
+    }
+
+    private final Map<String, Phase> phases = new LinkedHashMap<>();
+    private final long createdNanos = System.nanoTime();
+    private CompletableFuture<Void> completion;
+
+    // Records work that already ran before the graph, such as opening the storage.
+    public synchronized void completed(String name, long startedNanos, long finishedNanos) {
+        Phase phase = new Phase(name, List.of(), () -> {
+        }, true);
+        phase.startedNanos = startedNanos;
+        phase.finishedNanos = finishedNanos;
+        phase.state = State.DONE;
+        phase.future = CompletableFuture.completedFuture(null);
+        phases.put(name, phase);
+        phase.report();
+    }
+
+    public synchronized void phase(String name, List<String> dependsOn, PhaseAction action) {
+        add(name, dependsOn, action, false);
+    }
+
+    // The bot is useless without these, so running on without them would only hide the failure.
+    public synchronized void essential(String name, List<String> dependsOn, PhaseAction action) {
+        add(name, dependsOn, action, true);
+    }
+
+    private void add(String name, List<String> dependsOn, PhaseAction action, boolean essential) {
+        if (completion != null) {
+            throw new IllegalStateException("Startup already running");
+        }
+        for (String dependency : dependsOn) {
+            if (!phases.containsKey(dependency)) {
+                throw new IllegalArgumentException("Startup phase " + name + " depends on unknown phase " + dependency);
+            }
+        }
+        phases.put(name, new Phase(name, List.copyOf(dependsOn), action, essential));
+    }
+
+    // Phases are declared in dependency order, so each one finds its dependencies' futures.
+    // The returned future fails as soon as an essential phase fails or is skipped.
+    public synchronized CompletableFuture<Void> start() {
+        if (completion != null) {
+            return completion;
+        }
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("startup-", 1).factory());
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        List<CompletableFuture<Void>> all = new ArrayList<>();
+        for (Phase phase : phases.values()) {
+            if (phase.future == null) {
+                CompletableFuture<?>[] dependencies = phase.dependsOn.stream()
+                        .map(dependency -> phases.get(dependency).future)
+                        .toArray(CompletableFuture[]::new);
+                phase.future = CompletableFuture.allOf(dependencies)
+                        .<Void>handleAsync((ignored, failure) -> {
+                            phase.execute(failure == null);
+                            return null;
+                        }, executor)
+                        .thenCompose(ignored -> phase.state == State.DONE
+                                ? CompletableFuture.<Void>completedFuture(null)
+                                : CompletableFuture.<Void>failedFuture(new IllegalStateException(phase.name + " " + phase.state)));
+            }
+            if (phase.essential) {
+                phase.future.whenComplete((ignored, failure) -> {
+                    if (failure != null) {
+                        result.completeExceptionally(essentialFailure(phase));
+                    }
+                });
+            }
+            // Otherwise the overall completion waits for every phase, failed or not.
+            all.add(phase.future.exceptionally(ignored -> null));
+        }
+        CompletableFuture.allOf(all.toArray(CompletableFuture[]::new))
+                .whenComplete((ignored, failure) -> {
+                    executor.shutdown();
+                    // Callbacks of one future run in no fixed order, so the essential check is repeated here.
+                    phases.values().stream()
+                            .filter(phase -> phase.essential && phase.state != State.DONE)
+                            .findFirst()
+                            .ifPresentOrElse(
+                                    phase -> result.completeExceptionally(essentialFailure(phase)),
+                                    () -> result.complete(null)
+                            );
+                });
+        completion = result;
+        return completion;
+    }
+
+    private static IllegalStateException essentialFailure(Phase phase) {
+        return new IllegalStateException("Essential startup phase " + phase.name + " " + phase.state.name().toLowerCase());
+    }
+
+    public synchronized boolean isComplete() {
+        return completion != null && completion.isDone();
+    }
+
+    public synchronized List<String> failedPhases() {
+        return phases.values().stream()
+                .filter(phase -> phase.state == State.FAILED || phase.state == State.SKIPPED)
+                .map(phase -> phase.name)
+                .toList();
+    }
+
+    public synchronized boolean isDone(String name) {
+        Phase phase = phases.get(name);
+        return phase != null && phase.state == State.DONE;
+    }
+
+    public synchronized List<Map<String, Object>> snapshot() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Phase phase : phases.values()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("name", phase.name);
+            row.put("state", phase.state.name().toLowerCase());
+            row.put("dependsOn", phase.dependsOn);
+            row.put("essential", phase.essential);
+            row.put("startedAtMs", phase.startedNanos == 0 ? null : millisSince(createdNanos, phase.startedNanos));
+            row.put("durationMs", phase.finishedNanos == 0 ? null : millisSince(phase.startedNanos, phase.finishedNanos));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static long millisSince(long fromNanos, long toNanos) {
+        return (toNanos - fromNanos) / 1_000_000L;
+    }
+
+    private static final class Phase {
+        private final String name;
+        private final List<String> dependsOn;
+        private final PhaseAction action;
+        private final boolean essential;
+        private volatile State state = State.PENDING;
+        private volatile long startedNanos;
+        private volatile long finishedNanos;
+        private CompletableFuture<Void> future;
+
+        private Phase(String name, List<String> dependsOn, PhaseAction action, boolean essential) {
+            this.name = name;
+            this.dependsOn = dependsOn;
+            this.action = action;
+            this.essential = essential;
+        }
+
+        private void execute(boolean dependenciesDone) {
+            if (!dependenciesDone) {
+                state = State.SKIPPED;
+                LOGGER.warn("Startup phase {} skipped, a dependency failed", name);
+                return;
+            }
+            state = State.RUNNING;
+            startedNanos = System.nanoTime();
+            try {
+                action.run();
+                finishedNanos = System.nanoTime();
+                state = State.DONE;
+                report();
+            } catch (Exception ex) {
+                finishedNanos = System.nanoTime();
+                state = State.FAILED;
+                ErrorLogger.capture(LOGGER, "STARTUP", ex, "Startup phase {} failed", name);
+            }
+        }
+
+        private void report() {
+            double seconds = (finishedNanos - startedNanos) / 1_000_000_000.0;
+            PHASE_SECONDS.register(() -> seconds, name);
+            LOGGER.info("Startup phase {} finished in {} ms", name, Math.round(seconds * 1000));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package dev.eministar.nebiupdate.runtime;
+
+// Every kind of blocking background work the bot runs. Lanes are ordered by priority: when the
+// global limit in TaskExecutor is reached, queued interactive work is started before syncs and jobs.
+public enum TaskClass {
+    // Deferred slash command responses; a user is waiting on the other end. Keyed by guild and user,
+    // so one key may hold at most 16 of the 256 queue places.
+    COMMAND("discord-command", Lane.INTERACTIVE, 8, 256, 16),
+    // One at a time so syncs of the same week never race; pending requests are coalesced upstream.
+    SYNC("discord-sync", Lane.BACKGROUND, 1, Integer.MAX_VALUE, Integer.MAX_VALUE),
+    SCHEDULER("weekly-scheduler", Lane.BACKGROUND, 1, 4, 4),
+    // Backup, restore and import. A full queue rejects new jobs instead of piling them up.
+    JOB("job", Lane.BULK, 2, 16, 16);
+
+    public enum Lane {
+        INTERACTIVE,
+        BACKGROUND,
+        BULK
+    }
+
+    private final String label;
+    private final Lane lane;
+    private final int maxConcurrency;
+    private final int queueCapacity;
+    private final int keyCapacity;
+
+    TaskClass(String label, Lane lane, int maxConcurrency, int queueCapacity, int keyCapacity) {
+        this.label = label;
+        this.lane = lane;
+        this.maxConcurrency = maxConcurrency;
+        this.queueCapacity = queueCapacity;
+        this.keyCapacity = keyCapacity;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public Lane lane() {
+        return lane;
+    }
+
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int queueCapacity() {
+        return queueCapacity;
+    }
+
+    public int keyCapacity() {
+        return keyCapacity;
+    }
+}
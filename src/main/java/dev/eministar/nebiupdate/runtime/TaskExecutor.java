@@ -0,0 +1,221 @@
+package dev.eministar.nebiupdate.runtime;
+
+import dev.eministar.nebiupdate.logging.ErrorLogger;
+import dev.eministar.nebiupdate.metrics.Counter;
+import dev.eministar.nebiupdate.metrics.Gauge;
+import dev.eministar.nebiupdate.metrics.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+// Single execution layer for blocking work. Each task runs on its own virtual thread; the per-class
+// limits in TaskClass and the global MAX_RUNNING bound how much of it touches Discord and the
+// database at once. Whenever a slot frees up, the highest-priority lane with queued work goes next.
+// Within a class, tasks submitted with a key are queued per key and taken round-robin, so one busy
+// key cannot push everyone else to the back of the queue.
+public final class TaskExecutor implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskExecutor.class);
+    private static final int MAX_RUNNING = 8;
+    private static final List<TaskClass> DISPATCH_ORDER = Arrays.stream(TaskClass.values())
+            .sorted(Comparator.comparing(TaskClass::lane))
+            .toList();
+    private static final Counter REJECTED = Metrics.counter(
+            "nebi_executor_rejected_total",
+            "Tasks rejected because their queue was full or the executor was closed",
+            "executor"
+    );
+
+    private final Map<TaskClass, Slot> slots = new EnumMap<>(TaskClass.class);
+    private final Set<Thread> activeThreads = ConcurrentHashMap.newKeySet();
+    private int running;
+    private boolean closed;
+
+    public TaskExecutor() {
+        Gauge queueDepth = Metrics.gauge("nebi_executor_queue_depth", "Tasks waiting in an executor queue", "executor");
+        Gauge active = Metrics.gauge("nebi_executor_running", "Tasks currently running per task class", "executor");
+        for (TaskClass taskClass : TaskClass.values()) {
+            slots.put(taskClass, new Slot(taskClass));
+            queueDepth.register(() -> queued(taskClass), taskClass.label());
+            active.register(() -> running(taskClass), taskClass.label());
+        }
+    }
+
+    public void execute(TaskClass taskClass, Runnable task) {
+        execute(taskClass, "", task);
+    }
+
+    // Throws RejectedExecutionException when the class queue or the key's share of it is full, or
+    // the executor is closed.
+    public void execute(TaskClass taskClass, String key, Runnable task) {
+        synchronized (this) {
+            Slot slot = slots.get(taskClass);
+            String reason = null;
+            if (closed) {
+                reason = "Task executor is closed";
+            } else if (slot.queued >= taskClass.queueCapacity()) {
+                reason = "Queue for " + taskClass.label() + " is full";
+            } else if (slot.queuedFor(key) >= taskClass.keyCapacity()) {
+                reason = "Queue share of " + key + " in " + taskClass.label() + " is full";
+            }
+            if (reason != null) {
+                slot.rejected++;
+                REJECTED.labels(taskClass.label()).inc();
+                throw new RejectedExecutionException(reason);
+            }
+            slot.offer(key, task);
+            dispatch();
+        }
+    }
+
+    public synchronized int queued(TaskClass taskClass) {
+        return slots.get(taskClass).queued;
+    }
+
+    public synchronized int running(TaskClass taskClass) {
+        return slots.get(taskClass).running;
+    }
+
+    public synchronized List<Map<String, Object>> snapshot() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (TaskClass taskClass : DISPATCH_ORDER) {
+            Slot slot = slots.get(taskClass);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("name", taskClass.label());
+            row.put("lane", taskClass.lane().name().toLowerCase());
+            row.put("running", slot.running);
+            row.put("queued", slot.queued);
+            row.put("queuedKeys", slot.byKey.size());
+            row.put("maxConcurrency", taskClass.maxConcurrency());
+            row.put("queueCapacity", taskClass.queueCapacity() == Integer.MAX_VALUE ? null : taskClass.queueCapacity());
+            row.put("completed", slot.completed);
+            row.put("failed", slot.failed);
+            row.put("rejected", slot.rejected);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    public int maxRunning() {
+        return MAX_RUNNING;
+    }
+
+    // Caller holds the monitor.
+    private void dispatch() {
+        while (!closed && running < MAX_RUNNING) {
+            Slot next = null;
+            for (TaskClass taskClass : DISPATCH_ORDER) {
+                Slot slot = slots.get(taskClass);
+                if (slot.queued > 0 && slot.running < taskClass.maxConcurrency()) {
+                    next = slot;
+                    break;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            Runnable task = next.poll();
+            next.running++;
+            running++;
+            Slot slot = next;
+            slot.threadFactory.newThread(() -> run(slot, task)).start();
+        }
+    }
+
+    private void run(Slot slot, Runnable task) {
+        Thread current = Thread.currentThread();
+        activeThreads.add(current);
+        boolean failed = false;
+        try {
+            task.run();
+        } catch (Throwable ex) {
+            failed = true;
+            ErrorLogger.capture(LOGGER, "TASK", ex, "Task in {} failed", slot.taskClass.label());
+        } finally {
+            activeThreads.remove(current);
+            synchronized (this) {
+                slot.running--;
+                running--;
+                if (failed) {
+                    slot.failed++;
+                } else {
+                    slot.completed++;
+                }
+                dispatch();
+            }
+        }
+    }
+
+    // Queued tasks are dropped and running ones interrupted, matching the shutdownNow() the
+    // per-component pools used before.
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            slots.values().forEach(Slot::clear);
+        }
+        activeThreads.forEach(Thread::interrupt);
+    }
+
+    private static final class Slot {
+        private final TaskClass taskClass;
+        private final ThreadFactory threadFactory;
+        private final Map<String, ArrayDeque<Runnable>> byKey = new HashMap<>();
+        // Keys with queued work in round-robin order; a key goes to the back after each task taken.
+        private final ArrayDeque<String> rotation = new ArrayDeque<>();
+        private int queued;
+        private int running;
+        private long completed;
+        private long failed;
+        private long rejected;
+
+        private Slot(TaskClass taskClass) {
+            this.taskClass = taskClass;
+            this.threadFactory = Thread.ofVirtual().name(taskClass.label() + "-", 1).factory();
+        }
+
+        private int queuedFor(String key) {
+            ArrayDeque<Runnable> queue = byKey.get(key);
+            return queue == null ? 0 : queue.size();
+        }
+
+        private void offer(String key, Runnable task) {
+            byKey.computeIfAbsent(key, ignored -> {
+                rotation.addLast(key);
+                return new ArrayDeque<>();
+            }).addLast(task);
+            queued++;
+        }
+
+        private Runnable poll() {
+            String key = rotation.pollFirst();
+            ArrayDeque<Runnable> queue = byKey.get(key);
+            Runnable task = queue.pollFirst();
+            if (queue.isEmpty()) {
+                byKey.remove(key);
+            } else {
+                rotation.addLast(key);
+            }
+            queued--;
+            return task;
+        }
+
+        private void clear() {
+            byKey.clear();
+            rotation.clear();
+            queued = 0;
+        }
+    }
+}
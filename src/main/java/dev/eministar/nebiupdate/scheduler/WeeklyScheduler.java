@@ -5,12 +5,15 @@ import dev.eministar.nebiupdate.config.ConfigService;
 import dev.eministar.nebiupdate.data.UpdateRepository;
 import dev.eministar.nebiupdate.discord.DiscordGateway;
 import dev.eministar.nebiupdate.logging.ErrorLogger;
+import dev.eministar.nebiupdate.runtime.TaskClass;
+import dev.eministar.nebiupdate.runtime.TaskExecutor;
 import dev.eministar.nebiupdate.time.WeekService;
 import dev.eministar.nebiupdate.time.WeekWindow;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
@@ -21,18 +24,21 @@ public final class WeeklyScheduler implements AutoCloseable {
     private final UpdateRepository updateRepository;
     private final WeekService weekService;
     private final DiscordGateway discordGateway;
+    private final TaskExecutor tasks;
     private final ScheduledExecutorService scheduler;
 
     public WeeklyScheduler(
             ConfigService configService,
             UpdateRepository updateRepository,
             WeekService weekService,
-            DiscordGateway discordGateway
+            DiscordGateway discordGateway,
+            TaskExecutor tasks
     ) {
         this.configService = configService;
         this.updateRepository = updateRepository;
         this.weekService = weekService;
         this.discordGateway = discordGateway;
+        this.tasks = tasks;
         this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
             Thread thread = new Thread(r, "weekly-scheduler");
             thread.setDaemon(true);
@@ -41,10 +47,19 @@ public final class WeeklyScheduler implements AutoCloseable {
     }
 
     public void start() {
-        scheduler.scheduleAtFixedRate(this::tick, 5, 30, TimeUnit.SECONDS);
+        // The timer thread only hands the tick over; the repository and Discord calls run as a task.
+        scheduler.scheduleAtFixedRate(this::submitTick, 5, 30, TimeUnit.SECONDS);
         LOGGER.info("Weekly scheduler started");
     }
 
+    private void submitTick() {
+        try {
+            tasks.execute(TaskClass.SCHEDULER, this::tick);
+        } catch (RejectedExecutionException ex) {
+            LOGGER.warn("Scheduler tick skipped, previous ticks are still queued");
+        }
+    }
+
     private void tick() {
         try {
             if (!discordGateway.isConnected()) {
@@ -0,0 +1,152 @@
+package dev.eministar.nebiupdate.storage;
+
+import dev.eministar.nebiupdate.audit.AuditStore;
+import dev.eministar.nebiupdate.audit.InMemoryAuditStore;
+import dev.eministar.nebiupdate.audit.JdbcAuditStore;
+import dev.eministar.nebiupdate.config.ConfigStore;
+import dev.eministar.nebiupdate.config.InMemoryConfigStore;
+import dev.eministar.nebiupdate.config.JdbcConfigStore;
+import dev.eministar.nebiupdate.config.StartupSettings;
+import dev.eministar.nebiupdate.data.Database;
+import dev.eministar.nebiupdate.data.InMemoryUpdateStore;
+import dev.eministar.nebiupdate.data.JdbcUpdateStore;
+import dev.eministar.nebiupdate.data.MemoryFirstUpdateStore;
+import dev.eministar.nebiupdate.data.SqlDiagnostics;
+import dev.eministar.nebiupdate.data.UpdateStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+
+public final class StorageBackend implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StorageBackend.class);
+    private static final int POSTGRES_POOL_SIZE = 8;
+
+    private final StorageType type;
+    private final Database database;
+    private final UpdateStore updateStore;
+    private final AuditStore auditStore;
+    private final ConfigStore configStore;
+    private final MemoryFirstUpdateStore memoryFirstStore;
+    private final SqlDiagnostics sqlDiagnostics;
+
+    private StorageBackend(
+            StorageType type,
+            Database database,
+            UpdateStore updateStore,
+            AuditStore auditStore,
+            ConfigStore configStore,
+            MemoryFirstUpdateStore memoryFirstStore,
+            SqlDiagnostics sqlDiagnostics
+    ) {
+        this.type = type;
+        this.database = database;
+        this.updateStore = updateStore;
+        this.auditStore = auditStore;
+        this.configStore = configStore;
+        this.memoryFirstStore = memoryFirstStore;
+        this.sqlDiagnostics = sqlDiagnostics;
+    }
+
+    public static StorageBackend open(StartupSettings settings) {
+        StorageType type = StorageType.parse(settings.storage());
+        if (type == StorageType.MEMORY) {
+            if (settings.memoryFirst()) {
+                LOGGER.info("app.memory_first is ignored for the in-memory storage backend");
+            }
+            LOGGER.warn("Using in-memory storage: all data is lost on shutdown");
+            if (settings.sqlDiagnostics()) {
+                LOGGER.info("app.sql_diagnostics is ignored for the in-memory storage backend");
+            }
+            return new StorageBackend(
+                    type,
+                    null,
+                    new InMemoryUpdateStore(),
+                    new InMemoryAuditStore(),
+                    new InMemoryConfigStore(),
+                    null,
+                    SqlDiagnostics.disabled()
+            );
+        }
+
+        Database database = openDatabase(type, settings);
+        try {
+            database.initialize();
+            // Instrumented after the schema setup, so the statistics only cover real traffic.
+            SqlDiagnostics sqlDiagnostics = SqlDiagnostics.disabled();
+            if (settings.sqlDiagnostics()) {
+                sqlDiagnostics = SqlDiagnostics.enabled(settings.slowQueryMillis());
+                database.instrument(sqlDiagnostics);
+                LOGGER.info("SQL diagnostics enabled (slow query threshold {} ms)", settings.slowQueryMillis());
+            }
+            UpdateStore updateStore = new JdbcUpdateStore(database);
+            MemoryFirstUpdateStore memoryFirstStore = null;
+            if (settings.memoryFirst()) {
+                memoryFirstStore = MemoryFirstUpdateStore.open(updateStore, Path.of(settings.journalPath()));
+                updateStore = memoryFirstStore;
+            }
+            LOGGER.info("Storage backend: {}{}", type.id(), settings.memoryFirst() ? " (memory-first)" : "");
+            return new StorageBackend(
+                    type,
+                    database,
+                    updateStore,
+                    new JdbcAuditStore(database),
+                    new JdbcConfigStore(database),
+                    memoryFirstStore,
+                    sqlDiagnostics
+            );
+        } catch (RuntimeException ex) {
+            database.close();
+            throw ex;
+        }
+    }
+
+    private static Database openDatabase(StorageType type, StartupSettings settings) {
+        if (type == StorageType.SQLITE) {
+            return new Database(settings.dbPath());
+        }
+        String url = settings.postgresUrl();
+        if (url == null || url.isBlank()) {
+            throw new IllegalStateException("app.postgres_url fehlt. Bitte trage eine JDBC-URL (jdbc:postgresql://...) in config.yml ein.");
+        }
+        try {
+            Class.forName("org.postgresql.Driver");
+        } catch (ClassNotFoundException ex) {
+            throw new IllegalStateException("PostgreSQL-Treiber nicht gefunden. Bitte mit 'mvn -Ppostgres package' bauen.", ex);
+        }
+        return new Database(url, settings.postgresUser(), settings.postgresPassword(), POSTGRES_POOL_SIZE);
+    }
+
+    public StorageType type() {
+        return type;
+    }
+
+    public UpdateStore updateStore() {
+        return updateStore;
+    }
+
+    public AuditStore auditStore() {
+        return auditStore;
+    }
+
+    public ConfigStore configStore() {
+        return configStore;
+    }
+
+    public SqlDiagnostics sqlDiagnostics() {
+        return sqlDiagnostics;
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (memoryFirstStore != null) {
+                memoryFirstStore.close();
+            }
+        } finally {
+            if (database != null) {
+                database.close();
+            }
+        }
+    }
+}
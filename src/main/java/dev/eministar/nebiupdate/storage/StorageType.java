@@ -0,0 +1,25 @@
+package dev.eministar.nebiupdate.storage;
+
+import java.util.Locale;
+
+public enum StorageType {
+    SQLITE,
+    MEMORY,
+    POSTGRES;
+
+    public static StorageType parse(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return SQLITE;
+        }
+        return switch (raw.trim().toLowerCase(Locale.ROOT)) {
+            case "sqlite" -> SQLITE;
+            case "memory", "in-memory", "inmemory" -> MEMORY;
+            case "postgres", "postgresql" -> POSTGRES;
+            default -> throw new IllegalArgumentException("Unbekannter Speicher-Typ: " + raw + " (erlaubt: sqlite, memory, postgres)");
+        };
+    }
+
+    public String id() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,186 @@
+package dev.eministar.nebiupdate.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Encodes spans as OTLP/JSON (ExportTraceServiceRequest) and writes them to a file or pushes
+// them to a collector's /v1/traces endpoint. With an endpoint configured, new spans from the ring
+// are pushed every few seconds; spans that rotate out of the ring before a push are lost.
+public final class OtlpExporter implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OtlpExporter.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String SERVICE_NAME = "nebiupdate";
+    private static final String SCOPE_NAME = "dev.eministar.nebiupdate";
+    private static final long PUSH_INTERVAL_SECONDS = 5;
+    private static final int MAX_BATCH = 1000;
+
+    private final URI endpoint;
+    private final HttpClient httpClient;
+    private final ScheduledExecutorService scheduler;
+    private long exportedSeq;
+    private boolean lastPushFailed;
+
+    public OtlpExporter(String endpoint) {
+        this.endpoint = endpoint == null || endpoint.isBlank() ? null : URI.create(endpoint.trim());
+        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "otlp-exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isPushEnabled() {
+        return endpoint != null;
+    }
+
+    public void start() {
+        if (endpoint == null) {
+            return;
+        }
+        exportedSeq = Tracing.latestSeq();
+        scheduler.scheduleWithFixedDelay(this::pushPending, PUSH_INTERVAL_SECONDS, PUSH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        LOGGER.info("Pushing traces as OTLP/JSON to {}", endpoint);
+    }
+
+    public static byte[] encode(List<SpanData> spans) {
+        List<Map<String, Object>> encoded = new ArrayList<>(spans.size());
+        for (SpanData span : spans) {
+            encoded.add(encodeSpan(span));
+        }
+        Map<String, Object> scopeSpans = new LinkedHashMap<>();
+        scopeSpans.put("scope", Map.of("name", SCOPE_NAME));
+        scopeSpans.put("spans", encoded);
+        Map<String, Object> resourceSpans = new LinkedHashMap<>();
+        resourceSpans.put("resource", Map.of("attributes", List.of(attribute("service.name", SERVICE_NAME))));
+        resourceSpans.put("scopeSpans", List.of(scopeSpans));
+        try {
+            return OBJECT_MAPPER.writeValueAsBytes(Map.of("resourceSpans", List.of(resourceSpans)));
+        } catch (IOException ex) {
+            throw new IllegalStateException("OTLP-Kodierung fehlgeschlagen", ex);
+        }
+    }
+
+    public static Path writeFile(Path file, List<SpanData> spans) throws IOException {
+        Path target = file.toAbsolutePath();
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        Files.write(target, encode(spans));
+        return target;
+    }
+
+    public void push(List<SpanData> spans) throws IOException, InterruptedException {
+        if (endpoint == null) {
+            throw new IllegalStateException("Kein OTLP-Endpunkt konfiguriert (app.otlp_endpoint)");
+        }
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(encode(spans)))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Collector antwortete mit HTTP " + response.statusCode());
+        }
+    }
+
+    private synchronized void pushPending() {
+        try {
+            long latest = Tracing.latestSeq();
+            while (exportedSeq < latest) {
+                long upTo = Math.min(latest, exportedSeq + MAX_BATCH);
+                List<SpanData> batch = Tracing.range(exportedSeq, upTo);
+                if (!batch.isEmpty()) {
+                    push(batch);
+                }
+                exportedSeq = upTo;
+            }
+            if (lastPushFailed) {
+                LOGGER.info("OTLP push to {} recovered", endpoint);
+            }
+            lastPushFailed = false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            // Logged once per outage; the next run retries with the same cursor.
+            if (!lastPushFailed) {
+                LOGGER.warn("OTLP push to {} failed: {}", endpoint, ex.getMessage());
+            }
+            lastPushFailed = true;
+        }
+    }
+
+    private static Map<String, Object> encodeSpan(SpanData span) {
+        Map<String, Object> encoded = new LinkedHashMap<>();
+        encoded.put("traceId", span.traceId());
+        encoded.put("spanId", span.spanId());
+        if (span.parentSpanId() != null) {
+            encoded.put("parentSpanId", span.parentSpanId());
+        }
+        encoded.put("name", span.name());
+        encoded.put("kind", span.kind().otlpCode());
+        // 64-bit integers are strings in OTLP/JSON.
+        encoded.put("startTimeUnixNano", Long.toString(span.startEpochNanos()));
+        encoded.put("endTimeUnixNano", Long.toString(span.endEpochNanos()));
+        List<Map<String, Object>> attributes = new ArrayList<>();
+        attributes.add(attribute("thread.name", span.thread()));
+        for (Map.Entry<String, Object> entry : span.attributes().entrySet()) {
+            attributes.add(attribute(entry.getKey(), entry.getValue()));
+        }
+        if (span.errorId() != null) {
+            attributes.add(attribute("error.id", span.errorId()));
+        }
+        encoded.put("attributes", attributes);
+        if (span.error()) {
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("code", 2);
+            if (span.errorId() != null) {
+                status.put("message", "Fehler-ID " + span.errorId());
+            }
+            encoded.put("status", status);
+        }
+        return encoded;
+    }
+
+    private static Map<String, Object> attribute(String key, Object value) {
+        Map<String, Object> anyValue = switch (value) {
+            case Boolean bool -> Map.of("boolValue", bool);
+            case Integer number -> Map.of("intValue", number.toString());
+            case Long number -> Map.of("intValue", number.toString());
+            case Double number -> Map.of("doubleValue", number);
+            default -> Map.of("stringValue", String.valueOf(value));
+        };
+        return Map.of("key", key, "value", anyValue);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (endpoint != null) {
+            pushPending();
+        }
+    }
+}
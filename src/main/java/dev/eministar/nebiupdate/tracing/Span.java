@@ -0,0 +1,107 @@
+package dev.eministar.nebiupdate.tracing;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// One timed operation. Spans from Tracing.start() become the thread's current span until closed;
+// detached spans (Tracing.startDetached) are ended explicitly, possibly on another thread.
+public final class Span implements AutoCloseable {
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private String name;
+    private final SpanKind kind;
+    private final long startEpochNanos;
+    private final long startNanos;
+    private final String thread;
+    private final Span previous;
+    private final Thread scopeOwner;
+    private final Map<String, Object> attributes = new LinkedHashMap<>(4);
+    private boolean error;
+    private String errorId;
+    private boolean ended;
+
+    Span(String traceId, String parentSpanId, String name, SpanKind kind, Span previous, Thread scopeOwner) {
+        this.traceId = traceId;
+        this.spanId = Tracing.newSpanId();
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.kind = kind;
+        Instant now = Instant.now();
+        this.startEpochNanos = now.getEpochSecond() * 1_000_000_000L + now.getNano();
+        this.startNanos = System.nanoTime();
+        this.thread = Thread.currentThread().getName();
+        this.previous = previous;
+        this.scopeOwner = scopeOwner;
+    }
+
+    public String traceId() {
+        return traceId;
+    }
+
+    public String spanId() {
+        return spanId;
+    }
+
+    // W3C trace context header value for this span.
+    public String traceparent() {
+        return "00-" + traceId + "-" + spanId + "-01";
+    }
+
+    // For spans whose final name (e.g. the matched route) is only known at the end.
+    public synchronized void updateName(String name) {
+        if (!ended) {
+            this.name = name;
+        }
+    }
+
+    public synchronized Span attribute(String key, Object value) {
+        if (!ended && value != null) {
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    public synchronized void markError(String errorId) {
+        if (ended) {
+            return;
+        }
+        this.error = true;
+        if (errorId != null && this.errorId == null) {
+            this.errorId = errorId;
+        }
+    }
+
+    public void end() {
+        SpanData data;
+        synchronized (this) {
+            if (ended) {
+                return;
+            }
+            ended = true;
+            data = new SpanData(
+                    traceId,
+                    spanId,
+                    parentSpanId,
+                    name,
+                    kind,
+                    startEpochNanos,
+                    startEpochNanos + (System.nanoTime() - startNanos),
+                    thread,
+                    error,
+                    errorId,
+                    attributes
+            );
+        }
+        if (scopeOwner == Thread.currentThread()) {
+            Tracing.restore(previous);
+        }
+        Tracing.finished(data);
+    }
+
+    @Override
+    public void close() {
+        end();
+    }
+}
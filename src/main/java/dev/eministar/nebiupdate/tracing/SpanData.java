@@ -0,0 +1,43 @@
+package dev.eministar.nebiupdate.tracing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Immutable copy of a finished span, as kept in the ring buffer and exported.
+public record SpanData(
+        String traceId,
+        String spanId,
+        String parentSpanId,
+        String name,
+        SpanKind kind,
+        long startEpochNanos,
+        long endEpochNanos,
+        String thread,
+        boolean error,
+        String errorId,
+        Map<String, Object> attributes
+) {
+    public SpanData {
+        attributes = attributes == null ? Map.of() : Map.copyOf(attributes);
+    }
+
+    public double durationMillis() {
+        return (endEpochNanos - startEpochNanos) / 1_000_000.0;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("traceId", traceId);
+        map.put("spanId", spanId);
+        map.put("parentSpanId", parentSpanId);
+        map.put("name", name);
+        map.put("kind", kind.name());
+        map.put("startEpochMs", startEpochNanos / 1_000_000L);
+        map.put("durationMs", Math.round(durationMillis() * 1000.0) / 1000.0);
+        map.put("thread", thread);
+        map.put("error", error);
+        map.put("errorId", errorId);
+        map.put("attributes", attributes);
+        return map;
+    }
+}
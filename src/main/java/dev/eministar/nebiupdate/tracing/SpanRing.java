@@ -0,0 +1,60 @@
+package dev.eministar.nebiupdate.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+// Fixed-size ring of finished spans. Writers never block; a reader racing a writer may miss the
+// slot being overwritten, which is acceptable for diagnostics.
+final class SpanRing {
+    private final int capacity;
+    private final AtomicReferenceArray<Slot> slots;
+    private final AtomicLong nextSeq = new AtomicLong(1);
+
+    SpanRing(int capacity) {
+        this.capacity = capacity;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    void add(SpanData span) {
+        long seq = nextSeq.getAndIncrement();
+        slots.set((int) (seq % capacity), new Slot(seq, span));
+    }
+
+    long latestSeq() {
+        return nextSeq.get() - 1;
+    }
+
+    // Spans with afterSeq < seq <= upToSeq still in the ring, oldest first.
+    List<SpanData> range(long afterSeq, long upToSeq) {
+        long to = Math.min(upToSeq, latestSeq());
+        long from = Math.max(afterSeq + 1, to - capacity + 1);
+        List<SpanData> result = new ArrayList<>();
+        for (long seq = from; seq <= to; seq++) {
+            Slot slot = slots.get((int) (seq % capacity));
+            if (slot != null && slot.seq() == seq) {
+                result.add(slot.span());
+            }
+        }
+        return result;
+    }
+
+    // Matching spans, newest first.
+    List<SpanData> newest(Predicate<SpanData> filter, int limit) {
+        long latest = latestSeq();
+        long oldest = Math.max(1, latest - capacity + 1);
+        List<SpanData> result = new ArrayList<>();
+        for (long seq = latest; seq >= oldest && result.size() < limit; seq--) {
+            Slot slot = slots.get((int) (seq % capacity));
+            if (slot != null && slot.seq() == seq && filter.test(slot.span())) {
+                result.add(slot.span());
+            }
+        }
+        return result;
+    }
+
+    private record Slot(long seq, SpanData span) {
+    }
+}
@@ -0,0 +1,220 @@
+package dev.eministar.nebiupdate.tracing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+// In-process tracing. The current span lives in a thread local; work handed to an executor keeps
+// its trace by being wrapped with wrap(). Finished spans go to a fixed ring buffer from where the
+// dashboard reads them and OtlpExporter ships them.
+public final class Tracing {
+    private static final int RING_CAPACITY = 4096;
+    private static final Pattern TRACEPARENT = Pattern.compile("00-([0-9a-f]{32})-([0-9a-f]{16})-[0-9a-f]{2}");
+    private static final String INVALID_TRACE_ID = "0".repeat(32);
+    private static final HexFormat HEX = HexFormat.of();
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+    private static final SpanRing RING = new SpanRing(RING_CAPACITY);
+
+    private Tracing() {
+    }
+
+    // Child of the current span (or a new trace), current until closed.
+    public static Span start(String name) {
+        return start(name, SpanKind.INTERNAL);
+    }
+
+    public static Span start(String name, SpanKind kind) {
+        return startChild(name, kind, CURRENT.get());
+    }
+
+    // Child of an explicit parent (null starts a new trace), current until closed.
+    public static Span startChild(String name, SpanKind kind, Span parent) {
+        Span previous = CURRENT.get();
+        Span span = new Span(
+                parent == null ? newTraceId() : parent.traceId(),
+                parent == null ? null : parent.spanId(),
+                name,
+                kind,
+                previous,
+                Thread.currentThread()
+        );
+        CURRENT.set(span);
+        return span;
+    }
+
+    // Continues a W3C traceparent from an incoming request; starts a new trace when absent or invalid.
+    public static Span startRemote(String name, SpanKind kind, String traceparent) {
+        var matcher = traceparent == null ? null : TRACEPARENT.matcher(traceparent.trim());
+        Span previous = CURRENT.get();
+        boolean valid = matcher != null && matcher.matches() && !matcher.group(1).equals(INVALID_TRACE_ID);
+        Span span = new Span(
+                valid ? matcher.group(1) : newTraceId(),
+                valid ? matcher.group(2) : null,
+                name,
+                kind,
+                previous,
+                Thread.currentThread()
+        );
+        CURRENT.set(span);
+        return span;
+    }
+
+    // Never becomes current; used for spans that end on another thread (async callbacks).
+    public static Span startDetached(String name, SpanKind kind, Span parent) {
+        return new Span(
+                parent == null ? newTraceId() : parent.traceId(),
+                parent == null ? null : parent.spanId(),
+                name,
+                kind,
+                null,
+                null
+        );
+    }
+
+    public static Span current() {
+        return CURRENT.get();
+    }
+
+    public static String currentTraceId() {
+        Span span = CURRENT.get();
+        return span == null ? null : span.traceId();
+    }
+
+    public static Runnable wrap(Runnable task) {
+        Span captured = CURRENT.get();
+        if (captured == null) {
+            return task;
+        }
+        return () -> {
+            Span previous = CURRENT.get();
+            CURRENT.set(captured);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        Span captured = CURRENT.get();
+        if (captured == null) {
+            return task;
+        }
+        return () -> {
+            Span previous = CURRENT.get();
+            CURRENT.set(captured);
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    public static long latestSeq() {
+        return RING.latestSeq();
+    }
+
+    public static List<SpanData> range(long afterSeq, long upToSeq) {
+        return RING.range(afterSeq, upToSeq);
+    }
+
+    public static List<SpanData> recentSpans(int limit) {
+        return RING.newest(span -> true, limit);
+    }
+
+    public static List<SpanData> trace(String traceId) {
+        List<SpanData> spans = new ArrayList<>(RING.newest(span -> span.traceId().equals(traceId), RING_CAPACITY));
+        spans.sort(Comparator.comparingLong(SpanData::startEpochNanos));
+        return spans;
+    }
+
+    public static String traceIdForError(String errorId) {
+        List<SpanData> match = RING.newest(span -> errorId.equals(span.errorId()), 1);
+        return match.isEmpty() ? null : match.get(0).traceId();
+    }
+
+    // One row per trace seen in the ring, newest first.
+    public static List<Map<String, Object>> recentTraces(int limit) {
+        Map<String, List<SpanData>> byTrace = new LinkedHashMap<>();
+        for (SpanData span : RING.newest(span -> true, RING_CAPACITY)) {
+            if (byTrace.size() >= limit && !byTrace.containsKey(span.traceId())) {
+                continue;
+            }
+            byTrace.computeIfAbsent(span.traceId(), id -> new ArrayList<>()).add(span);
+        }
+        List<Map<String, Object>> traces = new ArrayList<>();
+        for (Map.Entry<String, List<SpanData>> entry : byTrace.entrySet()) {
+            traces.add(summarize(entry.getKey(), entry.getValue()));
+        }
+        return traces;
+    }
+
+    private static Map<String, Object> summarize(String traceId, List<SpanData> spans) {
+        Set<String> spanIds = new LinkedHashSet<>();
+        long start = Long.MAX_VALUE;
+        long end = Long.MIN_VALUE;
+        Set<String> errorIds = new LinkedHashSet<>();
+        boolean error = false;
+        for (SpanData span : spans) {
+            spanIds.add(span.spanId());
+            start = Math.min(start, span.startEpochNanos());
+            end = Math.max(end, span.endEpochNanos());
+            error |= span.error();
+            if (span.errorId() != null) {
+                errorIds.add(span.errorId());
+            }
+        }
+        // The root is the earliest span whose parent is not in the ring (remote or already evicted).
+        SpanData root = spans.stream()
+                .filter(span -> span.parentSpanId() == null || !spanIds.contains(span.parentSpanId()))
+                .min(Comparator.comparingLong(SpanData::startEpochNanos))
+                .orElse(spans.get(0));
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("traceId", traceId);
+        summary.put("root", root.name());
+        summary.put("startEpochMs", start / 1_000_000L);
+        summary.put("durationMs", Math.round((end - start) / 1_000.0) / 1000.0);
+        summary.put("spans", spans.size());
+        summary.put("error", error);
+        summary.put("errorIds", List.copyOf(errorIds));
+        return summary;
+    }
+
+    static void restore(Span previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    static void finished(SpanData span) {
+        RING.add(span);
+    }
+
+    static String newSpanId() {
+        return HEX.toHexDigits(nonZeroLong());
+    }
+
+    private static String newTraceId() {
+        return HEX.toHexDigits(nonZeroLong()) + HEX.toHexDigits(ThreadLocalRandom.current().nextLong());
+    }
+
+    private static long nonZeroLong() {
+        long value;
+        do {
+            value = ThreadLocalRandom.current().nextLong();
+        } while (value == 0);
+        return value;
+    }
+}
@@ -10,6 +10,7 @@ import dev.eministar.nebiupdate.data.UpdateEntry;
 import dev.eministar.nebiupdate.data.UpdateRepository;
 import dev.eministar.nebiupdate.data.UpdateType;
 import dev.eministar.nebiupdate.data.WeeklyMessageRecord;
+import dev.eministar.nebiupdate.jobs.JobProgress;
 
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -68,6 +69,16 @@ public final class DataPortService {
     }
 
     public ImportResult importJson(String payload, boolean replaceData, boolean replaceConfig, boolean replaceAudit) {
+        return importJson(payload, replaceData, replaceConfig, replaceAudit, JobProgress.NONE);
+    }
+
+    public ImportResult importJson(
+            String payload,
+            boolean replaceData,
+            boolean replaceConfig,
+            boolean replaceAudit,
+            JobProgress progress
+    ) {
         Snapshot snapshot;
         try {
             snapshot = objectMapper.readValue(payload, Snapshot.class);
@@ -86,7 +97,8 @@ public final class DataPortService {
                     nonNull(update.content()),
                     nonNull(update.author()),
                     parseInstant(update.createdAt()),
-                    parseInstant(update.updatedAt())
+                    parseInstant(update.updatedAt()),
+                    1L
             ));
         }
 
@@ -114,9 +126,11 @@ public final class DataPortService {
             ));
         }
 
+        progress.total(updates.size() + weeklyMessages.size() + auditEntries.size());
         if (replaceData) {
             updateRepository.replaceAll(updates, weeklyMessages);
         }
+        progress.advance(updates.size() + weeklyMessages.size());
         if (replaceConfig && snapshot.config() != null) {
             Map<String, Object> configPayload = new LinkedHashMap<>();
             configPayload.putAll(snapshot.config());
@@ -125,6 +139,7 @@ public final class DataPortService {
         if (replaceAudit) {
             auditRepository.replaceAll(auditEntries);
         }
+        progress.advance(auditEntries.size());
 
         return new ImportResult(
                 updates.size(),
@@ -137,13 +152,19 @@ public final class DataPortService {
     }
 
     public ImportResult importCsv(String csvPayload, String defaultAuthor) {
+        return importCsv(csvPayload, defaultAuthor, JobProgress.NONE);
+    }
+
+    public ImportResult importCsv(String csvPayload, String defaultAuthor, JobProgress progress) {
         List<String> lines = csvPayload == null ? List.of() : csvPayload.lines().toList();
         if (lines.isEmpty()) {
             return new ImportResult(0, 0, 0, false, false, false);
         }
 
+        progress.total(lines.size());
         int created = 0;
         for (int i = 0; i < lines.size(); i++) {
+            progress.advance(1);
             String line = lines.get(i).trim();
             if (line.isBlank()) {
                 continue;
@@ -183,6 +204,10 @@ public final class DataPortService {
     }
 
     public BackupResult createBackupFile() {
+        return createBackupFile(JobProgress.NONE);
+    }
+
+    public BackupResult createBackupFile(JobProgress progress) {
         BotConfig config = configService.get();
         if (!config.backupEnabled()) {
             throw new IllegalStateException("backup_enabled=false");
@@ -191,6 +216,7 @@ public final class DataPortService {
         Path directory = backupDirectory(config);
         ensureDirectory(directory);
 
+        progress.total(1);
         String fileName = "backup-" + BACKUP_FILE_FORMAT.format(java.time.LocalDateTime.now()) + ".json";
         Path target = directory.resolve(fileName).normalize();
         String payload = exportJson(config.backupIncludeAudit());
@@ -201,6 +227,7 @@ public final class DataPortService {
             throw new IllegalStateException("Failed to write backup file", ex);
         }
 
+        progress.advance(1);
         trimBackups(directory, config.backupMaxFiles());
         return new BackupResult(fileName, target.toString(), Files.exists(target));
     }
@@ -235,6 +262,10 @@ public final class DataPortService {
     }
 
     public ImportResult restoreBackup(String fileName, boolean replaceConfig, boolean replaceAudit) {
+        return restoreBackup(fileName, replaceConfig, replaceAudit, JobProgress.NONE);
+    }
+
+    public ImportResult restoreBackup(String fileName, boolean replaceConfig, boolean replaceAudit, JobProgress progress) {
         BotConfig config = configService.get();
         if (!config.backupEnabled()) {
             throw new IllegalStateException("backup_enabled=false");
@@ -258,7 +289,7 @@ public final class DataPortService {
         } catch (Exception ex) {
             throw new IllegalStateException("Failed to read backup file", ex);
         }
-        return importJson(payload, true, replaceConfig, replaceAudit);
+        return importJson(payload, true, replaceConfig, replaceAudit, progress);
     }
 
     private Snapshot snapshot(boolean includeAudit) {
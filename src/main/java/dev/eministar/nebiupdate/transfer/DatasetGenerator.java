@@ -0,0 +1,311 @@
+package dev.eministar.nebiupdate.transfer;
+
+import dev.eministar.nebiupdate.audit.AuditEntry;
+import dev.eministar.nebiupdate.audit.AuditRepository;
+import dev.eministar.nebiupdate.config.BotConfig;
+import dev.eministar.nebiupdate.config.ConfigService;
+import dev.eministar.nebiupdate.data.UpdateEntry;
+import dev.eministar.nebiupdate.data.UpdateRepository;
+import dev.eministar.nebiupdate.data.UpdateType;
+import dev.eministar.nebiupdate.data.WeeklyMessageRecord;
+import dev.eministar.nebiupdate.jobs.JobProgress;
+import dev.eministar.nebiupdate.time.WeekService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+// Synthetic history for scale tests: fills updates, weekly_messages and audit_log for the weeks
+// before the current one, as if the bot had been in use for years. Rows are written through the
+// stores in batches; the current week and existing weekly messages are left alone.
+public final class DatasetGenerator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DatasetGenerator.class);
+    private static final int BATCH_SIZE = 5_000;
+    private static final long DISCORD_EPOCH_MILLIS = 1_420_070_400_000L;
+    private static final List<String> AUTHORS = List.of(
+            "Nebi", "eministar", "Luna", "Moritz", "Jana", "Deniz", "Paul", "Mia",
+            "Ole", "Sophie", "Kerem", "Lea", "Tim", "Hannah", "Yusuf", "Clara"
+    );
+    private static final List<String> OPENERS = List.of(
+            "Neu:", "Fix:", "Verbessert:", "Entfernt:", "Angepasst:", "Intern:", "Hotfix:", "Balancing:"
+    );
+    private static final List<String> WORDS = List.of(
+            "Dashboard", "Server", "Spieler", "Inventar", "Rangliste", "Belohnungen", "Chat", "Discord",
+            "Wochenpost", "Ladezeit", "Absturz", "Anmeldung", "Berechtigungen", "Kanal", "Rollen", "Events",
+            "Shop", "Quests", "Karte", "Spawn", "Backup", "Datenbank", "Einstellungen", "Benachrichtigungen",
+            "wurde", "werden", "jetzt", "nicht", "mehr", "beim", "nach", "dem", "der", "die", "das", "für",
+            "bei", "mit", "ohne", "schneller", "stabiler", "korrekt", "angezeigt", "gespeichert", "entfernt",
+            "hinzugefügt", "überarbeitet", "deutlich", "wieder", "falsch", "doppelt", "automatisch", "neue",
+            "alte", "einige", "alle", "Texte", "Farben", "Icons", "Filter", "Suche", "Export", "Import"
+    );
+
+    private final ConfigService configService;
+    private final UpdateRepository updateRepository;
+    private final AuditRepository auditRepository;
+    private final WeekService weekService;
+
+    public DatasetGenerator(
+            ConfigService configService,
+            UpdateRepository updateRepository,
+            AuditRepository auditRepository,
+            WeekService weekService
+    ) {
+        this.configService = configService;
+        this.updateRepository = updateRepository;
+        this.auditRepository = auditRepository;
+        this.weekService = weekService;
+    }
+
+    // Ids are taken from the store once at the start; concurrent writes during a run may collide.
+    public Result generate(Spec spec, JobProgress progress) {
+        long started = System.nanoTime();
+        Instant now = Instant.now();
+        BotConfig config = configService.get();
+        ZoneId zone = ZoneId.of(config.timezone());
+        LocalDate currentWeek = weekService.currentWeek(config).start();
+        Set<LocalDate> weeksWithMessage = new HashSet<>();
+        for (WeeklyMessageRecord record : updateRepository.findAllWeeklyMessages()) {
+            weeksWithMessage.add(record.weekStart());
+        }
+
+        Random random = new Random(spec.seed());
+        List<String> authors = authors(spec.authors());
+        double[] authorWeights = zipfCumulative(authors.size());
+        long nextId = updateRepository.highestAssignedId() + 1;
+
+        List<UpdateEntry> updates = new ArrayList<>(BATCH_SIZE + 256);
+        List<WeeklyMessageRecord> messages = new ArrayList<>();
+        List<AuditEntry> audits = new ArrayList<>(BATCH_SIZE * 2);
+        long updateCount = 0;
+        long messageCount = 0;
+        long auditCount = 0;
+        progress.total(spec.weeks());
+
+        // Oldest week first, so ids and audit rows grow with time like in a real installation.
+        for (int offset = spec.weeks(); offset >= 1; offset--) {
+            LocalDate weekStart = currentWeek.minusWeeks(offset);
+            int count = poisson(random, spec.entriesPerWeek());
+            List<AuditEntry> weekAudits = new ArrayList<>(count * 2 + 1);
+            for (int i = 0; i < count; i++) {
+                UpdateEntry entry = entry(random, spec, nextId++, weekStart, zone, now, authors, authorWeights);
+                updates.add(entry);
+                weekAudits.addAll(auditTrail(random, entry));
+            }
+            if (count > 0 && weeksWithMessage.add(weekStart)) {
+                Instant postedAt = weekService.weekFromStart(weekStart).end().plusDays(1).atTime(LocalTime.of(9, 0)).atZone(zone).toInstant();
+                String messageId = snowflake(postedAt, offset);
+                messages.add(new WeeklyMessageRecord(weekStart, emptyAs(config.channelId(), "0"), messageId, postedAt));
+                weekAudits.add(new AuditEntry(0L, postedAt, "system", "discord", "weekly.message.created", "weekly_message", weekStart.toString(),
+                        "{messageId=" + messageId + ", entryCount=" + count + "}"));
+            }
+            weekAudits.sort(Comparator.comparing(AuditEntry::createdAt));
+            audits.addAll(weekAudits);
+
+            if (updates.size() >= BATCH_SIZE || offset == 1) {
+                updateRepository.insertBatch(updates, messages);
+                auditRepository.appendAll(audits);
+                updateCount += updates.size();
+                messageCount += messages.size();
+                auditCount += audits.size();
+                LOGGER.debug("Generated {} updates so far (week {})", updateCount, weekStart);
+                updates.clear();
+                messages.clear();
+                audits.clear();
+            }
+            progress.advance(1);
+        }
+
+        long durationMillis = Duration.ofNanos(System.nanoTime() - started).toMillis();
+        LOGGER.info(
+                "Generated dataset: {} weeks, {} updates, {} weekly messages, {} audit entries in {} ms",
+                spec.weeks(), updateCount, messageCount, auditCount, durationMillis
+        );
+        return new Result(spec.weeks(), updateCount, messageCount, auditCount, durationMillis);
+    }
+
+    private UpdateEntry entry(
+            Random random,
+            Spec spec,
+            long id,
+            LocalDate weekStart,
+            ZoneId zone,
+            Instant now,
+            List<String> authors,
+            double[] authorWeights
+    ) {
+        double roll = random.nextDouble();
+        UpdateType type = roll < 0.45 ? UpdateType.ADDED : roll < 0.85 ? UpdateType.CHANGED : UpdateType.REMOVED;
+        // Mostly working days and hours.
+        int day = random.nextDouble() < 0.85 ? random.nextInt(5) : 5 + random.nextInt(2);
+        LocalTime time = LocalTime.of(8 + random.nextInt(14), random.nextInt(60), random.nextInt(60));
+        Instant createdAt = weekStart.plusDays(day).atTime(time).atZone(zone).toInstant();
+        Instant updatedAt = createdAt;
+        long version = 1L;
+        if (random.nextDouble() < 0.2) {
+            version += 1 + random.nextInt(3);
+            Instant editedAt = createdAt.plusSeconds(60 + random.nextInt(48 * 3600));
+            updatedAt = editedAt.isAfter(now) ? now : editedAt;
+        }
+        String author = authors.get(pick(random, authorWeights));
+        return new UpdateEntry(id, weekStart, type, content(random, spec), author, createdAt, updatedAt, version);
+    }
+
+    private List<AuditEntry> auditTrail(Random random, UpdateEntry entry) {
+        List<AuditEntry> trail = new ArrayList<>(2);
+        String source = random.nextDouble() < 0.6 ? "dashboard" : "discord";
+        String id = Long.toString(entry.id());
+        trail.add(new AuditEntry(0L, entry.createdAt(), entry.author(), source, "update.create", "update", id,
+                "{weekStart=" + entry.weekStart() + ", type=" + entry.type().key() + "}"));
+        if (entry.version() > 1) {
+            trail.add(new AuditEntry(0L, entry.updatedAt(), entry.author(), source, "update.edit", "update", id,
+                    "{weekStart=" + entry.weekStart() + ", type=" + entry.type().key() + "}"));
+        }
+        return trail;
+    }
+
+    // Short entries are common, long ones rare: log-uniform between the configured bounds.
+    private String content(Random random, Spec spec) {
+        double logMin = Math.log(spec.minContentLength());
+        double logMax = Math.log(spec.maxContentLength());
+        int length = (int) Math.round(Math.exp(logMin + random.nextDouble() * (logMax - logMin)));
+        StringBuilder builder = new StringBuilder(length + 16);
+        builder.append(OPENERS.get(random.nextInt(OPENERS.size())));
+        while (builder.length() < length) {
+            builder.append(' ').append(WORDS.get(random.nextInt(WORDS.size())));
+        }
+        if (builder.length() > length) {
+            int lastSpace = builder.lastIndexOf(" ", length);
+            builder.setLength(lastSpace > length / 2 ? lastSpace : length);
+        }
+        return builder.toString().trim();
+    }
+
+    private static List<String> authors(int count) {
+        List<String> authors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            authors.add(i < AUTHORS.size() ? AUTHORS.get(i) : "Autor " + (i + 1));
+        }
+        return authors;
+    }
+
+    // A few authors write most of the entries.
+    private static double[] zipfCumulative(int count) {
+        double[] cumulative = new double[count];
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < count; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int pick(Random random, double[] cumulative) {
+        double roll = random.nextDouble();
+        for (int i = 0; i < cumulative.length; i++) {
+            if (roll < cumulative[i]) {
+                return i;
+            }
+        }
+        return cumulative.length - 1;
+    }
+
+    private static int poisson(Random random, double mean) {
+        if (mean <= 0) {
+            return 0;
+        }
+        if (mean > 30) {
+            return Math.max(0, (int) Math.round(mean + random.nextGaussian() * Math.sqrt(mean)));
+        }
+        double limit = Math.exp(-mean);
+        double product = random.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            count++;
+        }
+        return count;
+    }
+
+    private static String snowflake(Instant at, int sequence) {
+        return Long.toString(((at.toEpochMilli() - DISCORD_EPOCH_MILLIS) << 22) | (sequence & 0xFFF));
+    }
+
+    private static String emptyAs(String value, String fallback) {
+        return value == null || value.isBlank() ? fallback : value;
+    }
+
+    public record Spec(
+            int weeks,
+            double entriesPerWeek,
+            int minContentLength,
+            int maxContentLength,
+            int authors,
+            long seed
+    ) {
+        public static final Spec DEFAULT = new Spec(260, 25, 20, 400, 12, 42L);
+
+        public Spec {
+            if (weeks < 1 || weeks > 5_000) {
+                throw new IllegalArgumentException("Wochen müssen zwischen 1 und 5000 liegen.");
+            }
+            if (entriesPerWeek < 0 || entriesPerWeek > 100_000) {
+                throw new IllegalArgumentException("Einträge pro Woche müssen zwischen 0 und 100000 liegen.");
+            }
+            if (minContentLength < 1 || maxContentLength < minContentLength || maxContentLength > 4_000) {
+                throw new IllegalArgumentException("Textlänge: 1 <= min <= max <= 4000.");
+            }
+            if (authors < 1 || authors > 10_000) {
+                throw new IllegalArgumentException("Autoren müssen zwischen 1 und 10000 liegen.");
+            }
+        }
+
+        // Accepts "key=value" and "--key=value": weeks, per-week, min-length, max-length, authors, seed.
+        public static Spec parse(List<String> args) {
+            Map<String, String> values = new LinkedHashMap<>();
+            for (String arg : args) {
+                String trimmed = arg.startsWith("--") ? arg.substring(2) : arg;
+                int separator = trimmed.indexOf('=');
+                if (separator <= 0) {
+                    throw new IllegalArgumentException("Option ohne Wert: " + arg);
+                }
+                values.put(trimmed.substring(0, separator).toLowerCase(Locale.ROOT), trimmed.substring(separator + 1));
+            }
+            try {
+                Spec spec = new Spec(
+                        Integer.parseInt(values.getOrDefault("weeks", Integer.toString(DEFAULT.weeks()))),
+                        Double.parseDouble(values.getOrDefault("per-week", Double.toString(DEFAULT.entriesPerWeek()))),
+                        Integer.parseInt(values.getOrDefault("min-length", Integer.toString(DEFAULT.minContentLength()))),
+                        Integer.parseInt(values.getOrDefault("max-length", Integer.toString(DEFAULT.maxContentLength()))),
+                        Integer.parseInt(values.getOrDefault("authors", Integer.toString(DEFAULT.authors()))),
+                        Long.parseLong(values.getOrDefault("seed", Long.toString(DEFAULT.seed())))
+                );
+                values.keySet().removeAll(List.of("weeks", "per-week", "min-length", "max-length", "authors", "seed"));
+                if (!values.isEmpty()) {
+                    throw new IllegalArgumentException("Unbekannte Option: " + values.keySet().iterator().next());
+                }
+                return spec;
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Ungültige Zahl: " + ex.getMessage());
+            }
+        }
+    }
+
+    public record Result(int weeks, long updates, long weeklyMessages, long auditEntries, long durationMillis) {
+    }
+}
@@ -0,0 +1,31 @@
+package dev.eministar.nebiupdate.transfer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Bounded key -> update id memory for ingest retries. The least recently used keys are dropped once
+// the capacity is reached; keys live in memory only, so a restart forgets them.
+final class IdempotencyKeys {
+    private final Map<String, Long> entries;
+
+    IdempotencyKeys(int capacity) {
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    synchronized Long find(String key) {
+        return entries.get(key);
+    }
+
+    synchronized void remember(String key, long updateId) {
+        entries.put(key, updateId);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,188 @@
+package dev.eministar.nebiupdate.transfer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.eministar.nebiupdate.config.ConfigService;
+import dev.eministar.nebiupdate.data.UpdateDraft;
+import dev.eministar.nebiupdate.data.UpdateEntry;
+import dev.eministar.nebiupdate.data.UpdateRepository;
+import dev.eministar.nebiupdate.data.UpdateType;
+import dev.eministar.nebiupdate.time.WeekService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Batch intake for CI/release tooling: one NDJSON line per entry, any week. A batch is validated
+// completely before anything is written, then stored in one transaction. Lines with an idempotency
+// key that was already ingested (or repeats within the batch) are reported as duplicates instead.
+public final class IngestService {
+    public static final int MAX_LINES = 5_000;
+    private static final int MAX_KEY_LENGTH = 128;
+    private static final int KEY_CAPACITY = 20_000;
+
+    private final ConfigService configService;
+    private final UpdateRepository updateRepository;
+    private final WeekService weekService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final IdempotencyKeys keys = new IdempotencyKeys(KEY_CAPACITY);
+    private final ReentrantLock ingestLock = new ReentrantLock();
+
+    public IngestService(ConfigService configService, UpdateRepository updateRepository, WeekService weekService) {
+        this.configService = configService;
+        this.updateRepository = updateRepository;
+        this.weekService = weekService;
+    }
+
+    // Serialized so that the key check and the insert of a batch can't interleave with another batch.
+    public IngestResult ingest(String ndjson, String defaultAuthor) {
+        ingestLock.lock();
+        try {
+            List<String> lines = ndjson == null ? List.of() : ndjson.lines().toList();
+            LocalDate currentWeek = weekService.currentWeek(configService.get()).start();
+
+            List<String> errors = new ArrayList<>();
+            List<ParsedLine> parsed = new ArrayList<>();
+            int lineCount = 0;
+            for (int i = 0; i < lines.size(); i++) {
+                String line = lines.get(i).trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                lineCount++;
+                if (lineCount > MAX_LINES) {
+                    errors.add("Zu viele Zeilen (max. " + MAX_LINES + " pro Batch)");
+                    break;
+                }
+                parseLine(i + 1, line, currentWeek, defaultAuthor, errors).ifPresent(parsed::add);
+            }
+            if (!errors.isEmpty()) {
+                return IngestResult.rejected(errors);
+            }
+
+            // items[i] belongs to parsed[i]; new lines are filled in after the insert.
+            ItemResult[] items = new ItemResult[parsed.size()];
+            List<Integer> draftSlots = new ArrayList<>();
+            List<UpdateDraft> drafts = new ArrayList<>();
+            Map<String, Integer> firstSlotByKey = new LinkedHashMap<>();
+            Map<Integer, Integer> repeatedInBatch = new LinkedHashMap<>();
+            for (int slot = 0; slot < parsed.size(); slot++) {
+                ParsedLine line = parsed.get(slot);
+                if (line.key() != null) {
+                    Long knownId = keys.find(line.key());
+                    if (knownId != null) {
+                        items[slot] = line.result("duplicate", knownId);
+                        continue;
+                    }
+                    Integer firstSlot = firstSlotByKey.putIfAbsent(line.key(), slot);
+                    if (firstSlot != null) {
+                        repeatedInBatch.put(slot, firstSlot);
+                        continue;
+                    }
+                }
+                draftSlots.add(slot);
+                drafts.add(line.draft());
+            }
+
+            List<UpdateEntry> created = updateRepository.createAll(drafts);
+            Set<LocalDate> weeks = new LinkedHashSet<>();
+            for (int i = 0; i < created.size(); i++) {
+                UpdateEntry entry = created.get(i);
+                int slot = draftSlots.get(i);
+                ParsedLine line = parsed.get(slot);
+                items[slot] = line.result("created", entry.id());
+                if (line.key() != null) {
+                    keys.remember(line.key(), entry.id());
+                }
+                weeks.add(entry.weekStart());
+            }
+            repeatedInBatch.forEach((slot, firstSlot) -> items[slot] = parsed.get(slot).result("duplicate", items[firstSlot].id()));
+            return new IngestResult(true, List.of(), List.of(items), created.size(), items.length - created.size(), List.copyOf(weeks));
+        } finally {
+            ingestLock.unlock();
+        }
+    }
+
+    private Optional<ParsedLine> parseLine(int lineNumber, String line, LocalDate currentWeek, String defaultAuthor, List<String> errors) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (Exception ex) {
+            errors.add("Zeile " + lineNumber + ": kein gültiges JSON");
+            return Optional.empty();
+        }
+        if (node == null || !node.isObject()) {
+            errors.add("Zeile " + lineNumber + ": JSON-Objekt erwartet");
+            return Optional.empty();
+        }
+
+        String text = text(node, "text");
+        if (text.isBlank()) {
+            text = text(node, "content");
+        }
+        if (text.isBlank()) {
+            errors.add("Zeile " + lineNumber + ": Text ist erforderlich");
+            return Optional.empty();
+        }
+        Optional<UpdateType> type = UpdateType.fromKey(text(node, "type"));
+        if (type.isEmpty()) {
+            errors.add("Zeile " + lineNumber + ": Ungültiger Typ");
+            return Optional.empty();
+        }
+
+        LocalDate weekStart = currentWeek;
+        String weekRaw = text(node, "week");
+        if (!weekRaw.isBlank()) {
+            try {
+                weekStart = weekService.weekForDate(LocalDate.parse(weekRaw)).start();
+            } catch (Exception ex) {
+                errors.add("Zeile " + lineNumber + ": Ungültige Woche (YYYY-MM-DD)");
+                return Optional.empty();
+            }
+        }
+
+        String key = text(node, "key");
+        if (key.length() > MAX_KEY_LENGTH) {
+            errors.add("Zeile " + lineNumber + ": Idempotency-Key ist zu lang (max. " + MAX_KEY_LENGTH + ")");
+            return Optional.empty();
+        }
+        String author = text(node, "author");
+        if (author.isBlank()) {
+            author = defaultAuthor;
+        }
+        return Optional.of(new ParsedLine(lineNumber, key.isBlank() ? null : key, new UpdateDraft(weekStart, type.get(), text, author)));
+    }
+
+    private String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? "" : value.asText().trim();
+    }
+
+    private record ParsedLine(int lineNumber, String key, UpdateDraft draft) {
+        ItemResult result(String status, long id) {
+            return new ItemResult(lineNumber, key, status, id, draft.weekStart().toString());
+        }
+    }
+
+    public record ItemResult(int line, String key, String status, long id, String weekStart) {
+    }
+
+    public record IngestResult(
+            boolean accepted,
+            List<String> errors,
+            List<ItemResult> items,
+            int created,
+            int duplicates,
+            List<LocalDate> affectedWeeks
+    ) {
+        static IngestResult rejected(List<String> errors) {
+            return new IngestResult(false, List.copyOf(errors), List.of(), 0, 0, List.of());
+        }
+    }
+}
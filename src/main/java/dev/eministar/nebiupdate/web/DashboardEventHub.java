@@ -0,0 +1,178 @@
+package dev.eministar.nebiupdate.web;
+
+import dev.eministar.nebiupdate.data.ChangeFeed;
+import dev.eministar.nebiupdate.data.UpdateEvent;
+import io.javalin.http.sse.SseClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+// Fans typed change events out to the connected dashboard tabs (Server-Sent Events).
+// All sends run on one thread, so events reach every client in the same order and a slow
+// client never blocks the writer that triggered the event.
+final class DashboardEventHub implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DashboardEventHub.class);
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_REPLAY = 1000;
+    private static final long HEARTBEAT_SECONDS = 25;
+
+    private final ChangeFeed changeFeed;
+    private final Function<UpdateEvent, Map<String, Object>> eventMapper;
+    private final List<SseClient> clients = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService sender;
+    private long broadcastSeq;
+
+    DashboardEventHub(ChangeFeed changeFeed, Function<UpdateEvent, Map<String, Object>> eventMapper) {
+        this.changeFeed = changeFeed;
+        this.eventMapper = eventMapper;
+        this.broadcastSeq = changeFeed.latestSeq();
+        this.sender = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "dashboard-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sender.scheduleAtFixedRate(this::heartbeat, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    // lastEventId is the highest change-log sequence the client has seen (-1 if unknown). Missed
+    // entry events are replayed before the client joins the broadcast, so nothing is lost or doubled.
+    void connect(SseClient client, long lastEventId) {
+        client.keepAlive();
+        client.onClose(() -> clients.remove(client));
+        submit(() -> {
+            long from = lastEventId < 0 ? broadcastSeq : lastEventId;
+            if (broadcastSeq - from > MAX_REPLAY) {
+                send(client, "entry.replaced", Map.of("kind", "replaced", "seq", broadcastSeq), Long.toString(broadcastSeq));
+            } else {
+                long cursor = from;
+                while (cursor < broadcastSeq) {
+                    List<UpdateEvent> events = changeFeed.since(cursor, BATCH_SIZE);
+                    for (UpdateEvent event : events) {
+                        if (event.seq() > broadcastSeq) {
+                            break;
+                        }
+                        send(client, entryEventName(event), eventMapper.apply(event), Long.toString(event.seq()));
+                    }
+                    if (events.isEmpty()) {
+                        break;
+                    }
+                    cursor = events.getLast().seq();
+                }
+            }
+            send(client, "hello", Map.of("latestSeq", broadcastSeq), null);
+            if (!client.terminated()) {
+                clients.add(client);
+            }
+        });
+    }
+
+    // Called after every update write; concurrent signals collapse into one drain of the change log.
+    void entriesChanged() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            submit(() -> {
+                drainScheduled.set(false);
+                drainEntries();
+            });
+        }
+    }
+
+    void publish(String event, Object data) {
+        submit(() -> {
+            for (SseClient client : clients) {
+                send(client, event, data, null);
+            }
+        });
+    }
+
+    int clientCount() {
+        return clients.size();
+    }
+
+    private void drainEntries() {
+        while (true) {
+            List<UpdateEvent> events = changeFeed.since(broadcastSeq, BATCH_SIZE);
+            if (events.isEmpty()) {
+                return;
+            }
+            for (UpdateEvent event : events) {
+                Map<String, Object> payload = eventMapper.apply(event);
+                String id = Long.toString(event.seq());
+                for (SseClient client : clients) {
+                    send(client, entryEventName(event), payload, id);
+                }
+                broadcastSeq = event.seq();
+            }
+        }
+    }
+
+    private void heartbeat() {
+        for (SseClient client : clients) {
+            if (client.terminated()) {
+                clients.remove(client);
+                continue;
+            }
+            try {
+                client.sendComment("ping");
+            } catch (Exception ex) {
+                clients.remove(client);
+            }
+        }
+    }
+
+    private void send(SseClient client, String event, Object data, String id) {
+        if (client.terminated()) {
+            clients.remove(client);
+            return;
+        }
+        try {
+            if (id == null) {
+                client.sendEvent(event, data);
+            } else {
+                client.sendEvent(event, data, id);
+            }
+        } catch (Exception ex) {
+            LOGGER.debug("Dropping dashboard event client: {}", ex.getMessage());
+            clients.remove(client);
+        }
+    }
+
+    private void submit(Runnable task) {
+        try {
+            sender.execute(() -> {
+                try {
+                    task.run();
+                } catch (Exception ex) {
+                    LOGGER.warn("Dashboard event dispatch failed", ex);
+                }
+            });
+        } catch (java.util.concurrent.RejectedExecutionException ignored) {
+            // Hub is shutting down.
+        }
+    }
+
+    private static String entryEventName(UpdateEvent event) {
+        return "entry." + event.kind().key();
+    }
+
+    @Override
+    public void close() {
+        sender.shutdownNow();
+        for (SseClient client : clients) {
+            try {
+                client.close();
+            } catch (Exception ignored) {
+                // Client already gone.
+            }
+        }
+        clients.clear();
+    }
+}
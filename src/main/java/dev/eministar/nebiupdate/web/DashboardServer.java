@@ -4,33 +4,72 @@ import dev.eministar.nebiupdate.audit.AuditEntry;
 import dev.eministar.nebiupdate.audit.AuditService;
 import dev.eministar.nebiupdate.config.BotConfig;
 import dev.eministar.nebiupdate.config.ConfigService;
+import dev.eministar.nebiupdate.data.ChangeFeed;
+import dev.eministar.nebiupdate.data.HistoryCursor;
+import dev.eministar.nebiupdate.data.SqlDiagnostics;
 import dev.eministar.nebiupdate.data.UpdateEntry;
+import dev.eministar.nebiupdate.data.UpdateEvent;
+import dev.eministar.nebiupdate.data.UpdatePage;
 import dev.eministar.nebiupdate.data.UpdateRepository;
+import dev.eministar.nebiupdate.data.UpdateStore;
 import dev.eministar.nebiupdate.data.UpdateType;
 import dev.eministar.nebiupdate.data.WeeklyTypeStats;
+import dev.eministar.nebiupdate.data.WriteOutcome;
 import dev.eministar.nebiupdate.discord.DiscordGateway;
 import dev.eministar.nebiupdate.discord.WeeklyMessageRenderer;
+import dev.eministar.nebiupdate.jfr.FlightRecorderControl;
+import dev.eministar.nebiupdate.jobs.Job;
+import dev.eministar.nebiupdate.jobs.JobService;
 import dev.eministar.nebiupdate.logging.ErrorLogger;
+import dev.eministar.nebiupdate.metrics.Histogram;
+import dev.eministar.nebiupdate.metrics.Metrics;
+import dev.eministar.nebiupdate.runtime.StartupGraph;
+import dev.eministar.nebiupdate.runtime.TaskExecutor;
 import dev.eministar.nebiupdate.time.WeekService;
 import dev.eministar.nebiupdate.time.WeekWindow;
+import dev.eministar.nebiupdate.tracing.OtlpExporter;
+import dev.eministar.nebiupdate.tracing.Span;
+import dev.eministar.nebiupdate.tracing.SpanData;
+import dev.eministar.nebiupdate.tracing.SpanKind;
+import dev.eministar.nebiupdate.tracing.Tracing;
 import dev.eministar.nebiupdate.transfer.DataPortService;
+import dev.eministar.nebiupdate.transfer.IngestService;
 import io.javalin.Javalin;
 import io.javalin.http.Context;
 import io.javalin.http.HttpStatus;
-import io.javalin.http.staticfiles.Location;
+import io.javalin.http.sse.SseHandler;
+import io.javalin.router.Endpoint;
 import io.javalin.util.JavalinBindException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 public final class DashboardServer implements AutoCloseable {
     private static final Logger LOGGER = LoggerFactory.getLogger(DashboardServer.class);
+    private static final List<String> DASHBOARD_SECTIONS = List.of(
+            "status", "config", "updates", "preview", "audit", "analytics", "backups"
+    );
+    private static final Histogram HTTP_REQUESTS = Metrics.histogram(
+            "nebi_http_request_seconds",
+            "Dashboard HTTP request duration by route",
+            "method",
+            "route",
+            "status"
+    );
+    private static final String SPAN_ATTRIBUTE = "nebi.span";
 
     private final ConfigService configService;
     private final UpdateRepository updateRepository;
@@ -40,9 +79,19 @@ public final class DashboardServer implements AutoCloseable {
     private final String dashboardToken;
     private final AuditService auditService;
     private final DataPortService dataPortService;
+    private final ChangeFeed changeFeed;
+    private final JobService jobService;
+    private final IngestService ingestService;
+    private final SqlDiagnostics sqlDiagnostics;
+    private final FlightRecorderControl flightRecorder;
+    private final TaskExecutor tasks;
+    private final StartupGraph startup;
+    private final DataVersion dataVersion = new DataVersion();
+    private final SingleFlight singleFlight = new SingleFlight();
 
-    private final String dashboardHtml;
+    private final StaticAssets staticAssets;
     private Javalin app;
+    private DashboardEventHub eventHub;
 
     public DashboardServer(
             ConfigService configService,
@@ -52,7 +101,14 @@ public final class DashboardServer implements AutoCloseable {
             DiscordGateway discordGateway,
             String dashboardToken,
             AuditService auditService,
-            DataPortService dataPortService
+            DataPortService dataPortService,
+            ChangeFeed changeFeed,
+            JobService jobService,
+            IngestService ingestService,
+            SqlDiagnostics sqlDiagnostics,
+            FlightRecorderControl flightRecorder,
+            TaskExecutor tasks,
+            StartupGraph startup
     ) {
         this.configService = configService;
         this.updateRepository = updateRepository;
@@ -62,52 +118,184 @@ public final class DashboardServer implements AutoCloseable {
         this.dashboardToken = dashboardToken == null ? "" : dashboardToken.trim();
         this.auditService = auditService;
         this.dataPortService = dataPortService;
-        this.dashboardHtml = readResource("/dashboard/index.html");
+        this.changeFeed = changeFeed;
+        this.jobService = jobService;
+        this.ingestService = ingestService;
+        this.sqlDiagnostics = sqlDiagnostics;
+        this.flightRecorder = flightRecorder;
+        this.tasks = tasks;
+        this.startup = startup;
+        this.staticAssets = new StaticAssets("/dashboard");
     }
 
     public void start() {
         BotConfig config = configService.get();
 
+        DashboardEventHub hub = new DashboardEventHub(changeFeed, this::toEventMap);
+        eventHub = hub;
+        updateRepository.addChangeListener(hub::entriesChanged);
+        updateRepository.addChangeListener(dataVersion::bump);
+        configService.addChangeListener(updated -> dataVersion.bump());
+        auditService.addAppendListener(action -> dataVersion.bump());
+        // Jobs write after their request finished (backup files have no other listener).
+        jobService.addFinishListener(job -> {
+            dataVersion.bump();
+            hub.publish("job.finished", job.toMap(jobService.now()));
+        });
+        configService.addChangeListener(updated -> hub.publish("config.changed", updated.toMap()));
+        auditService.addAppendListener(action -> hub.publish("audit.appended", Map.of("action", action)));
+        discordGateway.addSyncListener((weekStart, outcome) -> hub.publish(
+                "sync.finished",
+                Map.of("weekStart", weekStart.toString(), "outcome", outcome)
+        ));
+
+        Metrics.gauge("nebi_dashboard_stream_clients", "Connected /api/stream clients").register(hub::clientCount);
+
         app = Javalin.create(javalinConfig -> {
             javalinConfig.startup.showJavalinBanner = false;
-            javalinConfig.staticFiles.add("/dashboard", Location.CLASSPATH);
+            // Handlers block on the database; virtual threads keep that from pinning Jetty's pool.
+            javalinConfig.concurrency.useVirtualThreads = true;
+            // Labelled with the route template, not the concrete path, to keep the series count bounded.
+            javalinConfig.requestLogger.http((ctx, executionMillis) -> {
+                Endpoint endpoint = ctx.endpoints().lastHttpEndpoint();
+                String route = endpoint == null ? "unmatched" : endpoint.path;
+                HTTP_REQUESTS.labels(
+                        ctx.method().name(),
+                        route,
+                        Integer.toString(ctx.statusCode())
+                ).observeNanos((long) (executionMillis * 1_000_000L));
+                Span span = ctx.attribute(SPAN_ATTRIBUTE);
+                if (span != null) {
+                    span.updateName(ctx.method().name() + " " + route);
+                    span.attribute("http.route", route).attribute("http.status_code", ctx.statusCode());
+                    if (ctx.statusCode() >= 500) {
+                        span.markError(null);
+                    }
+                    span.end();
+                }
+            });
+            // API requests join the caller's trace when a W3C traceparent header is sent. The
+            // long-lived event stream is not traced.
+            javalinConfig.routes.before("/api/*", ctx -> {
+                if (ctx.path().equals("/api/stream")) {
+                    return;
+                }
+                Span span = Tracing.startRemote("HTTP " + ctx.method().name(), SpanKind.SERVER, ctx.header("traceparent"));
+                ctx.attribute(SPAN_ATTRIBUTE, span);
+                ctx.header("traceparent", span.traceparent());
+            });
             if (!dashboardToken.isBlank()) {
                 javalinConfig.routes.before("/api/*", ctx -> {
                     String provided = Optional.ofNullable(ctx.header("X-Dashboard-Token")).orElse("");
+                    // EventSource cannot set headers, so the stream also accepts ?token=.
+                    if (provided.isEmpty() && ctx.path().equals("/api/stream")) {
+                        provided = Optional.ofNullable(ctx.queryParam("token")).orElse("");
+                    }
                     if (!dashboardToken.equals(provided)) {
                         ctx.status(HttpStatus.UNAUTHORIZED).result("Unauthorized");
+                        ctx.skipRemainingHandlers();
                     }
                 });
             }
 
-            javalinConfig.routes.get("/", ctx -> ctx.html(dashboardHtml));
+            // Some writes bypass the listeners above (audit replace on import); any successful API write
+            // invalidates the tags. Rejected writes (400, 401, 412, ...) leave the cached bodies valid.
+            javalinConfig.routes.after("/api/*", ctx -> {
+                int status = ctx.statusCode();
+                if (!ctx.method().name().equals("GET") && status >= 200 && status < 300) {
+                    dataVersion.bump();
+                }
+            });
+
+            javalinConfig.routes.get("/", staticAssets::serveIndex);
+            javalinConfig.routes.get("/assets/{file}", ctx -> staticAssets.serveAsset(ctx, ctx.pathParam("file")));
             javalinConfig.routes.get("/health", ctx -> ctx.result("ok"));
+            // Liveness stays /health; readiness additionally needs every startup phase and a live
+            // Discord connection, so it also drops to 503 while JDA reconnects.
+            javalinConfig.routes.get("/ready", ctx -> {
+                String discordStatus = discordGateway.connectionStatus();
+                boolean ready = startup.isComplete() && startup.failedPhases().isEmpty() && discordGateway.isConnected();
+                ctx.header("Cache-Control", "no-store");
+                ctx.status(ready ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).json(Map.of(
+                        "ready", ready,
+                        "discord", discordStatus,
+                        "phases", startup.snapshot()
+                ));
+            });
+            javalinConfig.routes.get("/metrics", ctx -> {
+                if (!dashboardToken.isBlank() && !isMetricsAuthorized(ctx)) {
+                    ctx.status(HttpStatus.UNAUTHORIZED).result("Unauthorized");
+                    return;
+                }
+                ctx.contentType(Metrics.CONTENT_TYPE);
+                ctx.header("Cache-Control", "no-store");
+                ctx.result(Metrics.scrape());
+            });
 
             javalinConfig.routes.get("/api/status", ctx -> {
                 BotConfig current = configService.get();
                 WeekWindow week = weekService.currentWeek(current);
+                // Shard rows carry live values (gateway ping, guild counts) that no write bumps, so they are part of the tag.
+                List<Map<String, Object>> shards = discordGateway.shardStatus();
+                if (notModified(ctx, week.start(), discordGateway.connectionStatus(), Integer.toHexString(shards.hashCode()))) {
+                    return;
+                }
+                ctx.json(statusPayload(current, week, updateRepository.countByWeek(week.start()), shards));
+            });
+            // One round trip for the dashboard: every selected section is built from the same config
+            // snapshot and week, and the week's entries are read once for updates, preview and status.
+            javalinConfig.routes.get("/api/dashboard", ctx -> {
+                Set<String> sections = parseSections(ctx.queryParam("sections"));
+                Set<String> unknown = new LinkedHashSet<>(sections);
+                unknown.removeAll(DASHBOARD_SECTIONS);
+                if (!unknown.isEmpty()) {
+                    ctx.status(HttpStatus.BAD_REQUEST).json(Map.of(
+                            "error", "Unbekannte Bereiche: " + String.join(", ", unknown),
+                            "allowed", DASHBOARD_SECTIONS
+                    ));
+                    return;
+                }
+                BotConfig current = configService.get();
+                WeekWindow week = weekService.currentWeek(current);
+                List<Map<String, Object>> shards = sections.contains("status") ? discordGateway.shardStatus() : List.of();
+                if (notModified(ctx, week.start(), discordGateway.connectionStatus(), Integer.toHexString(shards.hashCode()))) {
+                    return;
+                }
+                List<UpdateEntry> entries = sections.contains("updates") || sections.contains("preview") || sections.contains("status")
+                        ? updateRepository.findByWeek(week.start())
+                        : List.of();
+
                 Map<String, Object> payload = new LinkedHashMap<>();
-                payload.put("connected", discordGateway.isConnected());
-                payload.put("weekLabel", week.label());
-                payload.put("weekStart", week.start().toString());
-                payload.put("weekEnd", week.end().toString());
-                payload.put("updateCount", updateRepository.countByWeek(week.start()));
-                payload.put("channelId", current.channelId());
-                payload.put("guildId", current.guildId());
-                payload.put("scheduleDay", current.scheduleDay());
-                payload.put("scheduleTime", current.scheduleTime());
-                payload.put("timezone", current.timezone());
-                payload.put("locale", current.locale());
-                payload.put("fallbackLocale", current.fallbackLocale());
-                payload.put("i18nEnabled", current.i18nEnabled());
-                payload.put("auditEnabled", current.auditEnabled());
-                payload.put("analyticsEnabled", current.analyticsEnabled());
-                payload.put("analyticsWeeks", current.analyticsWeeks());
-                payload.put("exportImportEnabled", current.exportImportEnabled());
-                payload.put("backupEnabled", current.backupEnabled());
+                if (sections.contains("status")) {
+                    payload.put("status", statusPayload(current, week, entries.size(), shards));
+                }
+                if (sections.contains("config")) {
+                    payload.put("config", current.toMap());
+                }
+                if (sections.contains("updates")) {
+                    payload.put("updates", entries.stream().map(this::toUpdateMap).toList());
+                }
+                if (sections.contains("preview")) {
+                    payload.put("preview", renderPreview(current, week, entries));
+                }
+                if (sections.contains("audit")) {
+                    int limit = clamp(parseIntSafe(ctx.queryParam("audit_limit"), 120), 1, 1000);
+                    payload.put("audit", auditPayload(current, limit));
+                }
+                if (sections.contains("analytics")) {
+                    payload.put("analytics", analyticsPayload(current));
+                }
+                if (sections.contains("backups")) {
+                    payload.put("backups", backupsPayload(current));
+                }
                 ctx.json(payload);
             });
-            javalinConfig.routes.get("/api/config", ctx -> ctx.json(configService.get().toMap()));
+            javalinConfig.routes.get("/api/config", ctx -> {
+                if (notModified(ctx)) {
+                    return;
+                }
+                ctx.json(configService.get().toMap());
+            });
             javalinConfig.routes.put("/api/config", ctx -> {
                 Map<String, String> before = configService.getRawMap();
                 Map<String, Object> body = ctx.bodyAsClass(Map.class);
@@ -130,10 +318,67 @@ public final class DashboardServer implements AutoCloseable {
             javalinConfig.routes.get("/api/updates/current", ctx -> {
                 BotConfig current = configService.get();
                 WeekWindow week = weekService.currentWeek(current);
+                if (notModified(ctx, week.start())) {
+                    return;
+                }
                 List<UpdateEntry> entries = updateRepository.findByWeek(week.start());
                 ctx.json(entries.stream().map(this::toUpdateMap).toList());
             });
 
+            javalinConfig.routes.get("/api/updates/current/{id}", ctx -> {
+                long id = Long.parseLong(ctx.pathParam("id"));
+                WeekWindow week = weekService.currentWeek(configService.get());
+                Optional<UpdateEntry> entry = updateRepository.findByIdInWeek(id, week.start());
+                if (entry.isEmpty()) {
+                    ctx.status(HttpStatus.NOT_FOUND).json(Map.of("error", "Eintrag nicht gefunden"));
+                    return;
+                }
+                ctx.header("ETag", entityTag(entry.get()));
+                ctx.json(toUpdateMap(entry.get()));
+            });
+
+            javalinConfig.routes.get("/api/updates/history", ctx -> {
+                Optional<LocalDate> from;
+                Optional<LocalDate> to;
+                try {
+                    from = parseWeekParam("from", ctx.queryParam("from"));
+                    to = parseWeekParam("to", ctx.queryParam("to"));
+                } catch (IllegalArgumentException ex) {
+                    ctx.status(HttpStatus.BAD_REQUEST).json(Map.of("error", ex.getMessage()));
+                    return;
+                }
+                String cursorRaw = toStringSafe(ctx.queryParam("cursor")).trim();
+                HistoryCursor cursor;
+                try {
+                    cursor = cursorRaw.isBlank() ? null : HistoryCursor.decode(cursorRaw);
+                } catch (IllegalArgumentException ex) {
+                    ctx.status(HttpStatus.BAD_REQUEST).json(Map.of("error", "Ungültiger Cursor"));
+                    return;
+                }
+                int limit = clamp(parseIntSafe(ctx.queryParam("limit"), 50), 1, 500);
+                UpdatePage page = updateRepository.findHistoryPage(from.orElse(null), to.orElse(null), cursor, limit);
+                Map<String, Object> payload = new LinkedHashMap<>();
+                payload.put("entries", page.entries().stream().map(this::toUpdateMap).toList());
+                payload.put("nextCursor", page.hasMore() ? page.nextCursor().encode() : null);
+                ctx.json(payload);
+            });
+
+            javalinConfig.routes.get("/api/updates/{weekStart}", ctx -> {
+                Optional<LocalDate> weekStart;
+                try {
+                    weekStart = parseWeekParam("weekStart", ctx.pathParam("weekStart"));
+                } catch (IllegalArgumentException ex) {
+                    ctx.status(HttpStatus.BAD_REQUEST).json(Map.of("error", ex.getMessage()));
+                    return;
+                }
+                if (weekStart.isEmpty()) {
+                    ctx.status(HttpStatus.BAD_REQUEST).json(Map.of("error", "Ungültiger Parameter 'weekStart' (erwartet: YYYY-MM-DD)"));
+                    return;
+                }
+                List<UpdateEntry> entries = updateRepository.findByWeek(weekStart.get());
+                ctx.json(entries.stream().map(this::toUpdateMap).toList());
+            });
+
             javalinConfig.routes.post("/api/updates/current", ctx -> {
                 Map<String, Object> body = ctx.bodyAsClass(Map.class);
                 String typeRaw = toStringSafe(body.get("type"));
@@ -167,9 +412,48 @@ public final class DashboardServer implements AutoCloseable {
                         )
                 );
                 discordGateway.requestSyncCurrentWeek(true);
+                ctx.header("ETag", entityTag(created));
                 ctx.status(HttpStatus.CREATED).json(toUpdateMap(created));
             });
 
+            // NDJSON batch intake for CI/release tooling: one transaction, one audit record and one
+            // sync request per affected week for the whole batch.
+            javalinConfig.routes.post("/api/ingest", ctx -> {
+                String actor = actorFromContext(ctx, "ingest");
+                IngestService.IngestResult result = ingestService.ingest(ctx.body(), actor);
+                if (!result.accepted()) {
+                    ctx.status(HttpStatus.BAD_REQUEST).json(Map.of(
+                            "error", "Batch abgelehnt, nichts wurde gespeichert",
+                            "errors", result.errors()
+                    ));
+                    return;
+                }
+                LocalDate currentWeek = weekService.currentWeek(configService.get()).start();
+                if (result.created() > 0) {
+                    auditService.log(
+                            actor,
+                            "ingest",
+                            "ingest.batch",
+                            "update",
+                            "batch",
+                            Map.of(
+                                    "created", result.created(),
+                                    "duplicates", result.duplicates(),
+                                    "weeks", result.affectedWeeks().toString()
+                            )
+                    );
+                }
+                for (LocalDate week : result.affectedWeeks()) {
+                    discordGateway.requestSyncWeek(week, week.equals(currentWeek));
+                }
+                Map<String, Object> payload = new LinkedHashMap<>();
+                payload.put("created", result.created());
+                payload.put("duplicates", result.duplicates());
+                payload.put("affectedWeeks", result.affectedWeeks().stream().map(LocalDate::toString).toList());
+                payload.put("items", result.items());
+                ctx.json(payload);
+            });
+
             javalinConfig.routes.put("/api/updates/current/{id}", ctx -> {
                 long id = Long.parseLong(ctx.pathParam("id"));
                 Map<String, Object> body = ctx.bodyAsClass(Map.class);
@@ -182,6 +466,12 @@ public final class DashboardServer implements AutoCloseable {
                     return;
                 }
                 UpdateEntry existing = existingOpt.get();
+                OptionalLong expectedVersion = expectedVersion(ctx);
+                if (expectedVersion.isEmpty()
+                        || (expectedVersion.getAsLong() != UpdateStore.ANY_VERSION && expectedVersion.getAsLong() != existing.version())) {
+                    respondVersionConflict(ctx, id, week.start());
+                    return;
+                }
 
                 String typeRaw = toStringSafe(body.get("type"));
                 String textRaw = toStringSafe(body.get("text")).trim();
@@ -199,9 +489,13 @@ public final class DashboardServer implements AutoCloseable {
 
                 String content = textRaw.isBlank() ? existing.content() : textRaw;
                 String author = authorRaw.isBlank() ? "Dashboard" : authorRaw;
-                boolean updated = updateRepository.updateInWeek(id, week.start(), type, content, author);
-                if (!updated) {
-                    ctx.status(HttpStatus.INTERNAL_SERVER_ERROR).json(Map.of("error", "Aktualisierung fehlgeschlagen"));
+                WriteOutcome outcome = updateRepository.updateInWeek(id, week.start(), type, content, author, existing.version());
+                if (outcome == WriteOutcome.VERSION_CONFLICT) {
+                    respondVersionConflict(ctx, id, week.start());
+                    return;
+                }
+                if (outcome == WriteOutcome.NOT_FOUND) {
+                    ctx.status(HttpStatus.NOT_FOUND).json(Map.of("error", "Eintrag nicht gefunden"));
                     return;
                 }
                 auditService.log(
@@ -217,6 +511,7 @@ public final class DashboardServer implements AutoCloseable {
                 );
                 discordGateway.requestSyncCurrentWeek(true);
                 UpdateEntry refreshed = updateRepository.findByIdInWeek(id, week.start()).orElse(existing);
+                ctx.header("ETag", entityTag(refreshed));
                 ctx.json(toUpdateMap(refreshed));
             });
 
@@ -224,11 +519,18 @@ public final class DashboardServer implements AutoCloseable {
                 long id = Long.parseLong(ctx.pathParam("id"));
                 BotConfig current = configService.get();
                 WeekWindow week = weekService.currentWeek(current);
-                boolean deleted = updateRepository.deleteInWeek(id, week.start());
-                if (!deleted) {
+                OptionalLong expectedVersion = expectedVersion(ctx);
+                WriteOutcome outcome = expectedVersion.isEmpty()
+                        ? WriteOutcome.VERSION_CONFLICT
+                        : updateRepository.deleteInWeek(id, week.start(), expectedVersion.getAsLong());
+                if (outcome == WriteOutcome.NOT_FOUND) {
                     ctx.status(HttpStatus.NOT_FOUND).json(Map.of("error", "Eintrag nicht gefunden"));
                     return;
                 }
+                if (outcome == WriteOutcome.VERSION_CONFLICT) {
+                    respondVersionConflict(ctx, id, week.start());
+                    return;
+                }
                 auditService.log(
                         actorFromContext(ctx, "dashboard"),
                         "dashboard",
@@ -244,8 +546,10 @@ public final class DashboardServer implements AutoCloseable {
             javalinConfig.routes.get("/api/preview/current", ctx -> {
                 BotConfig current = configService.get();
                 WeekWindow week = weekService.currentWeek(current);
-                List<UpdateEntry> entries = updateRepository.findByWeek(week.start());
-                ctx.result(renderer.renderWeeklyMessage(week, entries, current));
+                if (notModified(ctx, week.start())) {
+                    return;
+                }
+                ctx.result(renderPreview(current, week, null));
             });
 
             javalinConfig.routes.post("/api/actions/sync", ctx -> {
@@ -261,46 +565,18 @@ public final class DashboardServer implements AutoCloseable {
             });
 
             javalinConfig.routes.get("/api/audit", ctx -> {
-                BotConfig current = configService.get();
-                if (!current.auditEnabled()) {
-                    ctx.json(Map.of("enabled", false, "entries", List.of()));
+                if (notModified(ctx)) {
                     return;
                 }
                 int limit = clamp(parseIntSafe(ctx.queryParam("limit"), 120), 1, 1000);
-                List<Map<String, Object>> entries = auditService.recent(limit).stream().map(this::toAuditMap).toList();
-                ctx.json(Map.of("enabled", true, "entries", entries));
+                ctx.json(auditPayload(configService.get(), limit));
             });
 
             javalinConfig.routes.get("/api/analytics", ctx -> {
-                BotConfig current = configService.get();
-                if (!current.analyticsEnabled()) {
-                    ctx.json(Map.of("enabled", false, "weeks", List.of(), "totals", Map.of()));
-                    return;
-                }
-                List<WeeklyTypeStats> weeks = updateRepository.findWeeklyTypeStats(current.analyticsWeeks());
-                int totalAdded = 0;
-                int totalChanged = 0;
-                int totalRemoved = 0;
-                for (WeeklyTypeStats stat : weeks) {
-                    totalAdded += stat.added();
-                    totalChanged += stat.changed();
-                    totalRemoved += stat.removed();
-                }
-                Map<String, Object> totals = new LinkedHashMap<>();
-                totals.put("added", totalAdded);
-                totals.put("changed", totalChanged);
-                totals.put("removed", totalRemoved);
-                totals.put("total", totalAdded + totalChanged + totalRemoved);
-
-                List<Map<String, Object>> series = weeks.stream()
-                        .map(this::toWeeklyStatsMap)
-                        .toList();
-                ctx.json(Map.of(
-                        "enabled", true,
-                        "windowWeeks", current.analyticsWeeks(),
-                        "weeks", series,
-                        "totals", totals
-                ));
+                if (notModified(ctx)) {
+                    return;
+                }
+                ctx.json(analyticsPayload(configService.get()));
             });
 
             javalinConfig.routes.get("/api/export/json", ctx -> {
@@ -344,26 +620,32 @@ public final class DashboardServer implements AutoCloseable {
                 boolean replaceData = boolValue(ctx.queryParam("replace_data"), true);
                 boolean replaceConfig = boolValue(ctx.queryParam("replace_config"), false);
                 boolean replaceAudit = boolValue(ctx.queryParam("replace_audit"), current.backupIncludeAudit());
-                DataPortService.ImportResult result = dataPortService.importJson(
-                        ctx.body(),
-                        replaceData,
-                        replaceConfig,
-                        replaceAudit
-                );
-                auditService.log(
-                        actorFromContext(ctx, "dashboard"),
-                        "dashboard",
-                        "import.json",
-                        "data_port",
-                        "json",
-                        Map.of(
-                                "replaceData", replaceData,
-                                "replaceConfig", replaceConfig,
-                                "replaceAudit", replaceAudit
-                        )
-                );
-                discordGateway.requestSyncCurrentWeek(true);
-                ctx.json(toImportMap(result));
+                String payload = ctx.body();
+                String actor = actorFromContext(ctx, "dashboard");
+                Job job = jobService.submit("import.json", actor, progress -> {
+                    DataPortService.ImportResult result = dataPortService.importJson(
+                            payload,
+                            replaceData,
+                            replaceConfig,
+                            replaceAudit,
+                            progress
+                    );
+                    auditService.log(
+                            actor,
+                            "dashboard",
+                            "import.json",
+                            "data_port",
+                            "json",
+                            Map.of(
+                                    "replaceData", replaceData,
+                                    "replaceConfig", replaceConfig,
+                                    "replaceAudit", replaceAudit
+                            )
+                    );
+                    discordGateway.requestSyncCurrentWeek(true);
+                    return toImportMap(result);
+                });
+                respondAccepted(ctx, job);
             });
 
             javalinConfig.routes.post("/api/import/csv", ctx -> {
@@ -373,30 +655,24 @@ public final class DashboardServer implements AutoCloseable {
                     return;
                 }
                 String defaultAuthor = actorFromContext(ctx, "Dashboard");
-                DataPortService.ImportResult result = dataPortService.importCsv(ctx.body(), defaultAuthor);
-                auditService.log(
-                        defaultAuthor,
-                        "dashboard",
-                        "import.csv",
-                        "data_port",
-                        "csv",
-                        Map.of("importedUpdates", result.importedUpdates())
-                );
-                discordGateway.requestSyncCurrentWeek(true);
-                ctx.json(toImportMap(result));
+                String payload = ctx.body();
+                Job job = jobService.submit("import.csv", defaultAuthor, progress -> {
+                    DataPortService.ImportResult result = dataPortService.importCsv(payload, defaultAuthor, progress);
+                    auditService.log(
+                            defaultAuthor,
+                            "dashboard",
+                            "import.csv",
+                            "data_port",
+                            "csv",
+                            Map.of("importedUpdates", result.importedUpdates())
+                    );
+                    discordGateway.requestSyncCurrentWeek(true);
+                    return toImportMap(result);
+                });
+                respondAccepted(ctx, job);
             });
 
-            javalinConfig.routes.get("/api/backups", ctx -> {
-                BotConfig current = configService.get();
-                if (!current.backupEnabled()) {
-                    ctx.json(Map.of("enabled", false, "items", List.of()));
-                    return;
-                }
-                ctx.json(Map.of(
-                        "enabled", true,
-                        "items", dataPortService.listBackups()
-                ));
-            });
+            javalinConfig.routes.get("/api/backups", ctx -> ctx.json(backupsPayload(configService.get())));
 
             javalinConfig.routes.post("/api/actions/backup", ctx -> {
                 BotConfig current = configService.get();
@@ -404,20 +680,24 @@ public final class DashboardServer implements AutoCloseable {
                     ctx.status(HttpStatus.FORBIDDEN).json(Map.of("error", "Backups sind deaktiviert"));
                     return;
                 }
-                DataPortService.BackupResult backup = dataPortService.createBackupFile();
-                auditService.log(
-                        actorFromContext(ctx, "dashboard"),
-                        "dashboard",
-                        "backup.create",
-                        "backup",
-                        backup.fileName(),
-                        Map.of("path", backup.fullPath())
-                );
-                ctx.json(Map.of(
-                        "ok", true,
-                        "fileName", backup.fileName(),
-                        "path", backup.fullPath()
-                ));
+                String actor = actorFromContext(ctx, "dashboard");
+                Job job = jobService.submit("backup.create", actor, progress -> {
+                    DataPortService.BackupResult backup = dataPortService.createBackupFile(progress);
+                    auditService.log(
+                            actor,
+                            "dashboard",
+                            "backup.create",
+                            "backup",
+                            backup.fileName(),
+                            Map.of("path", backup.fullPath())
+                    );
+                    return Map.of(
+                            "ok", true,
+                            "fileName", backup.fileName(),
+                            "path", backup.fullPath()
+                    );
+                });
+                respondAccepted(ctx, job);
             });
 
             javalinConfig.routes.post("/api/actions/restore", ctx -> {
@@ -430,20 +710,184 @@ public final class DashboardServer implements AutoCloseable {
                 String fileName = toStringSafe(body.get("file"));
                 boolean replaceConfig = boolValue(body.get("replaceConfig"), false);
                 boolean replaceAudit = boolValue(body.get("replaceAudit"), current.backupIncludeAudit());
-                DataPortService.ImportResult restored = dataPortService.restoreBackup(fileName, replaceConfig, replaceAudit);
-                auditService.log(
-                        actorFromContext(ctx, "dashboard"),
-                        "dashboard",
-                        "backup.restore",
-                        "backup",
-                        fileName,
-                        Map.of(
-                                "replaceConfig", replaceConfig,
-                                "replaceAudit", replaceAudit
-                        )
-                );
-                discordGateway.requestSyncCurrentWeek(true);
-                ctx.json(toImportMap(restored));
+                String actor = actorFromContext(ctx, "dashboard");
+                Job job = jobService.submit("backup.restore", actor, progress -> {
+                    DataPortService.ImportResult restored = dataPortService.restoreBackup(fileName, replaceConfig, replaceAudit, progress);
+                    auditService.log(
+                            actor,
+                            "dashboard",
+                            "backup.restore",
+                            "backup",
+                            fileName,
+                            Map.of(
+                                    "replaceConfig", replaceConfig,
+                                    "replaceAudit", replaceAudit
+                            )
+                    );
+                    discordGateway.requestSyncCurrentWeek(true);
+                    return toImportMap(restored);
+                });
+                respondAccepted(ctx, job);
+            });
+
+            javalinConfig.routes.get("/api/jobs", ctx -> {
+                int limit = clamp(parseIntSafe(ctx.queryParam("limit"), 20), 1, 200);
+                List<Map<String, Object>> items = jobService.recent(limit).stream()
+                        .map(job -> job.toMap(jobService.now()))
+                        .toList();
+                ctx.json(Map.of(
+                        "queueDepth", jobService.queueDepth(),
+                        "active", jobService.activeCount(),
+                        "items", items
+                ));
+            });
+
+            javalinConfig.routes.get("/api/jobs/{id}", ctx -> {
+                Optional<Job> job = jobService.find(ctx.pathParam("id"));
+                if (job.isEmpty()) {
+                    ctx.status(HttpStatus.NOT_FOUND).json(Map.of("error", "Job nicht gefunden"));
+                    return;
+                }
+                ctx.json(job.get().toMap(jobService.now()));
+            });
+
+            javalinConfig.routes.get("/api/diagnostics/tasks", ctx -> {
+                ctx.header("Cache-Control", "no-store");
+                ctx.json(Map.of("maxRunning", tasks.maxRunning(), "classes", tasks.snapshot()));
+            });
+
+            javalinConfig.routes.get("/api/diagnostics/sql", ctx -> {
+                int limit = clamp(parseIntSafe(ctx.queryParam("limit"), 10), 1, 100);
+                ctx.header("Cache-Control", "no-store");
+                ctx.json(sqlDiagnostics.snapshot(limit));
+            });
+
+            javalinConfig.routes.delete("/api/diagnostics/sql", ctx -> {
+                sqlDiagnostics.reset();
+                ctx.json(Map.of("ok", true));
+            });
+
+            javalinConfig.routes.get("/api/diagnostics/traces", ctx -> {
+                ctx.header("Cache-Control", "no-store");
+                String errorId = ctx.queryParam("errorId");
+                if (errorId != null && !errorId.isBlank()) {
+                    String traceId = Tracing.traceIdForError(errorId.trim());
+                    if (traceId == null) {
+                        ctx.status(HttpStatus.NOT_FOUND).json(Map.of("error", "Kein Trace zu dieser Fehler-ID im Puffer"));
+                        return;
+                    }
+                    ctx.json(Map.of("traceId", traceId, "spans", Tracing.trace(traceId).stream().map(SpanData::toMap).toList()));
+                    return;
+                }
+                if ("otlp".equals(ctx.queryParam("format"))) {
+                    sendOtlp(ctx, Tracing.recentSpans(Integer.MAX_VALUE), "nebiupdate-traces.json");
+                    return;
+                }
+                int limit = clamp(parseIntSafe(ctx.queryParam("limit"), 50), 1, 500);
+                ctx.json(Map.of("traces", Tracing.recentTraces(limit)));
+            });
+
+            javalinConfig.routes.get("/api/diagnostics/traces/{traceId}", ctx -> {
+                String traceId = ctx.pathParam("traceId");
+                List<SpanData> spans = Tracing.trace(traceId);
+                if (spans.isEmpty()) {
+                    ctx.status(HttpStatus.NOT_FOUND).json(Map.of("error", "Trace nicht im Puffer"));
+                    return;
+                }
+                if ("otlp".equals(ctx.queryParam("format"))) {
+                    sendOtlp(ctx, spans, "trace-" + traceId + ".json");
+                    return;
+                }
+                ctx.json(Map.of("traceId", traceId, "spans", spans.stream().map(SpanData::toMap).toList()));
+            });
+
+            javalinConfig.routes.get("/api/diagnostics/jfr", ctx -> {
+                ctx.header("Cache-Control", "no-store");
+                ctx.json(flightRecorder.status());
+            });
+
+            javalinConfig.routes.post("/api/diagnostics/jfr/{action}", ctx -> {
+                String action = ctx.pathParam("action");
+                try {
+                    switch (action) {
+                        case "start" -> flightRecorder.start();
+                        case "stop" -> flightRecorder.stop();
+                        case "dump" -> {
+                            String file = flightRecorder.dump().getFileName().toString();
+                            auditService.log(actorFromContext(ctx, "dashboard"), "dashboard", "diagnostics.jfr.dump", "jfr", file, Map.of());
+                            ctx.json(Map.of("ok", true, "file", file));
+                            return;
+                        }
+                        default -> {
+                            ctx.status(HttpStatus.NOT_FOUND).json(Map.of("error", "Unbekannte Aktion"));
+                            return;
+                        }
+                    }
+                    ctx.json(flightRecorder.status());
+                } catch (IllegalStateException ex) {
+                    ctx.status(HttpStatus.CONFLICT).json(Map.of("error", ex.getMessage()));
+                }
+            });
+
+            javalinConfig.routes.get("/api/diagnostics/jfr/dumps/{file}", ctx -> {
+                Optional<Path> dump = flightRecorder.findDump(ctx.pathParam("file"));
+                if (dump.isEmpty()) {
+                    ctx.status(HttpStatus.NOT_FOUND).json(Map.of("error", "Dump nicht gefunden"));
+                    return;
+                }
+                ctx.header("Content-Disposition", "attachment; filename=\"" + dump.get().getFileName() + "\"");
+                ctx.contentType("application/octet-stream");
+                ctx.result(Files.newInputStream(dump.get()));
+            });
+
+            javalinConfig.routes.get("/api/events", ctx -> {
+                long after = parseLongSafe(ctx.queryParam("after"), 0L);
+                int limit = clamp(parseIntSafe(ctx.queryParam("limit"), 100), 1, 1000);
+                Map<String, Object> payload = new LinkedHashMap<>();
+                payload.put("latestSeq", changeFeed.latestSeq());
+                payload.put("events", changeFeed.since(after, limit).stream().map(this::toEventMap).toList());
+                ctx.json(payload);
+            });
+
+            javalinConfig.routes.get("/api/events/consumers/{consumer}", ctx -> {
+                String consumer = ctx.pathParam("consumer");
+                int limit = clamp(parseIntSafe(ctx.queryParam("limit"), 100), 1, 1000);
+                try {
+                    long cursor = changeFeed.cursor(consumer);
+                    Map<String, Object> payload = new LinkedHashMap<>();
+                    payload.put("consumer", consumer);
+                    payload.put("cursor", cursor);
+                    payload.put("latestSeq", changeFeed.latestSeq());
+                    payload.put("events", changeFeed.since(cursor, limit).stream().map(this::toEventMap).toList());
+                    ctx.json(payload);
+                } catch (IllegalArgumentException ex) {
+                    ctx.status(HttpStatus.BAD_REQUEST).json(Map.of("error", ex.getMessage()));
+                }
+            });
+
+            javalinConfig.routes.put("/api/events/consumers/{consumer}", ctx -> {
+                String consumer = ctx.pathParam("consumer");
+                Map<String, Object> body = ctx.bodyAsClass(Map.class);
+                long seq = parseLongSafe(toStringSafe(body.get("seq")), -1L);
+                try {
+                    changeFeed.acknowledge(consumer, seq);
+                    ctx.json(Map.of("consumer", consumer, "cursor", seq));
+                } catch (IllegalArgumentException ex) {
+                    ctx.status(HttpStatus.BAD_REQUEST).json(Map.of("error", ex.getMessage()));
+                }
+            });
+
+            javalinConfig.routes.get("/api/stream", new SseHandler(client -> {
+                String lastEventId = Optional.ofNullable(client.ctx().header("Last-Event-ID"))
+                        .orElse(client.ctx().queryParam("lastEventId"));
+                hub.connect(client, parseLongSafe(lastEventId, -1L));
+            }));
+
+            javalinConfig.routes.exception(RejectedExecutionException.class, (ex, ctx) -> {
+                ctx.header("Retry-After", "5");
+                ctx.status(HttpStatus.SERVICE_UNAVAILABLE).json(Map.of(
+                        "error", "Zu viele laufende Jobs, bitte später erneut versuchen"
+                ));
             });
 
             javalinConfig.routes.exception(Exception.class, (ex, ctx) -> {
@@ -469,6 +913,113 @@ public final class DashboardServer implements AutoCloseable {
         }
     }
 
+    private Map<String, Object> statusPayload(BotConfig current, WeekWindow week, int updateCount, List<Map<String, Object>> shards) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("connected", discordGateway.isConnected());
+        payload.put("shards", shards);
+        payload.put("weekLabel", week.label());
+        payload.put("weekStart", week.start().toString());
+        payload.put("weekEnd", week.end().toString());
+        payload.put("updateCount", updateCount);
+        payload.put("channelId", current.channelId());
+        payload.put("guildId", current.guildId());
+        payload.put("scheduleDay", current.scheduleDay());
+        payload.put("scheduleTime", current.scheduleTime());
+        payload.put("timezone", current.timezone());
+        payload.put("locale", current.locale());
+        payload.put("fallbackLocale", current.fallbackLocale());
+        payload.put("i18nEnabled", current.i18nEnabled());
+        payload.put("auditEnabled", current.auditEnabled());
+        payload.put("analyticsEnabled", current.analyticsEnabled());
+        payload.put("analyticsWeeks", current.analyticsWeeks());
+        payload.put("exportImportEnabled", current.exportImportEnabled());
+        payload.put("backupEnabled", current.backupEnabled());
+        return payload;
+    }
+
+    private Map<String, Object> auditPayload(BotConfig current, int limit) {
+        if (!current.auditEnabled()) {
+            return Map.of("enabled", false, "entries", List.of());
+        }
+        List<Map<String, Object>> entries = auditService.recent(limit).stream().map(this::toAuditMap).toList();
+        return Map.of("enabled", true, "entries", entries);
+    }
+
+    private Map<String, Object> analyticsPayload(BotConfig current) {
+        if (!current.analyticsEnabled()) {
+            return Map.of("enabled", false, "weeks", List.of(), "totals", Map.of());
+        }
+        List<WeeklyTypeStats> weeks = singleFlight.run(
+                flightKey("analytics", current.analyticsWeeks()),
+                () -> updateRepository.findWeeklyTypeStats(current.analyticsWeeks())
+        );
+        int totalAdded = 0;
+        int totalChanged = 0;
+        int totalRemoved = 0;
+        for (WeeklyTypeStats stat : weeks) {
+            totalAdded += stat.added();
+            totalChanged += stat.changed();
+            totalRemoved += stat.removed();
+        }
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("added", totalAdded);
+        totals.put("changed", totalChanged);
+        totals.put("removed", totalRemoved);
+        totals.put("total", totalAdded + totalChanged + totalRemoved);
+
+        List<Map<String, Object>> series = weeks.stream()
+                .map(this::toWeeklyStatsMap)
+                .toList();
+        return Map.of(
+                "enabled", true,
+                "windowWeeks", current.analyticsWeeks(),
+                "weeks", series,
+                "totals", totals
+        );
+    }
+
+    // Entries may be passed in when the caller already read the week; otherwise the flight reads them.
+    private String renderPreview(BotConfig current, WeekWindow week, List<UpdateEntry> entries) {
+        return singleFlight.run(flightKey("preview", week.start()), () -> renderer.renderWeeklyMessage(
+                week,
+                entries != null ? entries : updateRepository.findByWeek(week.start()),
+                current
+        ));
+    }
+
+    // Same data version means same inputs, so concurrent identical requests can share one computation.
+    private String flightKey(String endpoint, Object... scope) {
+        StringBuilder key = new StringBuilder(endpoint).append(':').append(dataVersion.current());
+        for (Object part : scope) {
+            key.append(':').append(part);
+        }
+        return key.toString();
+    }
+
+    private Map<String, Object> backupsPayload(BotConfig current) {
+        if (!current.backupEnabled()) {
+            return Map.of("enabled", false, "items", List.of());
+        }
+        return Map.of(
+                "enabled", true,
+                "items", singleFlight.run(flightKey("backups"), dataPortService::listBackups)
+        );
+    }
+
+    private Set<String> parseSections(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return new LinkedHashSet<>(DASHBOARD_SECTIONS);
+        }
+        Set<String> sections = new LinkedHashSet<>();
+        for (String part : raw.split(",")) {
+            String section = part.trim().toLowerCase(Locale.ROOT);
+            if (!section.isEmpty()) {
+                sections.add(section);
+            }
+        }
+        return sections;
+    }
+
     private Map<String, Object> toUpdateMap(UpdateEntry entry) {
         Map<String, Object> map = new LinkedHashMap<>();
         map.put("id", entry.id());
@@ -478,9 +1029,101 @@ public final class DashboardServer implements AutoCloseable {
         map.put("author", entry.author());
         map.put("createdAt", entry.createdAt().toString());
         map.put("updatedAt", entry.updatedAt().toString());
+        map.put("version", entry.version());
         return map;
     }
 
+    private Map<String, Object> toEventMap(UpdateEvent event) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("seq", event.seq());
+        map.put("kind", event.kind().key());
+        map.put("updateId", event.updateId());
+        map.put("weekStart", event.weekStart() == null ? null : event.weekStart().toString());
+        map.put("type", event.type() == null ? null : event.type().key());
+        map.put("content", event.content());
+        map.put("author", event.author());
+        map.put("version", event.version());
+        map.put("occurredAt", event.occurredAt().toString());
+        return map;
+    }
+
+    // Prometheus sends the token as a bearer credential; the dashboard header works too.
+    private boolean isMetricsAuthorized(Context ctx) {
+        String authorization = Optional.ofNullable(ctx.header("Authorization")).orElse("");
+        if (authorization.startsWith("Bearer ") && dashboardToken.equals(authorization.substring(7).trim())) {
+            return true;
+        }
+        return dashboardToken.equals(ctx.header("X-Dashboard-Token"));
+    }
+
+    private void sendOtlp(Context ctx, List<SpanData> spans, String fileName) {
+        ctx.header("Content-Disposition", "attachment; filename=\"" + fileName + "\"");
+        ctx.contentType("application/json");
+        ctx.result(OtlpExporter.encode(spans));
+    }
+
+    private void respondAccepted(Context ctx, Job job) {
+        ctx.header("Location", "/api/jobs/" + job.id());
+        ctx.status(HttpStatus.ACCEPTED).json(job.toMap(jobService.now()));
+    }
+
+    // Sets the data-version ETag and answers 304 when If-None-Match still matches it; callers
+    // check this before reading anything, so a hit costs neither a query nor a render.
+    private boolean notModified(Context ctx, Object... scope) {
+        String tag = dataVersion.entityTag(scope);
+        ctx.header("ETag", tag);
+        ctx.header("Cache-Control", "no-cache");
+        String raw = ctx.header("If-None-Match");
+        if (raw == null || raw.isBlank()) {
+            return false;
+        }
+        for (String candidate : raw.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(tag)) {
+                ctx.status(HttpStatus.NOT_MODIFIED);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String entityTag(UpdateEntry entry) {
+        return "\"" + entry.version() + "\"";
+    }
+
+    // No If-Match (or "*") means an unconditional write; an If-Match that is not one of our
+    // strong tags can never match and yields an empty result.
+    private OptionalLong expectedVersion(Context ctx) {
+        String raw = Optional.ofNullable(ctx.header("If-Match")).orElse("").trim();
+        if (raw.isEmpty() || raw.equals("*")) {
+            return OptionalLong.of(UpdateStore.ANY_VERSION);
+        }
+        if (raw.length() < 3 || !raw.startsWith("\"") || !raw.endsWith("\"")) {
+            return OptionalLong.empty();
+        }
+        try {
+            return OptionalLong.of(Long.parseLong(raw.substring(1, raw.length() - 1)));
+        } catch (NumberFormatException ex) {
+            return OptionalLong.empty();
+        }
+    }
+
+    private void respondVersionConflict(Context ctx, long id, LocalDate weekStart) {
+        Optional<UpdateEntry> current = updateRepository.findByIdInWeek(id, weekStart);
+        if (current.isEmpty()) {
+            ctx.status(HttpStatus.NOT_FOUND).json(Map.of("error", "Eintrag nicht gefunden"));
+            return;
+        }
+        ctx.header("ETag", entityTag(current.get()));
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("error", "Eintrag wurde zwischenzeitlich geändert");
+        payload.put("current", toUpdateMap(current.get()));
+        ctx.status(HttpStatus.PRECONDITION_FAILED).json(payload);
+    }
+
     private Map<String, Object> toAuditMap(AuditEntry entry) {
         Map<String, Object> map = new LinkedHashMap<>();
         map.put("id", entry.id());
@@ -541,6 +1184,26 @@ public final class DashboardServer implements AutoCloseable {
         }
     }
 
+    private long parseLongSafe(String raw, long fallback) {
+        try {
+            return Long.parseLong(raw);
+        } catch (Exception ex) {
+            return fallback;
+        }
+    }
+
+    // Absent means "no bound"; anything present must be a date, otherwise the caller answers 400.
+    private Optional<LocalDate> parseWeekParam(String name, String raw) {
+        if (raw == null || raw.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(weekService.weekForDate(LocalDate.parse(raw.trim())).start());
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Ungültiger Parameter '" + name + "' (erwartet: YYYY-MM-DD)", ex);
+        }
+    }
+
     private int clamp(int value, int min, int max) {
         return Math.max(min, Math.min(value, max));
     }
@@ -571,17 +1234,6 @@ public final class DashboardServer implements AutoCloseable {
         return fallback;
     }
 
-    private String readResource(String path) {
-        try (InputStream inputStream = DashboardServer.class.getResourceAsStream(path)) {
-            if (inputStream == null) {
-                throw new IllegalStateException("Missing resource: " + path);
-            }
-            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
-        } catch (Exception ex) {
-            throw new IllegalStateException("Failed to load resource: " + path, ex);
-        }
-    }
-
     private boolean hasCannotAssignRequestedAddress(Throwable throwable) {
         Throwable current = throwable;
         while (current != null) {
@@ -596,6 +1248,9 @@ public final class DashboardServer implements AutoCloseable {
 
     @Override
     public void close() {
+        if (eventHub != null) {
+            eventHub.close();
+        }
         if (app != null) {
             try {
                 app.stop();
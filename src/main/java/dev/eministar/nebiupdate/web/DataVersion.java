@@ -0,0 +1,28 @@
+package dev.eministar.nebiupdate.web;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Process-wide counter that is bumped on every write to updates, config or audit. Read endpoints
+// derive their ETags from it, so a conditional GET can be answered without touching the data.
+// The epoch part keeps tags from a previous process run from ever matching again.
+final class DataVersion {
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong counter = new AtomicLong();
+
+    long current() {
+        return counter.get();
+    }
+
+    void bump() {
+        counter.incrementAndGet();
+    }
+
+    // The scope parts cover whatever else a body depends on (current week, connection state).
+    String entityTag(Object... scope) {
+        StringBuilder builder = new StringBuilder("\"").append(epoch).append('.').append(counter.get());
+        for (Object part : scope) {
+            builder.append('-').append(part);
+        }
+        return builder.append('"').toString();
+    }
+}
@@ -0,0 +1,126 @@
+package dev.eministar.nebiupdate.web;
+
+import io.javalin.http.Context;
+import io.javalin.http.HttpStatus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+// Serves the dashboard bundle from the classpath. The build writes .br/.gz variants and content-hashed
+// file names; each asset is read once into memory and then written out as-is, so requests do no
+// compression and no resource I/O. Hashed files never change and are cached as immutable.
+final class StaticAssets {
+    private static final Pattern SAFE_NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0,127}");
+    private static final Pattern HASHED_NAME = Pattern.compile(".+-[A-Za-z0-9_-]{8,}\\.[a-z0-9]+");
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "js", "text/javascript; charset=utf-8",
+            "css", "text/css; charset=utf-8",
+            "html", "text/html; charset=utf-8",
+            "svg", "image/svg+xml",
+            "json", "application/json",
+            "png", "image/png",
+            "woff2", "font/woff2",
+            "ico", "image/x-icon"
+    );
+
+    private final String root;
+    private final Map<String, Asset> cache = new ConcurrentHashMap<>();
+
+    StaticAssets(String root) {
+        this.root = root;
+    }
+
+    void serveAsset(Context ctx, String fileName) {
+        if (!SAFE_NAME.matcher(fileName).matches() || fileName.contains("..")) {
+            ctx.status(HttpStatus.NOT_FOUND);
+            return;
+        }
+        Optional<Asset> asset = load("assets/" + fileName);
+        if (asset.isEmpty()) {
+            ctx.status(HttpStatus.NOT_FOUND);
+            return;
+        }
+        write(ctx, asset.get(), HASHED_NAME.matcher(fileName).matches() ? IMMUTABLE : "no-cache");
+    }
+
+    // index.html references the hashed bundle, so it must always be revalidated.
+    void serveIndex(Context ctx) {
+        Asset asset = load("index.html").orElseThrow(() -> new IllegalStateException("Missing resource: " + root + "/index.html"));
+        write(ctx, asset, "no-cache");
+    }
+
+    private void write(Context ctx, Asset asset, String cacheControl) {
+        String accepted = Optional.ofNullable(ctx.header("Accept-Encoding")).orElse("").toLowerCase(Locale.ROOT);
+        byte[] body = asset.identity();
+        String encoding = null;
+        if (asset.brotli() != null && accepts(accepted, "br")) {
+            body = asset.brotli();
+            encoding = "br";
+        } else if (asset.gzip() != null && accepts(accepted, "gzip")) {
+            body = asset.gzip();
+            encoding = "gzip";
+        }
+        ctx.header("Cache-Control", cacheControl);
+        ctx.header("Vary", "Accept-Encoding");
+        if (encoding != null) {
+            ctx.header("Content-Encoding", encoding);
+        }
+        ctx.contentType(asset.contentType());
+        ctx.result(body);
+    }
+
+    private Optional<Asset> load(String path) {
+        Asset cached = cache.get(path);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        byte[] identity = read(path);
+        if (identity == null) {
+            return Optional.empty();
+        }
+        String extension = path.substring(path.lastIndexOf('.') + 1);
+        Asset asset = new Asset(
+                CONTENT_TYPES.getOrDefault(extension, "application/octet-stream"),
+                identity,
+                read(path + ".br"),
+                read(path + ".gz")
+        );
+        cache.putIfAbsent(path, asset);
+        return Optional.of(asset);
+    }
+
+    private byte[] read(String path) {
+        try (InputStream inputStream = StaticAssets.class.getResourceAsStream(root + "/" + path)) {
+            return inputStream == null ? null : inputStream.readAllBytes();
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to load resource: " + root + "/" + path, ex);
+        }
+    }
+
+    // Minimal Accept-Encoding check: the coding is listed and not explicitly refused with q=0.
+    private static boolean accepts(String header, String coding) {
+        for (String part : header.split(",")) {
+            String[] pieces = part.trim().split(";");
+            if (!pieces[0].trim().equals(coding)) {
+                continue;
+            }
+            for (int i = 1; i < pieces.length; i++) {
+                String param = pieces[i].trim().replace(" ", "");
+                if (param.equals("q=0") || param.equals("q=0.0") || param.equals("q=0.00") || param.equals("q=0.000")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private record Asset(String contentType, byte[] identity, byte[] brotli, byte[] gzip) {
+    }
+}
@@ -157,4 +157,4 @@ Error generating stack: `+i.message+`
  *
  * This source code is licensed under the ISC license.
  * See the LICENSE file in the root directory of this source tree.
- */const ms=b("Upload",[["path",{d:"M21 15v4a2 2 0 0 1-2 2H5a2 2 0 0 1-2-2v-4",key:"ih7n3h"}],["polyline",{points:"17 8 12 3 7 8",key:"t8dd8p"}],["line",{x1:"12",x2:"12",y1:"3",y2:"15",key:"widbto"}]]),Bp={"Content-Type":"application/json"};async function ee(e,t,n={}){const r=new Headers(n.headers??Bp);r.has("Content-Type")||r.set("Content-Type","application/json"),t.trim()&&r.set("X-Dashboard-Token",t.trim());const l=await fetch(e,{...n,headers:r});if(!l.ok){const o=await l.text();throw new Error(`HTTP ${l.status}: ${o}`)}return(l.headers.get("Content-Type")??"").includes("application/json")?await l.json():await l.text()}const vs="dashboardToken",ys="dashboardLangOverride",Vp=[{key:"guild_id",label:"Guild ID"},{key:"channel_id",label:"Channel ID"},{key:"timezone",label:"Timezone",placeholder:"Europe/Berlin"},{key:"schedule_day",label:"Schedule Day",placeholder:"MONDAY..SUNDAY"},{key:"schedule_time",label:"Schedule Time",placeholder:"HH:mm"},{key:"title_emoji",label:"Title Emoji"},{key:"title_emoji_id",label:"Title Emoji ID"},{key:"title_emoji_animated",label:"Title Emoji Animated"},{key:"title_text",label:"Title Text"},{key:"added_emoji",label:"Added Emoji"},{key:"added_emoji_id",label:"Added Emoji ID"},{key:"added_emoji_animated",label:"Added Animated"},{key:"changed_emoji",label:"Changed Emoji"},{key:"changed_emoji_id",label:"Changed Emoji ID"},{key:"changed_emoji_animated",label:"Changed Animated"},{key:"removed_emoji",label:"Removed Emoji"},{key:"removed_emoji_id",label:"Removed Emoji ID"},{key:"removed_emoji_animated",label:"Removed Animated"},{key:"notice_emoji",label:"Notice Emoji"},{key:"notice_emoji_id",label:"Notice Emoji ID"},{key:"notice_emoji_animated",label:"Notice Animated"},{key:"notice_text",label:"Notice Text"},{key:"no_change_text",label:"No Change Text"},{key:"spacer",label:"Spacer"},{key:"dashboard_host",label:"Dashboard Host (Restart)"},{key:"dashboard_port",label:"Dashboard Port (Restart)"},{key:"audit_enabled",label:"Audit Enabled"},{key:"audit_max_entries",label:"Audit Max Entries"},{key:"export_import_enabled",label:"Export/Import Enabled"},{key:"analytics_enabled",label:"Analytics Enabled"},{key:"analytics_weeks",label:"Analytics Weeks"},{key:"i18n_enabled",label:"i18n Enabled"},{key:"locale",label:"Locale",placeholder:"de or en"},{key:"fallback_locale",label:"Fallback Locale",placeholder:"de or en"},{key:"backup_enabled",label:"Backup Enabled"},{key:"backup_directory",label:"Backup Directory"},{key:"backup_max_files",label:"Backup Max Files"},{key:"backup_include_audit",label:"Backup Include Audit"}],$p=[{title:"Core",keys:["guild_id","channel_id","timezone","schedule_day","schedule_time","dashboard_host","dashboard_port"]},{title:"Messages",keys:["title_emoji","title_emoji_id","title_emoji_animated","title_text","added_emoji","added_emoji_id","added_emoji_animated","changed_emoji","changed_emoji_id","changed_emoji_animated","removed_emoji","removed_emoji_id","removed_emoji_animated","notice_emoji","notice_emoji_id","notice_emoji_animated","notice_text","no_change_text","spacer"]},{title:"Features",keys:["audit_enabled","audit_max_entries","export_import_enabled","analytics_enabled","analytics_weeks","i18n_enabled","locale","fallback_locale"]},{title:"Backup",keys:["backup_enabled","backup_directory","backup_max_files","backup_include_audit"]}],Hp=Vp.reduce((e,t)=>(e[t.key]=t,e),{}),Wp={de:{title:"NebiUpdate Dashboard",subtitle:"Wochenchangelog, Audit, Analytics und Backups.",token:"Token (X-Dashboard-Token)",saveToken:"Token speichern",reload:"Neu laden",sync:"Sync senden",test:"Test senden",updates:"Eintraege",preview:"Preview",config:"Config",analytics:"Analytics",audit:"Audit Log",tools:"Export/Import/Backup",search:"Suche",add:"Neu",changed:"Geaendert",removed:"Entfernt",save:"Speichern",update:"Aktualisieren",exportJson:"Export JSON",exportCsv:"Export CSV",importJson:"Import JSON",importCsv:"Import CSV",backupCreate:"Backup erstellen",backupRestore:"Backup wiederherstellen",language:"Sprache"},en:{title:"NebiUpdate Dashboard",subtitle:"Weekly changelog, audit, analytics and backups.",token:"Token (X-Dashboard-Token)",saveToken:"Save token",reload:"Reload",sync:"Send sync",test:"Send test",updates:"Entries",preview:"Preview",config:"Config",analytics:"Analytics",audit:"Audit Log",tools:"Export/Import/Backup",search:"Search",add:"Added",changed:"Changed",removed:"Removed",save:"Save",update:"Update",exportJson:"Export JSON",exportCsv:"Export CSV",importJson:"Import JSON",importCsv:"Import CSV",backupCreate:"Create backup",backupRestore:"Restore backup",language:"Language"}};function Mt(e="",t="info"){return{text:e,tone:t}}function Qp(e){const t={};for(const[n,r]of Object.entries(e))t[n]=r==null?"":String(r);return t}function Kp(e){const t=e.toLowerCase();return t==="added"?"tag added":t==="changed"?"tag changed":t==="removed"?"tag removed":"tag"}function gs(e,t,n){const r=new Blob([t],{type:n}),l=URL.createObjectURL(r),i=document.createElement("a");i.href=l,i.download=e,document.body.append(i),i.click(),i.remove(),URL.revokeObjectURL(l)}function Yp(){const[e,t]=M.useState(()=>localStorage.getItem(vs)??""),[n,r]=M.useState(()=>localStorage.getItem(ys)??""),[l,i]=M.useState(null),[o,u]=M.useState({}),[s,d]=M.useState([]),[y,v]=M.useState("Loading preview ..."),[m,w]=M.useState(""),[x,S]=M.useState(null),[A,f]=M.useState([]),[c,p]=M.useState([]),[g,E]=M.useState(""),[j,N]=M.useState(""),[z,W]=M.useState(""),[T,Ce]=M.useState({global:Mt(),action:Mt(),config:Mt(),add:Mt(),edit:Mt(),data:Mt()}),[Ae,be]=M.useState({visible:!1,text:"",tone:"info"}),[ie,Rl]=M.useState({reload:!1,sync:!1,test:!1,config:!1,add:!1,edit:!1,backup:!1,restore:!1,importJson:!1,importCsv:!1,exportJson:!1,exportCsv:!1}),[Yt,jn]=M.useState("added"),[C,L]=M.useState(""),[R,Q]=M.useState("Dashboard"),[X,Tt]=M.useState(""),[Ke,Jt]=M.useState(""),[Ye,Lt]=M.useState(""),[Xo,Zo]=M.useState("Dashboard"),Ol=M.useMemo(()=>{const h=n.trim().toLowerCase();return h==="de"||h==="en"?h:(o.locale??(l==null?void 0:l.locale)??"de").toLowerCase()==="en"?"en":"de"},[o.locale,n,l==null?void 0:l.locale]),O=M.useCallback(h=>Wp[Ol][h]??h,[Ol]),B=M.useCallback((h,P)=>{Rl(ae=>({...ae,[h]:P}))},[]),Gt=M.useCallback((h,P,ae="info")=>{Ce(Nn=>({...Nn,[h]:Mt(P,ae)}))},[]),ge=M.useCallback((h,P)=>{const ae=P instanceof Error?P.message:"Unknown error";Gt(h,ae,"error"),be({visible:!0,text:ae,tone:"error"})},[Gt]),qo=M.useCallback(async()=>{const h=await ee("/api/audit?limit=120",e);f(h.entries??[])},[e]),bo=M.useCallback(async()=>{const h=await ee("/api/analytics",e);S(h)},[e]),Dl=M.useCallback(async()=>{const P=(await ee("/api/backups",e)).items??[];p(P),!g&&P.length>0&&E(P[0].fileName)},[g,e]),Le=M.useCallback(async()=>{B("reload",!0);try{const[h,P,ae,Nn]=await Promise.all([ee("/api/status",e),ee("/api/config",e),ee("/api/updates/current",e),ee("/api/preview/current",e)]);i(h),u(Qp(P)),d(ae),v(Nn),await Promise.all([qo(),bo(),Dl()]),Gt("global","Dashboard synced.")}catch(h){ge("global",h)}finally{B("reload",!1)}},[ge,bo,qo,Dl,B,Gt,e]);M.useEffect(()=>{Le()},[Le]),M.useEffect(()=>{if(!Ae.visible)return;const h=window.setTimeout(()=>be(P=>({...P,visible:!1})),2800);return()=>window.clearTimeout(h)},[Ae.visible]);const eu=M.useMemo(()=>{const h=m.trim().toLowerCase();return h?s.filter(P=>`${P.id} ${P.type} ${P.content} ${P.author}`.toLowerCase().includes(h)):s},[m,s]),Mc=h=>{const P=h.toLowerCase();return P==="added"?O("add"):P==="changed"?O("changed"):P==="removed"?O("removed"):h},Rc=()=>{const h=e.trim();localStorage.setItem(vs,h),t(h),be({visible:!0,text:"Token saved.",tone:"info"})},Oc=h=>{const P=h==="en"?"en":"de";localStorage.setItem(ys,P),r(P)},Dc=async()=>{B("sync",!0);try{await ee("/api/actions/sync",e,{method:"POST",body:"{}"}),await Le()}catch(h){ge("action",h)}finally{B("sync",!1)}},Ic=async()=>{B("test",!0);try{await ee("/api/actions/test",e,{method:"POST",body:"{}"}),Gt("action","Test triggered.")}catch(h){ge("action",h)}finally{B("test",!1)}},Fc=async h=>{h.preventDefault(),B("config",!0);try{await ee("/api/config",e,{method:"PUT",body:JSON.stringify(o)}),await Le(),Gt("config","Config saved.")}catch(P){ge("config",P)}finally{B("config",!1)}},Ac=async h=>{h.preventDefault(),B("add",!0);try{await ee("/api/updates/current",e,{method:"POST",body:JSON.stringify({type:Yt,text:C,author:R})}),L(""),await Le()}catch(P){ge("add",P)}finally{B("add",!1)}},Uc=async h=>{h.preventDefault();const P=Number(X);if(!(!Number.isInteger(P)||P<=0)){B("edit",!0);try{await ee(`/api/updates/current/${P}`,e,{method:"PUT",body:JSON.stringify({type:Ke,text:Ye,author:Xo})}),await Le()}catch(ae){ge("edit",ae)}finally{B("edit",!1)}}},Bc=async()=>{B("exportJson",!0);try{const h=await ee("/api/export/json?include_audit=true",e);gs(`nebiupdate-export-${Date.now()}.json`,JSON.stringify(h,null,2),"application/json")}catch(h){ge("data",h)}finally{B("exportJson",!1)}},Vc=async()=>{B("exportCsv",!0);try{const h=await ee("/api/export/csv?scope=all",e);gs(`nebiupdate-updates-${Date.now()}.csv`,h,"text/csv")}catch(h){ge("data",h)}finally{B("exportCsv",!1)}},$c=async()=>{if(j.trim()){B("importJson",!0);try{await ee("/api/import/json?replace_data=true&replace_config=false&replace_audit=true",e,{method:"POST",body:j}),await Le()}catch(h){ge("data",h)}finally{B("importJson",!1)}}},Hc=async()=>{if(z.trim()){B("importCsv",!0);try{await ee("/api/import/csv",e,{method:"POST",body:z}),await Le()}catch(h){ge("data",h)}finally{B("importCsv",!1)}}},Wc=async()=>{B("backup",!0);try{await ee("/api/actions/backup",e,{method:"POST",body:"{}"}),await Dl()}catch(h){ge("data",h)}finally{B("backup",!1)}},Qc=async()=>{if(g){B("restore",!0);try{await ee("/api/actions/restore",e,{method:"POST",body:JSON.stringify({file:g,replaceConfig:!1,replaceAudit:!0})}),await Le()}catch(h){ge("data",h)}finally{B("restore",!1)}}},Kc=h=>{Tt(String(h.id)),Jt(h.type),Lt(h.content),Zo(h.author||"Dashboard")},Yc=async h=>{if(window.confirm(`Delete #${h}?`))try{await ee(`/api/updates/current/${h}`,e,{method:"DELETE"}),await Le()}catch(P){ge("action",P)}};return a.jsxs(a.Fragment,{children:[a.jsxs("main",{className:"shell",children:[a.jsxs("section",{className:"card hero reveal rise-a",children:[a.jsxs("div",{className:"hero-grid",children:[a.jsxs("div",{children:[a.jsxs("span",{className:"eyebrow",children:[a.jsx(hs,{size:16}),O("title")]}),a.jsx("h1",{children:O("title")}),a.jsx("p",{children:O("subtitle")})]}),a.jsxs("aside",{className:"week-card",children:[a.jsx("p",{children:"Week"}),a.jsx("strong",{children:(l==null?void 0:l.weekLabel)||"-"}),a.jsx("span",{children:l?`${l.weekStart} - ${l.weekEnd}`:"-"})]})]}),a.jsxs("div",{className:"auth-row",children:[a.jsxs("label",{className:"field token-field",children:[a.jsx("span",{children:O("token")}),a.jsx("input",{type:"password",value:e,onChange:h=>t(h.target.value)})]}),a.jsxs("label",{className:"field lang-field",children:[a.jsxs("span",{children:[a.jsx(Op,{size:14})," ",O("language")]}),a.jsxs("select",{value:Ol,onChange:h=>Oc(h.target.value),children:[a.jsx("option",{value:"de",children:"Deutsch"}),a.jsx("option",{value:"en",children:"English"})]})]}),a.jsxs("button",{className:"btn subtle",type:"button",onClick:Rc,children:[a.jsx(In,{size:16}),O("saveToken")]}),a.jsxs("button",{className:"btn subtle",type:"button",onClick:()=>void Le(),disabled:ie.reload,children:[a.jsx(Dp,{size:16,className:ie.reload?"spin":""}),O("reload")]})]}),a.jsx("p",{className:`message ${T.global.tone}`,children:T.global.text})]}),a.jsx("section",{className:"status-strip reveal rise-b",children:[Np,zp,Lp,Ap,cs,Fp,hs].map((h,P)=>a.jsxs("article",{className:"card status-card",children:[a.jsx("div",{className:"status-icon good",children:a.jsx(h,{size:16})}),a.jsxs("div",{children:[a.jsx("p",{children:["Bot","Week","Updates","Guild","Channel","Schedule","Timezone"][P]}),a.jsx("strong",{children:P===0?l!=null&&l.connected?"Connected":"Offline":P===1?(l==null?void 0:l.weekLabel)||"-":P===2?String((l==null?void 0:l.updateCount)??0):P===3?(l==null?void 0:l.guildId)||"(global)":P===4?(l==null?void 0:l.channelId)||"(unset)":P===5?`${(l==null?void 0:l.scheduleDay)||"-"} ${(l==null?void 0:l.scheduleTime)||"-"}`:(l==null?void 0:l.timezone)||"-"})]})]},P))}),a.jsxs("section",{className:"layout-grid reveal rise-c",children:[a.jsxs("aside",{className:"left-column",children:[a.jsxs("article",{className:"card panel",children:[a.jsx("header",{children:a.jsx("h2",{children:"Operations"})}),a.jsxs("div",{className:"button-stack",children:[a.jsxs("button",{className:"btn primary",type:"button",onClick:()=>void Dc(),disabled:ie.sync,children:[a.jsx(Ip,{size:16})," ",O("sync")]}),a.jsxs("button",{className:"btn warning",type:"button",onClick:()=>void Ic(),disabled:ie.test,children:[a.jsx(cs,{size:16})," ",O("test")]}),a.jsxs("button",{className:"btn subtle",type:"button",onClick:()=>void Le(),disabled:ie.reload,children:[a.jsx(Mp,{size:16})," ",O("reload")]})]}),a.jsx("p",{className:`message ${T.action.tone}`,children:T.action.text})]}),a.jsxs("article",{className:"card panel",children:[a.jsx("header",{children:a.jsxs("h2",{children:[a.jsx(Tp,{size:18})," Add"]})}),a.jsxs("form",{onSubmit:Ac,className:"stack",children:[a.jsxs("label",{className:"field",children:[a.jsx("span",{children:"Type"}),a.jsxs("select",{value:Yt,onChange:h=>jn(h.target.value),children:[a.jsx("option",{value:"added",children:O("add")}),a.jsx("option",{value:"changed",children:O("changed")}),a.jsx("option",{value:"removed",children:O("removed")})]})]}),a.jsxs("label",{className:"field",children:[a.jsx("span",{children:"Text"}),a.jsx("textarea",{value:C,onChange:h=>L(h.target.value)})]}),a.jsxs("label",{className:"field",children:[a.jsx("span",{children:"User"}),a.jsx("input",{value:R,onChange:h=>Q(h.target.value)})]}),a.jsxs("button",{className:"btn primary",type:"submit",disabled:ie.add,children:[a.jsx(In,{size:16})," ",O("save")]})]})]}),a.jsxs("article",{className:"card panel",children:[a.jsx("header",{children:a.jsxs("h2",{children:[a.jsx(ps,{size:18})," Edit"]})}),a.jsxs("form",{onSubmit:Uc,className:"stack",children:[a.jsxs("div",{className:"split",children:[a.jsxs("label",{className:"field",children:[a.jsx("span",{children:"ID"}),a.jsx("input",{type:"number",min:1,required:!0,value:X,onChange:h=>Tt(h.target.value)})]}),a.jsxs("label",{className:"field",children:[a.jsx("span",{children:"Type"}),a.jsxs("select",{value:Ke,onChange:h=>Jt(h.target.value),children:[a.jsx("option",{value:"",children:"(keep)"}),a.jsx("option",{value:"added",children:O("add")}),a.jsx("option",{value:"changed",children:O("changed")}),a.jsx("option",{value:"removed",children:O("removed")})]})]})]}),a.jsxs("label",{className:"field",children:[a.jsx("span",{children:"Text"}),a.jsx("textarea",{value:Ye,onChange:h=>Lt(h.target.value)})]}),a.jsxs("label",{className:"field",children:[a.jsx("span",{children:"User"}),a.jsx("input",{value:Xo,onChange:h=>Zo(h.target.value)})]}),a.jsxs("button",{className:"btn warning",type:"submit",disabled:ie.edit,children:[a.jsx(In,{size:16})," ",O("update")]})]})]})]}),a.jsxs("section",{className:"right-column",children:[a.jsxs("article",{className:"card panel",children:[a.jsxs("header",{className:"header-spread",children:[a.jsx("h2",{children:O("updates")}),a.jsxs("label",{className:"field search-field",children:[a.jsx("span",{children:O("search")}),a.jsx("input",{value:m,onChange:h=>w(h.target.value)})]})]}),a.jsx("div",{className:"table-wrap",children:a.jsxs("table",{children:[a.jsx("thead",{children:a.jsxs("tr",{children:[a.jsx("th",{children:"ID"}),a.jsx("th",{children:"Type"}),a.jsx("th",{children:"Text"}),a.jsx("th",{children:"User"}),a.jsx("th",{children:"Action"})]})}),a.jsxs("tbody",{children:[eu.length===0&&a.jsx("tr",{children:a.jsx("td",{colSpan:5,className:"empty-row",children:"No entries."})}),eu.map(h=>a.jsxs("tr",{children:[a.jsxs("td",{children:["#",h.id]}),a.jsx("td",{children:a.jsx("span",{className:Kp(h.type),children:Mc(h.type)})}),a.jsx("td",{children:h.content}),a.jsx("td",{children:h.author||"-"}),a.jsx("td",{children:a.jsxs("div",{className:"table-actions",children:[a.jsx("button",{className:"icon-btn",type:"button",onClick:()=>Kc(h),children:a.jsx(ps,{size:15})}),a.jsx("button",{className:"icon-btn danger",type:"button",onClick:()=>void Yc(h.id),children:a.jsx(Up,{size:15})})]})})]},h.id))]})]})})]}),a.jsxs("article",{className:"card panel",children:[a.jsx("header",{children:a.jsx("h2",{children:O("preview")})}),a.jsx("pre",{children:y})]}),a.jsxs("article",{className:"card panel",children:[a.jsx("header",{children:a.jsxs("h2",{children:[a.jsx(Pp,{size:18})," ",O("analytics")]})}),x!=null&&x.enabled?a.jsx("div",{className:"analytics-list",children:x.weeks.map(h=>a.jsxs("div",{className:"analytics-row",children:[a.jsx("span",{children:h.weekStart}),a.jsx("strong",{children:h.total})]},h.weekStart))}):a.jsx("p",{className:"message",children:"Analytics disabled."})]}),a.jsxs("article",{className:"card panel",children:[a.jsx("header",{children:a.jsxs("h2",{children:[a.jsx(Rp,{size:18})," ",O("audit")]})}),a.jsx("div",{className:"table-wrap",children:a.jsxs("table",{children:[a.jsx("thead",{children:a.jsxs("tr",{children:[a.jsx("th",{children:"Time"}),a.jsx("th",{children:"Actor"}),a.jsx("th",{children:"Action"}),a.jsx("th",{children:"Entity"}),a.jsx("th",{children:"Details"})]})}),a.jsxs("tbody",{children:[A.length===0&&a.jsx("tr",{children:a.jsx("td",{colSpan:5,className:"empty-row",children:"No audit entries."})}),A.map(h=>a.jsxs("tr",{children:[a.jsx("td",{children:h.createdAt}),a.jsx("td",{children:h.actor}),a.jsx("td",{children:h.action}),a.jsxs("td",{children:[h.entityType,"/",h.entityId]}),a.jsx("td",{children:h.details})]},h.id))]})]})})]}),a.jsxs("article",{className:"card panel",children:[a.jsx("header",{children:a.jsxs("h2",{children:[a.jsx(ds,{size:18})," ",O("tools")]})}),a.jsxs("div",{className:"button-row",children:[a.jsxs("button",{className:"btn subtle",type:"button",onClick:()=>void Bc(),disabled:ie.exportJson,children:[a.jsx(fs,{size:15})," ",O("exportJson")]}),a.jsxs("button",{className:"btn subtle",type:"button",onClick:()=>void Vc(),disabled:ie.exportCsv,children:[a.jsx(fs,{size:15})," ",O("exportCsv")]}),a.jsxs("button",{className:"btn warning",type:"button",onClick:()=>void Wc(),disabled:ie.backup,children:[a.jsx(In,{size:15})," ",O("backupCreate")]})]}),a.jsxs("div",{className:"split",children:[a.jsxs("label",{className:"field",children:[a.jsx("span",{children:"Backups"}),a.jsxs("select",{value:g,onChange:h=>E(h.target.value),children:[c.length===0&&a.jsx("option",{value:"",children:"No backups"}),c.map(h=>a.jsx("option",{value:h.fileName,children:h.fileName},h.fileName))]})]}),a.jsxs("button",{className:"btn warning",type:"button",onClick:()=>void Qc(),disabled:ie.restore,children:[a.jsx(ds,{size:15})," ",O("backupRestore")]})]}),a.jsxs("label",{className:"field",children:[a.jsx("span",{children:O("importJson")}),a.jsx("textarea",{value:j,onChange:h=>N(h.target.value)})]}),a.jsxs("button",{className:"btn subtle",type:"button",onClick:()=>void $c(),disabled:ie.importJson,children:[a.jsx(ms,{size:15})," ",O("importJson")]}),a.jsxs("label",{className:"field",children:[a.jsx("span",{children:O("importCsv")}),a.jsx("textarea",{value:z,onChange:h=>W(h.target.value)})]}),a.jsxs("button",{className:"btn subtle",type:"button",onClick:()=>void Hc(),disabled:ie.importCsv,children:[a.jsx(ms,{size:15})," ",O("importCsv")]}),a.jsx("p",{className:`message ${T.data.tone}`,children:T.data.text})]}),a.jsxs("article",{className:"card panel",children:[a.jsx("header",{children:a.jsx("h2",{children:O("config")})}),a.jsxs("form",{onSubmit:Fc,children:[a.jsx("div",{className:"config-stack",children:$p.map(h=>a.jsxs("section",{className:"config-group",children:[a.jsx("div",{className:"config-group-head",children:a.jsx("h3",{children:h.title})}),a.jsx("div",{className:"config-grid",children:h.keys.map(P=>{const ae=Hp[P]??{key:P,label:P};return a.jsxs("label",{className:"field",children:[a.jsx("span",{children:ae.label}),a.jsx("input",{value:o[ae.key]??"",placeholder:ae.placeholder??"",onChange:Nn=>u(Jc=>({...Jc,[ae.key]:Nn.target.value}))})]},ae.key)})})]},h.title))}),a.jsx("div",{className:"button-row",children:a.jsxs("button",{className:"btn primary",type:"submit",disabled:ie.config,children:[a.jsx(In,{size:16})," ",O("save")]})}),a.jsx("p",{className:`message ${T.config.tone}`,children:T.config.text})]})]})]})]})]}),a.jsx("aside",{className:`toast ${Ae.visible?"show":""} ${Ae.tone}`,children:Ae.text})]})}si.createRoot(document.getElementById("root")).render(a.jsx(dd.StrictMode,{children:a.jsx(Yp,{})}));
+ */const ms=b("Upload",[["path",{d:"M21 15v4a2 2 0 0 1-2 2H5a2 2 0 0 1-2-2v-4",key:"ih7n3h"}],["polyline",{points:"17 8 12 3 7 8",key:"t8dd8p"}],["line",{x1:"12",x2:"12",y1:"3",y2:"15",key:"widbto"}]]),Bp={"Content-Type":"application/json"},Nv=new Map;async function ee(e,t,n={}){const r=new Headers(n.headers??Bp);r.has("Content-Type")||r.set("Content-Type","application/json"),t.trim()&&r.set("X-Dashboard-Token",t.trim());const i=(n.method??"GET").toUpperCase(),o=`${t.trim()} ${e}`,u=i==="GET"?Nv.get(o):void 0;u&&r.set("If-None-Match",u.etag);const l=await fetch(e,{...n,headers:r,cache:"no-store"});if(l.status===304&&u)return u.body;if(!l.ok){const c=await l.text();throw new Error(`HTTP ${l.status}: ${c}`)}const s=(l.headers.get("Content-Type")??"").includes("application/json")?await l.json():await l.text(),a=l.headers.get("ETag");return i==="GET"&&a&&Nv.set(o,{etag:a,body:s}),s}function Nm(e){return e==null?{}:{"If-Match":`"${e}"`}}async function Ng(e,t,n){let r=e,l=250;for(;r.status==="queued"||r.status==="running";)await new Promise(i=>window.setTimeout(i,l)),l=Math.min(l*2,2e3),r=await ee(`/api/jobs/${encodeURIComponent(r.id)}`,t),n==null||n(r);if(r.status==="failed")throw new Error(r.errorId?`${r.error} (${r.errorId})`:r.error??"Job failed");return r}function Nh(e){const t=e.trim();return new EventSource(t?`/api/stream?token=${encodeURIComponent(t)}`:"/api/stream")}const vs="dashboardToken",ys="dashboardLangOverride",Vp=[{key:"guild_id",label:"Guild ID"},{key:"channel_id",label:"Channel ID"},{key:"timezone",label:"Timezone",placeholder:"Europe/Berlin"},{key:"schedule_day",label:"Schedule Day",placeholder:"MONDAY..SUNDAY"},{key:"schedule_time",label:"Schedule Time",placeholder:"HH:mm"},{key:"title_emoji",label:"Title Emoji"},{key:"title_emoji_id",label:"Title Emoji ID"},{key:"title_emoji_animated",label:"Title Emoji Animated"},{key:"title_text",label:"Title Text"},{key:"added_emoji",label:"Added Emoji"},{key:"added_emoji_id",label:"Added Emoji ID"},{key:"added_emoji_animated",label:"Added Animated"},{key:"changed_emoji",label:"Changed Emoji"},{key:"changed_emoji_id",label:"Changed Emoji ID"},{key:"changed_emoji_animated",label:"Changed Animated"},{key:"removed_emoji",label:"Removed Emoji"},{key:"removed_emoji_id",label:"Removed Emoji ID"},{key:"removed_emoji_animated",label:"Removed Animated"},{key:"notice_emoji",label:"Notice Emoji"},{key:"notice_emoji_id",label:"Notice Emoji ID"},{key:"notice_emoji_animated",label:"Notice Animated"},{key:"notice_text",label:"Notice Text"},{key:"no_change_text",label:"No Change Text"},{key:"spacer",label:"Spacer"},{key:"dashboard_host",label:"Dashboard Host (Restart)"},{key:"dashboard_port",label:"Dashboard Port (Restart)"},{key:"audit_enabled",label:"Audit Enabled"},{key:"audit_max_entries",label:"Audit Max Entries"},{key:"export_import_enabled",label:"Export/Import Enabled"},{key:"analytics_enabled",label:"Analytics Enabled"},{key:"analytics_weeks",label:"Analytics Weeks"},{key:"i18n_enabled",label:"i18n Enabled"},{key:"locale",label:"Locale",placeholder:"de or en"},{key:"fallback_locale",label:"Fallback Locale",placeholder:"de or en"},{key:"backup_enabled",label:"Backup Enabled"},{key:"backup_directory",label:"Backup Directory"},{key:"backup_max_files",label:"Backup Max Files"},{key:"backup_include_audit",label:"Backup Include Audit"}],$p=[{title:"Core",keys:["guild_id","channel_id","timezone","schedule_day","schedule_time","dashboard_host","dashboard_port"]},{title:"Messages",keys:["title_emoji","title_emoji_id","title_emoji_animated","title_text","added_emoji","added_emoji_id","added_emoji_animated","changed_emoji","changed_emoji_id","changed_emoji_animated","removed_emoji","removed_emoji_id","removed_emoji_animated","notice_emoji","notice_emoji_id","notice_emoji_animated","notice_text","no_change_text","spacer"]},{title:"Features",keys:["audit_enabled","audit_max_entries","export_import_enabled","analytics_enabled","analytics_weeks","i18n_enabled","locale","fallback_locale"]},{title:"Backup",keys:["backup_enabled","backup_directory","backup_max_files","backup_include_audit"]}],Hp=Vp.reduce((e,t)=>(e[t.key]=t,e),{}),Wp={de:{title:"NebiUpdate Dashboard",subtitle:"Wochenchangelog, Audit, Analytics und Backups.",token:"Token (X-Dashboard-Token)",saveToken:"Token speichern",reload:"Neu laden",sync:"Sync senden",test:"Test senden",updates:"Eintraege",preview:"Preview",config:"Config",analytics:"Analytics",audit:"Audit Log",tools:"Export/Import/Backup",search:"Suche",add:"Neu",changed:"Geaendert",removed:"Entfernt",save:"Speichern",update:"Aktualisieren",exportJson:"Export JSON",exportCsv:"Export CSV",importJson:"Import JSON",importCsv:"Import CSV",backupCreate:"Backup erstellen",backupRestore:"Backup wiederherstellen",language:"Sprache"},en:{title:"NebiUpdate Dashboard",subtitle:"Weekly changelog, audit, analytics and backups.",token:"Token (X-Dashboard-Token)",saveToken:"Save token",reload:"Reload",sync:"Send sync",test:"Send test",updates:"Entries",preview:"Preview",config:"Config",analytics:"Analytics",audit:"Audit Log",tools:"Export/Import/Backup",search:"Search",add:"Added",changed:"Changed",removed:"Removed",save:"Save",update:"Update",exportJson:"Export JSON",exportCsv:"Export CSV",importJson:"Import JSON",importCsv:"Import CSV",backupCreate:"Create backup",backupRestore:"Restore backup",language:"Language"}};function Mt(e="",t="info"){return{text:e,tone:t}}function Qp(e){const t={};for(const[n,r]of Object.entries(e))t[n]=r==null?"":String(r);return t}function Kp(e){const t=e.toLowerCase();return t==="added"?"tag added":t==="changed"?"tag changed":t==="removed"?"tag removed":"tag"}function Ny(e){const t=e.toLowerCase();return t==="added"?1:t==="changed"?2:t==="removed"?3:99}function Nj(e,t){return Ny(e.type)-Ny(t.type)||e.id-t.id}function gs(e,t,n){const r=new Blob([t],{type:n}),l=URL.createObjectURL(r),i=document.createElement("a");i.href=l,i.download=e,document.body.append(i),i.click(),i.remove(),URL.revokeObjectURL(l)}function Yp(){const[e,t]=M.useState(()=>localStorage.getItem(vs)??""),[n,r]=M.useState(()=>localStorage.getItem(ys)??""),[l,i]=M.useState(null),[o,u]=M.useState({}),[s,d]=M.useState([]),[y,v]=M.useState("Loading preview ..."),[m,w]=M.useState(""),[x,S]=M.useState(null),[A,f]=M.useState([]),[c,p]=M.useState([]),[g,E]=M.useState(""),[j,N]=M.useState(""),[z,W]=M.useState(""),[T,Ce]=M.useState({global:Mt(),action:Mt(),config:Mt(),add:Mt(),edit:Mt(),data:Mt()}),[Ae,be]=M.useState({visible:!1,text:"",tone:"info"}),[ie,Rl]=M.useState({reload:!1,sync:!1,test:!1,config:!1,add:!1,edit:!1,backup:!1,restore:!1,importJson:!1,importCsv:!1,exportJson:!1,exportCsv:!1}),[Yt,jn]=M.useState("added"),[C,L]=M.useState(""),[R,Q]=M.useState("Dashboard"),[X,Tt]=M.useState(""),[Ke,Jt]=M.useState(""),[Ye,Lt]=M.useState(""),[Xo,Zo]=M.useState("Dashboard"),[Nw,Nx]=M.useState(!1),Ol=M.useMemo(()=>{const h=n.trim().toLowerCase();return h==="de"||h==="en"?h:(o.locale??(l==null?void 0:l.locale)??"de").toLowerCase()==="en"?"en":"de"},[o.locale,n,l==null?void 0:l.locale]),O=M.useCallback(h=>Wp[Ol][h]??h,[Ol]),B=M.useCallback((h,P)=>{Rl(ae=>({...ae,[h]:P}))},[]),Gt=M.useCallback((h,P,ae="info")=>{Ce(Nn=>({...Nn,[h]:Mt(P,ae)}))},[]),ge=M.useCallback((h,P)=>{const ae=P instanceof Error?P.message:"Unknown error";Gt(h,ae,"error"),be({visible:!0,text:ae,tone:"error"})},[Gt]),qo=M.useCallback(async()=>{const h=await ee("/api/audit?limit=120",e);f(h.entries??[])},[e]),bo=M.useCallback(async()=>{const h=await ee("/api/analytics",e);S(h)},[e]),Dl=M.useCallback(async()=>{const P=(await ee("/api/backups",e)).items??[];p(P),!g&&P.length>0&&E(P[0].fileName)},[g,e]),Le=M.useCallback(async()=>{var P,Nn;B("reload",!0);try{const h=await ee("/api/dashboard",e);h.status&&i(h.status),h.config&&u(Qp(h.config)),d(h.updates??[]),v(h.preview??""),f(((P=h.audit)==null?void 0:P.entries)??[]),h.analytics&&S(h.analytics);const ae=((Nn=h.backups)==null?void 0:Nn.items)??[];p(ae),E(q=>{var te;return q||(((te=ae[0])==null?void 0:te.fileName)??"")}),Gt("global","Dashboard synced.")}catch(h){ge("global",h)}finally{B("reload",!1)}},[ge,B,Gt,e]);M.useEffect(()=>{Le()},[Le]);const Nq=M.useRef({reloadAll:Le,loadAudit:qo,loadAnalytics:bo,weekStart:""});Nq.current={reloadAll:Le,loadAudit:qo,loadAnalytics:bo,weekStart:(l==null?void 0:l.weekStart)??""};const Nz=M.useCallback(async()=>{Nw||await Le()},[Nw,Le]);M.useEffect(()=>{const h=Nh(e),P=new Map,ae=(k,F)=>{window.clearTimeout(P.get(k)),P.set(k,window.setTimeout(()=>{P.delete(k),Promise.resolve(F()).catch(()=>{})},150))},Nn=()=>ae("preview",async()=>{v(await ee("/api/preview/current",e))}),q=k=>{const F=JSON.parse(k.data);if(F.kind==="replaced"){ae("reload",()=>Nq.current.reloadAll());return}if(ae("analytics",()=>Nq.current.loadAnalytics()),F.weekStart!==Nq.current.weekStart||F.updateId==null)return;const U=F.updateId;d(Z=>{const K=Z.filter(ne=>ne.id!==U);if(F.kind==="deleted")return K;const ne=Z.find(te=>te.id===U),te={id:U,weekStart:F.weekStart??"",type:F.type??(ne==null?void 0:ne.type)??"",content:F.content??"",author:F.author??"",createdAt:(ne==null?void 0:ne.createdAt)??F.occurredAt,updatedAt:F.occurredAt,version:F.version};return[...K,te].sort(Nj)}),i(Z=>Z?{...Z,updateCount:Z.updateCount+(F.kind==="created"?1:F.kind==="deleted"?-1:0)}:Z),Nn()};h.addEventListener("open",()=>Nx(!0)),h.addEventListener("error",()=>Nx(!1));for(const k of["created","updated","deleted","replaced"])h.addEventListener(`entry.${k}`,q);return h.addEventListener("config.changed",k=>{u(Qp(JSON.parse(k.data))),ae("status",async()=>{const F=await ee("/api/dashboard?sections=status,preview",e);F.status&&i(F.status),F.preview!=null&&v(F.preview)})}),h.addEventListener("sync.finished",k=>{const F=JSON.parse(k.data);Gt("action",`Sync ${F.weekStart}: ${F.outcome}`,F.outcome==="failed"?"error":"info")}),h.addEventListener("audit.appended",()=>ae("audit",()=>Nq.current.loadAudit())),()=>{P.forEach(k=>window.clearTimeout(k)),h.close(),Nx(!1)}},[Gt,e]),M.useEffect(()=>{if(!Ae.visible)return;const h=window.setTimeout(()=>be(P=>({...P,visible:!1})),2800);return()=>window.clearTimeout(h)},[Ae.visible]);const eu=M.useMemo(()=>{const h=m.trim().toLowerCase();return h?s.filter(P=>`${P.id} ${P.type} ${P.content} ${P.author}`.toLowerCase().includes(h)):s},[m,s]),Mc=h=>{const P=h.toLowerCase();return P==="added"?O("add"):P==="changed"?O("changed"):P==="removed"?O("removed"):h},Rc=()=>{const h=e.trim();localStorage.setItem(vs,h),t(h),be({visible:!0,text:"Token saved.",tone:"info"})},Oc=h=>{const P=h==="en"?"en":"de";localStorage.setItem(ys,P),r(P)},Dc=async()=>{B("sync",!0);try{await ee("/api/actions/sync",e,{method:"POST",body:"{}"}),await Nz()}catch(h){ge("action",h)}finally{B("sync",!1)}},Ic=async()=>{B("test",!0);try{await ee("/api/actions/test",e,{method:"POST",body:"{}"}),Gt("action","Test triggered.")}catch(h){ge("action",h)}finally{B("test",!1)}},Fc=async h=>{h.preventDefault(),B("config",!0);try{await ee("/api/config",e,{method:"PUT",body:JSON.stringify(o)}),await Nz(),Gt("config","Config saved.")}catch(P){ge("config",P)}finally{B("config",!1)}},Ac=async h=>{h.preventDefault(),B("add",!0);try{await ee("/api/updates/current",e,{method:"POST",body:JSON.stringify({type:Yt,text:C,author:R})}),L(""),await Nz()}catch(P){ge("add",P)}finally{B("add",!1)}},Uc=async h=>{h.preventDefault();const P=Number(X);if(!(!Number.isInteger(P)||P<=0)){B("edit",!0);try{const Nk=s.find(q=>q.id===P);await ee(`/api/updates/current/${P}`,e,{method:"PUT",headers:Nm(Nk==null?void 0:Nk.version),body:JSON.stringify({type:Ke,text:Ye,author:Xo})}),await Nz()}catch(ae){ge("edit",ae)}finally{B("edit",!1)}}},Bc=async()=>{B("exportJson",!0);try{const h=await ee("/api/export/json?include_audit=true",e);gs(`nebiupdate-export-${Date.now()}.json`,JSON.stringify(h,null,2),"application/json")}catch(h){ge("data",h)}finally{B("exportJson",!1)}},Vc=async()=>{B("exportCsv",!0);try{const h=await ee("/api/export/csv?scope=all",e);gs(`nebiupdate-updates-${Date.now()}.csv`,h,"text/csv")}catch(h){ge("data",h)}finally{B("exportCsv",!1)}},Nb=h=>{Gt("data",`${h.kind}: ${h.progress.percent}% (${h.progress.done}/${h.progress.total})`)},$c=async()=>{if(j.trim()){B("importJson",!0);try{const h=await ee("/api/import/json?replace_data=true&replace_config=false&replace_audit=true",e,{method:"POST",body:j});await Ng(h,e,Nb),await Nz()}catch(h){ge("data",h)}finally{B("importJson",!1)}}},Hc=async()=>{if(z.trim()){B("importCsv",!0);try{const h=await ee("/api/import/csv",e,{method:"POST",body:z});await Ng(h,e,Nb),await Nz()}catch(h){ge("data",h)}finally{B("importCsv",!1)}}},Wc=async()=>{B("backup",!0);try{const h=await ee("/api/actions/backup",e,{method:"POST",body:"{}"});await Ng(h,e,Nb),await Dl()}catch(h){ge("data",h)}finally{B("backup",!1)}},Qc=async()=>{if(g){B("restore",!0);try{const h=await ee("/api/actions/restore",e,{method:"POST",body:JSON.stringify({file:g,replaceConfig:!1,replaceAudit:!0})});await Ng(h,e,Nb),await Nz()}catch(h){ge("data",h)}finally{B("restore",!1)}}},Kc=h=>{Tt(String(h.id)),Jt(h.type),Lt(h.content),Zo(h.author||"Dashboard")},Yc=async h=>{if(window.confirm(`Delete #${h}?`))try{const Nk=s.find(q=>q.id===h);await ee(`/api/updates/current/${h}`,e,{method:"DELETE",headers:Nm(Nk==null?void 0:Nk.version)}),await Nz()}catch(P){ge("action",P)}};return a.jsxs(a.Fragment,{children:[a.jsxs("main",{className:"shell",children:[a.jsxs("section",{className:"card hero reveal rise-a",children:[a.jsxs("div",{className:"hero-grid",children:[a.jsxs("div",{children:[a.jsxs("span",{className:"eyebrow",children:[a.jsx(hs,{size:16}),O("title")]}),a.jsx("h1",{children:O("title")}),a.jsx("p",{children:O("subtitle")})]}),a.jsxs("aside",{className:"week-card",children:[a.jsx("p",{children:"Week"}),a.jsx("strong",{children:(l==null?void 0:l.weekLabel)||"-"}),a.jsx("span",{children:l?`${l.weekStart} - ${l.weekEnd}`:"-"})]})]}),a.jsxs("div",{className:"auth-row",children:[a.jsxs("label",{className:"field token-field",children:[a.jsx("span",{children:O("token")}),a.jsx("input",{type:"password",value:e,onChange:h=>t(h.target.value)})]}),a.jsxs("label",{className:"field lang-field",children:[a.jsxs("span",{children:[a.jsx(Op,{size:14})," ",O("language")]}),a.jsxs("select",{value:Ol,onChange:h=>Oc(h.target.value),children:[a.jsx("option",{value:"de",children:"Deutsch"}),a.jsx("option",{value:"en",children:"English"})]})]}),a.jsxs("button",{className:"btn subtle",type:"button",onClick:Rc,children:[a.jsx(In,{size:16}),O("saveToken")]}),a.jsxs("button",{className:"btn subtle",type:"button",onClick:()=>void Le(),disabled:ie.reload,children:[a.jsx(Dp,{size:16,className:ie.reload?"spin":""}),O("reload")]})]}),a.jsx("p",{className:`message ${T.global.tone}`,children:T.global.text})]}),a.jsx("section",{className:"status-strip reveal rise-b",children:[Np,zp,Lp,Ap,cs,Fp,hs].map((h,P)=>a.jsxs("article",{className:"card status-card",children:[a.jsx("div",{className:"status-icon good",children:a.jsx(h,{size:16})}),a.jsxs("div",{children:[a.jsx("p",{children:["Bot","Week","Updates","Guild","Channel","Schedule","Timezone"][P]}),a.jsx("strong",{children:P===0?l!=null&&l.connected?"Connected":"Offline":P===1?(l==null?void 0:l.weekLabel)||"-":P===2?String((l==null?void 0:l.updateCount)??0):P===3?(l==null?void 0:l.guildId)||"(global)":P===4?(l==null?void 0:l.channelId)||"(unset)":P===5?`${(l==null?void 0:l.scheduleDay)||"-"} ${(l==null?void 0:l.scheduleTime)||"-"}`:(l==null?void 0:l.timezone)||"-"})]})]},P))}),a.jsxs("section",{className:"layout-grid reveal rise-c",children:[a.jsxs("aside",{className:"left-column",children:[a.jsxs("article",{className:"card panel",children:[a.jsx("header",{children:a.jsx("h2",{children:"Operations"})}),a.jsxs("div",{className:"button-stack",children:[a.jsxs("button",{className:"btn primary",type:"button",onClick:()=>void Dc(),disabled:ie.sync,children:[a.jsx(Ip,{size:16})," ",O("sync")]}),a.jsxs("button",{className:"btn warning",type:"button",onClick:()=>void Ic(),disabled:ie.test,children:[a.jsx(cs,{size:16})," ",O("test")]}),a.jsxs("button",{className:"btn subtle",type:"button",onClick:()=>void Le(),disabled:ie.reload,children:[a.jsx(Mp,{size:16})," ",O("reload")]})]}),a.jsx("p",{className:`message ${T.action.tone}`,children:T.action.text})]}),a.jsxs("article",{className:"card panel",children:[a.jsx("header",{children:a.jsxs("h2",{children:[a.jsx(Tp,{size:18})," Add"]})}),a.jsxs("form",{onSubmit:Ac,className:"stack",children:[a.jsxs("label",{className:"field",children:[a.jsx("span",{children:"Type"}),a.jsxs("select",{value:Yt,onChange:h=>jn(h.target.value),children:[a.jsx("option",{value:"added",children:O("add")}),a.jsx("option",{value:"changed",children:O("changed")}),a.jsx("option",{value:"removed",children:O("removed")})]})]}),a.jsxs("label",{className:"field",children:[a.jsx("span",{children:"Text"}),a.jsx("textarea",{value:C,onChange:h=>L(h.target.value)})]}),a.jsxs("label",{className:"field",children:[a.jsx("span",{children:"User"}),a.jsx("input",{value:R,onChange:h=>Q(h.target.value)})]}),a.jsxs("button",{className:"btn primary",type:"submit",disabled:ie.add,children:[a.jsx(In,{size:16})," ",O("save")]})]})]}),a.jsxs("article",{className:"card panel",children:[a.jsx("header",{children:a.jsxs("h2",{children:[a.jsx(ps,{size:18})," Edit"]})}),a.jsxs("form",{onSubmit:Uc,className:"stack",children:[a.jsxs("div",{className:"split",children:[a.jsxs("label",{className:"field",children:[a.jsx("span",{children:"ID"}),a.jsx("input",{type:"number",min:1,required:!0,value:X,onChange:h=>Tt(h.target.value)})]}),a.jsxs("label",{className:"field",children:[a.jsx("span",{children:"Type"}),a.jsxs("select",{value:Ke,onChange:h=>Jt(h.target.value),children:[a.jsx("option",{value:"",children:"(keep)"}),a.jsx("option",{value:"added",children:O("add")}),a.jsx("option",{value:"changed",children:O("changed")}),a.jsx("option",{value:"removed",children:O("removed")})]})]})]}),a.jsxs("label",{className:"field",children:[a.jsx("span",{children:"Text"}),a.jsx("textarea",{value:Ye,onChange:h=>Lt(h.target.value)})]}),a.jsxs("label",{className:"field",children:[a.jsx("span",{children:"User"}),a.jsx("input",{value:Xo,onChange:h=>Zo(h.target.value)})]}),a.jsxs("button",{className:"btn warning",type:"submit",disabled:ie.edit,children:[a.jsx(In,{size:16})," ",O("update")]})]})]})]}),a.jsxs("section",{className:"right-column",children:[a.jsxs("article",{className:"card panel",children:[a.jsxs("header",{className:"header-spread",children:[a.jsx("h2",{children:O("updates")}),a.jsxs("label",{className:"field search-field",children:[a.jsx("span",{children:O("search")}),a.jsx("input",{value:m,onChange:h=>w(h.target.value)})]})]}),a.jsx("div",{className:"table-wrap",children:a.jsxs("table",{children:[a.jsx("thead",{children:a.jsxs("tr",{children:[a.jsx("th",{children:"ID"}),a.jsx("th",{children:"Type"}),a.jsx("th",{children:"Text"}),a.jsx("th",{children:"User"}),a.jsx("th",{children:"Action"})]})}),a.jsxs("tbody",{children:[eu.length===0&&a.jsx("tr",{children:a.jsx("td",{colSpan:5,className:"empty-row",children:"No entries."})}),eu.map(h=>a.jsxs("tr",{children:[a.jsxs("td",{children:["#",h.id]}),a.jsx("td",{children:a.jsx("span",{className:Kp(h.type),children:Mc(h.type)})}),a.jsx("td",{children:h.content}),a.jsx("td",{children:h.author||"-"}),a.jsx("td",{children:a.jsxs("div",{className:"table-actions",children:[a.jsx("button",{className:"icon-btn",type:"button",onClick:()=>Kc(h),children:a.jsx(ps,{size:15})}),a.jsx("button",{className:"icon-btn danger",type:"button",onClick:()=>void Yc(h.id),children:a.jsx(Up,{size:15})})]})})]},h.id))]})]})})]}),a.jsxs("article",{className:"card panel",children:[a.jsx("header",{children:a.jsx("h2",{children:O("preview")})}),a.jsx("pre",{children:y})]}),a.jsxs("article",{className:"card panel",children:[a.jsx("header",{children:a.jsxs("h2",{children:[a.jsx(Pp,{size:18})," ",O("analytics")]})}),x!=null&&x.enabled?a.jsx("div",{className:"analytics-list",children:x.weeks.map(h=>a.jsxs("div",{className:"analytics-row",children:[a.jsx("span",{children:h.weekStart}),a.jsx("strong",{children:h.total})]},h.weekStart))}):a.jsx("p",{className:"message",children:"Analytics disabled."})]}),a.jsxs("article",{className:"card panel",children:[a.jsx("header",{children:a.jsxs("h2",{children:[a.jsx(Rp,{size:18})," ",O("audit")]})}),a.jsx("div",{className:"table-wrap",children:a.jsxs("table",{children:[a.jsx("thead",{children:a.jsxs("tr",{children:[a.jsx("th",{children:"Time"}),a.jsx("th",{children:"Actor"}),a.jsx("th",{children:"Action"}),a.jsx("th",{children:"Entity"}),a.jsx("th",{children:"Details"})]})}),a.jsxs("tbody",{children:[A.length===0&&a.jsx("tr",{children:a.jsx("td",{colSpan:5,className:"empty-row",children:"No audit entries."})}),A.map(h=>a.jsxs("tr",{children:[a.jsx("td",{children:h.createdAt}),a.jsx("td",{children:h.actor}),a.jsx("td",{children:h.action}),a.jsxs("td",{children:[h.entityType,"/",h.entityId]}),a.jsx("td",{children:h.details})]},h.id))]})]})})]}),a.jsxs("article",{className:"card panel",children:[a.jsx("header",{children:a.jsxs("h2",{children:[a.jsx(ds,{size:18})," ",O("tools")]})}),a.jsxs("div",{className:"button-row",children:[a.jsxs("button",{className:"btn subtle",type:"button",onClick:()=>void Bc(),disabled:ie.exportJson,children:[a.jsx(fs,{size:15})," ",O("exportJson")]}),a.jsxs("button",{className:"btn subtle",type:"button",onClick:()=>void Vc(),disabled:ie.exportCsv,children:[a.jsx(fs,{size:15})," ",O("exportCsv")]}),a.jsxs("button",{className:"btn warning",type:"button",onClick:()=>void Wc(),disabled:ie.backup,children:[a.jsx(In,{size:15})," ",O("backupCreate")]})]}),a.jsxs("div",{className:"split",children:[a.jsxs("label",{className:"field",children:[a.jsx("span",{children:"Backups"}),a.jsxs("select",{value:g,onChange:h=>E(h.target.value),children:[c.length===0&&a.jsx("option",{value:"",children:"No backups"}),c.map(h=>a.jsx("option",{value:h.fileName,children:h.fileName},h.fileName))]})]}),a.jsxs("button",{className:"btn warning",type:"button",onClick:()=>void Qc(),disabled:ie.restore,children:[a.jsx(ds,{size:15})," ",O("backupRestore")]})]}),a.jsxs("label",{className:"field",children:[a.jsx("span",{children:O("importJson")}),a.jsx("textarea",{value:j,onChange:h=>N(h.target.value)})]}),a.jsxs("button",{className:"btn subtle",type:"button",onClick:()=>void $c(),disabled:ie.importJson,children:[a.jsx(ms,{size:15})," ",O("importJson")]}),a.jsxs("label",{className:"field",children:[a.jsx("span",{children:O("importCsv")}),a.jsx("textarea",{value:z,onChange:h=>W(h.target.value)})]}),a.jsxs("button",{className:"btn subtle",type:"button",onClick:()=>void Hc(),disabled:ie.importCsv,children:[a.jsx(ms,{size:15})," ",O("importCsv")]}),a.jsx("p",{className:`message ${T.data.tone}`,children:T.data.text})]}),a.jsxs("article",{className:"card panel",children:[a.jsx("header",{children:a.jsx("h2",{children:O("config")})}),a.jsxs("form",{onSubmit:Fc,children:[a.jsx("div",{className:"config-stack",children:$p.map(h=>a.jsxs("section",{className:"config-group",children:[a.jsx("div",{className:"config-group-head",children:a.jsx("h3",{children:h.title})}),a.jsx("div",{className:"config-grid",children:h.keys.map(P=>{const ae=Hp[P]??{key:P,label:P};return a.jsxs("label",{className:"field",children:[a.jsx("span",{children:ae.label}),a.jsx("input",{value:o[ae.key]??"",placeholder:ae.placeholder??"",onChange:Nn=>u(Jc=>({...Jc,[ae.key]:Nn.target.value}))})]},ae.key)})})]},h.title))}),a.jsx("div",{className:"button-row",children:a.jsxs("button",{className:"btn primary",type:"submit",disabled:ie.config,children:[a.jsx(In,{size:16})," ",O("save")]})}),a.jsx("p",{className:`message ${T.config.tone}`,children:T.config.text})]})]})]})]})]}),a.jsx("aside",{className:`toast ${Ae.visible?"show":""} ${Ae.tone}`,children:Ae.text})]})}si.createRoot(document.getElementById("root")).render(a.jsx(dd.StrictMode,{children:a.jsx(Yp,{})}));